@@ -0,0 +1,220 @@
+package com.yourorg.portfolio.benchmark;
+
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import com.yourorg.portfolio.model.Investment;
+import com.yourorg.portfolio.model.Portfolio;
+import com.yourorg.portfolio.model.Stock;
+import com.yourorg.portfolio.model.User;
+import com.yourorg.portfolio.repository.InvestmentRepository;
+import com.yourorg.portfolio.repository.PositionRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Deterministic portfolios, price histories and provider payloads shared by the benchmarks.
+ * Large portfolios hold several lots per symbol, as real ones do, so the symbol universe is capped.
+ */
+public final class Fixtures {
+
+    public static final long SEED = 42L;
+    public static final int MAX_SYMBOLS = 2_000;
+
+    private static final String[] SECTORS = {"Technology", "Healthcare", "Financial Services", "Energy",
+        "Consumer Defensive", "Consumer Cyclical", "Utilities", "Industrials"};
+
+    private Fixtures() {}
+
+    public static String symbol(int index) {
+        return String.format("S%04d", index);
+    }
+
+    public static int symbolCount(int holdings) {
+        return Math.min(holdings, MAX_SYMBOLS);
+    }
+
+    public static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("bench");
+        user.setFirstName("Bench");
+        user.setLastName("Mark");
+        return user;
+    }
+
+    public static Portfolio portfolio() {
+        Portfolio portfolio = new Portfolio();
+        portfolio.setId(1L);
+        portfolio.setName("Benchmark");
+        portfolio.setUser(user());
+        return portfolio;
+    }
+
+    public static List<Stock> stocks(int count) {
+        List<Stock> stocks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Stock stock = new Stock(symbol(i), "Company " + i);
+            stock.setId((long) i + 1);
+            stock.setSector(SECTORS[i % SECTORS.length]);
+            stock.setIndustry(SECTORS[i % SECTORS.length] + " " + (i % 5));
+            stocks.add(stock);
+        }
+        return stocks;
+    }
+
+    public static List<Investment> investments(int holdings) {
+        Random random = new Random(SEED);
+        List<Stock> stocks = stocks(symbolCount(holdings));
+        Portfolio portfolio = portfolio();
+        List<Investment> investments = new ArrayList<>(holdings);
+        for (int i = 0; i < holdings; i++) {
+            Investment investment = new Investment();
+            investment.setId((long) i + 1);
+            investment.setPortfolio(portfolio);
+            investment.setStock(stocks.get(i % stocks.size()));
+            investment.setQuantity(1 + random.nextInt(500));
+            investment.setBuyPrice(price(random));
+            investment.setBuyDate(LocalDate.of(2023, 1, 1).plusDays(random.nextInt(365)));
+            investments.add(investment);
+        }
+        return investments;
+    }
+
+    public static List<InvestmentRepository.HoldingRow> holdingRows(int holdings) {
+        List<InvestmentRepository.HoldingRow> rows = new ArrayList<>(holdings);
+        for (Investment investment : investments(holdings)) {
+            rows.add(new Row(investment));
+        }
+        return rows;
+    }
+
+    /**
+     * The positions the lots of investments(holdings) roll up to, one per symbol, ordered by symbol
+     */
+    public static List<PositionRepository.PositionRow> positionRows(int holdings) {
+        Map<Stock, PositionTotals> totals = new LinkedHashMap<>();
+        for (Investment investment : investments(holdings)) {
+            totals.computeIfAbsent(investment.getStock(), stock -> new PositionTotals()).add(investment);
+        }
+        List<PositionRepository.PositionRow> rows = new ArrayList<>(totals.size());
+        totals.forEach((stock, total) ->
+            rows.add(new PositionRowImpl(stock, total.quantity, total.cost, total.lots)));
+        return rows;
+    }
+
+    public static Map<String, StockPriceDTO> quotes(int symbols) {
+        Random random = new Random(SEED + 1);
+        Map<String, StockPriceDTO> quotes = new LinkedHashMap<>();
+        for (int i = 0; i < symbols; i++) {
+            StockPriceDTO quote = new StockPriceDTO(symbol(i), price(random));
+            quote.setSource("benchmark");
+            quotes.put(symbol(i), quote);
+        }
+        return quotes;
+    }
+
+    /**
+     * Geometric random walks with about 1.5% daily volatility, one row per symbol
+     */
+    public static double[][] closes(int symbols, int days) {
+        Random random = new Random(SEED + 2);
+        double[][] closes = new double[symbols][days];
+        for (int s = 0; s < symbols; s++) {
+            double close = 20 + random.nextDouble() * 480;
+            for (int d = 0; d < days; d++) {
+                closes[s][d] = close;
+                close *= Math.exp(random.nextGaussian() * 0.015);
+            }
+        }
+        return closes;
+    }
+
+    public static byte[] payload(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/payloads/" + name)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No payload " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Interface stub answering the named methods; anything else throws, so a benchmark notices
+     * when the code under test starts making calls the fixture does not model
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "toString":
+                    return "stub " + type.getSimpleName();
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer == null) {
+                        throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+                    }
+                    return answer.apply(args);
+            }
+        });
+    }
+
+    public static Map<String, StockPriceDTO> asMap(Collection<StockPriceDTO> quotes) {
+        Map<String, StockPriceDTO> map = new LinkedHashMap<>();
+        quotes.forEach(quote -> map.put(quote.getSymbol(), quote));
+        return map;
+    }
+
+    private static BigDecimal price(Random random) {
+        return BigDecimal.valueOf(20 + random.nextDouble() * 480).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private record Row(Investment investment) implements InvestmentRepository.HoldingRow {
+        @Override public Long getInvestmentId() { return investment.getId(); }
+        @Override public String getSymbol() { return investment.getStock().getSymbol(); }
+        @Override public String getCompanyName() { return investment.getStock().getCompanyName(); }
+        @Override public Integer getQuantity() { return investment.getQuantity(); }
+        @Override public BigDecimal getBuyPrice() { return investment.getBuyPrice(); }
+        @Override public LocalDate getBuyDate() { return investment.getBuyDate(); }
+        @Override public BigDecimal getCashBalance() { return new BigDecimal("10000.00"); }
+    }
+
+    private static final class PositionTotals {
+        int quantity;
+        BigDecimal cost = BigDecimal.ZERO;
+        int lots;
+
+        void add(Investment investment) {
+            quantity += investment.getQuantity();
+            cost = cost.add(investment.getBuyPrice().multiply(BigDecimal.valueOf(investment.getQuantity())));
+            lots++;
+        }
+    }
+
+    private record PositionRowImpl(Stock stock, int quantity, BigDecimal cost, int lots)
+            implements PositionRepository.PositionRow {
+        @Override public Long getPositionId() { return stock.getId(); }
+        @Override public String getSymbol() { return stock.getSymbol(); }
+        @Override public String getCompanyName() { return stock.getCompanyName(); }
+        @Override public Integer getQuantity() { return quantity; }
+        @Override public BigDecimal getCostBasis() { return cost; }
+        @Override public Integer getLotCount() { return lots; }
+    }
+}
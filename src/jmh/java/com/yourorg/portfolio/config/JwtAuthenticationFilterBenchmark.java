@@ -0,0 +1,76 @@
+package com.yourorg.portfolio.config;
+
+import com.yourorg.portfolio.service.TokenRevocationService;
+import com.yourorg.portfolio.util.JwtUtil;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the authentication filter: header parsing, token verification (full or
+ * from the verified-token cache), the revocation check and populating the security context.
+ * The revocation set holds 10000 other tokens so the bloom filter is realistically loaded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"0", "10000"})
+    public int verifiedCacheSize;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    private final FilterChain chain = (request, response) -> SecurityContextHolder.clearContext();
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil("benchmark-secret-key-that-is-at-least-256-bits-long",
+            86_400_000L, verifiedCacheSize, Clock.systemUTC());
+        TokenRevocationService revocations = new TokenRevocationService(jwtUtil, 100_000, 0.01);
+        for (long i = 0; i < 10_000; i++) {
+            revocations.revoke(jwtUtil.generateToken(i + 1_000_000, "revoked" + i));
+        }
+        filter = new JwtAuthenticationFilter(jwtUtil, revocations);
+        authorization = "Bearer " + jwtUtil.generateToken(1L, "bench");
+    }
+
+    @Benchmark
+    public MockHttpServletRequest authenticated() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/portfolio/1");
+        request.addHeader("Authorization", authorization);
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return request;
+    }
+
+    /**
+     * Baseline: the same request without a token, i.e. the mock request plus the filter plumbing
+     */
+    @Benchmark
+    public MockHttpServletRequest anonymous() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/portfolio/1");
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return request;
+    }
+}
@@ -0,0 +1,165 @@
+package com.yourorg.portfolio.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows/sec for the statements Hibernate issues when saving investments, before and after pooled
+ * ids. "identity" is one INSERT and generated-key read per row, all IDENTITY allows; "pooled"
+ * reserves 50 ids with one id_sequences update and sends the rows as JDBC batches of 50.
+ * Runs against in-memory H2 by default; for the MySQL numbers (where rewriteBatchedStatements
+ * matters most) pass e.g.
+ * -p jdbcUrl="jdbc:mysql://localhost:3306/bench?rewriteBatchedStatements=true" -p user=root -p password=...
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBatchingBenchmark {
+
+    private static final int ROWS = 1_000;
+    private static final int BATCH_SIZE = 50;
+
+    private static final String INSERT_IDENTITY =
+        "INSERT INTO bench_investments (portfolio_id, stock_id, quantity, buy_price, buy_date) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_WITH_ID =
+        "INSERT INTO bench_investments (id, portfolio_id, stock_id, quantity, buy_price, buy_date) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Param({"jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1"})
+    public String jdbcUrl;
+
+    @Param({"sa"})
+    public String user;
+
+    @Param({""})
+    public String password;
+
+    private Connection connection;
+    private final Date buyDate = Date.valueOf(LocalDate.of(2024, 1, 2));
+    private final BigDecimal buyPrice = new BigDecimal("150.00");
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(jdbcUrl, user, password);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_investments");
+            statement.execute("DROP TABLE IF EXISTS bench_id_sequences");
+            statement.execute("CREATE TABLE bench_investments (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "portfolio_id BIGINT NOT NULL, stock_id BIGINT NOT NULL, quantity INT NOT NULL, " +
+                "buy_price DECIMAL(10, 2) NOT NULL, buy_date DATE NOT NULL)");
+            statement.execute("CREATE TABLE bench_id_sequences (sequence_name VARCHAR(64) PRIMARY KEY, next_val BIGINT NOT NULL)");
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetTables() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM bench_investments");
+            statement.execute("DELETE FROM bench_id_sequences");
+            // Far above anything AUTO_INCREMENT hands out in the identity runs
+            statement.execute("INSERT INTO bench_id_sequences VALUES ('investments', 1000000000)");
+        }
+        connection.commit();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long identity() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_IDENTITY, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ROWS; i++) {
+                bind(insert, 1, i);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    lastId = keys.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long pooled() throws SQLException {
+        long nextId = 0;
+        long blockEnd = -1;
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_WITH_ID)) {
+            for (int i = 0; i < ROWS; i++) {
+                if (nextId > blockEnd) {
+                    blockEnd = reserveBlock();
+                    nextId = blockEnd - BATCH_SIZE + 1;
+                }
+                insert.setLong(1, nextId++);
+                bind(insert, 2, i);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return nextId;
+    }
+
+    /**
+     * What the pooled TableGenerator does once per allocationSize ids (Hibernate uses a separate
+     * transaction for it; here it simply shares the insert transaction)
+     */
+    private long reserveBlock() throws SQLException {
+        long end;
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT next_val FROM bench_id_sequences WHERE sequence_name = 'investments' FOR UPDATE");
+             ResultSet rs = select.executeQuery()) {
+            rs.next();
+            end = rs.getLong(1);
+        }
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE bench_id_sequences SET next_val = ? WHERE sequence_name = 'investments'")) {
+            update.setLong(1, end + BATCH_SIZE);
+            update.executeUpdate();
+        }
+        return end;
+    }
+
+    private void bind(PreparedStatement insert, int first, int row) throws SQLException {
+        insert.setLong(first, 1 + row % 10);
+        insert.setLong(first + 1, 1 + row % 100);
+        insert.setInt(first + 2, 1 + row % 50);
+        insert.setBigDecimal(first + 3, buyPrice);
+        insert.setDate(first + 4, buyDate);
+    }
+}
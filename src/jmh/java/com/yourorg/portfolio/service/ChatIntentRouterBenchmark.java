@@ -0,0 +1,131 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.util.KeywordMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chatbot message routing: ChatIntentRouter against the String.contains chain it replaced, over
+ * typical messages; and one KeywordMatcher pass against one contains scan per keyword as the
+ * number of keywords grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatIntentRouterBenchmark {
+
+    private static final String LONG_MESSAGE =
+        "Can you explain the difference between ETFs and mutual funds and which is better for retirement?";
+
+    private static final String[] MESSAGES = {
+        "📉 Suggest Stocks to Sell",
+        "What is my portfolio value?",
+        "How risky is my portfolio compared to the market right now?",
+        "I don't want to sell, what should I buy?",
+        LONG_MESSAGE,
+        "what should I do next?"
+    };
+
+    /**
+     * Synthetic keywords for the scaling comparison, so routing benchmarks are not run per count
+     */
+    @State(Scope.Benchmark)
+    public static class Keywords {
+        @Param({"10", "100", "1000"})
+        public int count;
+
+        private List<String> list;
+        private KeywordMatcher<String> matcher;
+
+        @Setup
+        public void setUp() {
+            list = new ArrayList<>();
+            KeywordMatcher.Builder<String> builder = KeywordMatcher.builder();
+            for (int i = 0; i < count; i++) {
+                String keyword = "intent" + i + " keyword";
+                list.add(keyword);
+                builder.add(keyword, keyword);
+            }
+            matcher = builder.build();
+        }
+    }
+
+    @Benchmark
+    public int route() {
+        int routed = 0;
+        for (String message : MESSAGES) {
+            if (ChatIntentRouter.route(message) != null) {
+                routed++;
+            }
+        }
+        return routed;
+    }
+
+    @Benchmark
+    public int containsChain() {
+        int routed = 0;
+        for (String message : MESSAGES) {
+            if (containsChain(message.toLowerCase().trim()) != null) {
+                routed++;
+            }
+        }
+        return routed;
+    }
+
+    @Benchmark
+    public int matcherScan(Keywords keywords) {
+        int[] found = {0};
+        keywords.matcher.scan(LONG_MESSAGE, (value, first, last) -> found[0]++);
+        return found[0];
+    }
+
+    @Benchmark
+    public int containsScan(Keywords keywords) {
+        String lower = LONG_MESSAGE.toLowerCase();
+        int found = 0;
+        for (String keyword : keywords.list) {
+            if (lower.contains(keyword)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * The routing ChatbotService did before ChatIntentRouter
+     */
+    private static String containsChain(String message) {
+        if (message.contains("recommend") || message.contains("buy") || message.contains("suggest stocks")) {
+            return "buy";
+        }
+        if (message.contains("sell") || message.contains("suggest sell")) {
+            return "sell";
+        }
+        if (message.contains("portfolio value") || message.contains("total value") || message.contains("worth")) {
+            return "value";
+        }
+        if (message.contains("risk") || message.contains("risky") || message.contains("volatility")) {
+            return "risk";
+        }
+        if (message.contains("holdings") || message.contains("stocks") || message.contains("investments")) {
+            return "holdings";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,126 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.benchmark.Fixtures;
+import com.yourorg.portfolio.dto.PortfolioDTO;
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import com.yourorg.portfolio.model.BankAccount;
+import com.yourorg.portfolio.model.Portfolio;
+import com.yourorg.portfolio.repository.BankAccountRepository;
+import com.yourorg.portfolio.repository.InvestmentRepository;
+import com.yourorg.portfolio.repository.PortfolioRepository;
+import com.yourorg.portfolio.repository.PositionRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PortfolioService.getPortfolioByUserId end to end minus the database: repositories are stubs
+ * returning pre-built rows and every quote is a cache hit, so the score is the valuation loop,
+ * the quote cache lookups and the DTO assembly. buildPortfolio reads the cached incremental
+ * valuation, recomputeValuation rebuilds it from the per-symbol positions as a first read does,
+ * buildLots values every lot, which is what buildPortfolio did before positions existed, and
+ * quoteTick is the per-tick cost of keeping the cached valuation current.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PortfolioValuationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int holdings;
+
+    private PortfolioService portfolioService;
+    private PortfolioValuationService valuationService;
+    private PortfolioValuationCache valuationCache;
+    private StockPriceDTO tick;
+    private List<PortfolioDTO.HoldingDTO> holdingDTOs;
+    private Map<String, StockPriceDTO> quotes;
+
+    @Setup
+    public void setUp() {
+        Portfolio portfolio = Fixtures.portfolio();
+        List<InvestmentRepository.HoldingRow> rows = Fixtures.holdingRows(holdings);
+        List<PositionRepository.PositionRow> positionRows = Fixtures.positionRows(holdings);
+        quotes = Fixtures.quotes(Fixtures.symbolCount(holdings));
+
+        QuoteCache quoteCache = new QuoteCache(Duration.ofDays(1), quotes.size(), Clock.systemUTC());
+        quotes.forEach(quoteCache::put);
+        StockApiClient stockApiClient = new StockApiClient(List.of(),
+            new StockApiClient.Options(false, Duration.ofSeconds(1), Duration.ofSeconds(1), 5, Duration.ofSeconds(30)),
+            Clock.systemUTC());
+        StockService stockService = new StockService(null, stockApiClient, quoteCache);
+
+        PortfolioRepository portfolioRepository = Fixtures.stub(PortfolioRepository.class,
+            Map.of("findByUserId", args -> Optional.of(portfolio)));
+        InvestmentRepository investmentRepository = Fixtures.stub(InvestmentRepository.class,
+            Map.of("findHoldingRowsByPortfolioId", args -> rows));
+        PositionRepository positionRepository = Fixtures.stub(PositionRepository.class,
+            Map.of("findPositionRowsByPortfolioId", args -> positionRows));
+        BankAccount bankAccount = new BankAccount(portfolio.getUser(), "ACC1", "Bank", new BigDecimal("50000.00"));
+        BankAccountRepository bankAccountRepository = Fixtures.stub(BankAccountRepository.class,
+            Map.of("findByUserId", args -> Optional.of(bankAccount)));
+        UserService userService = new UserService(null, bankAccountRepository, null, null, null);
+
+        valuationCache = new PortfolioValuationCache();
+        valuationService = new PortfolioValuationService(valuationCache, positionRepository, stockService,
+            Duration.ofDays(1), Clock.systemUTC());
+        portfolioService = new PortfolioService(portfolioRepository, investmentRepository,
+            null, stockService, userService, null, null, valuationService);
+        tick = new StockPriceDTO(positionRows.get(0).getSymbol(), new BigDecimal("123.45"));
+
+        holdingDTOs = portfolioService.getPortfolioByUserId(1L).getHoldings();
+    }
+
+    @Benchmark
+    public PortfolioDTO buildPortfolio() {
+        return portfolioService.getPortfolioByUserId(1L);
+    }
+
+    @Benchmark
+    public PortfolioValuation.Snapshot recomputeValuation() {
+        valuationCache.invalidate(1L);
+        return valuationService.getValuation(1L);
+    }
+
+    @Benchmark
+    public void quoteTick() {
+        valuationCache.onQuote(tick);
+    }
+
+    @Benchmark
+    public List<PortfolioDTO.HoldingDTO> buildLots() {
+        return portfolioService.getLotsByUserId(1L);
+    }
+
+    /**
+     * Only the BigDecimal arithmetic of the valuation loop, without the quote cache or DTO assembly
+     */
+    @Benchmark
+    public BigDecimal revalueHoldings() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (PortfolioDTO.HoldingDTO holding : holdingDTOs) {
+            PortfolioService.valueHolding(holding, quotes.get(holding.getSymbol()).getCurrentPrice());
+            total = total.add(holding.getCurrentValue());
+        }
+        return total;
+    }
+}
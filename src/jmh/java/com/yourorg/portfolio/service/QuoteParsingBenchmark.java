@@ -0,0 +1,62 @@
+package com.yourorg.portfolio.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yourorg.portfolio.benchmark.Fixtures;
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provider payload to StockPriceDTO: the JSON decode WebClient performs plus each provider's mapping,
+ * over canned responses captured from the real APIs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuoteParsingBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] alphaVantage;
+    private byte[] finnhub;
+    private byte[] yahooFinance;
+
+    @Setup
+    public void setUp() {
+        alphaVantage = Fixtures.payload("alpha-vantage.json");
+        finnhub = Fixtures.payload("finnhub.json");
+        yahooFinance = Fixtures.payload("yahoo-finance.json");
+    }
+
+    @Benchmark
+    public StockPriceDTO alphaVantage() throws IOException {
+        return AlphaVantageQuoteProvider.parse("AAPL", objectMapper.readValue(alphaVantage, MAP_TYPE));
+    }
+
+    @Benchmark
+    public StockPriceDTO finnhub() throws IOException {
+        return FinnhubQuoteProvider.parse("AAPL", objectMapper.readValue(finnhub, MAP_TYPE));
+    }
+
+    @Benchmark
+    public StockPriceDTO yahooFinance() throws IOException {
+        return YahooFinanceQuoteProvider.parse("AAPL", objectMapper.readValue(yahooFinance, MAP_TYPE));
+    }
+}
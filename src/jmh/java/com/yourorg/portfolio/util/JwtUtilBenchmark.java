@@ -0,0 +1,59 @@
+package com.yourorg.portfolio.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and the verify path every authenticated request pays. A verified-cache size of 0
+ * is the full signature check on every call; 10000 is the configured default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    @Param({"0", "10000"})
+    public int verifiedCacheSize;
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil("benchmark-secret-key-that-is-at-least-256-bits-long",
+            86_400_000L, verifiedCacheSize, Clock.systemUTC());
+        token = jwtUtil.generateToken(1L, "bench");
+    }
+
+    @Benchmark
+    public String issue() {
+        return jwtUtil.generateToken(1L, "bench");
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return jwtUtil.validateToken(token, "bench");
+    }
+
+    @Benchmark
+    public Long userIdFromToken() {
+        return jwtUtil.getUserIdFromToken(token);
+    }
+}
@@ -0,0 +1,55 @@
+package com.yourorg.portfolio.util;
+
+import com.yourorg.portfolio.benchmark.Fixtures;
+import com.yourorg.portfolio.model.Investment;
+import com.yourorg.portfolio.model.RiskProfile;
+import com.yourorg.portfolio.model.Stock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecommendationEngineBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int holdings;
+
+    private RiskProfile riskProfile;
+    private List<Investment> investments;
+    private List<Stock> availableStocks;
+
+    @Setup
+    public void setUp() {
+        riskProfile = new RiskProfile();
+        riskProfile.setRiskCategory(RiskProfile.RiskCategory.CONSERVATIVE);
+        investments = Fixtures.investments(holdings);
+        availableStocks = Fixtures.stocks(Fixtures.MAX_SYMBOLS);
+    }
+
+    @Benchmark
+    public List<String> recommendStocksToBuy() {
+        return RecommendationEngine.recommendStocksToBuy(riskProfile, investments, availableStocks);
+    }
+
+    @Benchmark
+    public List<String> recommendStocksToSell() {
+        return RecommendationEngine.recommendStocksToSell(riskProfile, investments, new BigDecimal("120.00"), null);
+    }
+}
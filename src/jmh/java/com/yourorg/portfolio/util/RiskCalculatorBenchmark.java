@@ -0,0 +1,91 @@
+package com.yourorg.portfolio.util;
+
+import com.yourorg.portfolio.benchmark.Fixtures;
+import com.yourorg.portfolio.model.Investment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Risk scoring over one year of daily closes. The covariance matrix is quadratic in the number of
+ * distinct symbols, so the 100k-holding portfolio is represented by its capped symbol universe.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RiskCalculatorBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int holdings;
+
+    private double[][] closes;
+    private double[][] returns;
+    private double[] weights;
+    private double[] portfolioReturns;
+    private String[] sectors;
+    private String[] industries;
+    private List<Investment> investments;
+
+    @Setup
+    public void setUp() {
+        int symbols = Fixtures.symbolCount(holdings);
+        closes = Fixtures.closes(symbols, RiskCalculator.TRADING_DAYS_PER_YEAR + 1);
+        returns = RiskCalculator.logReturns(closes);
+        weights = new double[symbols];
+        Arrays.fill(weights, 1.0 / symbols);
+        portfolioReturns = RiskCalculator.portfolioReturns(weights, returns);
+        sectors = new String[symbols];
+        industries = new String[symbols];
+        investments = Fixtures.investments(holdings);
+        for (int i = 0; i < symbols; i++) {
+            sectors[i] = investments.get(i).getStock().getSector();
+            industries[i] = investments.get(i).getStock().getIndustry();
+        }
+    }
+
+    @Benchmark
+    public double[][] logReturns() {
+        return RiskCalculator.logReturns(closes);
+    }
+
+    @Benchmark
+    public double portfolioVolatility() {
+        return RiskCalculator.portfolioVolatility(weights, RiskCalculator.covarianceMatrix(returns));
+    }
+
+    @Benchmark
+    public double historicalVaR() {
+        return RiskCalculator.historicalVaR(portfolioReturns, 0.95)
+            + RiskCalculator.historicalCVaR(portfolioReturns, 0.95);
+    }
+
+    @Benchmark
+    public BigDecimal diversificationScore() {
+        return RiskCalculator.calculateDiversificationScore(weights, sectors, industries);
+    }
+
+    /**
+     * The sector heuristic used when no price history is available
+     */
+    @Benchmark
+    public BigDecimal heuristicScores() {
+        return RiskCalculator.calculateVolatilityScore(investments)
+            .add(RiskCalculator.calculateDiversificationScore(investments));
+    }
+}
@@ -0,0 +1,21 @@
+package com.yourorg.portfolio.config;
+
+import org.springframework.security.access.AccessDeniedException;
+
+import java.util.Objects;
+
+/**
+ * Principal of a request authenticated by its bearer token, built from the token's claims alone
+ */
+public record AuthenticatedUser(Long userId, String username) {
+
+    /**
+     * Reject a request made for another user than the one its token was issued to. Requests
+     * without a token, which only get this far with jwt.enforce=false, are not checked.
+     */
+    public static void requireSelf(AuthenticatedUser principal, Long userId) {
+        if (principal != null && !Objects.equals(principal.userId(), userId)) {
+            throw new AccessDeniedException("Access denied to the data of user " + userId);
+        }
+    }
+}
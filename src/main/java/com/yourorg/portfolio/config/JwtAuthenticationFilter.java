@@ -0,0 +1,84 @@
+package com.yourorg.portfolio.config;
+
+import com.yourorg.portfolio.service.TokenRevocationService;
+import com.yourorg.portfolio.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates requests carrying a bearer token from the userId and username claims JwtUtil
+ * embeds at login, so the hot path never loads the user from the database. Requests without a
+ * usable token continue unauthenticated; SecurityConfig decides whether that is allowed.
+ * Registered by SecurityConfig rather than as a component, so it only runs inside the security chain.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final List<GrantedAuthority> USER_AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationService revocations;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, TokenRevocationService revocations) {
+        this.jwtUtil = jwtUtil;
+        this.revocations = revocations;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = resolveToken(request.getHeader(HttpHeaders.AUTHORIZATION));
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            authenticate(token);
+        }
+        chain.doFilter(request, response);
+    }
+
+    private void authenticate(String token) {
+        Claims claims;
+        try {
+            claims = jwtUtil.getAllClaimsFromToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Rejected bearer token: {}", e.getMessage());
+            return;
+        }
+        if (revocations.isRevoked(token)) {
+            logger.debug("Rejected revoked bearer token for {}", claims.getSubject());
+            return;
+        }
+
+        AuthenticatedUser principal = new AuthenticatedUser(claims.get("userId", Long.class), claims.getSubject());
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(principal, null, USER_AUTHORITIES));
+        SecurityContextHolder.setContext(context);
+    }
+
+    /**
+     * The token of an {@code Authorization: Bearer} header, or null when there is none
+     */
+    public static String resolveToken(String authorizationHeader) {
+        if (authorizationHeader == null || !authorizationHeader.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return null;
+        }
+        String token = authorizationHeader.substring(BEARER_PREFIX.length()).trim();
+        return token.isEmpty() ? null : token;
+    }
+}
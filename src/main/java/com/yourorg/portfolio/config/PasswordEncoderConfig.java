@@ -0,0 +1,68 @@
+package com.yourorg.portfolio.config;
+
+import com.yourorg.portfolio.util.OffloadingPasswordEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Configuration
+public class PasswordEncoderConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+
+    private static final String BCRYPT = "bcrypt";
+
+    /**
+     * New hashes are stored as {bcrypt} at the configured cost, or when bcrypt-strength is 0 at the
+     * cost that takes about target-hash-ms on this machine. Hashes without an {id} prefix (all
+     * rows written before this encoder) are matched as bcrypt, and UserService.login rehashes
+     * any stored hash whose id or cost is out of date.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:0}") int bcryptStrength,
+                                           @Value("${security.password.target-hash-ms:250}") long targetHashMs,
+                                           @Value("${security.password.min-strength:10}") int minStrength,
+                                           @Value("${security.password.max-strength:14}") int maxStrength,
+                                           @Value("${security.password.hashing-threads:0}") int hashingThreads,
+                                           @Value("${security.password.queue-capacity:64}") int queueCapacity,
+                                           @Value("${security.password.timeout-ms:5000}") long timeoutMs) {
+        int strength = bcryptStrength > 0
+            ? bcryptStrength
+            : calibrateBCryptStrength(Duration.ofMillis(targetHashMs), minStrength, maxStrength);
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        logger.info("BCrypt cost {} ({}), hashing on {} threads with a queue of {}",
+            strength, bcryptStrength > 0 ? "configured" : "calibrated to " + targetHashMs + "ms", threads, queueCapacity);
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new OffloadingPasswordEncoder(delegating, threads, queueCapacity, Duration.ofMillis(timeoutMs));
+    }
+
+    /**
+     * Each BCrypt cost step doubles the work, so one timing at the minimum cost predicts the rest
+     */
+    static int calibrateBCryptStrength(Duration target, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode("calibration");
+
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+
+        double doublings = Math.log((double) target.toNanos() / fastest) / Math.log(2);
+        int strength = minStrength + (int) Math.floor(doublings);
+        return Math.max(minStrength, Math.min(maxStrength, strength));
+    }
+}
@@ -1,35 +1,56 @@
 package com.yourorg.portfolio.config;
 
+import com.yourorg.portfolio.service.TokenRevocationService;
+import com.yourorg.portfolio.util.JwtUtil;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
-    
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-    
+
+    /**
+     * Bearer tokens are always honoured when present. With jwt.enforce=false (the default, until
+     * every client sends one) unauthenticated requests are still let through. With
+     * jwt.enforce=true only /api/** requires a token, apart from signup and login: the bundled
+     * pages, scripts and styles stay public, and app.js sends the token it keeps from login on
+     * every API call, streams included, which it reads with fetch because EventSource cannot
+     * send headers.
+     */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   JwtUtil jwtUtil,
+                                                   TokenRevocationService revocations,
+                                                   @Value("${jwt.enforce:false}") boolean enforce) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
-            .authorizeHttpRequests(auth -> auth
-                .anyRequest().permitAll() // Allow all requests for now (can be secured later with JWT)
-            )
+            .authorizeHttpRequests(auth -> {
+                if (enforce) {
+                    auth
+                        .requestMatchers(HttpMethod.POST, "/api/users", "/api/users/signup", "/api/users/login").permitAll()
+                        .requestMatchers("/api/**").authenticated()
+                        .anyRequest().permitAll();
+                } else {
+                    auth.anyRequest().permitAll();
+                }
+            })
             .sessionManagement(session -> session
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
-            );
-        
+            )
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+            )
+            .addFilterBefore(new JwtAuthenticationFilter(jwtUtil, revocations), UsernamePasswordAuthenticationFilter.class);
+
         return http.build();
     }
 }
-
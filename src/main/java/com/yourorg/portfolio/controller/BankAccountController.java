@@ -1,61 +1,82 @@
 package com.yourorg.portfolio.controller;
 
+import com.yourorg.portfolio.config.AuthenticatedUser;
+import com.yourorg.portfolio.dto.BalanceAtDTO;
 import com.yourorg.portfolio.dto.BankAccountDTO;
 import com.yourorg.portfolio.dto.BankAccountRequestDTO;
+import com.yourorg.portfolio.dto.BankTransactionPageDTO;
 import com.yourorg.portfolio.dto.TransactionRequestDTO;
+import com.yourorg.portfolio.service.LedgerService;
 import com.yourorg.portfolio.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+
 @RestController
 @RequestMapping("/api/bank-account")
 @CrossOrigin(origins = "*")
 public class BankAccountController {
     
     private final UserService userService;
+    private final LedgerService ledgerService;
     
     @Autowired
-    public BankAccountController(UserService userService) {
+    public BankAccountController(UserService userService, LedgerService ledgerService) {
         this.userService = userService;
+        this.ledgerService = ledgerService;
     }
     
     @GetMapping("/user/{userId}")
-    public ResponseEntity<BankAccountDTO> getBankAccount(@PathVariable Long userId) {
+    public ResponseEntity<BankAccountDTO> getBankAccount(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @PathVariable Long userId) {
+        AuthenticatedUser.requireSelf(principal, userId);
         BankAccountDTO account = userService.getBankAccountDTO(userId);
         return ResponseEntity.ok(account);
     }
     
     @PostMapping("/user/{userId}/create")
     public ResponseEntity<BankAccountDTO> createBankAccount(
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable Long userId,
             @Valid @RequestBody BankAccountRequestDTO request) {
+        AuthenticatedUser.requireSelf(principal, userId);
         BankAccountDTO account = userService.createBankAccount(userId, request);
         return new ResponseEntity<>(account, HttpStatus.CREATED);
     }
     
     @PutMapping("/user/{userId}/update")
     public ResponseEntity<BankAccountDTO> updateBankAccount(
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable Long userId,
             @Valid @RequestBody BankAccountRequestDTO request) {
+        AuthenticatedUser.requireSelf(principal, userId);
         BankAccountDTO account = userService.updateBankAccount(userId, request);
         return ResponseEntity.ok(account);
     }
     
     @PostMapping("/user/{userId}/deposit")
     public ResponseEntity<BankAccountDTO> deposit(
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable Long userId,
             @Valid @RequestBody TransactionRequestDTO request) {
+        AuthenticatedUser.requireSelf(principal, userId);
         BankAccountDTO account = userService.deposit(userId, request.getAmount(), request.getDescription());
         return ResponseEntity.ok(account);
     }
     
     @PostMapping("/user/{userId}/withdraw")
     public ResponseEntity<?> withdraw(
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable Long userId,
             @Valid @RequestBody TransactionRequestDTO request) {
+        AuthenticatedUser.requireSelf(principal, userId);
         try {
             BankAccountDTO account = userService.withdraw(userId, request.getAmount(), request.getDescription());
             return ResponseEntity.ok(account);
@@ -64,6 +85,28 @@ public class BankAccountController {
         }
     }
     
+    /**
+     * Ledger entries newest first; pass the returned nextCursor as {@code before} for older ones
+     */
+    @GetMapping("/user/{userId}/transactions")
+    public ResponseEntity<BankTransactionPageDTO> getTransactions(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "50") int limit) {
+        AuthenticatedUser.requireSelf(principal, userId);
+        return ResponseEntity.ok(ledgerService.getTransactions(userId, before, limit));
+    }
+    
+    @GetMapping("/user/{userId}/balance")
+    public ResponseEntity<BalanceAtDTO> getBalanceAt(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @PathVariable Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        AuthenticatedUser.requireSelf(principal, userId);
+        return ResponseEntity.ok(ledgerService.getBalanceAt(userId, at));
+    }
+    
     // Simple error response class
     private static class ErrorResponse {
         private String message;
@@ -1,12 +1,20 @@
 package com.yourorg.portfolio.controller;
 
+import com.yourorg.portfolio.config.AuthenticatedUser;
+import com.yourorg.portfolio.dto.ChatResponseCacheStatsDTO;
+import com.yourorg.portfolio.dto.ChatbotChunkDTO;
 import com.yourorg.portfolio.dto.ChatbotRequestDTO;
 import com.yourorg.portfolio.dto.ChatbotResponseDTO;
 import com.yourorg.portfolio.service.ChatbotService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api/chatbot")
@@ -20,14 +28,46 @@ public class ChatbotController {
         this.chatbotService = chatbotService;
     }
     
+    /**
+     * The complete answer; the request thread is released while the model answers
+     */
     @PostMapping("/chat")
-    public ResponseEntity<ChatbotResponseDTO> chat(@Valid @RequestBody ChatbotRequestDTO request) {
-        ChatbotResponseDTO response = chatbotService.processMessage(request);
-        return ResponseEntity.ok(response);
+    public Mono<ResponseEntity<ChatbotResponseDTO>> chat(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @Valid @RequestBody ChatbotRequestDTO request) {
+        AuthenticatedUser.requireSelf(principal, request.getUserId());
+        return chatbotService.respond(request).map(ResponseEntity::ok);
+    }
+    
+    /**
+     * Server-Sent Events: `token` events with text as the model produces it, then one `done`
+     * event with the complete response
+     */
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> chatStream(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @Valid @RequestBody ChatbotRequestDTO request) {
+        AuthenticatedUser.requireSelf(principal, request.getUserId());
+        return chatbotService.streamMessage(request).map(ChatbotController::toEvent);
+    }
+    
+    private static ServerSentEvent<Object> toEvent(ChatbotChunkDTO chunk) {
+        if (chunk.isDone()) {
+            return ServerSentEvent.<Object>builder(chunk.getResult()).event("done").build();
+        }
+        return ServerSentEvent.<Object>builder(chunk.getDelta()).event("token").build();
+    }
+    
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ChatResponseCacheStatsDTO> getResponseCacheStats() {
+        return ResponseEntity.ok(chatbotService.getResponseCacheStats());
     }
     
     @PostMapping("/clear-consent/{userId}")
-    public ResponseEntity<Void> clearConsent(@PathVariable Long userId) {
+    public ResponseEntity<Void> clearConsent(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @PathVariable Long userId) {
+        AuthenticatedUser.requireSelf(principal, userId);
         chatbotService.clearConsent(userId);
         return ResponseEntity.ok().build();
     }
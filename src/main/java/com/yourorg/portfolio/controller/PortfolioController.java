@@ -1,14 +1,30 @@
 package com.yourorg.portfolio.controller;
 
+import com.yourorg.portfolio.config.AuthenticatedUser;
+import com.yourorg.portfolio.dto.BatchOrderRequestDTO;
+import com.yourorg.portfolio.dto.BatchOrderResultDTO;
 import com.yourorg.portfolio.dto.PortfolioDTO;
+import com.yourorg.portfolio.dto.PortfolioDeltaDTO;
+import com.yourorg.portfolio.dto.RealizedGainDTO;
+import com.yourorg.portfolio.dto.SellOrderRequestDTO;
+import com.yourorg.portfolio.dto.SellOrderResultDTO;
 import com.yourorg.portfolio.model.Investment;
+import com.yourorg.portfolio.service.BatchOrderService;
 import com.yourorg.portfolio.service.PortfolioService;
+import com.yourorg.portfolio.service.QuoteStreamService;
+import com.yourorg.portfolio.service.SellOrderService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/portfolio")
@@ -16,35 +32,110 @@ import java.math.BigDecimal;
 public class PortfolioController {
     
     private final PortfolioService portfolioService;
+    private final QuoteStreamService quoteStreamService;
+    private final BatchOrderService batchOrderService;
+    private final SellOrderService sellOrderService;
     
     @Autowired
-    public PortfolioController(PortfolioService portfolioService) {
+    public PortfolioController(PortfolioService portfolioService,
+                               QuoteStreamService quoteStreamService,
+                               BatchOrderService batchOrderService,
+                               SellOrderService sellOrderService) {
         this.portfolioService = portfolioService;
+        this.quoteStreamService = quoteStreamService;
+        this.batchOrderService = batchOrderService;
+        this.sellOrderService = sellOrderService;
     }
     
     @GetMapping("/user/{userId}")
-    public ResponseEntity<PortfolioDTO> getPortfolioByUserId(@PathVariable Long userId) {
+    public ResponseEntity<PortfolioDTO> getPortfolioByUserId(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @PathVariable Long userId) {
+        AuthenticatedUser.requireSelf(principal, userId);
         PortfolioDTO portfolio = portfolioService.getPortfolioByUserId(userId);
         return ResponseEntity.ok(portfolio);
     }
     
+    /**
+     * Individual investment lots behind the positions, e.g. to sell a specific lot
+     */
+    @GetMapping("/user/{userId}/lots")
+    public ResponseEntity<List<PortfolioDTO.HoldingDTO>> getLotsByUserId(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @PathVariable Long userId) {
+        AuthenticatedUser.requireSelf(principal, userId);
+        return ResponseEntity.ok(portfolioService.getLotsByUserId(userId));
+    }
+    
+    /**
+     * Realized gains of past sales, newest first
+     */
+    @GetMapping("/user/{userId}/realized-gains")
+    public ResponseEntity<List<RealizedGainDTO>> getRealizedGains(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @PathVariable Long userId) {
+        AuthenticatedUser.requireSelf(principal, userId);
+        return ResponseEntity.ok(sellOrderService.getRealizedGains(userId));
+    }
+    
+    /**
+     * Server-Sent Events: current valuation, then deltas with the holdings whose price moved
+     */
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<PortfolioDeltaDTO>> streamPortfolio(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @PathVariable Long userId) {
+        AuthenticatedUser.requireSelf(principal, userId);
+        Flux<ServerSentEvent<PortfolioDeltaDTO>> deltas = quoteStreamService.streamPortfolio(userId)
+            .map(delta -> ServerSentEvent.builder(delta).event("valuation").build());
+        return deltas.mergeWith(StockController.keepAlive());
+    }
+    
     @PostMapping("/buy")
     public ResponseEntity<Investment> buyStock(
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam Long userId,
             @RequestParam String symbol,
             @RequestParam Integer quantity,
             @RequestParam BigDecimal buyPrice) {
+        AuthenticatedUser.requireSelf(principal, userId);
         Investment investment = portfolioService.buyStock(userId, symbol, quantity, buyPrice);
         return new ResponseEntity<>(investment, HttpStatus.CREATED);
     }
     
     @PostMapping("/sell")
     public ResponseEntity<Void> sellStock(
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam Long userId,
             @RequestParam Long investmentId,
             @RequestParam Integer quantity) {
+        AuthenticatedUser.requireSelf(principal, userId);
         portfolioService.sellStock(userId, investmentId, quantity);
         return ResponseEntity.ok().build();
     }
+    
+    /**
+     * Sell a quantity of a symbol across its lots, FIFO, LIFO, highest cost first or specific lots
+     */
+    @PostMapping("/sell-orders")
+    public ResponseEntity<SellOrderResultDTO> sellBySymbol(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @Valid @RequestBody SellOrderRequestDTO request) {
+        AuthenticatedUser.requireSelf(principal, request.getUserId());
+        SellOrderResultDTO result = sellOrderService.sell(request.getUserId(), request.getSymbol(),
+            request.getQuantity(), request.getMethod(), request.getInvestmentIds());
+        return ResponseEntity.ok(result);
+    }
+    
+    /**
+     * Several buys and sells in one atomic order
+     */
+    @PostMapping("/orders")
+    public ResponseEntity<BatchOrderResultDTO> placeBatchOrder(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @Valid @RequestBody BatchOrderRequestDTO request) {
+        AuthenticatedUser.requireSelf(principal, request.getUserId());
+        BatchOrderResultDTO result = batchOrderService.execute(request.getUserId(), request.getLegs());
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
+    }
 }
-
@@ -1,9 +1,11 @@
 package com.yourorg.portfolio.controller;
 
+import com.yourorg.portfolio.config.AuthenticatedUser;
 import com.yourorg.portfolio.dto.RiskAnalysisDTO;
 import com.yourorg.portfolio.service.RiskAnalysisService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -19,7 +21,10 @@ public class RiskController {
     }
     
     @GetMapping("/analyze/{userId}")
-    public ResponseEntity<RiskAnalysisDTO> analyzeRisk(@PathVariable Long userId) {
+    public ResponseEntity<RiskAnalysisDTO> analyzeRisk(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @PathVariable Long userId) {
+        AuthenticatedUser.requireSelf(principal, userId);
         RiskAnalysisDTO analysis = riskAnalysisService.analyzeRisk(userId);
         return ResponseEntity.ok(analysis);
     }
@@ -1,12 +1,19 @@
 package com.yourorg.portfolio.controller;
 
+import com.yourorg.portfolio.dto.QuoteCacheStatsDTO;
 import com.yourorg.portfolio.dto.StockPriceDTO;
 import com.yourorg.portfolio.model.Stock;
+import com.yourorg.portfolio.service.QuoteStreamService;
+import com.yourorg.portfolio.service.StockApiClient;
 import com.yourorg.portfolio.service.StockService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -15,10 +22,12 @@ import java.util.List;
 public class StockController {
     
     private final StockService stockService;
+    private final QuoteStreamService quoteStreamService;
     
     @Autowired
-    public StockController(StockService stockService) {
+    public StockController(StockService stockService, QuoteStreamService quoteStreamService) {
         this.stockService = stockService;
+        this.quoteStreamService = quoteStreamService;
     }
     
     @GetMapping("/price/{symbol}")
@@ -33,6 +42,23 @@ public class StockController {
         return ResponseEntity.ok(trending);
     }
     
+    /**
+     * Server-Sent Events: current quotes, then only quotes whose price changed.
+     * Defaults to the trending symbols when none are given.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<StockPriceDTO>> streamQuotes(@RequestParam(required = false) List<String> symbols) {
+        List<String> watched = symbols == null || symbols.isEmpty() ? StockApiClient.TRENDING_SYMBOLS : symbols;
+        Flux<ServerSentEvent<StockPriceDTO>> quotes = quoteStreamService.streamQuotes(watched)
+            .map(quote -> ServerSentEvent.builder(quote).event("quote").id(quote.getSymbol()).build());
+        return quotes.mergeWith(keepAlive());
+    }
+    
+    @GetMapping("/cache/stats")
+    public ResponseEntity<QuoteCacheStatsDTO> getQuoteCacheStats() {
+        return ResponseEntity.ok(stockService.getQuoteCacheStats());
+    }
+    
     @GetMapping("/search")
     public ResponseEntity<List<Stock>> searchStocks(@RequestParam String query) {
         List<Stock> stocks = stockService.searchStocks(query);
@@ -50,5 +76,9 @@ public class StockController {
         Stock stock = stockService.getStockBySymbol(symbol);
         return ResponseEntity.ok(stock);
     }
+    
+    static <T> Flux<ServerSentEvent<T>> keepAlive() {
+        return Flux.interval(Duration.ofSeconds(20))
+            .map(tick -> ServerSentEvent.<T>builder().comment("keep-alive").build());
+    }
 }
-
@@ -1,15 +1,21 @@
 package com.yourorg.portfolio.controller;
 
+import com.yourorg.portfolio.config.AuthenticatedUser;
+import com.yourorg.portfolio.config.JwtAuthenticationFilter;
 import com.yourorg.portfolio.dto.LoginRequestDTO;
 import com.yourorg.portfolio.dto.LoginResponseDTO;
 import com.yourorg.portfolio.dto.SignupRequestDTO;
 import com.yourorg.portfolio.dto.UserDTO;
 import com.yourorg.portfolio.model.User;
+import com.yourorg.portfolio.service.TokenRevocationService;
 import com.yourorg.portfolio.service.UserService;
+import io.jsonwebtoken.JwtException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -20,10 +26,12 @@ import java.util.List;
 public class UserController {
     
     private final UserService userService;
+    private final TokenRevocationService tokenRevocationService;
     
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, TokenRevocationService tokenRevocationService) {
         this.userService = userService;
+        this.tokenRevocationService = tokenRevocationService;
     }
     
     @PostMapping
@@ -33,7 +41,10 @@ public class UserController {
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<UserDTO> getUserById(@PathVariable Long id) {
+    public ResponseEntity<UserDTO> getUserById(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @PathVariable Long id) {
+        AuthenticatedUser.requireSelf(principal, id);
         UserDTO user = userService.getUserById(id);
         return ResponseEntity.ok(user);
     }
@@ -45,13 +56,20 @@ public class UserController {
     }
     
     @PutMapping("/{id}")
-    public ResponseEntity<UserDTO> updateUser(@PathVariable Long id, @Valid @RequestBody User userDetails) {
+    public ResponseEntity<UserDTO> updateUser(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @PathVariable Long id,
+            @Valid @RequestBody User userDetails) {
+        AuthenticatedUser.requireSelf(principal, id);
         UserDTO updatedUser = userService.updateUser(id, userDetails);
         return ResponseEntity.ok(updatedUser);
     }
     
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteUser(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @PathVariable Long id) {
+        AuthenticatedUser.requireSelf(principal, id);
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
@@ -77,6 +95,24 @@ public class UserController {
         }
     }
     
+    /**
+     * Revoke the caller's bearer token until it expires
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        String token = JwtAuthenticationFilter.resolveToken(authorization);
+        if (token == null) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Missing bearer token"));
+        }
+        try {
+            tokenRevocationService.revoke(token);
+            return ResponseEntity.noContent().build();
+        } catch (JwtException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ErrorResponse("Invalid or expired token"));
+        }
+    }
+    
     // Simple error response class
     private static class ErrorResponse {
         private String message;
@@ -0,0 +1,36 @@
+package com.yourorg.portfolio.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Bank balance as of a point in time, rebuilt from the ledger
+ */
+public class BalanceAtDTO {
+
+    private LocalDateTime at;
+    private BigDecimal balance;
+
+    public BalanceAtDTO() {}
+
+    public BalanceAtDTO(LocalDateTime at, BigDecimal balance) {
+        this.at = at;
+        this.balance = balance;
+    }
+
+    public LocalDateTime getAt() {
+        return at;
+    }
+
+    public void setAt(LocalDateTime at) {
+        this.at = at;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+}
@@ -0,0 +1,36 @@
+package com.yourorg.portfolio.dto;
+
+import java.util.List;
+
+/**
+ * A page of ledger entries, newest first. Pass nextCursor as {@code before} to get the next
+ * (older) page; it is null on the last page.
+ */
+public class BankTransactionPageDTO {
+
+    private List<BankTransactionDTO> transactions;
+    private Long nextCursor;
+
+    public BankTransactionPageDTO() {}
+
+    public BankTransactionPageDTO(List<BankTransactionDTO> transactions, Long nextCursor) {
+        this.transactions = transactions;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<BankTransactionDTO> getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(List<BankTransactionDTO> transactions) {
+        this.transactions = transactions;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,122 @@
+package com.yourorg.portfolio.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Several buy and sell legs executed as one order: all legs succeed or none do
+ */
+public class BatchOrderRequestDTO {
+
+    @NotNull(message = "User ID is required")
+    private Long userId;
+
+    @NotEmpty(message = "At least one leg is required")
+    @Valid
+    private List<OrderLegDTO> legs;
+
+    public BatchOrderRequestDTO() {}
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public List<OrderLegDTO> getLegs() {
+        return legs;
+    }
+
+    public void setLegs(List<OrderLegDTO> legs) {
+        this.legs = legs;
+    }
+
+    /**
+     * A BUY names a symbol and optionally a price (the current quote when omitted); a SELL names
+     * the investment to reduce and is filled at the current quote, like the single sell endpoint
+     */
+    public static class OrderLegDTO {
+
+        public enum Side { BUY, SELL }
+
+        @NotNull(message = "Side is required")
+        private Side side;
+
+        private String symbol;
+
+        private Long investmentId;
+
+        @NotNull(message = "Quantity is required")
+        @Min(value = 1, message = "Quantity must be at least 1")
+        private Integer quantity;
+
+        @DecimalMin(value = "0.01", message = "Price must be greater than 0")
+        private BigDecimal price;
+
+        public OrderLegDTO() {}
+
+        public static OrderLegDTO buy(String symbol, int quantity, BigDecimal price) {
+            OrderLegDTO leg = new OrderLegDTO();
+            leg.setSide(Side.BUY);
+            leg.setSymbol(symbol);
+            leg.setQuantity(quantity);
+            leg.setPrice(price);
+            return leg;
+        }
+
+        public static OrderLegDTO sell(Long investmentId, int quantity) {
+            OrderLegDTO leg = new OrderLegDTO();
+            leg.setSide(Side.SELL);
+            leg.setInvestmentId(investmentId);
+            leg.setQuantity(quantity);
+            return leg;
+        }
+
+        public Side getSide() {
+            return side;
+        }
+
+        public void setSide(Side side) {
+            this.side = side;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public void setSymbol(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public Long getInvestmentId() {
+            return investmentId;
+        }
+
+        public void setInvestmentId(Long investmentId) {
+            this.investmentId = investmentId;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(Integer quantity) {
+            this.quantity = quantity;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public void setPrice(BigDecimal price) {
+            this.price = price;
+        }
+    }
+}
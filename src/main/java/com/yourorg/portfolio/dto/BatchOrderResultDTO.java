@@ -0,0 +1,75 @@
+package com.yourorg.portfolio.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Outcome of a batch order. netCashChange is what was credited (positive) or debited (negative)
+ * to the bank account, in a single ledger entry.
+ */
+public class BatchOrderResultDTO {
+
+    private int bought;
+    private int sold;
+    private BigDecimal totalCost;
+    private BigDecimal totalProceeds;
+    private BigDecimal netCashChange;
+    private BigDecimal realizedGain = BigDecimal.ZERO;
+
+    public BatchOrderResultDTO() {}
+
+    public BatchOrderResultDTO(int bought, int sold, BigDecimal totalCost, BigDecimal totalProceeds) {
+        this.bought = bought;
+        this.sold = sold;
+        this.totalCost = totalCost;
+        this.totalProceeds = totalProceeds;
+        this.netCashChange = totalProceeds.subtract(totalCost);
+    }
+
+    public int getBought() {
+        return bought;
+    }
+
+    public void setBought(int bought) {
+        this.bought = bought;
+    }
+
+    public int getSold() {
+        return sold;
+    }
+
+    public void setSold(int sold) {
+        this.sold = sold;
+    }
+
+    public BigDecimal getTotalCost() {
+        return totalCost;
+    }
+
+    public void setTotalCost(BigDecimal totalCost) {
+        this.totalCost = totalCost;
+    }
+
+    public BigDecimal getTotalProceeds() {
+        return totalProceeds;
+    }
+
+    public void setTotalProceeds(BigDecimal totalProceeds) {
+        this.totalProceeds = totalProceeds;
+    }
+
+    public BigDecimal getNetCashChange() {
+        return netCashChange;
+    }
+
+    public void setNetCashChange(BigDecimal netCashChange) {
+        this.netCashChange = netCashChange;
+    }
+
+    public BigDecimal getRealizedGain() {
+        return realizedGain;
+    }
+
+    public void setRealizedGain(BigDecimal realizedGain) {
+        this.realizedGain = realizedGain;
+    }
+}
@@ -0,0 +1,88 @@
+package com.yourorg.portfolio.dto;
+
+public class ChatResponseCacheStatsDTO {
+
+    private long hits;
+    private long similarHits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private int size;
+    private int maxSize;
+    private long ttlSeconds;
+    private double hitRate;
+
+    public ChatResponseCacheStatsDTO() {}
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public long getSimilarHits() {
+        return similarHits;
+    }
+
+    public void setSimilarHits(long similarHits) {
+        this.similarHits = similarHits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public void setEvictions(long evictions) {
+        this.evictions = evictions;
+    }
+
+    public long getExpirations() {
+        return expirations;
+    }
+
+    public void setExpirations(long expirations) {
+        this.expirations = expirations;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    public void setHitRate(double hitRate) {
+        this.hitRate = hitRate;
+    }
+}
@@ -0,0 +1,45 @@
+package com.yourorg.portfolio.dto;
+
+/**
+ * One piece of a streamed chatbot answer: a text delta as it arrives, or the final chunk
+ * carrying the complete response with its quick actions.
+ */
+public class ChatbotChunkDTO {
+
+    private String delta;
+    private ChatbotResponseDTO result;
+
+    public ChatbotChunkDTO() {}
+
+    public static ChatbotChunkDTO delta(String text) {
+        ChatbotChunkDTO chunk = new ChatbotChunkDTO();
+        chunk.setDelta(text);
+        return chunk;
+    }
+
+    public static ChatbotChunkDTO done(ChatbotResponseDTO result) {
+        ChatbotChunkDTO chunk = new ChatbotChunkDTO();
+        chunk.setResult(result);
+        return chunk;
+    }
+
+    public boolean isDone() {
+        return result != null;
+    }
+
+    public String getDelta() {
+        return delta;
+    }
+
+    public void setDelta(String delta) {
+        this.delta = delta;
+    }
+
+    public ChatbotResponseDTO getResult() {
+        return result;
+    }
+
+    public void setResult(ChatbotResponseDTO result) {
+        this.result = result;
+    }
+}
@@ -109,8 +109,15 @@ public class PortfolioDTO {
     }
     
     // Inner DTOs
+    /**
+     * A position (one row per symbol: investmentId and buyDate unset, buyPrice the average price)
+     * or, in the lot view, a single investment lot
+     */
     public static class HoldingDTO {
         private Long investmentId;
+        private Long positionId;
+        private Integer lotCount;
+        private BigDecimal costBasis;
         private String symbol;
         private String companyName;
         private Integer quantity;
@@ -201,6 +208,30 @@ public class PortfolioDTO {
         public void setBuyDate(String buyDate) {
             this.buyDate = buyDate;
         }
+        
+        public Long getPositionId() {
+            return positionId;
+        }
+        
+        public void setPositionId(Long positionId) {
+            this.positionId = positionId;
+        }
+        
+        public Integer getLotCount() {
+            return lotCount;
+        }
+        
+        public void setLotCount(Integer lotCount) {
+            this.lotCount = lotCount;
+        }
+        
+        public BigDecimal getCostBasis() {
+            return costBasis;
+        }
+        
+        public void setCostBasis(BigDecimal costBasis) {
+            this.costBasis = costBasis;
+        }
     }
     
     public static class AssetAllocationDTO {
@@ -0,0 +1,78 @@
+package com.yourorg.portfolio.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Incremental portfolio valuation pushed over the portfolio stream.
+ * Only holdings whose price or position changed are included, and symbols no longer held are
+ * listed in removedSymbols; totals always reflect the whole portfolio.
+ */
+public class PortfolioDeltaDTO {
+
+    private Long portfolioId;
+    private BigDecimal totalValue;
+    private BigDecimal totalCost;
+    private BigDecimal totalProfitLoss;
+    private BigDecimal totalProfitLossPercentage;
+    private List<PortfolioDTO.HoldingDTO> holdings;
+    private List<String> removedSymbols;
+
+    public PortfolioDeltaDTO() {}
+
+    public Long getPortfolioId() {
+        return portfolioId;
+    }
+
+    public void setPortfolioId(Long portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+
+    public BigDecimal getTotalValue() {
+        return totalValue;
+    }
+
+    public void setTotalValue(BigDecimal totalValue) {
+        this.totalValue = totalValue;
+    }
+
+    public BigDecimal getTotalCost() {
+        return totalCost;
+    }
+
+    public void setTotalCost(BigDecimal totalCost) {
+        this.totalCost = totalCost;
+    }
+
+    public BigDecimal getTotalProfitLoss() {
+        return totalProfitLoss;
+    }
+
+    public void setTotalProfitLoss(BigDecimal totalProfitLoss) {
+        this.totalProfitLoss = totalProfitLoss;
+    }
+
+    public BigDecimal getTotalProfitLossPercentage() {
+        return totalProfitLossPercentage;
+    }
+
+    public void setTotalProfitLossPercentage(BigDecimal totalProfitLossPercentage) {
+        this.totalProfitLossPercentage = totalProfitLossPercentage;
+    }
+
+    public List<PortfolioDTO.HoldingDTO> getHoldings() {
+        return holdings;
+    }
+
+    public void setHoldings(List<PortfolioDTO.HoldingDTO> holdings) {
+        this.holdings = holdings;
+    }
+
+    public List<String> getRemovedSymbols() {
+        return removedSymbols;
+    }
+
+    public void setRemovedSymbols(List<String> removedSymbols) {
+        this.removedSymbols = removedSymbols;
+    }
+}
@@ -0,0 +1,113 @@
+package com.yourorg.portfolio.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Realized profit or loss of the shares sold from one lot
+ */
+public class RealizedGainDTO {
+
+    private Long investmentId;
+    private String symbol;
+    private String lotMethod;
+    private Integer quantity;
+    private BigDecimal buyPrice;
+    private LocalDate buyDate;
+    private BigDecimal sellPrice;
+    private BigDecimal costBasis;
+    private BigDecimal proceeds;
+    private BigDecimal gain;
+    private LocalDateTime soldAt;
+
+    public RealizedGainDTO() {}
+
+    public Long getInvestmentId() {
+        return investmentId;
+    }
+
+    public void setInvestmentId(Long investmentId) {
+        this.investmentId = investmentId;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getLotMethod() {
+        return lotMethod;
+    }
+
+    public void setLotMethod(String lotMethod) {
+        this.lotMethod = lotMethod;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getBuyPrice() {
+        return buyPrice;
+    }
+
+    public void setBuyPrice(BigDecimal buyPrice) {
+        this.buyPrice = buyPrice;
+    }
+
+    public LocalDate getBuyDate() {
+        return buyDate;
+    }
+
+    public void setBuyDate(LocalDate buyDate) {
+        this.buyDate = buyDate;
+    }
+
+    public BigDecimal getSellPrice() {
+        return sellPrice;
+    }
+
+    public void setSellPrice(BigDecimal sellPrice) {
+        this.sellPrice = sellPrice;
+    }
+
+    public BigDecimal getCostBasis() {
+        return costBasis;
+    }
+
+    public void setCostBasis(BigDecimal costBasis) {
+        this.costBasis = costBasis;
+    }
+
+    public BigDecimal getProceeds() {
+        return proceeds;
+    }
+
+    public void setProceeds(BigDecimal proceeds) {
+        this.proceeds = proceeds;
+    }
+
+    public BigDecimal getGain() {
+        return gain;
+    }
+
+    public void setGain(BigDecimal gain) {
+        this.gain = gain;
+    }
+
+    public LocalDateTime getSoldAt() {
+        return soldAt;
+    }
+
+    public void setSoldAt(LocalDateTime soldAt) {
+        this.soldAt = soldAt;
+    }
+}
@@ -19,6 +19,17 @@ public class RiskAnalysisDTO {
     private List<String> riskFactors;
     private List<String> suggestions;
     
+    // Measured from daily close history; percentages of portfolio value, null without enough history
+    private BigDecimal portfolioValue;
+    private BigDecimal annualizedVolatility;
+    private BigDecimal valueAtRisk;
+    private BigDecimal conditionalValueAtRisk;
+    private BigDecimal parametricValueAtRisk;
+    private BigDecimal varConfidence;
+    private BigDecimal beta;
+    private Integer observations;
+    private BigDecimal historyCoverage;
+    
     public RiskAnalysisDTO() {}
     
     // Getters and Setters
@@ -117,5 +128,76 @@ public class RiskAnalysisDTO {
     public void setSuggestions(List<String> suggestions) {
         this.suggestions = suggestions;
     }
+    
+    public BigDecimal getPortfolioValue() {
+        return portfolioValue;
+    }
+    
+    public void setPortfolioValue(BigDecimal portfolioValue) {
+        this.portfolioValue = portfolioValue;
+    }
+    
+    public BigDecimal getAnnualizedVolatility() {
+        return annualizedVolatility;
+    }
+    
+    public void setAnnualizedVolatility(BigDecimal annualizedVolatility) {
+        this.annualizedVolatility = annualizedVolatility;
+    }
+    
+    public BigDecimal getValueAtRisk() {
+        return valueAtRisk;
+    }
+    
+    public void setValueAtRisk(BigDecimal valueAtRisk) {
+        this.valueAtRisk = valueAtRisk;
+    }
+    
+    public BigDecimal getConditionalValueAtRisk() {
+        return conditionalValueAtRisk;
+    }
+    
+    public void setConditionalValueAtRisk(BigDecimal conditionalValueAtRisk) {
+        this.conditionalValueAtRisk = conditionalValueAtRisk;
+    }
+    
+    public BigDecimal getParametricValueAtRisk() {
+        return parametricValueAtRisk;
+    }
+    
+    public void setParametricValueAtRisk(BigDecimal parametricValueAtRisk) {
+        this.parametricValueAtRisk = parametricValueAtRisk;
+    }
+    
+    public BigDecimal getVarConfidence() {
+        return varConfidence;
+    }
+    
+    public void setVarConfidence(BigDecimal varConfidence) {
+        this.varConfidence = varConfidence;
+    }
+    
+    public BigDecimal getBeta() {
+        return beta;
+    }
+    
+    public void setBeta(BigDecimal beta) {
+        this.beta = beta;
+    }
+    
+    public Integer getObservations() {
+        return observations;
+    }
+    
+    public void setObservations(Integer observations) {
+        this.observations = observations;
+    }
+    
+    public BigDecimal getHistoryCoverage() {
+        return historyCoverage;
+    }
+    
+    public void setHistoryCoverage(BigDecimal historyCoverage) {
+        this.historyCoverage = historyCoverage;
+    }
 }
-
@@ -0,0 +1,70 @@
+package com.yourorg.portfolio.dto;
+
+import com.yourorg.portfolio.model.RealizedGain;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+
+/**
+ * Sell a quantity of a symbol across its lots. method picks the lots (FIFO when omitted);
+ * SPECIFIC consumes investmentIds in the order given.
+ */
+public class SellOrderRequestDTO {
+
+    @NotNull(message = "User ID is required")
+    private Long userId;
+
+    @NotBlank(message = "Symbol is required")
+    private String symbol;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+
+    private RealizedGain.LotMethod method;
+
+    private List<Long> investmentIds;
+
+    public SellOrderRequestDTO() {}
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public RealizedGain.LotMethod getMethod() {
+        return method;
+    }
+
+    public void setMethod(RealizedGain.LotMethod method) {
+        this.method = method;
+    }
+
+    public List<Long> getInvestmentIds() {
+        return investmentIds;
+    }
+
+    public void setInvestmentIds(List<Long> investmentIds) {
+        this.investmentIds = investmentIds;
+    }
+}
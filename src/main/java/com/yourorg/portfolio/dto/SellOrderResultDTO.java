@@ -0,0 +1,86 @@
+package com.yourorg.portfolio.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Outcome of a sell by symbol: the lots consumed, in the order the lot method took them, and
+ * their totals. proceeds is what was credited to the bank account.
+ */
+public class SellOrderResultDTO {
+
+    private String symbol;
+    private String lotMethod;
+    private int quantity;
+    private BigDecimal sellPrice;
+    private BigDecimal proceeds;
+    private BigDecimal costBasis;
+    private BigDecimal realizedGain;
+    private List<RealizedGainDTO> lots;
+
+    public SellOrderResultDTO() {}
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getLotMethod() {
+        return lotMethod;
+    }
+
+    public void setLotMethod(String lotMethod) {
+        this.lotMethod = lotMethod;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getSellPrice() {
+        return sellPrice;
+    }
+
+    public void setSellPrice(BigDecimal sellPrice) {
+        this.sellPrice = sellPrice;
+    }
+
+    public BigDecimal getProceeds() {
+        return proceeds;
+    }
+
+    public void setProceeds(BigDecimal proceeds) {
+        this.proceeds = proceeds;
+    }
+
+    public BigDecimal getCostBasis() {
+        return costBasis;
+    }
+
+    public void setCostBasis(BigDecimal costBasis) {
+        this.costBasis = costBasis;
+    }
+
+    public BigDecimal getRealizedGain() {
+        return realizedGain;
+    }
+
+    public void setRealizedGain(BigDecimal realizedGain) {
+        this.realizedGain = realizedGain;
+    }
+
+    public List<RealizedGainDTO> getLots() {
+        return lots;
+    }
+
+    public void setLots(List<RealizedGainDTO> lots) {
+        this.lots = lots;
+    }
+}
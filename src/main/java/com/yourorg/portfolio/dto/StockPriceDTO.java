@@ -13,6 +13,7 @@ public class StockPriceDTO {
     private String trend; // "UP" or "DOWN"
     private Long volume;
     private String currency;
+    private String source; // provider that produced the quote, or "mock"
     
     public StockPriceDTO() {}
     
@@ -21,6 +22,19 @@ public class StockPriceDTO {
         this.currentPrice = currentPrice;
     }
     
+    public StockPriceDTO(StockPriceDTO other) {
+        this.symbol = other.symbol;
+        this.companyName = other.companyName;
+        this.currentPrice = other.currentPrice;
+        this.previousClose = other.previousClose;
+        this.change = other.change;
+        this.changePercent = other.changePercent;
+        this.trend = other.trend;
+        this.volume = other.volume;
+        this.currency = other.currency;
+        this.source = other.source;
+    }
+    
     // Getters and Setters
     public String getSymbol() {
         return symbol;
@@ -93,5 +107,12 @@ public class StockPriceDTO {
     public void setCurrency(String currency) {
         this.currency = currency;
     }
+    
+    public String getSource() {
+        return source;
+    }
+    
+    public void setSource(String source) {
+        this.source = source;
+    }
 }
-
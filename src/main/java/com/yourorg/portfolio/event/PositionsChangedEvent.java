@@ -0,0 +1,12 @@
+package com.yourorg.portfolio.event;
+
+import java.util.Set;
+
+/**
+ * Published by PositionService inside the transaction that bought or sold lots; listeners that
+ * keep derived state should react after commit, when the new positions are visible.
+ *
+ * @param symbols the stocks whose positions changed
+ */
+public record PositionsChangedEvent(Long portfolioId, Set<String> symbols) {
+}
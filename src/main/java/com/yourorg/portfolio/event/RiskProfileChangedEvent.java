@@ -0,0 +1,8 @@
+package com.yourorg.portfolio.event;
+
+/**
+ * Published by RiskAnalysisService inside its transaction when a user's risk profile was created
+ * or its category or scores changed.
+ */
+public record RiskProfileChangedEvent(Long userId) {
+}
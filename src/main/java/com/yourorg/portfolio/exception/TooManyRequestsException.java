@@ -0,0 +1,18 @@
+package com.yourorg.portfolio.exception;
+
+/**
+ * A bounded resource is saturated; mapped to 429 with a Retry-After header
+ */
+public class TooManyRequestsException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
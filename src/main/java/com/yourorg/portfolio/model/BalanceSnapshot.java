@@ -0,0 +1,83 @@
+package com.yourorg.portfolio.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Balance of an account right after its ledger entry seq (seq 0: when it was opened)
+ */
+@Entity
+@Table(name = "balance_snapshots")
+@IdClass(BalanceSnapshot.BalanceSnapshotId.class)
+public class BalanceSnapshot {
+
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Id
+    private long seq;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal balance;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public BalanceSnapshot() {}
+
+    public BalanceSnapshot(Long accountId, long seq, BigDecimal balance, LocalDateTime createdAt) {
+        this.accountId = accountId;
+        this.seq = seq;
+        this.balance = balance;
+        this.createdAt = createdAt;
+    }
+
+    // Getters
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Composite key (account_id, seq)
+     */
+    public static class BalanceSnapshotId implements Serializable {
+        private Long accountId;
+        private long seq;
+
+        public BalanceSnapshotId() {}
+
+        public BalanceSnapshotId(Long accountId, long seq) {
+            this.accountId = accountId;
+            this.seq = seq;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof BalanceSnapshotId other)) return false;
+            return Objects.equals(accountId, other.accountId) && seq == other.seq;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(accountId, seq);
+        }
+    }
+}
@@ -42,6 +42,16 @@ public class BankAccount {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Bumped by every write, including BankAccountRepository's balance updates, so an entity
+    // save based on a stale read fails instead of overwriting a newer balance
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
+    // Seq of the latest bank_transactions entry; advanced by the same UPDATE that moves the balance
+    @Column(name = "ledger_sequence", nullable = false)
+    private long ledgerSequence;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -132,5 +142,21 @@ public class BankAccount {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public long getLedgerSequence() {
+        return ledgerSequence;
+    }
+    
+    public void setLedgerSequence(long ledgerSequence) {
+        this.ledgerSequence = ledgerSequence;
+    }
 }
 
@@ -0,0 +1,86 @@
+package com.yourorg.portfolio.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One balance change of a bank account. Rows are only ever inserted; amount is signed
+ * (credits positive, debits negative) and seq orders an account's entries.
+ */
+@Entity
+@Table(name = "bank_transactions")
+public class BankTransaction {
+
+    public enum Type {
+        DEPOSIT, WITHDRAWAL, BUY, SELL, ADJUSTMENT
+    }
+
+    // Pooled ids so ledger inserts can be batched. Blocks are handed out per instance, so ids
+    // are not in time order; seq is
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "bank_transaction_ids")
+    @TableGenerator(name = "bank_transaction_ids", table = "id_sequences", pkColumnName = "sequence_name",
+        valueColumnName = "next_val", pkColumnValue = "bank_transactions", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false, updatable = false)
+    private Long accountId;
+
+    @Column(nullable = false, updatable = false)
+    private long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 20)
+    private Type type;
+
+    @Column(nullable = false, updatable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    @Column(updatable = false)
+    private String description;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public BankTransaction() {}
+
+    public BankTransaction(Long accountId, long seq, Type type, BigDecimal amount, String description, LocalDateTime createdAt) {
+        this.accountId = accountId;
+        this.seq = seq;
+        this.type = type;
+        this.amount = amount;
+        this.description = description;
+        this.createdAt = createdAt;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
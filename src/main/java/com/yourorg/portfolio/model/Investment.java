@@ -12,8 +12,11 @@ import java.time.LocalDateTime;
 @Table(name = "investments")
 public class Investment {
     
+    // Pooled ids (not IDENTITY) so Hibernate can batch inserts; see id_sequences in schema.sql
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "investment_ids")
+    @TableGenerator(name = "investment_ids", table = "id_sequences", pkColumnName = "sequence_name",
+        valueColumnName = "next_val", pkColumnValue = "investments", allocationSize = 50)
     private Long id;
     
     @ManyToOne
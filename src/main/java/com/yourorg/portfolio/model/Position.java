@@ -0,0 +1,82 @@
+package com.yourorg.portfolio.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+
+/**
+ * Everything a portfolio holds of one stock: the sum of its open investment lots. Maintained
+ * incrementally by PositionService on every buy and sell, so portfolio reads scale with the
+ * number of distinct symbols rather than the number of lots.
+ */
+@Entity
+@Table(name = "positions",
+    uniqueConstraints = @UniqueConstraint(name = "uk_portfolio_stock", columnNames = {"portfolio_id", "stock_id"}))
+public class Position {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "portfolio_id", nullable = false)
+    private Portfolio portfolio;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "stock_id", nullable = false)
+    private Stock stock;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    // Sum of quantity * buy price over the open lots
+    @Column(name = "cost_basis", nullable = false, precision = 19, scale = 2)
+    private BigDecimal costBasis;
+
+    @Column(name = "lot_count", nullable = false)
+    private Integer lotCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public Position() {}
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Portfolio getPortfolio() {
+        return portfolio;
+    }
+
+    public Stock getStock() {
+        return stock;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public BigDecimal getCostBasis() {
+        return costBasis;
+    }
+
+    public Integer getLotCount() {
+        return lotCount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public BigDecimal getAveragePrice() {
+        return averagePrice(costBasis, quantity);
+    }
+
+    public static BigDecimal averagePrice(BigDecimal costBasis, int quantity) {
+        return quantity > 0 ? costBasis.divide(BigDecimal.valueOf(quantity), 4, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+    }
+}
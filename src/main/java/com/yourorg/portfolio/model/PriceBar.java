@@ -0,0 +1,160 @@
+package com.yourorg.portfolio.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * OHLCV bar for one symbol and interval, keyed by bar open time (UTC).
+ * Daily bars are keyed by the session date at 00:00 UTC.
+ */
+@Entity
+@Table(name = "price_bars")
+@IdClass(PriceBar.PriceBarId.class)
+public class PriceBar {
+
+    public enum BarInterval {
+        MINUTE, DAY
+    }
+
+    @Id
+    @Column(length = 10)
+    private String symbol;
+
+    @Id
+    @Column(name = "bar_interval", length = 6)
+    @Enumerated(EnumType.STRING)
+    private BarInterval barInterval;
+
+    @Id
+    @Column(name = "ts")
+    private Instant ts;
+
+    @Column(name = "open_price", nullable = false, precision = 12, scale = 4)
+    private BigDecimal openPrice;
+
+    @Column(name = "high_price", nullable = false, precision = 12, scale = 4)
+    private BigDecimal highPrice;
+
+    @Column(name = "low_price", nullable = false, precision = 12, scale = 4)
+    private BigDecimal lowPrice;
+
+    @Column(name = "close_price", nullable = false, precision = 12, scale = 4)
+    private BigDecimal closePrice;
+
+    @Column(nullable = false)
+    private long volume;
+
+    // Constructors
+    public PriceBar() {}
+
+    public PriceBar(String symbol, BarInterval barInterval, Instant ts,
+                    BigDecimal openPrice, BigDecimal highPrice, BigDecimal lowPrice, BigDecimal closePrice, long volume) {
+        this.symbol = symbol;
+        this.barInterval = barInterval;
+        this.ts = ts;
+        this.openPrice = openPrice;
+        this.highPrice = highPrice;
+        this.lowPrice = lowPrice;
+        this.closePrice = closePrice;
+        this.volume = volume;
+    }
+
+    // Getters and Setters
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public BarInterval getBarInterval() {
+        return barInterval;
+    }
+
+    public void setBarInterval(BarInterval barInterval) {
+        this.barInterval = barInterval;
+    }
+
+    public Instant getTs() {
+        return ts;
+    }
+
+    public void setTs(Instant ts) {
+        this.ts = ts;
+    }
+
+    public BigDecimal getOpenPrice() {
+        return openPrice;
+    }
+
+    public void setOpenPrice(BigDecimal openPrice) {
+        this.openPrice = openPrice;
+    }
+
+    public BigDecimal getHighPrice() {
+        return highPrice;
+    }
+
+    public void setHighPrice(BigDecimal highPrice) {
+        this.highPrice = highPrice;
+    }
+
+    public BigDecimal getLowPrice() {
+        return lowPrice;
+    }
+
+    public void setLowPrice(BigDecimal lowPrice) {
+        this.lowPrice = lowPrice;
+    }
+
+    public BigDecimal getClosePrice() {
+        return closePrice;
+    }
+
+    public void setClosePrice(BigDecimal closePrice) {
+        this.closePrice = closePrice;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    public void setVolume(long volume) {
+        this.volume = volume;
+    }
+
+    /**
+     * Composite key (symbol, bar_interval, ts); also the clustered index
+     */
+    public static class PriceBarId implements Serializable {
+        private String symbol;
+        private BarInterval barInterval;
+        private Instant ts;
+
+        public PriceBarId() {}
+
+        public PriceBarId(String symbol, BarInterval barInterval, Instant ts) {
+            this.symbol = symbol;
+            this.barInterval = barInterval;
+            this.ts = ts;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PriceBarId other)) return false;
+            return Objects.equals(symbol, other.symbol)
+                && barInterval == other.barInterval
+                && Objects.equals(ts, other.ts);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(symbol, barInterval, ts);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.yourorg.portfolio.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Realized profit or loss of selling (part of) one investment lot. Rows are only ever inserted;
+ * investmentId is kept without a foreign key because a fully sold lot is deleted.
+ */
+@Entity
+@Table(name = "realized_gains")
+public class RealizedGain {
+
+    /**
+     * Which lots a sell of a symbol consumes first
+     */
+    public enum LotMethod {
+        FIFO, LIFO, HIGHEST_COST, SPECIFIC
+    }
+
+    // Pooled ids so the records of a multi-lot sell are inserted as one JDBC batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "realized_gain_ids")
+    @TableGenerator(name = "realized_gain_ids", table = "id_sequences", pkColumnName = "sequence_name",
+        valueColumnName = "next_val", pkColumnValue = "realized_gains", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "portfolio_id", nullable = false, updatable = false)
+    private Long portfolioId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "stock_id", nullable = false, updatable = false)
+    private Stock stock;
+
+    @Column(name = "investment_id", nullable = false, updatable = false)
+    private Long investmentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "lot_method", nullable = false, updatable = false, length = 20)
+    private LotMethod lotMethod;
+
+    @Column(nullable = false, updatable = false)
+    private Integer quantity;
+
+    @Column(name = "buy_price", nullable = false, updatable = false, precision = 10, scale = 2)
+    private BigDecimal buyPrice;
+
+    @Column(name = "buy_date", nullable = false, updatable = false)
+    private LocalDate buyDate;
+
+    @Column(name = "sell_price", nullable = false, updatable = false, precision = 19, scale = 4)
+    private BigDecimal sellPrice;
+
+    @Column(name = "cost_basis", nullable = false, updatable = false, precision = 19, scale = 2)
+    private BigDecimal costBasis;
+
+    @Column(nullable = false, updatable = false, precision = 19, scale = 2)
+    private BigDecimal proceeds;
+
+    @Column(nullable = false, updatable = false, precision = 19, scale = 2)
+    private BigDecimal gain;
+
+    @Column(name = "sold_at", nullable = false, updatable = false)
+    private LocalDateTime soldAt;
+
+    // Constructors
+    public RealizedGain() {}
+
+    public RealizedGain(Investment lot, int quantity, BigDecimal sellPrice, LotMethod lotMethod, LocalDateTime soldAt) {
+        this.portfolioId = lot.getPortfolio().getId();
+        this.stock = lot.getStock();
+        this.investmentId = lot.getId();
+        this.lotMethod = lotMethod;
+        this.quantity = quantity;
+        this.buyPrice = lot.getBuyPrice();
+        this.buyDate = lot.getBuyDate();
+        this.sellPrice = sellPrice;
+        this.costBasis = lot.getBuyPrice().multiply(BigDecimal.valueOf(quantity));
+        this.proceeds = sellPrice.multiply(BigDecimal.valueOf(quantity));
+        this.gain = proceeds.subtract(costBasis);
+        this.soldAt = soldAt;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getPortfolioId() {
+        return portfolioId;
+    }
+
+    public Stock getStock() {
+        return stock;
+    }
+
+    public Long getInvestmentId() {
+        return investmentId;
+    }
+
+    public LotMethod getLotMethod() {
+        return lotMethod;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public BigDecimal getBuyPrice() {
+        return buyPrice;
+    }
+
+    public LocalDate getBuyDate() {
+        return buyDate;
+    }
+
+    public BigDecimal getSellPrice() {
+        return sellPrice;
+    }
+
+    public BigDecimal getCostBasis() {
+        return costBasis;
+    }
+
+    public BigDecimal getProceeds() {
+        return proceeds;
+    }
+
+    public BigDecimal getGain() {
+        return gain;
+    }
+
+    public LocalDateTime getSoldAt() {
+        return soldAt;
+    }
+}
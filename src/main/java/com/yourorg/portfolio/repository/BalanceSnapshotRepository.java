@@ -0,0 +1,22 @@
+package com.yourorg.portfolio.repository;
+
+import com.yourorg.portfolio.model.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, BalanceSnapshot.BalanceSnapshotId> {
+
+    /**
+     * Latest snapshot taken at or before a time, via (account_id, created_at)
+     */
+    Optional<BalanceSnapshot> findFirstByAccountIdAndCreatedAtLessThanEqualOrderByCreatedAtDescSeqDesc(Long accountId, LocalDateTime at);
+
+    /**
+     * The snapshot after seq, which bounds the entries a balance-at-time read has to sum
+     */
+    Optional<BalanceSnapshot> findFirstByAccountIdAndSeqGreaterThanOrderBySeqAsc(Long accountId, long seq);
+}
@@ -2,7 +2,13 @@ package com.yourorg.portfolio.repository;
 
 import com.yourorg.portfolio.model.BankAccount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -10,5 +16,40 @@ public interface BankAccountRepository extends JpaRepository<BankAccount, Long>
     Optional<BankAccount> findByUserId(Long userId);
     Optional<BankAccount> findByAccountNumber(String accountNumber);
     boolean existsByAccountNumber(String accountNumber);
-}
 
+    /**
+     * Subtract from the balance only if it covers the amount. The check and the write are one
+     * statement under the row lock, so concurrent debits cannot overdraw or lose each other's
+     * updates. Returns 0 when the balance is insufficient or the user has no account.
+     * Each successful update also advances the ledger sequence for the entry that records it.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BankAccount b SET b.currentBalance = b.currentBalance - :amount, " +
+           "b.version = b.version + 1, b.ledgerSequence = b.ledgerSequence + 1, b.updatedAt = :now " +
+           "WHERE b.user.id = :userId AND b.currentBalance >= :amount")
+    int debit(@Param("userId") Long userId, @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+
+    /**
+     * Add to the balance in one statement. Returns 0 when the user has no account.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BankAccount b SET b.currentBalance = b.currentBalance + :amount, " +
+           "b.version = b.version + 1, b.ledgerSequence = b.ledgerSequence + 1, b.updatedAt = :now " +
+           "WHERE b.user.id = :userId")
+    int credit(@Param("userId") Long userId, @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+
+    /**
+     * Balance and ledger sequence as of the caller's last update. Read in the same transaction
+     * right after debit or credit, while that update still holds the row lock, so no other
+     * change can be interleaved.
+     */
+    @Query("SELECT b.id AS accountId, b.currentBalance AS balance, b.ledgerSequence AS ledgerSequence " +
+           "FROM BankAccount b WHERE b.user.id = :userId")
+    Optional<LedgerState> findLedgerStateByUserId(@Param("userId") Long userId);
+
+    interface LedgerState {
+        Long getAccountId();
+        BigDecimal getBalance();
+        Long getLedgerSequence();
+    }
+}
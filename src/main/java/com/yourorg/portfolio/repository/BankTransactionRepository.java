@@ -0,0 +1,35 @@
+package com.yourorg.portfolio.repository;
+
+import com.yourorg.portfolio.model.BankTransaction;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BankTransactionRepository extends JpaRepository<BankTransaction, Long> {
+
+    /**
+     * Newest entries with seq below the cursor; a seek on (account_id, seq), so deep pages cost
+     * the same as the first
+     */
+    @Query("SELECT t FROM BankTransaction t WHERE t.accountId = :accountId AND t.seq < :beforeSeq ORDER BY t.seq DESC")
+    List<BankTransaction> findPageBefore(@Param("accountId") Long accountId,
+                                         @Param("beforeSeq") long beforeSeq,
+                                         Pageable page);
+
+    /**
+     * Sum of the entries in (fromSeq, toSeq] made at or before a time, a range read on (account_id, seq)
+     */
+    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM BankTransaction t WHERE t.accountId = :accountId " +
+           "AND t.seq > :fromSeq AND t.seq <= :toSeq AND t.createdAt <= :at")
+    BigDecimal sumBetween(@Param("accountId") Long accountId,
+                          @Param("fromSeq") long fromSeq,
+                          @Param("toSeq") long toSeq,
+                          @Param("at") LocalDateTime at);
+}
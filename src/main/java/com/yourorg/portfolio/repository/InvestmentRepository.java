@@ -1,20 +1,74 @@
 package com.yourorg.portfolio.repository;
 
 import com.yourorg.portfolio.model.Investment;
+import com.yourorg.portfolio.model.Stock;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface InvestmentRepository extends JpaRepository<Investment, Long> {
     List<Investment> findByPortfolioId(Long portfolioId);
     
-    @Query("SELECT i FROM Investment i WHERE i.portfolio.user.id = :userId")
+    @Query("SELECT i FROM Investment i JOIN FETCH i.stock WHERE i.portfolio.user.id = :userId")
     List<Investment> findByUserId(@Param("userId") Long userId);
     
     @Query("SELECT i FROM Investment i WHERE i.portfolio.id = :portfolioId AND i.stock.symbol = :symbol")
     List<Investment> findByPortfolioIdAndStockSymbol(@Param("portfolioId") Long portfolioId, @Param("symbol") String symbol);
-}
+    
+    /**
+     * Every lot a portfolio holds of one stock, oldest first; a range read on
+     * (portfolio_id, stock_id, buy_date). The rows stay locked until the transaction ends, so two
+     * sells of the same symbol cannot consume the same lot.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Investment i WHERE i.portfolio.id = :portfolioId AND i.stock.id = :stockId " +
+           "ORDER BY i.buyDate, i.id")
+    List<Investment> findLotsForSale(@Param("portfolioId") Long portfolioId, @Param("stockId") Long stockId);
+
+    /**
+     * The stocks of those of the given lots the portfolio holds, by symbol, so that orders selling
+     * several symbols lock their lots in the same order
+     */
+    @Query("SELECT DISTINCT s FROM Investment i JOIN i.stock s " +
+           "WHERE i.portfolio.id = :portfolioId AND i.id IN :ids ORDER BY s.symbol")
+    List<Stock> findStocksOfLots(@Param("portfolioId") Long portfolioId, @Param("ids") Collection<Long> ids);
 
+    /**
+     * Every symbol currently held by any portfolio
+     */
+    @Query("SELECT DISTINCT s.symbol FROM Investment i JOIN i.stock s")
+    List<String> findDistinctHeldSymbols();
+    
+    /**
+     * Read path for portfolio valuation: every holding with its stock metadata and the
+     * owner's cash balance in a single statement, instead of one query per lazy association.
+     */
+    @Query("SELECT i.id AS investmentId, s.symbol AS symbol, s.companyName AS companyName, " +
+           "i.quantity AS quantity, i.buyPrice AS buyPrice, i.buyDate AS buyDate, " +
+           "b.currentBalance AS cashBalance " +
+           "FROM Investment i JOIN i.stock s JOIN i.portfolio p " +
+           "LEFT JOIN BankAccount b ON b.user = p.user " +
+           "WHERE p.id = :portfolioId ORDER BY i.id")
+    List<HoldingRow> findHoldingRowsByPortfolioId(@Param("portfolioId") Long portfolioId);
+    
+    /**
+     * Flat projection of a holding joined with its stock and the owner's bank balance
+     */
+    interface HoldingRow {
+        Long getInvestmentId();
+        String getSymbol();
+        String getCompanyName();
+        Integer getQuantity();
+        BigDecimal getBuyPrice();
+        LocalDate getBuyDate();
+        BigDecimal getCashBalance();
+    }
+}
@@ -2,12 +2,45 @@ package com.yourorg.portfolio.repository;
 
 import com.yourorg.portfolio.model.Portfolio;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
 import java.util.Optional;
 
 @Repository
 public interface PortfolioRepository extends JpaRepository<Portfolio, Long> {
     Optional<Portfolio> findByUserId(Long userId);
     boolean existsByUserId(Long userId);
-}
 
+    /**
+     * Read path for a portfolio page: the portfolio, its owner's name and cash balance in a single
+     * statement. Loading the entities instead would also load the owner's bank account and risk
+     * profile. Cash moves independently of the positions, so it is read on every request while
+     * the holdings come from the cached valuation.
+     */
+    @Query("SELECT p.id AS portfolioId, p.name AS name, p.description AS description, " +
+           "u.id AS userId, u.firstName AS firstName, u.lastName AS lastName, b.currentBalance AS cashBalance " +
+           "FROM Portfolio p JOIN p.user u " +
+           "LEFT JOIN BankAccount b ON b.user = u " +
+           "WHERE u.id = :userId")
+    Optional<PortfolioRow> findPortfolioRowByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT p.id FROM Portfolio p WHERE p.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+
+    /**
+     * Flat projection of a portfolio with its owner's name and bank balance; the balance is null
+     * when the owner has no bank account yet
+     */
+    interface PortfolioRow {
+        Long getPortfolioId();
+        String getName();
+        String getDescription();
+        Long getUserId();
+        String getFirstName();
+        String getLastName();
+        BigDecimal getCashBalance();
+    }
+}
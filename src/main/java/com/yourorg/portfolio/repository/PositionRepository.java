@@ -0,0 +1,86 @@
+package com.yourorg.portfolio.repository;
+
+import com.yourorg.portfolio.model.Position;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PositionRepository extends JpaRepository<Position, Long> {
+
+    /**
+     * Add bought lots to a position, creating it on the first buy. A single upsert, so two
+     * concurrent first buys of a symbol cannot create two positions.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO positions (portfolio_id, stock_id, quantity, cost_basis, lot_count, updated_at) " +
+                   "VALUES (:portfolioId, :stockId, :quantity, :cost, :lots, :now) " +
+                   "ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity), " +
+                   "cost_basis = cost_basis + VALUES(cost_basis), lot_count = lot_count + VALUES(lot_count), " +
+                   "updated_at = VALUES(updated_at)",
+           nativeQuery = true)
+    int addLots(@Param("portfolioId") Long portfolioId,
+                @Param("stockId") Long stockId,
+                @Param("quantity") int quantity,
+                @Param("cost") BigDecimal cost,
+                @Param("lots") int lots,
+                @Param("now") LocalDateTime now);
+
+    /**
+     * Take sold quantity and its lot cost out of a position. Returns 0 when the position does not
+     * hold that much, i.e. it is out of step with its lots.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Position p SET p.quantity = p.quantity - :quantity, p.costBasis = p.costBasis - :cost, " +
+           "p.lotCount = p.lotCount - :closedLots, p.updatedAt = :now " +
+           "WHERE p.portfolio.id = :portfolioId AND p.stock.id = :stockId AND p.quantity >= :quantity")
+    int removeFromLots(@Param("portfolioId") Long portfolioId,
+                       @Param("stockId") Long stockId,
+                       @Param("quantity") int quantity,
+                       @Param("cost") BigDecimal cost,
+                       @Param("closedLots") int closedLots,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM Position p WHERE p.portfolio.id = :portfolioId AND p.stock.id = :stockId AND p.quantity = 0")
+    int deleteIfEmpty(@Param("portfolioId") Long portfolioId, @Param("stockId") Long stockId);
+
+    /**
+     * Read path for portfolio valuation: one row per held symbol with its stock metadata in a
+     * single statement
+     */
+    @Query("SELECT p.id AS positionId, s.symbol AS symbol, s.companyName AS companyName, " +
+           "p.quantity AS quantity, p.costBasis AS costBasis, p.lotCount AS lotCount " +
+           "FROM Position p JOIN p.stock s " +
+           "WHERE p.portfolio.id = :portfolioId ORDER BY s.symbol")
+    List<PositionRow> findPositionRowsByPortfolioId(@Param("portfolioId") Long portfolioId);
+
+    /**
+     * The same rows for a few symbols only, e.g. those a trade just changed
+     */
+    @Query("SELECT p.id AS positionId, s.symbol AS symbol, s.companyName AS companyName, " +
+           "p.quantity AS quantity, p.costBasis AS costBasis, p.lotCount AS lotCount " +
+           "FROM Position p JOIN p.stock s " +
+           "WHERE p.portfolio.id = :portfolioId AND s.symbol IN :symbols")
+    List<PositionRow> findPositionRowsByPortfolioIdAndSymbols(@Param("portfolioId") Long portfolioId,
+                                                              @Param("symbols") Collection<String> symbols);
+
+    /**
+     * Flat projection of a position joined with its stock
+     */
+    interface PositionRow {
+        Long getPositionId();
+        String getSymbol();
+        String getCompanyName();
+        Integer getQuantity();
+        BigDecimal getCostBasis();
+        Integer getLotCount();
+    }
+}
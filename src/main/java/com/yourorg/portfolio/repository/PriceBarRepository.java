@@ -0,0 +1,76 @@
+package com.yourorg.portfolio.repository;
+
+import com.yourorg.portfolio.model.PriceBar;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Range reads over price_bars. Every query leads with (symbol, bar_interval) and ranges on ts,
+ * so it is answered by a contiguous scan of the clustered primary key.
+ */
+@Repository
+public interface PriceBarRepository extends JpaRepository<PriceBar, PriceBar.PriceBarId> {
+
+    /**
+     * Bars in [from, to), oldest first
+     */
+    @Query("SELECT b FROM PriceBar b WHERE b.symbol = :symbol AND b.barInterval = :interval " +
+           "AND b.ts >= :from AND b.ts < :to ORDER BY b.ts")
+    List<PriceBar> findRange(@Param("symbol") String symbol,
+                             @Param("interval") PriceBar.BarInterval interval,
+                             @Param("from") Instant from,
+                             @Param("to") Instant to);
+
+    /**
+     * Closes only, for return and volatility calculations that do not need full bars
+     */
+    @Query("SELECT b.ts AS ts, b.closePrice AS close FROM PriceBar b " +
+           "WHERE b.symbol = :symbol AND b.barInterval = :interval " +
+           "AND b.ts >= :from AND b.ts < :to ORDER BY b.ts")
+    List<ClosePoint> findCloses(@Param("symbol") String symbol,
+                                @Param("interval") PriceBar.BarInterval interval,
+                                @Param("from") Instant from,
+                                @Param("to") Instant to);
+
+    /**
+     * A symbol's full close history for one interval, oldest first
+     */
+    @Query("SELECT b.ts AS ts, b.closePrice AS close FROM PriceBar b " +
+           "WHERE b.symbol = :symbol AND b.barInterval = :interval ORDER BY b.ts")
+    List<ClosePoint> findAllCloses(@Param("symbol") String symbol,
+                                   @Param("interval") PriceBar.BarInterval interval);
+
+    @Query("SELECT DISTINCT b.symbol FROM PriceBar b WHERE b.barInterval = :interval ORDER BY b.symbol")
+    List<String> findDistinctSymbols(@Param("interval") PriceBar.BarInterval interval);
+
+    /**
+     * Most recent bars, newest first; page size bounds the count
+     */
+    List<PriceBar> findBySymbolAndBarIntervalOrderByTsDesc(String symbol, PriceBar.BarInterval barInterval, Pageable pageable);
+
+    /**
+     * Minute bars of every symbol in [from, to), grouped by symbol in time order for rollups
+     */
+    @Query("SELECT b FROM PriceBar b WHERE b.barInterval = :interval " +
+           "AND b.ts >= :from AND b.ts < :to ORDER BY b.symbol, b.ts")
+    List<PriceBar> findAllInRange(@Param("interval") PriceBar.BarInterval interval,
+                                  @Param("from") Instant from,
+                                  @Param("to") Instant to);
+
+    @Modifying
+    @Query("DELETE FROM PriceBar b WHERE b.barInterval = :interval AND b.ts < :before")
+    int deleteOlderThan(@Param("interval") PriceBar.BarInterval interval, @Param("before") Instant before);
+
+    interface ClosePoint {
+        Instant getTs();
+        BigDecimal getClose();
+    }
+}
@@ -0,0 +1,20 @@
+package com.yourorg.portfolio.repository;
+
+import com.yourorg.portfolio.model.RealizedGain;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RealizedGainRepository extends JpaRepository<RealizedGain, Long> {
+
+    /**
+     * A portfolio's realized gains, newest sale first; a range read on (portfolio_id, sold_at)
+     */
+    @Query("SELECT g FROM RealizedGain g JOIN FETCH g.stock WHERE g.portfolioId = :portfolioId " +
+           "ORDER BY g.soldAt DESC, g.id DESC")
+    List<RealizedGain> findByPortfolioId(@Param("portfolioId") Long portfolioId);
+}
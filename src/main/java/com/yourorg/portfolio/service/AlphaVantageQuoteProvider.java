@@ -0,0 +1,83 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import com.yourorg.portfolio.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Alpha Vantage GLOBAL_QUOTE endpoint
+ */
+@Component
+public class AlphaVantageQuoteProvider implements QuoteProvider {
+
+    public static final String NAME = "alpha-vantage";
+
+    private static final long RATE_LIMIT_RETRY_SECONDS = 60;
+
+    private final WebClient webClient;
+    private final String apiKey;
+    private final int maxConcurrency;
+
+    @Autowired
+    public AlphaVantageQuoteProvider(WebClient.Builder webClientBuilder,
+                                     @Value("${external.stock-api.alpha-vantage.base-url:https://www.alphavantage.co/query}") String baseUrl,
+                                     @Value("${external.stock-api.alpha-vantage.api-key:demo}") String apiKey,
+                                     @Value("${external.stock-api.alpha-vantage.max-concurrency:2}") int maxConcurrency) {
+        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+        this.apiKey = apiKey;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public Mono<StockPriceDTO> fetchQuote(String symbol) {
+        return webClient.get()
+            .uri(uriBuilder -> uriBuilder
+                .queryParam("function", "GLOBAL_QUOTE")
+                .queryParam("symbol", symbol)
+                .queryParam("apikey", apiKey)
+                .build())
+            .retrieve()
+            .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+            .flatMap(result -> isRateLimited(result)
+                ? Mono.error(new TooManyRequestsException("Alpha Vantage rate limit reached", RATE_LIMIT_RETRY_SECONDS))
+                : Mono.justOrEmpty(parse(symbol, result)));
+    }
+
+    /**
+     * Alpha Vantage answers a throttled request with 200 and a "Note" or "Information" message instead of a quote
+     */
+    static boolean isRateLimited(Map<String, Object> result) {
+        return !result.containsKey("Global Quote") && (result.containsKey("Note") || result.containsKey("Information"));
+    }
+
+    /**
+     * Map a GLOBAL_QUOTE payload; unknown symbols come back without a quote
+     */
+    static StockPriceDTO parse(String symbol, Map<String, Object> result) {
+        if (!(result.get("Global Quote") instanceof Map<?, ?> quote) || quote.get("05. price") == null) {
+            return null;
+        }
+        BigDecimal price = new BigDecimal(quote.get("05. price").toString());
+        Object previousClose = quote.get("08. previous close");
+        return QuoteProvider.toQuote(symbol, price,
+            previousClose != null ? new BigDecimal(previousClose.toString()) : null, "USD");
+    }
+}
@@ -0,0 +1,212 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.BatchOrderRequestDTO.OrderLegDTO;
+import com.yourorg.portfolio.dto.BatchOrderResultDTO;
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import com.yourorg.portfolio.model.BankTransaction;
+import com.yourorg.portfolio.model.Investment;
+import com.yourorg.portfolio.model.Portfolio;
+import com.yourorg.portfolio.model.RealizedGain;
+import com.yourorg.portfolio.model.RealizedGain.LotMethod;
+import com.yourorg.portfolio.model.Stock;
+import com.yourorg.portfolio.model.User;
+import com.yourorg.portfolio.repository.InvestmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Executes many buy and sell legs in one transaction. Everything is validated before anything is
+ * written; stocks, held investments and quotes are each resolved with one bulk call; the bank
+ * account is debited or credited once with the net amount; and new investments are saved together,
+ * which Hibernate sends as JDBC insert batches (hibernate.jdbc.batch_size) thanks to their pooled ids.
+ * Sell legs go through SellOrderService as SPECIFIC lot sales: each sold symbol's lots are locked
+ * with findLotsForSale, symbols in alphabetical order, and realized gains are recorded.
+ */
+@Service
+@Transactional
+public class BatchOrderService {
+
+    private final InvestmentRepository investmentRepository;
+    private final PortfolioService portfolioService;
+    private final StockService stockService;
+    private final UserService userService;
+    private final PositionService positionService;
+    private final SellOrderService sellOrderService;
+    private final int maxLegs;
+    private final Clock clock;
+
+    @Autowired
+    public BatchOrderService(InvestmentRepository investmentRepository,
+                             PortfolioService portfolioService,
+                             StockService stockService,
+                             UserService userService,
+                             PositionService positionService,
+                             SellOrderService sellOrderService,
+                             @Value("${portfolio.batch-order.max-legs:500}") int maxLegs) {
+        this(investmentRepository, portfolioService, stockService, userService, positionService, sellOrderService,
+            maxLegs, Clock.systemDefaultZone());
+    }
+
+    public BatchOrderService(InvestmentRepository investmentRepository, PortfolioService portfolioService,
+                             StockService stockService, UserService userService, PositionService positionService,
+                             SellOrderService sellOrderService, int maxLegs, Clock clock) {
+        this.investmentRepository = investmentRepository;
+        this.portfolioService = portfolioService;
+        this.stockService = stockService;
+        this.userService = userService;
+        this.positionService = positionService;
+        this.sellOrderService = sellOrderService;
+        this.maxLegs = maxLegs;
+        this.clock = clock;
+    }
+
+    /**
+     * Execute all legs or none. Sells may fund buys in the same order, since only the net amount
+     * has to be covered by the bank balance.
+     *
+     * @throws IllegalArgumentException listing every invalid leg, or when the balance is insufficient
+     */
+    public BatchOrderResultDTO execute(Long userId, List<OrderLegDTO> legs) {
+        if (legs == null || legs.isEmpty()) {
+            throw new IllegalArgumentException("At least one leg is required");
+        }
+        if (legs.size() > maxLegs) {
+            throw new IllegalArgumentException("At most " + maxLegs + " legs are allowed per order");
+        }
+
+        List<String> errors = new ArrayList<>();
+        List<OrderLegDTO> buys = new ArrayList<>();
+        Map<Long, Integer> sellQuantities = new LinkedHashMap<>();
+        for (int i = 0; i < legs.size(); i++) {
+            OrderLegDTO leg = legs.get(i);
+            if (leg.getSide() == null || leg.getQuantity() == null || leg.getQuantity() < 1) {
+                errors.add("legs[" + i + "]: side and a positive quantity are required");
+            } else if (leg.getSide() == OrderLegDTO.Side.BUY) {
+                if (leg.getSymbol() == null || leg.getSymbol().isBlank()) {
+                    errors.add("legs[" + i + "]: symbol is required to buy");
+                } else if (leg.getPrice() != null && leg.getPrice().signum() <= 0) {
+                    errors.add("legs[" + i + "]: price must be greater than 0");
+                } else {
+                    buys.add(leg);
+                }
+            } else if (leg.getInvestmentId() == null) {
+                errors.add("legs[" + i + "]: investmentId is required to sell");
+            } else {
+                sellQuantities.merge(leg.getInvestmentId(), leg.getQuantity(), Integer::sum);
+            }
+        }
+
+        User user = userService.getUserEntityById(userId);
+        Portfolio portfolio = buys.isEmpty() && sellQuantities.isEmpty()
+            ? null : portfolioService.getOrCreatePortfolio(user);
+
+        // Lock every lot of each sold symbol, as a single sell does, before reading quantities
+        Map<Long, Investment> held = new LinkedHashMap<>();
+        if (!sellQuantities.isEmpty()) {
+            for (Stock stock : investmentRepository.findStocksOfLots(portfolio.getId(), sellQuantities.keySet())) {
+                for (Investment lot : investmentRepository.findLotsForSale(portfolio.getId(), stock.getId())) {
+                    held.put(lot.getId(), lot);
+                }
+            }
+        }
+        Map<String, Map<Investment, Integer>> soldBySymbol = new LinkedHashMap<>();
+        for (Map.Entry<Long, Integer> sell : sellQuantities.entrySet()) {
+            Investment investment = held.get(sell.getKey());
+            if (investment == null) {
+                errors.add("Investment " + sell.getKey() + " not found or does not belong to user");
+            } else if (sell.getValue() > investment.getQuantity()) {
+                errors.add("Cannot sell " + sell.getValue() + " of investment " + sell.getKey()
+                    + ", only " + investment.getQuantity() + " owned");
+            } else {
+                soldBySymbol.computeIfAbsent(investment.getStock().getSymbol(), symbol -> new LinkedHashMap<>())
+                    .put(investment, sell.getValue());
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", errors));
+        }
+
+        // One stock lookup/creation and one quote batch for the whole order
+        Set<String> buySymbols = new LinkedHashSet<>();
+        Set<String> quoted = new LinkedHashSet<>();
+        for (OrderLegDTO buy : buys) {
+            String symbol = normalize(buy.getSymbol());
+            buySymbols.add(symbol);
+            if (buy.getPrice() == null) {
+                quoted.add(symbol);
+            }
+        }
+        quoted.addAll(soldBySymbol.keySet());
+        Map<String, Stock> stocks = buySymbols.isEmpty() ? Map.of() : stockService.getOrCreateStocks(buySymbols);
+        Map<String, StockPriceDTO> prices = quoted.isEmpty() ? Map.of() : stockService.getCurrentPrices(quoted);
+
+        List<Investment> created = new ArrayList<>(buys.size());
+        BigDecimal totalCost = BigDecimal.ZERO;
+        for (OrderLegDTO buy : buys) {
+            String symbol = normalize(buy.getSymbol());
+            BigDecimal price = buy.getPrice() != null ? buy.getPrice() : priceOf(prices, symbol);
+            Investment investment = new Investment(portfolio, stocks.get(symbol), buy.getQuantity(), price,
+                LocalDate.now(clock));
+            created.add(investment);
+            totalCost = totalCost.add(price.multiply(BigDecimal.valueOf(buy.getQuantity())));
+        }
+
+        // Resolve every price before the first write, so a missing quote fails the order up front
+        Map<String, BigDecimal> sellPrices = new LinkedHashMap<>();
+        soldBySymbol.keySet().forEach(symbol -> sellPrices.put(symbol, priceOf(prices, symbol)));
+
+        BigDecimal totalProceeds = BigDecimal.ZERO;
+        BigDecimal realizedGain = BigDecimal.ZERO;
+        for (Map.Entry<String, Map<Investment, Integer>> sold : soldBySymbol.entrySet()) {
+            BigDecimal price = sellPrices.get(sold.getKey());
+            for (RealizedGain gain : sellOrderService.sellLots(sold.getValue(), price, LotMethod.SPECIFIC)) {
+                totalProceeds = totalProceeds.add(gain.getProceeds());
+                realizedGain = realizedGain.add(gain.getGain());
+            }
+        }
+
+        // A single balance change for the whole order; the conditional debit is the balance check
+        BatchOrderResultDTO result = new BatchOrderResultDTO(created.size(), sellQuantities.size(), totalCost, totalProceeds);
+        result.setRealizedGain(realizedGain);
+        String description = "Batch order: " + buys.size() + " buys, " + sellQuantities.size() + " sells";
+        BigDecimal net = result.getNetCashChange();
+        if (net.signum() < 0) {
+            if (!userService.tryDebit(userId, net.negate(), BankTransaction.Type.BUY, description)) {
+                throw new IllegalArgumentException("Insufficient bank balance");
+            }
+        } else if (net.signum() > 0) {
+            userService.credit(userId, net, BankTransaction.Type.SELL, description);
+        }
+
+        if (!created.isEmpty()) {
+            investmentRepository.saveAll(created);
+            positionService.recordBuys(created);
+        }
+        return result;
+    }
+
+    private static BigDecimal priceOf(Map<String, StockPriceDTO> prices, String symbol) {
+        StockPriceDTO quote = prices.get(symbol);
+        if (quote == null || quote.getCurrentPrice() == null) {
+            throw new IllegalArgumentException("No current price for " + symbol);
+        }
+        return quote.getCurrentPrice();
+    }
+
+    private static String normalize(String symbol) {
+        return symbol.trim().toUpperCase(Locale.ROOT);
+    }
+}
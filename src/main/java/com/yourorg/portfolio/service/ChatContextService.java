@@ -0,0 +1,228 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.event.PositionsChangedEvent;
+import com.yourorg.portfolio.event.RiskProfileChangedEvent;
+import com.yourorg.portfolio.exception.ResourceNotFoundException;
+import com.yourorg.portfolio.model.Portfolio;
+import com.yourorg.portfolio.model.RiskProfile;
+import com.yourorg.portfolio.model.Stock;
+import com.yourorg.portfolio.repository.PortfolioRepository;
+import com.yourorg.portfolio.repository.RiskProfileRepository;
+import com.yourorg.portfolio.repository.StockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user portfolio summary that chatbot prompts are built around. It is built once from the
+ * cached valuation, the stocks' sectors and the stored risk profile (never re-running the risk
+ * analysis), then reused across a conversation until a trade or a risk profile change
+ * invalidates it, or its TTL bounds how far prices may have moved since. A stable summary also
+ * keeps ChatResponseCache's context fingerprint stable between messages.
+ */
+@Service
+public class ChatContextService {
+
+    private static final int TOP_HOLDINGS = 5;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    /**
+     * @param summary the prompt text: totals, top holdings, sector weights and risk
+     */
+    public record ChatContext(Long portfolioId, String summary) {
+    }
+
+    private final PortfolioRepository portfolioRepository;
+    private final PortfolioValuationService valuationService;
+    private final StockRepository stockRepository;
+    private final RiskProfileRepository riskProfileRepository;
+    private final Duration ttl;
+    private final int maxSize;
+    private final Clock clock;
+
+    private final LinkedHashMap<Long, CachedContext> contexts;
+    // Bumped on every invalidation, so a build that overlapped one is not cached
+    private final Map<Long, Long> userGenerations = new HashMap<>();
+    private final Map<Long, Long> portfolioGenerations = new HashMap<>();
+    private final Map<Long, Long> userByPortfolio = new HashMap<>();
+
+    @Autowired
+    public ChatContextService(PortfolioRepository portfolioRepository,
+                              PortfolioValuationService valuationService,
+                              StockRepository stockRepository,
+                              RiskProfileRepository riskProfileRepository,
+                              @Value("${chatbot.context.ttl-minutes:15}") long ttlMinutes,
+                              @Value("${chatbot.context.max-size:10000}") int maxSize) {
+        this(portfolioRepository, valuationService, stockRepository, riskProfileRepository,
+             Duration.ofMinutes(ttlMinutes), maxSize, Clock.systemUTC());
+    }
+
+    public ChatContextService(PortfolioRepository portfolioRepository,
+                              PortfolioValuationService valuationService,
+                              StockRepository stockRepository,
+                              RiskProfileRepository riskProfileRepository,
+                              Duration ttl, int maxSize, Clock clock) {
+        this.portfolioRepository = portfolioRepository;
+        this.valuationService = valuationService;
+        this.stockRepository = stockRepository;
+        this.riskProfileRepository = riskProfileRepository;
+        this.ttl = ttl;
+        this.maxSize = Math.max(1, maxSize);
+        this.clock = clock;
+        this.contexts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedContext> eldest) {
+                if (size() > ChatContextService.this.maxSize) {
+                    userByPortfolio.remove(eldest.getValue().context.portfolioId());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * The user's current context, built only when none is cached
+     */
+    public ChatContext getContext(Long userId) {
+        long userGeneration;
+        synchronized (contexts) {
+            CachedContext cached = contexts.get(userId);
+            if (cached != null && cached.expiresAt > clock.millis()) {
+                return cached.context;
+            }
+            userGeneration = userGenerations.getOrDefault(userId, 0L);
+        }
+
+        Portfolio portfolio = portfolioRepository.findByUserId(userId)
+            .orElseThrow(() -> new ResourceNotFoundException("Portfolio", "userId", userId));
+        Long portfolioId = portfolio.getId();
+        long portfolioGeneration;
+        synchronized (contexts) {
+            portfolioGeneration = portfolioGenerations.getOrDefault(portfolioId, 0L);
+        }
+
+        ChatContext context = build(userId, portfolioId);
+
+        synchronized (contexts) {
+            if (userGenerations.getOrDefault(userId, 0L) == userGeneration
+                    && portfolioGenerations.getOrDefault(portfolioId, 0L) == portfolioGeneration) {
+                contexts.put(userId, new CachedContext(context, clock.millis() + ttl.toMillis()));
+                userByPortfolio.put(portfolioId, userId);
+            }
+        }
+        return context;
+    }
+
+    /**
+     * Runs after PortfolioValuationService has applied the same trade, so a rebuild sees it
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPositionsChanged(PositionsChangedEvent event) {
+        synchronized (contexts) {
+            portfolioGenerations.merge(event.portfolioId(), 1L, Long::sum);
+            Long userId = userByPortfolio.remove(event.portfolioId());
+            if (userId != null) {
+                contexts.remove(userId);
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRiskProfileChanged(RiskProfileChangedEvent event) {
+        invalidate(event.userId());
+    }
+
+    public void invalidate(Long userId) {
+        synchronized (contexts) {
+            userGenerations.merge(userId, 1L, Long::sum);
+            CachedContext removed = contexts.remove(userId);
+            if (removed != null) {
+                userByPortfolio.remove(removed.context.portfolioId());
+            }
+        }
+    }
+
+    private ChatContext build(Long userId, Long portfolioId) {
+        PortfolioValuation.Snapshot valuation = valuationService.getValuation(portfolioId);
+        BigDecimal totalValue = valuation.totalValue();
+        BigDecimal totalCost = valuation.totalCost();
+
+        StringBuilder summary = new StringBuilder(String.format(
+            "Portfolio Value: $%.2f, Cost: $%.2f, Profit/Loss: %.2f%%, Holdings: %d",
+            totalValue, totalCost,
+            PortfolioService.percentOf(totalValue.subtract(totalCost), totalCost),
+            valuation.lines().size()));
+
+        if (totalValue.signum() > 0) {
+            List<PortfolioValuation.Line> byValue = new ArrayList<>(valuation.lines());
+            byValue.sort(Comparator.comparing(PortfolioValuation.Line::value).reversed());
+            summary.append("\nTop holdings: ").append(byValue.stream()
+                .limit(TOP_HOLDINGS)
+                .map(line -> line.symbol() + " " + weight(line.value(), totalValue))
+                .collect(Collectors.joining(", ")));
+
+            summary.append("\nSector weights: ").append(sectorWeights(valuation.lines(), totalValue));
+        }
+
+        RiskProfile risk = riskProfileRepository.findByUserId(userId).orElse(null);
+        if (risk != null && risk.getRiskCategory() != null) {
+            summary.append(String.format("\nRisk Category: %s (volatility %.2f/10, diversification %.2f/10)",
+                risk.getRiskCategory(), risk.getVolatilityScore(), risk.getDiversificationScore()));
+        } else {
+            summary.append("\nRisk Category: not assessed yet");
+        }
+
+        return new ChatContext(portfolioId, summary.toString());
+    }
+
+    private String sectorWeights(List<PortfolioValuation.Line> lines, BigDecimal totalValue) {
+        Set<String> symbols = new LinkedHashSet<>();
+        lines.forEach(line -> symbols.add(line.symbol()));
+        Map<String, String> sectorBySymbol = new HashMap<>();
+        for (Stock stock : stockRepository.findBySymbolIn(symbols)) {
+            if (stock.getSector() != null && !stock.getSector().isBlank()) {
+                sectorBySymbol.put(stock.getSymbol(), stock.getSector());
+            }
+        }
+
+        Map<String, BigDecimal> valueBySector = new HashMap<>();
+        for (PortfolioValuation.Line line : lines) {
+            valueBySector.merge(sectorBySymbol.getOrDefault(line.symbol(), "Unknown"), line.value(), BigDecimal::add);
+        }
+        return valueBySector.entrySet().stream()
+            .sorted(Map.Entry.<String, BigDecimal>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .map(entry -> entry.getKey() + " " + weight(entry.getValue(), totalValue))
+            .collect(Collectors.joining(", "));
+    }
+
+    private static String weight(BigDecimal value, BigDecimal total) {
+        return value.multiply(HUNDRED).divide(total, 1, RoundingMode.HALF_UP) + "%";
+    }
+
+    private static final class CachedContext {
+        private final ChatContext context;
+        private final long expiresAt;
+
+        private CachedContext(ChatContext context, long expiresAt) {
+            this.context = context;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
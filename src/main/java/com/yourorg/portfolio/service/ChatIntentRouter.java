@@ -0,0 +1,144 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.util.KeywordMatcher;
+
+/**
+ * Routes a chatbot message to the local handler it asks for, or to the model. All keyword sets
+ * are compiled into one KeywordMatcher, so a message is routed in a single pass over its text
+ * however many intents there are. On top of the matches:
+ * <ul>
+ *   <li>whole words only: "sell" does not match "bestseller"</li>
+ *   <li>priority: the highest-priority intent wins, so "suggest stocks to sell" is a sell
+ *       question although "suggest" alone asks for buy ideas; on a tie the earliest wins</li>
+ *   <li>negation: a keyword shortly after "don't", "not", "instead of" and the like in the
+ *       same clause is ignored, so "I don't want to sell, what should I buy?" is a buy question</li>
+ *   <li>concept questions ("what is a capital gain?") go to the model unless they are about
+ *       the user's own portfolio ("what is my risk?")</li>
+ * </ul>
+ */
+public final class ChatIntentRouter {
+
+    public enum Intent {
+        RECOMMEND_BUY, RECOMMEND_SELL, PORTFOLIO_VALUE, PERFORMANCE, RISK_ANALYSIS, HOLDINGS, HELP
+    }
+
+    // "don't want to sell": a negation covers a keyword starting up to this many tokens after it
+    private static final int NEGATION_REACH = 3;
+
+    private enum Kind {
+        INTENT, NEGATION, CLAUSE_BREAK, CONCEPT, PERSONAL
+    }
+
+    private record Rule(Kind kind, Intent intent, int priority) {
+    }
+
+    private static final KeywordMatcher<Rule> MATCHER = buildMatcher();
+
+    private ChatIntentRouter() {
+    }
+
+    /**
+     * The intent a message asks for, or null when the model should answer it
+     */
+    public static Intent route(String message) {
+        if (message == null || message.isBlank()) {
+            return null;
+        }
+        Routing routing = new Routing();
+        MATCHER.scan(message, routing);
+        if (routing.best == null || (routing.concept && !routing.personal)) {
+            return null;
+        }
+        return routing.best.intent();
+    }
+
+    private static KeywordMatcher<Rule> buildMatcher() {
+        KeywordMatcher.Builder<Rule> builder = KeywordMatcher.builder();
+
+        intent(builder, Intent.RECOMMEND_SELL, 50,
+            "sell", "selling", "sell off", "get rid of", "dump", "offload", "cash out", "take profit", "take profits");
+        intent(builder, Intent.RECOMMEND_BUY, 50,
+            "buy", "buying", "purchase", "invest in", "stock picks");
+        // Asking for suggestions without saying buy or sell means buy ideas
+        intent(builder, Intent.RECOMMEND_BUY, 40,
+            "recommend", "recommendation", "recommendations", "suggest", "suggestion", "suggestions");
+        intent(builder, Intent.RISK_ANALYSIS, 35,
+            "value at risk");
+        intent(builder, Intent.PORTFOLIO_VALUE, 32,
+            "portfolio value", "value of my portfolio", "total value", "worth", "net worth", "how much is my portfolio");
+        intent(builder, Intent.RISK_ANALYSIS, 30,
+            "risk", "risks", "risky", "riskiness", "volatility", "volatile", "drawdown", "beta", "how safe");
+        intent(builder, Intent.PERFORMANCE, 25,
+            "performance", "performing", "profit", "profits", "gain", "gains", "losses", "losing", "returns",
+            "profit and loss", "p/l", "p&l", "how am i doing", "up or down", "winners", "losers",
+            "best performer", "best performers", "worst performer", "worst performers");
+        intent(builder, Intent.HOLDINGS, 20,
+            "holdings", "positions", "investments", "my stocks", "my shares", "i own", "what do i have");
+        intent(builder, Intent.HELP, 10,
+            "what can you do", "what can i ask", "how can you help", "how do i use this");
+
+        rules(builder, new Rule(Kind.NEGATION, null, 0),
+            "not", "don't", "doesn't", "never", "no", "without", "avoid", "instead of", "rather than", "except",
+            "other than");
+        rules(builder, new Rule(Kind.CLAUSE_BREAK, null, 0),
+            ",", ".", ";", ":", "!", "?", "but", "however");
+        rules(builder, new Rule(Kind.CONCEPT, null, 0),
+            "what is", "what's", "what are", "what does", "explain", "define", "definition", "meaning of",
+            "how does", "how do", "difference between", "tell me about", "understand");
+        rules(builder, new Rule(Kind.PERSONAL, null, 0),
+            "i", "me", "my", "mine", "i'm", "i've", "our");
+
+        return builder.build();
+    }
+
+    private static void intent(KeywordMatcher.Builder<Rule> builder, Intent intent, int priority, String... keywords) {
+        rules(builder, new Rule(Kind.INTENT, intent, priority), keywords);
+    }
+
+    private static void rules(KeywordMatcher.Builder<Rule> builder, Rule rule, String... keywords) {
+        for (String keyword : keywords) {
+            builder.add(keyword, rule);
+        }
+    }
+
+    /**
+     * State of one scan. Matches arrive in the order they end, so a negation or clause break
+     * is always seen before the keywords after it.
+     */
+    private static final class Routing implements KeywordMatcher.Listener<Rule> {
+        private int clause;
+        private int negationClause = -1;
+        private int negationEnd = -1;
+        private boolean concept;
+        private boolean personal;
+        private Rule best;
+        private int bestFirst;
+
+        @Override
+        public void onMatch(Rule rule, int firstToken, int lastToken) {
+            switch (rule.kind()) {
+                case CLAUSE_BREAK -> clause++;
+                case NEGATION -> {
+                    negationClause = clause;
+                    negationEnd = lastToken;
+                }
+                case CONCEPT -> concept = true;
+                case PERSONAL -> personal = true;
+                case INTENT -> {
+                    if (isNegated(firstToken)) {
+                        return;
+                    }
+                    if (best == null || rule.priority() > best.priority()
+                            || (rule.priority() == best.priority() && firstToken < bestFirst)) {
+                        best = rule;
+                        bestFirst = firstToken;
+                    }
+                }
+            }
+        }
+
+        private boolean isNegated(int firstToken) {
+            return negationClause == clause && firstToken > negationEnd && firstToken - negationEnd <= NEGATION_REACH;
+        }
+    }
+}
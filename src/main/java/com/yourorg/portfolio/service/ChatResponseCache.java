@@ -0,0 +1,317 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.ChatResponseCacheStatsDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Model answers to free-text chatbot questions, keyed on the normalized question plus a
+ * fingerprint of the portfolio context it was asked against, so a changed portfolio never gets
+ * a stale answer. A question that is not cached verbatim can still hit a near-duplicate asked
+ * against the same context: questions are compared by the Jaccard similarity of their character
+ * trigrams, found through an inverted trigram index, and must share the same key terms, so
+ * "should I buy" never gets the answer to "should I sell".
+ * Entries expire after a TTL and the cache is bounded with LRU eviction.
+ */
+@Component
+public class ChatResponseCache {
+
+    private static final int GRAM_LENGTH = 3;
+
+    // Words this short are mostly actions, tickers and comparatives (buy, sell, aapl, more, bad)
+    private static final int SHORT_WORD_LENGTH = 5;
+
+    private static final Set<String> STOPWORDS = Set.of(
+        "a", "am", "an", "and", "any", "are", "as", "at", "be", "by", "can", "could", "do", "does",
+        "for", "from", "how", "i", "if", "in", "is", "it", "its", "me", "my", "of", "on", "or",
+        "so", "some", "that", "the", "them", "then", "there", "these", "this", "to", "was", "what",
+        "when", "where", "which", "who", "why", "will", "with", "would", "you", "your");
+
+    // Longer words that flip a question's meaning
+    private static final Set<String> POLARITY_WORDS = Set.of(
+        "increase", "decrease", "reduce", "bullish", "bearish", "overvalued", "undervalued",
+        "better", "higher", "lower", "riskier", "safer", "cannot", "without");
+
+    private final Duration ttl;
+    private final int maxSize;
+    private final double similarityThreshold;
+    private final Clock clock;
+
+    private final LinkedHashMap<String, CachedAnswer> entries;
+    // context fingerprint -> trigram -> entries containing it
+    private final Map<String, Map<String, Set<CachedAnswer>>> index = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong similarHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    @Autowired
+    public ChatResponseCache(@Value("${chatbot.cache.ttl-minutes:60}") long ttlMinutes,
+                             @Value("${chatbot.cache.max-size:1000}") int maxSize,
+                             @Value("${chatbot.cache.similarity-threshold:0.85}") double similarityThreshold) {
+        this(Duration.ofMinutes(ttlMinutes), maxSize, similarityThreshold, Clock.systemUTC());
+    }
+
+    public ChatResponseCache(Duration ttl, int maxSize, double similarityThreshold, Clock clock) {
+        this.ttl = ttl;
+        this.maxSize = Math.max(1, maxSize);
+        this.similarityThreshold = similarityThreshold;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedAnswer> eldest) {
+                if (size() > ChatResponseCache.this.maxSize) {
+                    unindex(eldest.getValue());
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * The cached answer to this question, or to a near-duplicate of it, asked against this context
+     *
+     * @return the answer, or null on a miss
+     */
+    public String get(String question, String context) {
+        String normalized = normalize(question);
+        String fingerprint = fingerprint(context);
+        long now = clock.millis();
+
+        synchronized (entries) {
+            CachedAnswer exact = entries.get(key(fingerprint, normalized));
+            if (exact != null) {
+                if (exact.expiresAt > now) {
+                    hits.incrementAndGet();
+                    return exact.answer;
+                }
+                expire(exact);
+            }
+
+            CachedAnswer similar = findSimilar(fingerprint, normalized, now);
+            if (similar != null) {
+                // Touch it so a popular answer stays in the LRU order
+                entries.get(similar.key);
+                similarHits.incrementAndGet();
+                return similar.answer;
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Cache a complete model answer, replacing any answer to the same question and context
+     */
+    public void put(String question, String context, String answer) {
+        if (question == null || answer == null) {
+            return;
+        }
+        String normalized = normalize(question);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        String fingerprint = fingerprint(context);
+        CachedAnswer cached = new CachedAnswer(key(fingerprint, normalized), fingerprint, grams(normalized),
+            keyTerms(normalized), answer, clock.millis() + ttl.toMillis());
+
+        synchronized (entries) {
+            CachedAnswer previous = entries.put(cached.key, cached);
+            if (previous != null) {
+                unindex(previous);
+            }
+            Map<String, Set<CachedAnswer>> byGram = index.computeIfAbsent(fingerprint, f -> new HashMap<>());
+            for (String gram : cached.grams) {
+                byGram.computeIfAbsent(gram, g -> new HashSet<>()).add(cached);
+            }
+        }
+    }
+
+    /**
+     * Drop every cached answer
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            index.clear();
+        }
+    }
+
+    /**
+     * Snapshot of the cache counters
+     */
+    public ChatResponseCacheStatsDTO getStats() {
+        ChatResponseCacheStatsDTO stats = new ChatResponseCacheStatsDTO();
+        stats.setHits(hits.get());
+        stats.setSimilarHits(similarHits.get());
+        stats.setMisses(misses.get());
+        stats.setEvictions(evictions.get());
+        stats.setExpirations(expirations.get());
+        synchronized (entries) {
+            stats.setSize(entries.size());
+        }
+        stats.setMaxSize(maxSize);
+        stats.setTtlSeconds(ttl.toSeconds());
+        long requests = stats.getHits() + stats.getSimilarHits() + stats.getMisses();
+        stats.setHitRate(requests == 0 ? 0.0 : (double) (stats.getHits() + stats.getSimilarHits()) / requests);
+        return stats;
+    }
+
+    /**
+     * Most similar fresh answer for the same context at or above the threshold. Only entries
+     * sharing a trigram are scored, so the cost follows the overlap, not the cache size.
+     */
+    private CachedAnswer findSimilar(String fingerprint, String normalized, long now) {
+        Map<String, Set<CachedAnswer>> byGram = index.get(fingerprint);
+        if (byGram == null) {
+            return null;
+        }
+        Set<String> grams = grams(normalized);
+        Map<CachedAnswer, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            Set<CachedAnswer> containing = byGram.get(gram);
+            if (containing != null) {
+                containing.forEach(candidate -> shared.merge(candidate, 1, Integer::sum));
+            }
+        }
+
+        Set<String> keyTerms = keyTerms(normalized);
+        List<CachedAnswer> expired = new ArrayList<>();
+        CachedAnswer best = null;
+        double bestSimilarity = similarityThreshold;
+        for (Map.Entry<CachedAnswer, Integer> entry : shared.entrySet()) {
+            CachedAnswer candidate = entry.getKey();
+            int common = entry.getValue();
+            double similarity = (double) common / (grams.size() + candidate.grams.size() - common);
+            if (similarity < bestSimilarity || !candidate.keyTerms.equals(keyTerms)) {
+                continue;
+            }
+            if (candidate.expiresAt <= now) {
+                expired.add(candidate);
+                continue;
+            }
+            best = candidate;
+            bestSimilarity = similarity;
+        }
+        expired.forEach(this::expire);
+        return best;
+    }
+
+    private void expire(CachedAnswer cached) {
+        entries.remove(cached.key);
+        unindex(cached);
+        expirations.incrementAndGet();
+    }
+
+    private void unindex(CachedAnswer cached) {
+        Map<String, Set<CachedAnswer>> byGram = index.get(cached.fingerprint);
+        if (byGram == null) {
+            return;
+        }
+        for (String gram : cached.grams) {
+            Set<CachedAnswer> containing = byGram.get(gram);
+            if (containing != null && containing.remove(cached) && containing.isEmpty()) {
+                byGram.remove(gram);
+            }
+        }
+        if (byGram.isEmpty()) {
+            index.remove(cached.fingerprint);
+        }
+    }
+
+    /**
+     * Lower case, punctuation dropped, whitespace collapsed: "What is diversification?" and
+     * "what is  diversification" are the same question
+     */
+    static String normalize(String question) {
+        if (question == null) {
+            return "";
+        }
+        return question.toLowerCase()
+            .replaceAll("[^\\p{L}\\p{N}]+", " ")
+            .trim();
+    }
+
+    static String fingerprint(String context) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest((context == null ? "" : context).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static Set<String> grams(String normalized) {
+        Set<String> grams = new HashSet<>();
+        String padded = " " + normalized + " ";
+        for (int i = 0; i + GRAM_LENGTH <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * Words a near-duplicate must repeat exactly: words containing a digit ("buy 10 shares" and
+     * "buy 100 shares" differ), short non-stopwords such as actions, tickers and negations
+     * (including the "t" left of "don't"), and longer polarity words. A typo in a short word
+     * only costs a miss; typos in longer words are absorbed by the trigram similarity.
+     */
+    static Set<String> keyTerms(String normalized) {
+        Set<String> terms = new HashSet<>();
+        for (String word : normalized.split(" ")) {
+            if (word.isEmpty() || STOPWORDS.contains(word)) {
+                continue;
+            }
+            if (word.length() <= SHORT_WORD_LENGTH || POLARITY_WORDS.contains(word)
+                    || word.chars().anyMatch(Character::isDigit)) {
+                terms.add(word);
+            }
+        }
+        return terms;
+    }
+
+    private static String key(String fingerprint, String normalized) {
+        return fingerprint + '|' + normalized;
+    }
+
+    // Identity equality: the index holds exactly the instances in entries
+    private static final class CachedAnswer {
+        private final String key;
+        private final String fingerprint;
+        private final Set<String> grams;
+        private final Set<String> keyTerms;
+        private final String answer;
+        private final long expiresAt;
+
+        private CachedAnswer(String key, String fingerprint, Set<String> grams, Set<String> keyTerms,
+                             String answer, long expiresAt) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.grams = grams;
+            this.keyTerms = keyTerms;
+            this.answer = answer;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.yourorg.portfolio.service;
 
+import com.yourorg.portfolio.dto.ChatResponseCacheStatsDTO;
+import com.yourorg.portfolio.dto.ChatbotChunkDTO;
 import com.yourorg.portfolio.dto.ChatbotRequestDTO;
 import com.yourorg.portfolio.dto.ChatbotResponseDTO;
 import com.yourorg.portfolio.dto.PortfolioDTO;
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import com.yourorg.portfolio.exception.TooManyRequestsException;
 import com.yourorg.portfolio.model.Investment;
 import com.yourorg.portfolio.model.RiskProfile;
 import com.yourorg.portfolio.repository.InvestmentRepository;
@@ -13,29 +17,65 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 @Service
 public class ChatbotService {
     
     private static final Logger logger = LoggerFactory.getLogger(ChatbotService.class);
     
-    // Store user consent in memory (session-based)
-    private final Map<Long, Boolean> userConsent = new ConcurrentHashMap<>();
+    private static final String FALLBACK_RESPONSE =
+        "I understand your question. For specific portfolio information, try asking about:\n" +
+        "• Portfolio value\n" +
+        "• Risk analysis\n" +
+        "• Stock recommendations\n" +
+        "• Holdings";
     
-    private final WebClient webClient;
+    private static final String HELP_RESPONSE =
+        "I can answer questions about your own portfolio:\n" +
+        "• Portfolio value\n" +
+        "• Performance and profit/loss\n" +
+        "• Risk analysis\n" +
+        "• Stocks to buy or sell\n" +
+        "• Holdings\n\n" +
+        "Anything else about investing, just ask.";
+    
+    private static final String CUT_SHORT_NOTICE = "\n\n(The answer was cut short. Please ask again.)";
+    
+    // A model answer can take several seconds; this long is a reasonable wait before retrying
+    private static final long RETRY_AFTER_SECONDS = 5;
+    
+    // Holdings listed as best and as worst performers
+    private static final int PERFORMERS_SHOWN = 3;
+    
+    // Longer turns are cut before they are stored, which also bounds the history in a prompt
+    private static final int MAX_TURN_CHARS = 2000;
+    
+    // Model answers in flight per user
+    private final Map<Long, Integer> inFlight = new ConcurrentHashMap<>();
+    
+    private final GeminiClient geminiClient;
+    private final ConsentStore consentStore;
+    private final ConversationStore conversationStore;
+    private final ChatResponseCache responseCache;
+    private final ChatContextService contextService;
     private final PortfolioService portfolioService;
     private final RiskAnalysisService riskAnalysisService;
     private final InvestmentRepository investmentRepository;
@@ -43,24 +83,29 @@ public class ChatbotService {
     private final UserService userService;
     private final StockService stockService;
     
-    @Value("${external.gemini.api-key:your-gemini-api-key-here}")
-    private String geminiApiKey;
-    
-    @Value("${external.gemini.base-url:https://generativelanguage.googleapis.com/v1beta}")
-    private String geminiBaseUrl;
+    @Value("${chatbot.max-concurrent-per-user:2}")
+    private int maxConcurrentPerUser = 2;
     
-    @Value("${external.gemini.model:gemini-pro}")
-    private String geminiModel;
+    @Value("${chatbot.conversation.history-turns:6}")
+    private int historyTurns = 6;
     
     @Autowired
-    public ChatbotService(WebClient.Builder webClientBuilder,
+    public ChatbotService(GeminiClient geminiClient,
+                         ConsentStore consentStore,
+                         ConversationStore conversationStore,
+                         ChatResponseCache responseCache,
+                         ChatContextService contextService,
                          PortfolioService portfolioService,
                          RiskAnalysisService riskAnalysisService,
                          InvestmentRepository investmentRepository,
                          RiskProfileRepository riskProfileRepository,
                          UserService userService,
                          StockService stockService) {
-        this.webClient = webClientBuilder.build();
+        this.geminiClient = geminiClient;
+        this.consentStore = consentStore;
+        this.conversationStore = conversationStore;
+        this.responseCache = responseCache;
+        this.contextService = contextService;
         this.portfolioService = portfolioService;
         this.riskAnalysisService = riskAnalysisService;
         this.investmentRepository = investmentRepository;
@@ -70,50 +115,107 @@ public class ChatbotService {
     }
     
     /**
-     * Process chatbot request
+     * Process chatbot request, waiting for the whole answer. Request handlers use respond or
+     * streamMessage instead, which do not hold a thread while the model answers.
      */
     public ChatbotResponseDTO processMessage(ChatbotRequestDTO request) {
+        return respond(request).block();
+    }
+    
+    /**
+     * The complete answer to a request, once it has fully arrived
+     */
+    public Mono<ChatbotResponseDTO> respond(ChatbotRequestDTO request) {
+        return streamMessage(request)
+            .filter(ChatbotChunkDTO::isDone)
+            .map(ChatbotChunkDTO::getResult)
+            .next();
+    }
+    
+    /**
+     * The answer to a request as it is produced: text deltas while the model streams, then a
+     * final chunk with the complete response. Consent and quick-action answers arrive as the
+     * final chunk alone. Portfolio lookups run on the bounded elastic pool, the model call is
+     * non-blocking throughout.
+     *
+     * @throws TooManyRequestsException when the user already has the maximum number of model
+     *         answers in flight; the slot taken here is released when the returned stream ends
+     *         or is cancelled, so it must be subscribed
+     */
+    public Flux<ChatbotChunkDTO> streamMessage(ChatbotRequestDTO request) {
         Long userId = request.getUserId();
-        String message = request.getMessage().toLowerCase().trim();
+        String message = request.getMessage();
         Boolean consentGiven = request.getConsentGiven();
         
         // Check if consent is required
-        if (!userConsent.containsKey(userId) || !userConsent.get(userId)) {
+        if (!consentStore.hasConsent(userId)) {
             if (consentGiven != null && consentGiven) {
-                userConsent.put(userId, true);
-                return createResponse(
+                consentStore.grant(userId);
+                return Flux.just(ChatbotChunkDTO.done(createResponse(
                     "✅ Thank you! I now have permission to access your portfolio data. How can I help you today?",
                     false
-                );
+                )));
             } else {
-                return createResponse(Constants.CHATBOT_CONSENT_MESSAGE, true);
+                return Flux.just(ChatbotChunkDTO.done(createResponse(Constants.CHATBOT_CONSENT_MESSAGE, true)));
             }
         }
         
-        // Handle quick actions
-        if (message.contains("recommend") || message.contains("buy") || message.contains("suggest stocks")) {
-            return handleRecommendStocks(userId);
-        }
-        
-        if (message.contains("sell") || message.contains("suggest sell")) {
-            return handleRecommendSell(userId);
-        }
-        
-        // Handle portfolio queries
-        if (message.contains("portfolio value") || message.contains("total value") || message.contains("worth")) {
-            return handlePortfolioValue(userId);
+        Function<Long, ChatbotResponseDTO> quickAction = quickActionFor(message);
+        if (quickAction != null) {
+            return Mono.fromCallable(() -> {
+                    ChatbotResponseDTO response = quickAction.apply(userId);
+                    recordExchange(userId, message, response.getResponse());
+                    return response;
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ChatbotChunkDTO::done)
+                .flux();
         }
         
-        if (message.contains("risk") || message.contains("risky") || message.contains("volatility")) {
-            return handleRiskAnalysis(userId);
+        // Default: Use Gemini API for natural language processing
+        acquireModelSlot(userId);
+        return streamNaturalLanguageQuery(userId, message)
+            .doFinally(signal -> releaseModelSlot(userId));
+    }
+    
+    /**
+     * The canned handler a message asks for, or null when it needs the model
+     */
+    private Function<Long, ChatbotResponseDTO> quickActionFor(String message) {
+        ChatIntentRouter.Intent intent = ChatIntentRouter.route(message);
+        if (intent == null) {
+            return null;
         }
-        
-        if (message.contains("holdings") || message.contains("stocks") || message.contains("investments")) {
-            return handleHoldings(userId);
+        return switch (intent) {
+            case RECOMMEND_BUY -> this::handleRecommendStocks;
+            case RECOMMEND_SELL -> this::handleRecommendSell;
+            case PORTFOLIO_VALUE -> this::handlePortfolioValue;
+            case PERFORMANCE -> this::handlePerformance;
+            case RISK_ANALYSIS -> this::handleRiskAnalysis;
+            case HOLDINGS -> this::handleHoldings;
+            case HELP -> userId -> createResponse(HELP_RESPONSE, false);
+        };
+    }
+    
+    private void acquireModelSlot(Long userId) {
+        boolean[] acquired = {false};
+        inFlight.compute(userId, (id, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= maxConcurrentPerUser) {
+                return count;
+            }
+            acquired[0] = true;
+            return current + 1;
+        });
+        if (!acquired[0]) {
+            throw new TooManyRequestsException(
+                "You already have " + maxConcurrentPerUser + " questions in progress, please wait for an answer",
+                RETRY_AFTER_SECONDS);
         }
-        
-        // Default: Use Gemini API for natural language processing
-        return handleNaturalLanguageQuery(userId, request.getMessage());
+    }
+    
+    private void releaseModelSlot(Long userId) {
+        inFlight.computeIfPresent(userId, (id, count) -> count <= 1 ? null : count - 1);
     }
     
     /**
@@ -143,6 +245,45 @@ public class ChatbotService {
         }
     }
     
+    /**
+     * Handle performance query: overall profit/loss, then the best and worst holdings
+     */
+    private ChatbotResponseDTO handlePerformance(Long userId) {
+        try {
+            PortfolioDTO portfolio = portfolioService.getPortfolioByUserId(userId);
+            if (portfolio.getHoldings().isEmpty()) {
+                return createResponse("You don't have any holdings yet, so there is no performance to show.", false);
+            }
+            
+            List<PortfolioDTO.HoldingDTO> byReturn = new ArrayList<>(portfolio.getHoldings());
+            byReturn.sort(Comparator.comparing(PortfolioDTO.HoldingDTO::getProfitLossPercentage).reversed());
+            int shown = Math.min(PERFORMERS_SHOWN, (byReturn.size() + 1) / 2);
+            
+            StringBuilder response = new StringBuilder(String.format(
+                "📈 **Your Performance:**\n\n" +
+                "Profit/Loss: $%,.2f (%.2f%%)\n\n" +
+                "**Best performers:**\n",
+                portfolio.getTotalProfitLoss(),
+                portfolio.getTotalProfitLossPercentage()
+            ));
+            byReturn.subList(0, shown).forEach(holding -> appendPerformer(response, holding));
+            response.append("\n**Worst performers:**\n");
+            for (int i = byReturn.size() - 1; i >= byReturn.size() - shown; i--) {
+                appendPerformer(response, byReturn.get(i));
+            }
+            
+            return createResponse(response.toString(), false);
+        } catch (Exception e) {
+            logger.error("Error getting performance", e);
+            return createResponse("Sorry, I couldn't retrieve your portfolio performance. Please try again.", false);
+        }
+    }
+    
+    private static void appendPerformer(StringBuilder response, PortfolioDTO.HoldingDTO holding) {
+        response.append(String.format("• %s: %+.2f%% ($%,.2f)\n",
+            holding.getSymbol(), holding.getProfitLossPercentage(), holding.getProfitLoss()));
+    }
+    
     /**
      * Handle risk analysis query
      */
@@ -234,10 +375,16 @@ public class ChatbotService {
             RiskProfile riskProfile = riskProfileRepository.findByUserId(userId).orElse(null);
             List<Investment> investments = investmentRepository.findByUserId(userId);
             
-            // Get current prices and generate recommendations
+            // Get current prices in one batch and generate recommendations
+            Set<String> symbols = new LinkedHashSet<>();
+            for (Investment investment : investments) {
+                symbols.add(investment.getStock().getSymbol());
+            }
+            Map<String, StockPriceDTO> prices = stockService.getCurrentPrices(symbols);
+            
             List<String> recommendations = new ArrayList<>();
             for (Investment investment : investments) {
-                var priceDTO = stockService.getCurrentPrice(investment.getStock().getSymbol());
+                var priceDTO = prices.get(investment.getStock().getSymbol());
                 BigDecimal currentPrice = priceDTO != null ? priceDTO.getCurrentPrice() : investment.getBuyPrice();
                 
                 recommendations.addAll(RecommendationEngine.recommendStocksToSell(
@@ -258,102 +405,127 @@ public class ChatbotService {
     }
     
     /**
-     * Handle natural language queries using Gemini API
+     * Handle natural language queries using Gemini API, streaming the answer as it arrives.
+     * The prompt carries the last turns of the conversation. The response cache only serves and
+     * stores answers to questions asked with no conversation yet: a prompt with history is the
+     * user's own, and a follow-up like "why?" means nothing outside it. Otherwise a question
+     * answered before against the same portfolio context (or a near-duplicate of it) comes from
+     * the cache instead. A failure before any text falls back to the canned suggestions; after some text,
+     * the partial answer is kept and marked as cut short. Only complete answers are cached.
      */
-    private ChatbotResponseDTO handleNaturalLanguageQuery(Long userId, String message) {
+    private Flux<ChatbotChunkDTO> streamNaturalLanguageQuery(Long userId, String message) {
+        return Mono.fromCallable(() -> new PromptInputs(buildPortfolioContext(userId), recentTurns(userId)))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMapMany(inputs -> {
+                String cached = inputs.history().isEmpty() ? responseCache.get(message, inputs.context()) : null;
+                if (cached != null) {
+                    recordExchange(userId, message, cached);
+                    return Flux.just(ChatbotChunkDTO.delta(cached), ChatbotChunkDTO.done(createResponse(cached, false)));
+                }
+                return streamModelAnswer(userId, message, inputs);
+            });
+    }
+    
+    private Flux<ChatbotChunkDTO> streamModelAnswer(Long userId, String message, PromptInputs inputs) {
+        StringBuilder answer = new StringBuilder();
+        boolean[] complete = {true};
+        
+        Flux<ChatbotChunkDTO> deltas = geminiClient.streamGenerate(buildPrompt(inputs.context(), inputs.history(), message))
+            .doOnNext(answer::append)
+            .map(ChatbotChunkDTO::delta)
+            .onErrorResume(e -> {
+                if (e instanceof TimeoutException) {
+                    logger.warn("Gemini API answer for user {} timed out after {} characters", userId, answer.length());
+                } else {
+                    logger.warn("Gemini API call failed, using fallback response: {}", e.getMessage());
+                }
+                complete[0] = false;
+                String rest = answer.isEmpty() ? FALLBACK_RESPONSE : CUT_SHORT_NOTICE;
+                answer.append(rest);
+                return Flux.just(ChatbotChunkDTO.delta(rest));
+            });
+        
+        // Stores are blocking, so the answer is recorded off the thread that delivered it
+        Mono<ChatbotChunkDTO> done = Mono.fromCallable(() -> {
+            if (answer.isEmpty() || answer.toString().equals(FALLBACK_RESPONSE)) {
+                return ChatbotChunkDTO.done(createResponse(FALLBACK_RESPONSE, false));
+            }
+            if (complete[0] && inputs.history().isEmpty()) {
+                responseCache.put(message, inputs.context(), answer.toString());
+            }
+            recordExchange(userId, message, answer.toString());
+            return ChatbotChunkDTO.done(createResponse(answer.toString(), false));
+        }).subscribeOn(Schedulers.boundedElastic());
+        
+        return deltas.concatWith(done);
+    }
+    
+    private record PromptInputs(String context, List<ConversationStore.Turn> history) {
+    }
+    
+    private static String buildPrompt(String context, List<ConversationStore.Turn> history, String message) {
+        StringBuilder conversation = new StringBuilder();
+        if (!history.isEmpty()) {
+            conversation.append("Conversation so far:\n");
+            for (ConversationStore.Turn turn : history) {
+                conversation.append(turn.role() == ConversationStore.Role.USER ? "User: " : "Assistant: ")
+                    .append(turn.content())
+                    .append('\n');
+            }
+            conversation.append('\n');
+        }
+        return String.format(
+            "You are a helpful financial portfolio assistant. " +
+            "User's portfolio context:\n%s\n\n" +
+            "%s" +
+            "User question: %s\n\n" +
+            "Provide a concise, helpful response (2-3 sentences max).",
+            context,
+            conversation,
+            message
+        );
+    }
+    
+    /**
+     * The last turns of the user's conversation; none when the store cannot be read
+     */
+    private List<ConversationStore.Turn> recentTurns(Long userId) {
         try {
-            // Build context from user's portfolio
-            String context = buildPortfolioContext(userId);
-            
-            // Call Gemini API
-            String prompt = String.format(
-                "You are a helpful financial portfolio assistant. " +
-                "User's portfolio context:\n%s\n\n" +
-                "User question: %s\n\n" +
-                "Provide a concise, helpful response (2-3 sentences max).",
-                context,
-                message
-            );
-            
-            String geminiResponse = callGeminiAPI(prompt);
-            
-            return createResponse(geminiResponse, false);
+            return conversationStore.recent(userId, historyTurns);
         } catch (Exception e) {
-            logger.error("Error calling Gemini API", e);
-            return createResponse(
-                "I'm having trouble processing that request. " +
-                "Try asking about your portfolio value, risk analysis, or stock recommendations.",
-                false
-            );
+            logger.warn("Could not read the conversation of user {}: {}", userId, e.getMessage());
+            return List.of();
         }
     }
     
     /**
-     * Build portfolio context for Gemini
+     * Store a question and its answer; history is best effort and never fails the answer
      */
-    private String buildPortfolioContext(Long userId) {
+    private void recordExchange(Long userId, String message, String answer) {
         try {
-            PortfolioDTO portfolio = portfolioService.getPortfolioByUserId(userId);
-            var riskAnalysis = riskAnalysisService.analyzeRisk(userId);
-            
-            return String.format(
-                "Portfolio Value: $%.2f, Holdings: %d, Risk Category: %s",
-                portfolio.getTotalValue(),
-                portfolio.getHoldings().size(),
-                riskAnalysis.getRiskCategory()
-            );
+            Instant now = Instant.now();
+            conversationStore.append(userId, List.of(
+                new ConversationStore.Turn(ConversationStore.Role.USER, truncate(message), now),
+                new ConversationStore.Turn(ConversationStore.Role.ASSISTANT, truncate(answer), now)));
         } catch (Exception e) {
-            return "Portfolio information unavailable";
+            logger.warn("Could not record the conversation of user {}: {}", userId, e.getMessage());
         }
     }
     
+    private static String truncate(String text) {
+        return text.length() <= MAX_TURN_CHARS ? text : text.substring(0, MAX_TURN_CHARS) + "…";
+    }
+    
     /**
-     * Call Google Gemini API
+     * Build portfolio context for Gemini; reused across the conversation until the portfolio or
+     * risk profile changes
      */
-    private String callGeminiAPI(String prompt) {
+    private String buildPortfolioContext(Long userId) {
         try {
-            String url = geminiBaseUrl + "/models/" + geminiModel + ":generateContent";
-            
-            Map<String, Object> requestBody = new HashMap<>();
-            Map<String, Object> content = new HashMap<>();
-            Map<String, Object> part = new HashMap<>();
-            part.put("text", prompt);
-            content.put("parts", List.of(part));
-            requestBody.put("contents", List.of(content));
-            
-            Mono<Map<String, Object>> response = webClient.post()
-                .uri(url + "?key=" + geminiApiKey)
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {});
-            
-            Map<String, Object> result = response.block();
-            
-            if (result != null && result.containsKey("candidates")) {
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> candidates = (List<Map<String, Object>>) result.get("candidates");
-                if (candidates != null && !candidates.isEmpty()) {
-                    Map<String, Object> candidate = candidates.get(0);
-                    Map<String, Object> contentMap = (Map<String, Object>) candidate.get("content");
-                    if (contentMap != null) {
-                        @SuppressWarnings("unchecked")
-                        List<Map<String, Object>> parts = (List<Map<String, Object>>) contentMap.get("parts");
-                        if (parts != null && !parts.isEmpty()) {
-                            return (String) parts.get(0).get("text");
-                        }
-                    }
-                }
-            }
+            return contextService.getContext(userId).summary();
         } catch (Exception e) {
-            logger.warn("Gemini API call failed, using fallback response: {}", e.getMessage());
+            return "Portfolio information unavailable";
         }
-        
-        // Fallback response
-        return "I understand your question. For specific portfolio information, try asking about:\n" +
-               "• Portfolio value\n" +
-               "• Risk analysis\n" +
-               "• Stock recommendations\n" +
-               "• Holdings";
     }
     
     /**
@@ -379,10 +551,18 @@ public class ChatbotService {
     }
     
     /**
-     * Clear user consent (for testing/logout)
+     * Hit rate and size of the model response cache
+     */
+    public ChatResponseCacheStatsDTO getResponseCacheStats() {
+        return responseCache.getStats();
+    }
+    
+    /**
+     * Clear user consent (for testing/logout), and the conversation the chatbot kept under it
      */
     public void clearConsent(Long userId) {
-        userConsent.remove(userId);
+        consentStore.revoke(userId);
+        conversationStore.clear(userId);
     }
 }
 
@@ -0,0 +1,17 @@
+package com.yourorg.portfolio.service;
+
+/**
+ * Which users allowed the chatbot to read their portfolio. Asked on every chatbot message, so
+ * implementations should answer most lookups without a round trip.
+ */
+public interface ConsentStore {
+
+    boolean hasConsent(Long userId);
+
+    void grant(Long userId);
+
+    /**
+     * Withdraw consent; the next message asks for it again
+     */
+    void revoke(Long userId);
+}
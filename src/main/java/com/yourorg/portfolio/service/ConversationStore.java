@@ -0,0 +1,33 @@
+package com.yourorg.portfolio.service;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Chatbot conversation history, so a prompt can carry the last few turns and follow-up
+ * questions make sense to the model.
+ */
+public interface ConversationStore {
+
+    enum Role {
+        USER, ASSISTANT
+    }
+
+    record Turn(Role role, String content, Instant createdAt) {
+    }
+
+    /**
+     * Append turns in the order given
+     */
+    void append(Long userId, List<Turn> turns);
+
+    /**
+     * The user's last turns, oldest first
+     */
+    List<Turn> recent(Long userId, int limit);
+
+    /**
+     * Forget the user's whole conversation
+     */
+    void clear(Long userId);
+}
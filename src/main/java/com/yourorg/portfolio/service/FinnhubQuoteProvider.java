@@ -0,0 +1,75 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Finnhub /quote endpoint
+ */
+@Component
+public class FinnhubQuoteProvider implements QuoteProvider {
+
+    public static final String NAME = "finnhub";
+
+    private final WebClient webClient;
+    private final String apiKey;
+    private final int maxConcurrency;
+
+    @Autowired
+    public FinnhubQuoteProvider(WebClient.Builder webClientBuilder,
+                                @Value("${external.stock-api.finnhub.base-url:https://finnhub.io/api/v1}") String baseUrl,
+                                @Value("${external.stock-api.finnhub.api-key:demo}") String apiKey,
+                                @Value("${external.stock-api.finnhub.max-concurrency:8}") int maxConcurrency) {
+        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+        this.apiKey = apiKey;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public Mono<StockPriceDTO> fetchQuote(String symbol) {
+        return webClient.get()
+            .uri(uriBuilder -> uriBuilder
+                .path("/quote")
+                .queryParam("symbol", symbol)
+                .queryParam("token", apiKey)
+                .build())
+            .retrieve()
+            .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+            .mapNotNull(result -> parse(symbol, result));
+    }
+
+    /**
+     * Map a quote payload; Finnhub answers unknown symbols with a zero current price
+     */
+    static StockPriceDTO parse(String symbol, Map<String, Object> result) {
+        Object currentPrice = result.get("c");
+        if (currentPrice == null) {
+            return null;
+        }
+        BigDecimal price = new BigDecimal(currentPrice.toString());
+        if (price.signum() == 0) {
+            return null;
+        }
+        Object previousClose = result.get("pc");
+        return QuoteProvider.toQuote(symbol, price,
+            previousClose != null ? new BigDecimal(previousClose.toString()) : null, "USD");
+    }
+}
@@ -0,0 +1,106 @@
+package com.yourorg.portfolio.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Google Gemini over streamGenerateContent with Server-Sent Events: text arrives chunk by chunk
+ * as the model produces it, and nothing blocks while waiting. Each stream has a budget for the
+ * whole answer and a limit on the silence between chunks; exceeding either fails the stream
+ * with a TimeoutException.
+ */
+@Component
+public class GeminiClient {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<Map<String, Object>>> CHUNK_TYPE =
+        new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+    private final String apiKey;
+    private final String baseUrl;
+    private final String model;
+    private final Duration responseTimeout;
+    private final Duration idleTimeout;
+
+    @Autowired
+    public GeminiClient(WebClient.Builder webClientBuilder,
+                        @Value("${external.gemini.api-key:your-gemini-api-key-here}") String apiKey,
+                        @Value("${external.gemini.base-url:https://generativelanguage.googleapis.com/v1beta}") String baseUrl,
+                        @Value("${external.gemini.model:gemini-pro}") String model,
+                        @Value("${external.gemini.response-timeout-ms:30000}") long responseTimeoutMs,
+                        @Value("${external.gemini.idle-timeout-ms:10000}") long idleTimeoutMs) {
+        this(webClientBuilder.build(), apiKey, baseUrl, model,
+             Duration.ofMillis(responseTimeoutMs), Duration.ofMillis(idleTimeoutMs));
+    }
+
+    public GeminiClient(WebClient webClient, String apiKey, String baseUrl, String model,
+                        Duration responseTimeout, Duration idleTimeout) {
+        this.webClient = webClient;
+        this.apiKey = apiKey;
+        this.baseUrl = baseUrl;
+        this.model = model;
+        this.responseTimeout = responseTimeout;
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * The model's answer to a prompt, as the text chunks it streams
+     */
+    public Flux<String> streamGenerate(String prompt) {
+        Map<String, Object> requestBody = Map.of(
+            "contents", List.of(Map.of("parts", List.of(Map.of("text", prompt)))));
+
+        Flux<String> chunks = webClient.post()
+            .uri(baseUrl + "/models/" + model + ":streamGenerateContent?alt=sse&key=" + apiKey)
+            .accept(MediaType.TEXT_EVENT_STREAM)
+            .bodyValue(requestBody)
+            .retrieve()
+            .bodyToFlux(CHUNK_TYPE)
+            .mapNotNull(event -> textOf(event.data()))
+            .filter(text -> !text.isEmpty());
+
+        // The deadline starts at subscription, so every chunk wait is capped by what is left of it
+        return Flux.defer(() -> {
+            long deadline = System.nanoTime() + responseTimeout.toNanos();
+            return chunks.timeout(Mono.delay(nextWait(deadline)), chunk -> Mono.delay(nextWait(deadline)));
+        });
+    }
+
+    private Duration nextWait(long deadline) {
+        Duration remaining = Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+        return remaining.compareTo(idleTimeout) < 0 ? remaining : idleTimeout;
+    }
+
+    /**
+     * Text of the first candidate in one streamed GenerateContentResponse, or null
+     */
+    @SuppressWarnings("unchecked")
+    static String textOf(Map<String, Object> response) {
+        if (response == null || !(response.get("candidates") instanceof List<?> candidates) || candidates.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> candidate = (Map<String, Object>) candidates.get(0);
+        if (!(candidate.get("content") instanceof Map<?, ?> content)
+                || !(content.get("parts") instanceof List<?> parts)) {
+            return null;
+        }
+        StringBuilder text = new StringBuilder();
+        for (Object part : parts) {
+            if (part instanceof Map<?, ?> map && map.get("text") instanceof String partText) {
+                text.append(partText);
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,33 @@
+package com.yourorg.portfolio.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Consent in process memory: lost on restart and not shared between instances, so only for a
+ * single instance or development (chatbot.store.type=memory)
+ */
+@Component
+@ConditionalOnProperty(prefix = "chatbot.store", name = "type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryConsentStore implements ConsentStore {
+
+    private final Set<Long> consented = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public boolean hasConsent(Long userId) {
+        return consented.contains(userId);
+    }
+
+    @Override
+    public void grant(Long userId) {
+        consented.add(userId);
+    }
+
+    @Override
+    public void revoke(Long userId) {
+        consented.remove(userId);
+    }
+}
@@ -0,0 +1,59 @@
+package com.yourorg.portfolio.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conversation history in process memory, keeping only the turns prompts use
+ * (chatbot.store.type=memory)
+ */
+@Component
+@ConditionalOnProperty(prefix = "chatbot.store", name = "type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryConversationStore implements ConversationStore {
+
+    private final int maxTurns;
+    private final Map<Long, Deque<Turn>> conversations = new ConcurrentHashMap<>();
+
+    @Autowired
+    public InMemoryConversationStore(@Value("${chatbot.conversation.history-turns:6}") int maxTurns) {
+        this.maxTurns = Math.max(1, maxTurns);
+    }
+
+    @Override
+    public void append(Long userId, List<Turn> turns) {
+        conversations.compute(userId, (id, conversation) -> {
+            Deque<Turn> updated = conversation != null ? conversation : new ArrayDeque<>();
+            for (Turn turn : turns) {
+                updated.addLast(turn);
+                if (updated.size() > maxTurns) {
+                    updated.removeFirst();
+                }
+            }
+            return updated;
+        });
+    }
+
+    @Override
+    public List<Turn> recent(Long userId, int limit) {
+        List<Turn> recent = new ArrayList<>();
+        conversations.computeIfPresent(userId, (id, conversation) -> {
+            recent.addAll(conversation);
+            return conversation;
+        });
+        return recent.size() <= limit ? recent : recent.subList(recent.size() - limit, recent.size());
+    }
+
+    @Override
+    public void clear(Long userId) {
+        conversations.remove(userId);
+    }
+}
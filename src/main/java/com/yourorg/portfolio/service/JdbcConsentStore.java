@@ -0,0 +1,103 @@
+package com.yourorg.portfolio.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Consent in the chatbot_consent table, shared by every instance and kept across restarts.
+ * Grants are held in a small near-cache for a short TTL, so a consented user's messages do not
+ * each cost a query. Refusals are never cached: a grant made through another instance counts
+ * at once, while a withdrawal made through another instance takes at most the TTL to count here.
+ */
+@Component
+@ConditionalOnProperty(prefix = "chatbot.store", name = "type", havingValue = "jdbc")
+public class JdbcConsentStore implements ConsentStore {
+
+    private static final String GRANT_SQL =
+        "INSERT IGNORE INTO chatbot_consent (user_id, granted_at) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration cacheTtl;
+    private final int cacheMaxSize;
+    private final Clock clock;
+
+    // user id -> epoch millis until which the grant is trusted without a query
+    private final LinkedHashMap<Long, Long> grants;
+    // Bumped on every local withdrawal, so a lookup that overlapped one does not cache its grant
+    private long revocations;
+
+    @Autowired
+    public JdbcConsentStore(JdbcTemplate jdbcTemplate,
+                            @Value("${chatbot.consent.cache-ttl-seconds:30}") long cacheTtlSeconds,
+                            @Value("${chatbot.consent.cache-max-size:10000}") int cacheMaxSize) {
+        this(jdbcTemplate, Duration.ofSeconds(cacheTtlSeconds), cacheMaxSize, Clock.systemUTC());
+    }
+
+    public JdbcConsentStore(JdbcTemplate jdbcTemplate, Duration cacheTtl, int cacheMaxSize, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheTtl = cacheTtl;
+        this.cacheMaxSize = Math.max(1, cacheMaxSize);
+        this.clock = clock;
+        this.grants = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > JdbcConsentStore.this.cacheMaxSize;
+            }
+        };
+    }
+
+    @Override
+    public boolean hasConsent(Long userId) {
+        long seenRevocations;
+        synchronized (grants) {
+            Long trustedUntil = grants.get(userId);
+            if (trustedUntil != null && trustedUntil > clock.millis()) {
+                return true;
+            }
+            seenRevocations = revocations;
+        }
+
+        Integer rows = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM chatbot_consent WHERE user_id = ?", Integer.class, userId);
+        boolean granted = rows != null && rows > 0;
+
+        synchronized (grants) {
+            if (!granted) {
+                grants.remove(userId);
+            } else if (revocations == seenRevocations) {
+                cacheGrant(userId);
+            }
+        }
+        return granted;
+    }
+
+    @Override
+    public void grant(Long userId) {
+        jdbcTemplate.update(GRANT_SQL, userId, Timestamp.from(clock.instant()));
+        synchronized (grants) {
+            cacheGrant(userId);
+        }
+    }
+
+    @Override
+    public void revoke(Long userId) {
+        synchronized (grants) {
+            revocations++;
+            grants.remove(userId);
+        }
+        jdbcTemplate.update("DELETE FROM chatbot_consent WHERE user_id = ?", userId);
+    }
+
+    private void cacheGrant(Long userId) {
+        grants.put(userId, clock.millis() + cacheTtl.toMillis());
+    }
+}
@@ -0,0 +1,100 @@
+package com.yourorg.portfolio.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Conversation history in the chatbot_messages table, shared by every instance. Only prompts for
+ * the model read it, one indexed query next to a model call that takes seconds, so there is no
+ * near-cache that could serve a turn list missing what another instance just wrote. Messages
+ * older than the retention period are purged.
+ */
+@Component
+@ConditionalOnProperty(prefix = "chatbot.store", name = "type", havingValue = "jdbc")
+public class JdbcConversationStore implements ConversationStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcConversationStore.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO chatbot_messages (user_id, role, content, created_at) VALUES (?, ?, ?, ?)";
+
+    private static final String RECENT_SQL =
+        "SELECT role, content, created_at FROM chatbot_messages WHERE user_id = ? ORDER BY id DESC LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration retention;
+    private final Clock clock;
+
+    @Autowired
+    public JdbcConversationStore(JdbcTemplate jdbcTemplate,
+                                 @Value("${chatbot.conversation.retention-days:30}") long retentionDays) {
+        this(jdbcTemplate, Duration.ofDays(retentionDays), Clock.systemUTC());
+    }
+
+    public JdbcConversationStore(JdbcTemplate jdbcTemplate, Duration retention, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retention = retention;
+        this.clock = clock;
+    }
+
+    @Override
+    public void append(Long userId, List<Turn> turns) {
+        if (turns.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, turns, turns.size(), (ps, turn) -> {
+            ps.setLong(1, userId);
+            ps.setString(2, turn.role().name());
+            ps.setString(3, turn.content());
+            ps.setTimestamp(4, Timestamp.from(turn.createdAt()));
+        });
+    }
+
+    @Override
+    public List<Turn> recent(Long userId, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        List<Turn> newestFirst = jdbcTemplate.query(RECENT_SQL, (rs, rowNum) -> new Turn(
+            Role.valueOf(rs.getString("role")),
+            rs.getString("content"),
+            rs.getTimestamp("created_at").toInstant()), userId, limit);
+        List<Turn> turns = new ArrayList<>(newestFirst);
+        Collections.reverse(turns);
+        return turns;
+    }
+
+    @Override
+    public void clear(Long userId) {
+        jdbcTemplate.update("DELETE FROM chatbot_messages WHERE user_id = ?", userId);
+    }
+
+    /**
+     * Delete messages older than the retention period; a zero period keeps everything
+     */
+    @Scheduled(fixedDelayString = "${chatbot.conversation.purge-interval-ms:3600000}")
+    public int purgeExpired() {
+        if (retention.isZero() || retention.isNegative()) {
+            return 0;
+        }
+        int purged = jdbcTemplate.update("DELETE FROM chatbot_messages WHERE created_at < ?",
+            Timestamp.from(clock.instant().minus(retention)));
+        if (purged > 0) {
+            logger.debug("Purged {} chatbot messages older than {}", purged, retention);
+        }
+        return purged;
+    }
+}
@@ -0,0 +1,160 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.BalanceAtDTO;
+import com.yourorg.portfolio.dto.BankTransactionDTO;
+import com.yourorg.portfolio.dto.BankTransactionPageDTO;
+import com.yourorg.portfolio.exception.ResourceNotFoundException;
+import com.yourorg.portfolio.model.BalanceSnapshot;
+import com.yourorg.portfolio.model.BankAccount;
+import com.yourorg.portfolio.model.BankTransaction;
+import com.yourorg.portfolio.repository.BalanceSnapshotRepository;
+import com.yourorg.portfolio.repository.BankAccountRepository;
+import com.yourorg.portfolio.repository.BankTransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Append-only ledger of bank balance changes. Entries are written in the caller's transaction,
+ * right after the balance UPDATE they record, and every snapshotInterval-th entry of an account
+ * also stores the resulting balance, so a balance at any time is one snapshot plus fewer than
+ * snapshotInterval entries rather than the whole history.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class LedgerService {
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final BankAccountRepository bankAccountRepository;
+    private final BankTransactionRepository bankTransactionRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final int snapshotInterval;
+    private final Clock clock;
+
+    @Autowired
+    public LedgerService(BankAccountRepository bankAccountRepository,
+                         BankTransactionRepository bankTransactionRepository,
+                         BalanceSnapshotRepository balanceSnapshotRepository,
+                         @Value("${ledger.snapshot-interval:100}") int snapshotInterval) {
+        this(bankAccountRepository, bankTransactionRepository, balanceSnapshotRepository, snapshotInterval, Clock.systemDefaultZone());
+    }
+
+    public LedgerService(BankAccountRepository bankAccountRepository,
+                         BankTransactionRepository bankTransactionRepository,
+                         BalanceSnapshotRepository balanceSnapshotRepository,
+                         int snapshotInterval,
+                         Clock clock) {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("ledger.snapshot-interval must be at least 1");
+        }
+        this.bankAccountRepository = bankAccountRepository;
+        this.bankTransactionRepository = bankTransactionRepository;
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.snapshotInterval = snapshotInterval;
+        this.clock = clock;
+    }
+
+    /**
+     * Start the ledger of a newly saved account: its opening snapshot, and an entry for the
+     * opening balance when it is not zero (the account's ledger sequence must already be 1 then)
+     */
+    public void recordOpening(BankAccount account, BankTransaction.Type type, String description) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        balanceSnapshotRepository.save(new BalanceSnapshot(account.getId(), 0, BigDecimal.ZERO, now));
+        if (account.getCurrentBalance().signum() != 0) {
+            append(account.getId(), 1, type, account.getCurrentBalance(), description, account.getCurrentBalance(), now);
+        }
+    }
+
+    /**
+     * Record a balance change that BankAccountRepository.debit or credit just applied in this
+     * transaction. The account row is still locked by that update, so the sequence and balance
+     * read here are exactly the ones it produced.
+     *
+     * @param amount signed change, negative for debits
+     */
+    public void record(Long userId, BankTransaction.Type type, BigDecimal amount, String description) {
+        BankAccountRepository.LedgerState state = bankAccountRepository.findLedgerStateByUserId(userId)
+            .orElseThrow(() -> new ResourceNotFoundException("BankAccount", "userId", userId));
+        append(state.getAccountId(), state.getLedgerSequence(), type, amount, description, state.getBalance(),
+            LocalDateTime.now(clock));
+    }
+
+    private void append(Long accountId, long seq, BankTransaction.Type type, BigDecimal amount, String description,
+                        BigDecimal balanceAfter, LocalDateTime now) {
+        bankTransactionRepository.save(new BankTransaction(accountId, seq, type, amount, truncate(description), now));
+        if (seq % snapshotInterval == 0) {
+            balanceSnapshotRepository.save(new BalanceSnapshot(accountId, seq, balanceAfter, now));
+        }
+    }
+
+    /**
+     * Balance as of a time: the latest snapshot at or before it, plus the entries after that
+     * snapshot (up to the next one) made by then. Zero before the account existed.
+     */
+    @Transactional(readOnly = true)
+    public BalanceAtDTO getBalanceAt(Long userId, LocalDateTime at) {
+        Long accountId = findAccountId(userId);
+        Optional<BalanceSnapshot> snapshot = balanceSnapshotRepository
+            .findFirstByAccountIdAndCreatedAtLessThanEqualOrderByCreatedAtDescSeqDesc(accountId, at);
+        if (snapshot.isEmpty()) {
+            return new BalanceAtDTO(at, BigDecimal.ZERO);
+        }
+
+        long fromSeq = snapshot.get().getSeq();
+        long toSeq = balanceSnapshotRepository.findFirstByAccountIdAndSeqGreaterThanOrderBySeqAsc(accountId, fromSeq)
+            .map(BalanceSnapshot::getSeq)
+            .orElse(Long.MAX_VALUE);
+        BigDecimal tail = bankTransactionRepository.sumBetween(accountId, fromSeq, toSeq, at);
+        return new BalanceAtDTO(at, snapshot.get().getBalance().add(tail));
+    }
+
+    /**
+     * Entries newest first, keyset-paginated by seq
+     *
+     * @param before cursor from the previous page, or null for the newest entries
+     */
+    @Transactional(readOnly = true)
+    public BankTransactionPageDTO getTransactions(Long userId, Long before, int limit) {
+        Long accountId = findAccountId(userId);
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<BankTransaction> entries = bankTransactionRepository.findPageBefore(
+            accountId, before != null ? before : Long.MAX_VALUE, PageRequest.of(0, size + 1));
+
+        boolean hasMore = entries.size() > size;
+        List<BankTransactionDTO> page = entries.stream().limit(size).map(LedgerService::toDTO).toList();
+        Long nextCursor = hasMore ? page.get(page.size() - 1).getSeq() : null;
+        return new BankTransactionPageDTO(page, nextCursor);
+    }
+
+    private Long findAccountId(Long userId) {
+        return bankAccountRepository.findLedgerStateByUserId(userId)
+            .map(BankAccountRepository.LedgerState::getAccountId)
+            .orElseThrow(() -> new ResourceNotFoundException("BankAccount", "userId", userId));
+    }
+
+    private static String truncate(String description) {
+        return description != null && description.length() > 255 ? description.substring(0, 255) : description;
+    }
+
+    private static BankTransactionDTO toDTO(BankTransaction entry) {
+        BankTransactionDTO dto = new BankTransactionDTO();
+        dto.setId(entry.getId());
+        dto.setSeq(entry.getSeq());
+        dto.setType(entry.getType().name());
+        dto.setAmount(entry.getAmount());
+        dto.setDescription(entry.getDescription());
+        dto.setCreatedAt(entry.getCreatedAt());
+        return dto;
+    }
+}
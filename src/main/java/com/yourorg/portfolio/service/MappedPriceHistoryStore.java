@@ -0,0 +1,294 @@
+package com.yourorg.portfolio.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * PriceHistoryStore backed by one memory-mapped file per symbol.
+ * <p>
+ * File layout (little-endian): a 64 byte header (magic, version, capacity, count) followed by
+ * the timestamp column (capacity longs) and the close column (capacity doubles). Reads hand out
+ * read-only slices of the mapping, so scanning a series copies nothing onto the heap.
+ * <p>
+ * Appends are serialized per symbol. The point is written before the count is advanced, and
+ * readers only see the count published with the mapping they read from, so they never observe a
+ * partial point. When a file is full it is copied into a file of twice the capacity which is then
+ * renamed over the old one; views taken before the swap keep the old mapping alive and valid.
+ */
+@Component
+public class MappedPriceHistoryStore implements PriceHistoryStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedPriceHistoryStore.class);
+
+    static final String FILE_SUFFIX = ".phs";
+    private static final int MAGIC = 0x50485331; // "PHS1"
+    private static final int VERSION = 1;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int COUNT_OFFSET = 16;
+    static final int HEADER_BYTES = 64;
+    // About a year of trading days
+    static final int INITIAL_CAPACITY = 256;
+
+    private static final Pattern SYMBOL_PATTERN = Pattern.compile("[A-Z0-9.^=-]{1,16}");
+
+    private final Path directory;
+    private final ConcurrentMap<String, Column> columns = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MappedPriceHistoryStore(@Value("${price-history.store.dir:data/price-history}") String directory) {
+        this(Paths.get(directory));
+    }
+
+    public MappedPriceHistoryStore(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create price history directory " + directory, e);
+        }
+        logger.info("Price history store at {}", directory.toAbsolutePath());
+    }
+
+    @Override
+    public boolean append(String symbol, long timestamp, double close) {
+        Column column = column(symbol);
+        synchronized (column) {
+            Segment segment = column.segment;
+            int count = segment == null ? 0 : segment.count;
+            if (count > 0) {
+                long last = segment.timestampAt(count - 1);
+                if (timestamp < last) {
+                    return false;
+                }
+                if (timestamp == last) {
+                    segment.buffer.putDouble(segment.closeOffset(count - 1), close);
+                    return true;
+                }
+            }
+
+            if (segment == null || count == segment.capacity) {
+                int capacity = segment == null ? INITIAL_CAPACITY : segment.capacity * 2;
+                segment = writeFile(column.path, capacity, segment, null, null, count);
+            }
+            MappedByteBuffer buffer = segment.buffer;
+            buffer.putLong(HEADER_BYTES + count * Long.BYTES, timestamp);
+            buffer.putDouble(segment.closeOffset(count), close);
+            buffer.force();
+            buffer.putLong(COUNT_OFFSET, count + 1);
+            buffer.force(0, HEADER_BYTES);
+            column.segment = new Segment(buffer, segment.capacity, count + 1);
+            return true;
+        }
+    }
+
+    @Override
+    public void replace(String symbol, long[] timestamps, double[] closes) {
+        if (timestamps.length != closes.length) {
+            throw new IllegalArgumentException("timestamps and closes differ in length");
+        }
+        for (int i = 1; i < timestamps.length; i++) {
+            if (timestamps[i] <= timestamps[i - 1]) {
+                throw new IllegalArgumentException("timestamps must be strictly increasing");
+            }
+        }
+        Column column = column(symbol);
+        synchronized (column) {
+            int capacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(1, timestamps.length)) * 2);
+            column.segment = writeFile(column.path, capacity, null, timestamps, closes, timestamps.length);
+        }
+    }
+
+    @Override
+    public Series read(String symbol) {
+        Segment segment = column(symbol).segment;
+        if (segment == null) {
+            return Series.empty(symbol);
+        }
+        return segment.view(symbol, 0, segment.count);
+    }
+
+    @Override
+    public Series read(String symbol, long from, long to) {
+        Segment segment = column(symbol).segment;
+        if (segment == null) {
+            return Series.empty(symbol);
+        }
+        int start = segment.lowerBound(from);
+        int end = Math.max(start, segment.lowerBound(to));
+        return segment.view(symbol, start, end);
+    }
+
+    @Override
+    public Set<String> getSymbols() {
+        Set<String> symbols = new TreeSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                symbols.add(name.substring(0, name.length() - FILE_SUFFIX.length()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return symbols;
+    }
+
+    @PreDestroy
+    public void close() {
+        columns.values().forEach(column -> {
+            synchronized (column) {
+                if (column.segment != null) {
+                    column.segment.buffer.force();
+                }
+            }
+        });
+    }
+
+    private Column column(String symbol) {
+        String key = symbol == null ? "" : symbol.toUpperCase();
+        if (!SYMBOL_PATTERN.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid symbol: " + symbol);
+        }
+        return columns.computeIfAbsent(key, s -> {
+            Path path = directory.resolve(s + FILE_SUFFIX);
+            return new Column(path, Files.exists(path) ? openFile(path) : null);
+        });
+    }
+
+    private static Segment openFile(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.size() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IllegalStateException("Not a price history file: " + path);
+            }
+            int capacity = (int) buffer.getLong(CAPACITY_OFFSET);
+            int count = (int) buffer.getLong(COUNT_OFFSET);
+            if (count < 0 || count > capacity || channel.size() < fileSize(capacity)) {
+                throw new IllegalStateException("Corrupt price history file: " + path);
+            }
+            return new Segment(buffer, capacity, count);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open " + path, e);
+        }
+    }
+
+    /**
+     * Write a complete file next to the target and rename it into place, so a crash never leaves
+     * a half-written series. The first {@code count} points come from {@code source} or the arrays.
+     */
+    private static Segment writeFile(Path path, int capacity, Segment source,
+                                     long[] timestamps, double[] closes, int count) {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(capacity));
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putLong(CAPACITY_OFFSET, capacity);
+            buffer.putLong(COUNT_OFFSET, count);
+            Segment target = new Segment(buffer, capacity, count);
+
+            if (source != null) {
+                buffer.put(HEADER_BYTES, source.buffer, HEADER_BYTES, count * Long.BYTES);
+                buffer.put(target.closeOffset(0), source.buffer, source.closeOffset(0), count * Double.BYTES);
+            } else {
+                for (int i = 0; i < count; i++) {
+                    buffer.putLong(HEADER_BYTES + i * Long.BYTES, timestamps[i]);
+                    buffer.putDouble(target.closeOffset(i), closes[i]);
+                }
+            }
+            buffer.force();
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write " + path, e);
+        }
+    }
+
+    private static long fileSize(int capacity) {
+        return HEADER_BYTES + (long) capacity * (Long.BYTES + Double.BYTES);
+    }
+
+    private static final class Column {
+        private final Path path;
+        private volatile Segment segment;
+
+        private Column(Path path, Segment segment) {
+            this.path = path;
+            this.segment = segment;
+        }
+    }
+
+    /**
+     * A mapping together with the number of points published in it; replaced, never mutated
+     */
+    private static final class Segment {
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private final int count;
+
+        private Segment(MappedByteBuffer buffer, int capacity, int count) {
+            this.buffer = buffer;
+            this.capacity = capacity;
+            this.count = count;
+        }
+
+        private int closeOffset(int index) {
+            return HEADER_BYTES + capacity * Long.BYTES + index * Double.BYTES;
+        }
+
+        private long timestampAt(int index) {
+            return buffer.getLong(HEADER_BYTES + index * Long.BYTES);
+        }
+
+        /**
+         * First index whose timestamp is &gt;= the given one
+         */
+        private int lowerBound(long timestamp) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (timestampAt(mid) < timestamp) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private Series view(String symbol, int start, int end) {
+            int length = end - start;
+            ByteBuffer timestamps = buffer.slice(HEADER_BYTES + start * Long.BYTES, length * Long.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer closes = buffer.slice(closeOffset(start), length * Double.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+            return new Series(symbol.toUpperCase(), timestamps.asLongBuffer().asReadOnlyBuffer(),
+                closes.asDoubleBuffer().asReadOnlyBuffer());
+        }
+    }
+}
@@ -2,8 +2,11 @@ package com.yourorg.portfolio.service;
 
 import com.yourorg.portfolio.dto.PortfolioDTO;
 import com.yourorg.portfolio.dto.StockPriceDTO;
+import com.yourorg.portfolio.model.BankTransaction;
 import com.yourorg.portfolio.model.Investment;
 import com.yourorg.portfolio.model.Portfolio;
+import com.yourorg.portfolio.model.Position;
+import com.yourorg.portfolio.model.RealizedGain;
 import com.yourorg.portfolio.model.Stock;
 import com.yourorg.portfolio.model.User;
 import com.yourorg.portfolio.repository.InvestmentRepository;
@@ -18,7 +21,10 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -29,28 +35,70 @@ public class PortfolioService {
     private final StockRepository stockRepository;
     private final StockService stockService;
     private final UserService userService;
+    private final PositionService positionService;
+    private final SellOrderService sellOrderService;
+    private final PortfolioValuationService valuationService;
     
     @Autowired
     public PortfolioService(PortfolioRepository portfolioRepository,
                            InvestmentRepository investmentRepository,
                            StockRepository stockRepository,
                            StockService stockService,
-                           UserService userService) {
+                           UserService userService,
+                           PositionService positionService,
+                           SellOrderService sellOrderService,
+                           PortfolioValuationService valuationService) {
         this.portfolioRepository = portfolioRepository;
         this.investmentRepository = investmentRepository;
         this.stockRepository = stockRepository;
         this.stockService = stockService;
         this.userService = userService;
+        this.positionService = positionService;
+        this.sellOrderService = sellOrderService;
+        this.valuationService = valuationService;
     }
     
     /**
      * Get portfolio by user ID
      */
     public PortfolioDTO getPortfolioByUserId(Long userId) {
-        Portfolio portfolio = portfolioRepository.findByUserId(userId)
+        PortfolioRepository.PortfolioRow row = portfolioRepository.findPortfolioRowByUserId(userId)
             .orElseThrow(() -> new ResourceNotFoundException("Portfolio", "userId", userId));
         
-        return buildPortfolioDTO(portfolio);
+        return buildPortfolioDTO(row);
+    }
+    
+    /**
+     * Every open investment lot of a user, valued at current prices, oldest first
+     */
+    public List<PortfolioDTO.HoldingDTO> getLotsByUserId(Long userId) {
+        Long portfolioId = portfolioRepository.findIdByUserId(userId)
+            .orElseThrow(() -> new ResourceNotFoundException("Portfolio", "userId", userId));
+        
+        List<InvestmentRepository.HoldingRow> rows = investmentRepository.findHoldingRowsByPortfolioId(portfolioId);
+        Set<String> symbols = new LinkedHashSet<>();
+        for (InvestmentRepository.HoldingRow row : rows) {
+            symbols.add(row.getSymbol());
+        }
+        Map<String, StockPriceDTO> prices = stockService.getCurrentPrices(symbols);
+        
+        List<PortfolioDTO.HoldingDTO> lots = new ArrayList<>(rows.size());
+        for (InvestmentRepository.HoldingRow row : rows) {
+            PortfolioDTO.HoldingDTO lot = new PortfolioDTO.HoldingDTO();
+            lot.setInvestmentId(row.getInvestmentId());
+            lot.setSymbol(row.getSymbol());
+            lot.setCompanyName(row.getCompanyName());
+            lot.setQuantity(row.getQuantity());
+            lot.setBuyPrice(row.getBuyPrice());
+            lot.setBuyDate(row.getBuyDate().toString());
+            // No quote for the symbol: value the lot at its buy price rather than fail the whole list
+            StockPriceDTO quote = prices.get(row.getSymbol());
+            BigDecimal currentPrice = quote != null && quote.getCurrentPrice() != null
+                ? quote.getCurrentPrice() : row.getBuyPrice();
+            valueHolding(lot, currentPrice);
+            lots.add(lot);
+        }
+        return lots;
     }
     
     /**
@@ -76,11 +124,10 @@ public class PortfolioService {
         // Get or create stock
         Stock stock = stockService.getOrCreateStock(symbol);
         
-        // Check bank balance
-        var bankAccount = userService.getOrCreateBankAccount(userId);
+        // Debit first: the conditional update is the balance check, so concurrent buys cannot overspend
         BigDecimal totalCost = buyPrice.multiply(BigDecimal.valueOf(quantity));
-        
-        if (bankAccount.getCurrentBalance().compareTo(totalCost) < 0) {
+        if (!userService.tryDebit(userId, totalCost, BankTransaction.Type.BUY,
+                "Buy " + quantity + " " + stock.getSymbol() + " @ " + buyPrice)) {
             throw new IllegalArgumentException("Insufficient bank balance");
         }
         
@@ -93,16 +140,13 @@ public class PortfolioService {
         investment.setBuyDate(LocalDate.now());
         investment.setAssetType("STOCK");
         
-        Investment savedInvestment = investmentRepository.save(investment);
-        
-        // Update bank balance
-        userService.updateBankBalance(userId, totalCost.negate());
-        
-        return savedInvestment;
+        Investment saved = investmentRepository.save(investment);
+        positionService.recordBuy(saved);
+        return saved;
     }
     
     /**
-     * Sell stock (remove or reduce investment)
+     * Sell stock (remove or reduce investment), recording its realized gain
      */
     public void sellStock(Long userId, Long investmentId, Integer quantity) {
         Investment investment = investmentRepository.findById(investmentId)
@@ -117,91 +161,50 @@ public class PortfolioService {
             throw new IllegalArgumentException("Cannot sell more than owned");
         }
         
-        // Get current price
-        StockPriceDTO currentPrice = stockService.getCurrentPrice(investment.getStock().getSymbol());
-        
-        // Calculate proceeds
-        BigDecimal proceeds = currentPrice.getCurrentPrice().multiply(BigDecimal.valueOf(quantity));
-        
-        // Update or remove investment
-        if (quantity.equals(investment.getQuantity())) {
-            investmentRepository.delete(investment);
-        } else {
-            investment.setQuantity(investment.getQuantity() - quantity);
-            investmentRepository.save(investment);
-        }
-        
-        // Update bank balance
-        userService.updateBankBalance(userId, proceeds);
+        // A single-lot sale is a SPECIFIC sell of that lot
+        sellOrderService.sell(userId, investment.getStock().getSymbol(), quantity,
+            RealizedGain.LotMethod.SPECIFIC, List.of(investmentId));
     }
     
     /**
      * Build Portfolio DTO with current prices
      */
-    private PortfolioDTO buildPortfolioDTO(Portfolio portfolio) {
+    private PortfolioDTO buildPortfolioDTO(PortfolioRepository.PortfolioRow portfolio) {
         PortfolioDTO dto = new PortfolioDTO();
-        dto.setPortfolioId(portfolio.getId());
-        dto.setUserId(portfolio.getUser().getId());
-        dto.setUserName(portfolio.getUser().getFirstName() + " " + portfolio.getUser().getLastName());
+        dto.setPortfolioId(portfolio.getPortfolioId());
+        dto.setUserId(portfolio.getUserId());
+        dto.setUserName(portfolio.getFirstName() + " " + portfolio.getLastName());
         dto.setPortfolioName(portfolio.getName());
         dto.setDescription(portfolio.getDescription());
         
-        List<Investment> investments = investmentRepository.findByPortfolioId(portfolio.getId());
-        List<PortfolioDTO.HoldingDTO> holdings = new ArrayList<>();
+        // Held positions and totals come from the incrementally maintained valuation, so a read
+        // neither queries the positions nor re-sums them
+        PortfolioValuation.Snapshot valuation = valuationService.getValuation(portfolio.getPortfolioId());
+        List<PortfolioDTO.HoldingDTO> holdings = new ArrayList<>(valuation.lines().size());
         
-        BigDecimal totalValue = BigDecimal.ZERO;
-        BigDecimal totalCost = BigDecimal.ZERO;
-        
-        for (Investment investment : investments) {
-            StockPriceDTO currentPrice = stockService.getCurrentPrice(investment.getStock().getSymbol());
-            
+        for (PortfolioValuation.Line line : valuation.lines()) {
             PortfolioDTO.HoldingDTO holding = new PortfolioDTO.HoldingDTO();
-            holding.setInvestmentId(investment.getId());
-            holding.setSymbol(investment.getStock().getSymbol());
-            holding.setCompanyName(investment.getStock().getCompanyName());
-            holding.setQuantity(investment.getQuantity());
-            holding.setBuyPrice(investment.getBuyPrice());
-            holding.setCurrentPrice(currentPrice.getCurrentPrice());
-            holding.setBuyDate(investment.getBuyDate().toString());
-            
-            BigDecimal currentValue = currentPrice.getCurrentPrice()
-                .multiply(BigDecimal.valueOf(investment.getQuantity()));
-            holding.setCurrentValue(currentValue);
-            
-            BigDecimal profitLoss = currentValue.subtract(
-                investment.getBuyPrice().multiply(BigDecimal.valueOf(investment.getQuantity()))
-            );
-            holding.setProfitLoss(profitLoss);
-            
-            BigDecimal profitLossPercent = profitLoss
-                .divide(investment.getBuyPrice().multiply(BigDecimal.valueOf(investment.getQuantity())), 
-                       4, RoundingMode.HALF_UP)
-                .multiply(BigDecimal.valueOf(100));
-            holding.setProfitLossPercentage(profitLossPercent);
-            
+            holding.setPositionId(line.positionId());
+            holding.setSymbol(line.symbol());
+            holding.setCompanyName(line.companyName());
+            holding.setQuantity(line.quantity());
+            holding.setLotCount(line.lotCount());
+            holding.setCostBasis(line.costBasis());
+            holding.setBuyPrice(Position.averagePrice(line.costBasis(), line.quantity()));
+            valueHolding(holding, line.price());
+
             holdings.add(holding);
-            
-            totalValue = totalValue.add(currentValue);
-            totalCost = totalCost.add(
-                investment.getBuyPrice().multiply(BigDecimal.valueOf(investment.getQuantity()))
-            );
         }
-        
+
+        BigDecimal totalValue = valuation.totalValue();
+        BigDecimal totalCost = valuation.totalCost();
         dto.setHoldings(holdings);
         dto.setTotalValue(totalValue);
         dto.setTotalCost(totalCost);
-        
+
         BigDecimal totalProfitLoss = totalValue.subtract(totalCost);
         dto.setTotalProfitLoss(totalProfitLoss);
-        
-        if (totalCost.compareTo(BigDecimal.ZERO) > 0) {
-            BigDecimal totalProfitLossPercent = totalProfitLoss
-                .divide(totalCost, 4, RoundingMode.HALF_UP)
-                .multiply(BigDecimal.valueOf(100));
-            dto.setTotalProfitLossPercentage(totalProfitLossPercent);
-        } else {
-            dto.setTotalProfitLossPercentage(BigDecimal.ZERO);
-        }
+        dto.setTotalProfitLossPercentage(percentOf(totalProfitLoss, totalCost));
         
         // Asset allocation (simplified - all stocks for now)
         PortfolioDTO.AssetAllocationDTO allocation = new PortfolioDTO.AssetAllocationDTO();
@@ -209,13 +212,44 @@ public class PortfolioService {
         allocation.setBonds(BigDecimal.ZERO);
         allocation.setCrypto(BigDecimal.ZERO);
         
-        // Get cash from bank account
-        var bankAccount = userService.getOrCreateBankAccount(portfolio.getUser().getId());
-        allocation.setCash(bankAccount.getCurrentBalance());
+        // Read with the portfolio itself; an owner without a bank account has no cash
+        allocation.setCash(portfolio.getCashBalance() != null ? portfolio.getCashBalance() : BigDecimal.ZERO);
         
         dto.setAssetAllocation(allocation);
-        
+
         return dto;
     }
+
+    /**
+     * Set current price, value and profit/loss on a holding from its quantity and buy price
+     */
+    static void valueHolding(PortfolioDTO.HoldingDTO holding, BigDecimal currentPrice) {
+        BigDecimal currentValue = currentPrice.multiply(BigDecimal.valueOf(holding.getQuantity()));
+        BigDecimal profitLoss = currentValue.subtract(costOf(holding));
+
+        holding.setCurrentPrice(currentPrice);
+        holding.setCurrentValue(currentValue);
+        holding.setProfitLoss(profitLoss);
+        holding.setProfitLossPercentage(percentOf(profitLoss, costOf(holding)));
+    }
+
+    /**
+     * A position's exact cost basis; for a lot, its quantity at its buy price
+     */
+    static BigDecimal costOf(PortfolioDTO.HoldingDTO holding) {
+        if (holding.getCostBasis() != null) {
+            return holding.getCostBasis();
+        }
+        return holding.getBuyPrice().multiply(BigDecimal.valueOf(holding.getQuantity()));
+    }
+
+    static BigDecimal percentOf(BigDecimal profitLoss, BigDecimal cost) {
+        if (cost.compareTo(BigDecimal.ZERO) <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return profitLoss
+            .divide(cost, 4, RoundingMode.HALF_UP)
+            .multiply(BigDecimal.valueOf(100));
+    }
 }
 
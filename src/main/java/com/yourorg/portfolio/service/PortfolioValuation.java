@@ -0,0 +1,123 @@
+package com.yourorg.portfolio.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Running valuation of one portfolio: one line per held symbol with its quantity, cost basis
+ * and last price, plus total value and cost maintained by applying each line change as a delta.
+ * Reading the totals is O(1); a trade or price tick costs O(1) per affected line.
+ */
+public final class PortfolioValuation {
+
+    /**
+     * A position valued at the last price seen for its symbol
+     */
+    public record Line(Long positionId, String symbol, String companyName, int quantity, BigDecimal costBasis,
+                       int lotCount, BigDecimal price) {
+
+        public BigDecimal value() {
+            return price.multiply(BigDecimal.valueOf(quantity));
+        }
+
+        Line withPrice(BigDecimal newPrice) {
+            return new Line(positionId, symbol, companyName, quantity, costBasis, lotCount, newPrice);
+        }
+    }
+
+    /**
+     * A consistent view of the lines (by symbol) and the totals they add up to
+     */
+    public record Snapshot(Long portfolioId, List<Line> lines, BigDecimal totalValue, BigDecimal totalCost) {
+    }
+
+    private final Long portfolioId;
+    private final Map<String, Line> lines = new TreeMap<>();
+    private BigDecimal totalValue = BigDecimal.ZERO;
+    private BigDecimal totalCost = BigDecimal.ZERO;
+    private volatile Instant lastRead;
+
+    public PortfolioValuation(Long portfolioId, Instant createdAt) {
+        this.portfolioId = portfolioId;
+        this.lastRead = createdAt;
+    }
+
+    public Long getPortfolioId() {
+        return portfolioId;
+    }
+
+    /**
+     * Add or replace the line for its symbol
+     *
+     * @return the line it replaced, or null
+     */
+    public synchronized Line put(Line line) {
+        Line previous = lines.put(line.symbol(), line);
+        if (previous != null) {
+            subtract(previous);
+        }
+        totalValue = totalValue.add(line.value());
+        totalCost = totalCost.add(line.costBasis());
+        return previous;
+    }
+
+    public synchronized Line remove(String symbol) {
+        Line previous = lines.remove(symbol);
+        if (previous != null) {
+            subtract(previous);
+        }
+        return previous;
+    }
+
+    /**
+     * Revalue the symbol's line at a new price; false when the symbol is not held
+     */
+    public synchronized boolean reprice(String symbol, BigDecimal price) {
+        Line line = lines.get(symbol);
+        if (line == null || line.price().compareTo(price) == 0) {
+            return line != null;
+        }
+        Line repriced = line.withPrice(price);
+        lines.put(symbol, repriced);
+        totalValue = totalValue.add(repriced.value()).subtract(line.value());
+        return true;
+    }
+
+    public synchronized Line get(String symbol) {
+        return lines.get(symbol);
+    }
+
+    public synchronized Set<String> symbols() {
+        return Set.copyOf(lines.keySet());
+    }
+
+    public synchronized BigDecimal getTotalValue() {
+        return totalValue;
+    }
+
+    public synchronized BigDecimal getTotalCost() {
+        return totalCost;
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(portfolioId, new ArrayList<>(lines.values()), totalValue, totalCost);
+    }
+
+    public Instant getLastRead() {
+        return lastRead;
+    }
+
+    public void touch(Instant now) {
+        lastRead = now;
+    }
+
+    private void subtract(Line line) {
+        totalValue = totalValue.subtract(line.value());
+        totalCost = totalCost.subtract(line.costBasis());
+    }
+}
@@ -0,0 +1,99 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live PortfolioValuations by portfolio id, repriced on every real quote: a tick touches only the
+ * portfolios holding its symbol, one line each. Deliberately free of service dependencies so
+ * StockApiClient can notify it without a dependency cycle; loading, trade updates and the
+ * consistency check are PortfolioValuationService's.
+ */
+@Component
+public class PortfolioValuationCache implements QuoteObserver {
+
+    private final Map<Long, PortfolioValuation> valuations = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> holders = new ConcurrentHashMap<>();
+
+    @Override
+    public void onQuote(StockPriceDTO quote) {
+        if (quote == null || quote.getSymbol() == null || quote.getCurrentPrice() == null) {
+            return;
+        }
+        Set<Long> portfolioIds = holders.get(quote.getSymbol());
+        if (portfolioIds == null) {
+            return;
+        }
+        for (Long portfolioId : portfolioIds) {
+            PortfolioValuation valuation = valuations.get(portfolioId);
+            if (valuation != null) {
+                valuation.reprice(quote.getSymbol(), quote.getCurrentPrice());
+            }
+        }
+    }
+
+    public PortfolioValuation get(Long portfolioId) {
+        return valuations.get(portfolioId);
+    }
+
+    public Collection<PortfolioValuation> getAll() {
+        return List.copyOf(valuations.values());
+    }
+
+    public int size() {
+        return valuations.size();
+    }
+
+    /**
+     * Cache a valuation, replacing any previous one for the portfolio
+     */
+    public void put(PortfolioValuation valuation) {
+        PortfolioValuation previous = valuations.put(valuation.getPortfolioId(), valuation);
+        if (previous != null) {
+            unindex(previous.getPortfolioId(), previous.symbols());
+        }
+        valuation.symbols().forEach(symbol -> index(valuation.getPortfolioId(), symbol));
+    }
+
+    public void putLine(PortfolioValuation valuation, PortfolioValuation.Line line) {
+        valuation.put(line);
+        index(valuation.getPortfolioId(), line.symbol());
+    }
+
+    public void removeLine(PortfolioValuation valuation, String symbol) {
+        if (valuation.remove(symbol) != null) {
+            unindex(valuation.getPortfolioId(), Set.of(symbol));
+        }
+    }
+
+    public void invalidate(Long portfolioId) {
+        PortfolioValuation removed = valuations.remove(portfolioId);
+        if (removed != null) {
+            unindex(portfolioId, removed.symbols());
+        }
+    }
+
+    private void index(Long portfolioId, String symbol) {
+        // Inside compute, so a concurrent unindex cannot drop the set this id is being added to
+        holders.compute(symbol, (s, ids) -> {
+            Set<Long> updated = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            updated.add(portfolioId);
+            return updated;
+        });
+    }
+
+    private void unindex(Long portfolioId, Set<String> symbols) {
+        for (String symbol : symbols) {
+            holders.computeIfPresent(symbol, (s, ids) -> {
+                ids.remove(portfolioId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+}
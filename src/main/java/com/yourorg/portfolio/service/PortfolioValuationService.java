@@ -0,0 +1,255 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import com.yourorg.portfolio.event.PositionsChangedEvent;
+import com.yourorg.portfolio.repository.PositionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps PortfolioValuations current without recomputing them. A valuation is built in full from
+ * the positions on first read; afterwards a trade reloads only the positions it changed (after
+ * commit) and a quote tick reprices only its symbol's line, each applied to the totals as a delta.
+ * A periodic check compares every cached valuation against a full recompute at the same prices,
+ * replacing it on any difference, and drops valuations nobody has read for a while.
+ */
+@Service
+public class PortfolioValuationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioValuationService.class);
+
+    // Loads, trade reloads and checks of one portfolio are serialized; ticks never wait on these
+    private static final int LOCK_STRIPES = 64;
+
+    private final PortfolioValuationCache cache;
+    private final PositionRepository positionRepository;
+    private final StockService stockService;
+    private final Duration idleTimeout;
+    private final Clock clock;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    // Trades seen per stripe, so a full load that overlapped one is not cached
+    private final AtomicLongArray generations = new AtomicLongArray(LOCK_STRIPES);
+    private final AtomicLong repairs = new AtomicLong();
+
+    @Autowired
+    public PortfolioValuationService(PortfolioValuationCache cache,
+                                     PositionRepository positionRepository,
+                                     StockService stockService,
+                                     @Value("${portfolio.valuation.idle-timeout-minutes:60}") long idleTimeoutMinutes) {
+        this(cache, positionRepository, stockService, Duration.ofMinutes(idleTimeoutMinutes), Clock.systemUTC());
+    }
+
+    public PortfolioValuationService(PortfolioValuationCache cache, PositionRepository positionRepository,
+                                     StockService stockService, Duration idleTimeout, Clock clock) {
+        this.cache = cache;
+        this.positionRepository = positionRepository;
+        this.stockService = stockService;
+        this.idleTimeout = idleTimeout;
+        this.clock = clock;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Current valuation of a portfolio; a full recompute only when it is not cached yet. A trade
+     * of the portfolio's stripe committed while it was being recomputed may be missing from the
+     * positions it read, so such a recompute is returned but not cached.
+     */
+    public PortfolioValuation.Snapshot getValuation(Long portfolioId) {
+        PortfolioValuation valuation = cache.get(portfolioId);
+        if (valuation == null) {
+            int stripe = stripeOf(portfolioId);
+            long generation = generations.get(stripe);
+            synchronized (locks[stripe]) {
+                valuation = cache.get(portfolioId);
+                if (valuation == null) {
+                    valuation = recompute(portfolioId, Map.of());
+                    if (generations.get(stripe) == generation) {
+                        cache.put(valuation);
+                    }
+                }
+            }
+        }
+        valuation.touch(clock.instant());
+        return valuation.snapshot();
+    }
+
+    /**
+     * Reload the positions a committed trade changed. Lines already held keep their price; a new
+     * symbol is priced from the quote cache. Ordered first, so listeners that read valuations
+     * after the same commit see the trade.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onPositionsChanged(PositionsChangedEvent event) {
+        Long portfolioId = event.portfolioId();
+        // Before the cache check: a first read may be recomputing from positions without this trade
+        generations.incrementAndGet(stripeOf(portfolioId));
+        if (cache.get(portfolioId) == null) {
+            return;
+        }
+        synchronized (lockFor(portfolioId)) {
+            PortfolioValuation valuation = cache.get(portfolioId);
+            if (valuation == null) {
+                return;
+            }
+            Map<String, PositionRepository.PositionRow> rows = new HashMap<>();
+            for (PositionRepository.PositionRow row :
+                    positionRepository.findPositionRowsByPortfolioIdAndSymbols(portfolioId, event.symbols())) {
+                rows.put(row.getSymbol(), row);
+            }
+
+            Set<String> unpriced = new LinkedHashSet<>(rows.keySet());
+            unpriced.removeAll(valuation.symbols());
+            Map<String, BigDecimal> prices = pricesFor(unpriced, Map.of());
+
+            for (String symbol : event.symbols()) {
+                PositionRepository.PositionRow row = rows.get(symbol);
+                PortfolioValuation.Line current = valuation.get(symbol);
+                if (row == null) {
+                    cache.removeLine(valuation, symbol);
+                } else {
+                    cache.putLine(valuation, lineOf(row, current != null ? current.price() : prices.get(symbol)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Verify every cached valuation and drop the idle ones
+     */
+    @Scheduled(fixedDelayString = "${portfolio.valuation.check-interval-ms:300000}")
+    public void checkConsistency() {
+        Instant idleSince = clock.instant().minus(idleTimeout);
+        for (PortfolioValuation valuation : cache.getAll()) {
+            try {
+                if (valuation.getLastRead().isBefore(idleSince)) {
+                    cache.invalidate(valuation.getPortfolioId());
+                } else {
+                    verify(valuation);
+                }
+            } catch (Exception e) {
+                logger.warn("Valuation check of portfolio {} failed: {}", valuation.getPortfolioId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Compare a cached valuation with a full recompute from the positions at the cached prices, so
+     * only drift in the incremental bookkeeping counts, not prices that moved meanwhile
+     *
+     * @return true when they agree; otherwise the recompute replaces the cached valuation
+     */
+    public boolean verify(PortfolioValuation valuation) {
+        Long portfolioId = valuation.getPortfolioId();
+        synchronized (lockFor(portfolioId)) {
+            if (cache.get(portfolioId) != valuation) {
+                return true;
+            }
+            PortfolioValuation.Snapshot cached = valuation.snapshot();
+            Map<String, BigDecimal> cachedPrices = new HashMap<>();
+            cached.lines().forEach(line -> cachedPrices.put(line.symbol(), line.price()));
+
+            PortfolioValuation recomputed = recompute(portfolioId, cachedPrices);
+            PortfolioValuation.Snapshot expected = recomputed.snapshot();
+            if (sameLines(cached.lines(), expected.lines())
+                    && cached.totalValue().compareTo(expected.totalValue()) == 0
+                    && cached.totalCost().compareTo(expected.totalCost()) == 0) {
+                return true;
+            }
+
+            repairs.incrementAndGet();
+            logger.warn("Valuation of portfolio {} drifted from its positions (value {} vs {}, cost {} vs {}); replaced",
+                portfolioId, cached.totalValue(), expected.totalValue(), cached.totalCost(), expected.totalCost());
+            recomputed.touch(valuation.getLastRead());
+            cache.put(recomputed);
+            return false;
+        }
+    }
+
+    /**
+     * Cached valuations replaced by the consistency check since startup
+     */
+    public long getRepairs() {
+        return repairs.get();
+    }
+
+    private PortfolioValuation recompute(Long portfolioId, Map<String, BigDecimal> knownPrices) {
+        List<PositionRepository.PositionRow> rows = positionRepository.findPositionRowsByPortfolioId(portfolioId);
+        Set<String> symbols = new LinkedHashSet<>();
+        rows.forEach(row -> symbols.add(row.getSymbol()));
+        Map<String, BigDecimal> prices = pricesFor(symbols, knownPrices);
+
+        PortfolioValuation valuation = new PortfolioValuation(portfolioId, clock.instant());
+        rows.forEach(row -> valuation.put(lineOf(row, prices.get(row.getSymbol()))));
+        return valuation;
+    }
+
+    /**
+     * Known prices where given, one quote batch for the rest
+     */
+    private Map<String, BigDecimal> pricesFor(Set<String> symbols, Map<String, BigDecimal> knownPrices) {
+        Map<String, BigDecimal> prices = new HashMap<>(knownPrices);
+        Set<String> missing = new LinkedHashSet<>(symbols);
+        missing.removeAll(knownPrices.keySet());
+        if (!missing.isEmpty()) {
+            for (Map.Entry<String, StockPriceDTO> quote : stockService.getCurrentPrices(missing).entrySet()) {
+                prices.put(quote.getKey(), quote.getValue().getCurrentPrice());
+            }
+        }
+        return prices;
+    }
+
+    private static PortfolioValuation.Line lineOf(PositionRepository.PositionRow row, BigDecimal price) {
+        return new PortfolioValuation.Line(row.getPositionId(), row.getSymbol(), row.getCompanyName(),
+            row.getQuantity(), row.getCostBasis(), row.getLotCount(), price);
+    }
+
+    private static boolean sameLines(List<PortfolioValuation.Line> cached, List<PortfolioValuation.Line> expected) {
+        if (cached.size() != expected.size()) {
+            return false;
+        }
+        for (int i = 0; i < cached.size(); i++) {
+            PortfolioValuation.Line a = cached.get(i);
+            PortfolioValuation.Line b = expected.get(i);
+            if (!a.symbol().equals(b.symbol()) || a.quantity() != b.quantity() || a.lotCount() != b.lotCount()
+                    || a.costBasis().compareTo(b.costBasis()) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Object lockFor(Long portfolioId) {
+        return locks[stripeOf(portfolioId)];
+    }
+
+    private static int stripeOf(Long portfolioId) {
+        return Math.floorMod(portfolioId.hashCode(), LOCK_STRIPES);
+    }
+}
@@ -0,0 +1,132 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.event.PositionsChangedEvent;
+import com.yourorg.portfolio.model.Investment;
+import com.yourorg.portfolio.repository.PositionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the positions aggregate in step with investment lots. Called in the same transaction
+ * as the lot change, before the lot itself is modified; each call is one conditional statement
+ * per symbol, never a re-read of the lots. Every change is announced with a PositionsChangedEvent.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class PositionService {
+
+    private final PositionRepository positionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+
+    @Autowired
+    public PositionService(PositionRepository positionRepository, ApplicationEventPublisher eventPublisher) {
+        this(positionRepository, eventPublisher, Clock.systemDefaultZone());
+    }
+
+    public PositionService(PositionRepository positionRepository, ApplicationEventPublisher eventPublisher, Clock clock) {
+        this.positionRepository = positionRepository;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+    }
+
+    /**
+     * Add newly bought lots, one upsert per portfolio and stock
+     */
+    public void recordBuys(Collection<Investment> lots) {
+        Map<List<Long>, Totals> bySymbol = new LinkedHashMap<>();
+        for (Investment lot : lots) {
+            bySymbol.computeIfAbsent(List.of(lot.getPortfolio().getId(), lot.getStock().getId()), key -> new Totals())
+                .add(lot.getQuantity(), costOf(lot, lot.getQuantity()));
+        }
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        bySymbol.forEach((key, totals) ->
+            positionRepository.addLots(key.get(0), key.get(1), totals.quantity, totals.cost, totals.lots, now));
+        publishChanges(lots);
+    }
+
+    public void recordBuy(Investment lot) {
+        recordBuys(List.of(lot));
+    }
+
+    /**
+     * Take quantities sold from lots out of their positions, each at its lot's buy price; one
+     * conditional update per portfolio and stock. Must be called before the lots' quantities are
+     * reduced or the lots deleted.
+     */
+    public void recordSells(Map<Investment, Integer> soldQuantities) {
+        Map<List<Long>, Totals> bySymbol = new LinkedHashMap<>();
+        for (Map.Entry<Investment, Integer> sold : soldQuantities.entrySet()) {
+            Investment lot = sold.getKey();
+            int quantity = sold.getValue();
+            Totals totals = bySymbol.computeIfAbsent(List.of(lot.getPortfolio().getId(), lot.getStock().getId()),
+                key -> new Totals());
+            totals.quantity += quantity;
+            totals.cost = totals.cost.add(costOf(lot, quantity));
+            if (quantity == lot.getQuantity()) {
+                totals.lots++;
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        bySymbol.forEach((key, totals) -> {
+            Long portfolioId = key.get(0);
+            Long stockId = key.get(1);
+            int updated = positionRepository.removeFromLots(portfolioId, stockId, totals.quantity, totals.cost,
+                totals.lots, now);
+            if (updated == 0) {
+                throw new IllegalStateException("Position for portfolio " + portfolioId + " and stock " + stockId
+                    + " holds less than " + totals.quantity + " shares");
+            }
+            if (totals.lots > 0) {
+                positionRepository.deleteIfEmpty(portfolioId, stockId);
+            }
+        });
+        publishChanges(soldQuantities.keySet());
+    }
+
+    public void recordSell(Investment lot, int quantity) {
+        recordSells(Map.of(lot, quantity));
+    }
+
+    private void publishChanges(Collection<Investment> lots) {
+        Map<Long, Set<String>> symbolsByPortfolio = new LinkedHashMap<>();
+        for (Investment lot : lots) {
+            symbolsByPortfolio.computeIfAbsent(lot.getPortfolio().getId(), id -> new LinkedHashSet<>())
+                .add(lot.getStock().getSymbol());
+        }
+        symbolsByPortfolio.forEach((portfolioId, symbols) ->
+            eventPublisher.publishEvent(new PositionsChangedEvent(portfolioId, Set.copyOf(symbols))));
+    }
+
+    private static BigDecimal costOf(Investment lot, int quantity) {
+        return lot.getBuyPrice().multiply(BigDecimal.valueOf(quantity));
+    }
+
+    // For sells, lots counts the lots closed
+    private static final class Totals {
+        int quantity;
+        BigDecimal cost = BigDecimal.ZERO;
+        int lots;
+
+        void add(int lotQuantity, BigDecimal lotCost) {
+            quantity += lotQuantity;
+            cost = cost.add(lotCost);
+            lots++;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import com.yourorg.portfolio.model.PriceBar;
+import com.yourorg.portfolio.repository.PriceBarRepository;
+import com.yourorg.portfolio.util.MarketHours;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Records every fetched quote into minute bars and rolls them up into daily bars.
+ * Ticks are aggregated in memory per symbol; finished minutes are written with one JDBC
+ * batch upsert per flush rather than one entity save per tick. Daily closes are also appended
+ * to the PriceHistoryStore for analytics.
+ */
+@Service
+@ConditionalOnProperty(prefix = "price-history", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PriceBarService implements QuoteObserver {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceBarService.class);
+
+    // Merges into an existing minute bar (e.g. after a restart mid-minute) without losing its open
+    static final String MERGE_MINUTE_SQL =
+        "INSERT INTO price_bars (symbol, bar_interval, ts, open_price, high_price, low_price, close_price, volume) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE high_price = GREATEST(high_price, VALUES(high_price)), " +
+        "low_price = LEAST(low_price, VALUES(low_price)), close_price = VALUES(close_price), " +
+        "volume = volume + VALUES(volume)";
+
+    // Rollups are recomputed from minute bars, so re-running one simply overwrites the bar
+    static final String REPLACE_SQL =
+        "INSERT INTO price_bars (symbol, bar_interval, ts, open_price, high_price, low_price, close_price, volume) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE open_price = VALUES(open_price), high_price = VALUES(high_price), " +
+        "low_price = VALUES(low_price), close_price = VALUES(close_price), volume = VALUES(volume)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PriceBarRepository priceBarRepository;
+    private final PriceHistoryStore priceHistoryStore;
+    private final Clock clock;
+    private final int batchSize;
+    private final int minuteRetentionDays;
+
+    private final Map<String, PriceBar> openBars = new ConcurrentHashMap<>();
+    private final Queue<PriceBar> closedBars = new ConcurrentLinkedQueue<>();
+
+    @Autowired
+    public PriceBarService(JdbcTemplate jdbcTemplate,
+                           PriceBarRepository priceBarRepository,
+                           PriceHistoryStore priceHistoryStore,
+                           @Value("${price-history.batch-size:500}") int batchSize,
+                           @Value("${price-history.minute-retention-days:30}") int minuteRetentionDays) {
+        this(jdbcTemplate, priceBarRepository, priceHistoryStore, Clock.systemUTC(), batchSize, minuteRetentionDays);
+    }
+
+    public PriceBarService(JdbcTemplate jdbcTemplate, PriceBarRepository priceBarRepository,
+                           PriceHistoryStore priceHistoryStore, Clock clock,
+                           int batchSize, int minuteRetentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.priceBarRepository = priceBarRepository;
+        this.priceHistoryStore = priceHistoryStore;
+        this.clock = clock;
+        this.batchSize = Math.max(1, batchSize);
+        this.minuteRetentionDays = minuteRetentionDays;
+    }
+
+    @Override
+    public void onQuote(StockPriceDTO quote) {
+        if (quote.getSymbol() == null || quote.getCurrentPrice() == null) {
+            return;
+        }
+        record(quote.getSymbol(), quote.getCurrentPrice(), clock.instant());
+    }
+
+    /**
+     * Fold one tick into the symbol's current minute bar; a tick for a new minute closes the previous bar
+     */
+    public void record(String symbol, BigDecimal price, Instant at) {
+        Instant minute = at.truncatedTo(ChronoUnit.MINUTES);
+        openBars.compute(symbol, (key, bar) -> {
+            if (bar != null && bar.getTs().equals(minute)) {
+                if (price.compareTo(bar.getHighPrice()) > 0) {
+                    bar.setHighPrice(price);
+                }
+                if (price.compareTo(bar.getLowPrice()) < 0) {
+                    bar.setLowPrice(price);
+                }
+                bar.setClosePrice(price);
+                return bar;
+            }
+            if (bar != null) {
+                closedBars.add(bar);
+            }
+            return new PriceBar(key, PriceBar.BarInterval.MINUTE, minute, price, price, price, price, 0);
+        });
+    }
+
+    /**
+     * Write finished minute bars: closed ones plus open ones whose minute has passed
+     */
+    @Scheduled(fixedDelayString = "${price-history.flush-interval-ms:10000}")
+    public int flush() {
+        return flush(false);
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        flush(true);
+    }
+
+    private int flush(boolean includeCurrentMinute) {
+        Instant currentMinute = clock.instant().truncatedTo(ChronoUnit.MINUTES);
+        List<PriceBar> batch = new ArrayList<>();
+        for (PriceBar bar; (bar = closedBars.poll()) != null; ) {
+            batch.add(bar);
+        }
+        openBars.forEach((symbol, bar) -> {
+            if ((includeCurrentMinute || bar.getTs().isBefore(currentMinute)) && openBars.remove(symbol, bar)) {
+                batch.add(bar);
+            }
+        });
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            write(MERGE_MINUTE_SQL, batch);
+            logger.debug("Flushed {} minute bars", batch.size());
+        } catch (Exception e) {
+            logger.warn("Failed to flush {} minute bars: {}", batch.size(), e.getMessage());
+        }
+        return batch.size();
+    }
+
+    /**
+     * Roll the trading day's minute bars into daily bars after the close, then purge old minute bars
+     */
+    @Scheduled(cron = "${price-history.rollup-cron:0 15 16 * * MON-FRI}", zone = "America/New_York")
+    public void rollupToday() {
+        flush();
+        rollupDaily(LocalDate.now(clock.withZone(MarketHours.EXCHANGE_ZONE)));
+        purgeMinuteBars();
+    }
+
+    /**
+     * Build one daily bar per symbol from the minute bars of an exchange-local session date
+     */
+    @Transactional
+    public int rollupDaily(LocalDate sessionDate) {
+        Instant from = sessionDate.atStartOfDay(MarketHours.EXCHANGE_ZONE).toInstant();
+        Instant to = sessionDate.plusDays(1).atStartOfDay(MarketHours.EXCHANGE_ZONE).toInstant();
+        Instant dayKey = sessionDate.atStartOfDay(ZoneOffset.UTC).toInstant();
+
+        Map<String, PriceBar> daily = new LinkedHashMap<>();
+        for (PriceBar minute : priceBarRepository.findAllInRange(PriceBar.BarInterval.MINUTE, from, to)) {
+            PriceBar day = daily.get(minute.getSymbol());
+            if (day == null) {
+                daily.put(minute.getSymbol(), new PriceBar(minute.getSymbol(), PriceBar.BarInterval.DAY, dayKey,
+                    minute.getOpenPrice(), minute.getHighPrice(), minute.getLowPrice(), minute.getClosePrice(),
+                    minute.getVolume()));
+                continue;
+            }
+            if (minute.getHighPrice().compareTo(day.getHighPrice()) > 0) {
+                day.setHighPrice(minute.getHighPrice());
+            }
+            if (minute.getLowPrice().compareTo(day.getLowPrice()) < 0) {
+                day.setLowPrice(minute.getLowPrice());
+            }
+            day.setClosePrice(minute.getClosePrice());
+            day.setVolume(day.getVolume() + minute.getVolume());
+        }
+
+        if (!daily.isEmpty()) {
+            write(REPLACE_SQL, new ArrayList<>(daily.values()));
+            for (PriceBar day : daily.values()) {
+                if (!priceHistoryStore.append(day.getSymbol(), dayKey.toEpochMilli(), day.getClosePrice().doubleValue())) {
+                    logger.warn("Price history for {} is newer than {}; rebuild it to backfill", day.getSymbol(), sessionDate);
+                }
+            }
+            logger.info("Rolled up {} daily bars for {}", daily.size(), sessionDate);
+        }
+        return daily.size();
+    }
+
+    @Transactional
+    public int purgeMinuteBars() {
+        if (minuteRetentionDays <= 0) {
+            return 0;
+        }
+        return priceBarRepository.deleteOlderThan(PriceBar.BarInterval.MINUTE,
+            clock.instant().minus(minuteRetentionDays, ChronoUnit.DAYS));
+    }
+
+    /**
+     * Bars in [from, to), oldest first
+     */
+    @Transactional(readOnly = true)
+    public List<PriceBar> getBars(String symbol, PriceBar.BarInterval interval, Instant from, Instant to) {
+        return priceBarRepository.findRange(symbol.toUpperCase(), interval, from, to);
+    }
+
+    private void write(String sql, List<PriceBar> bars) {
+        jdbcTemplate.batchUpdate(sql, bars, batchSize, (ps, bar) -> {
+            ps.setString(1, bar.getSymbol());
+            ps.setString(2, bar.getBarInterval().name());
+            ps.setTimestamp(3, Timestamp.from(bar.getTs()));
+            ps.setBigDecimal(4, bar.getOpenPrice());
+            ps.setBigDecimal(5, bar.getHighPrice());
+            ps.setBigDecimal(6, bar.getLowPrice());
+            ps.setBigDecimal(7, bar.getClosePrice());
+            ps.setLong(8, bar.getVolume());
+        });
+    }
+}
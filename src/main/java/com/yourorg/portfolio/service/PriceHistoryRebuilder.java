@@ -0,0 +1,77 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.model.PriceBar;
+import com.yourorg.portfolio.repository.PriceBarRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Rebuilds the price history files from the daily bars in the database.
+ * Runs at startup when the application is launched with {@code --rebuild-price-history}, or
+ * {@code --rebuild-price-history=AAPL,MSFT} to limit it to some symbols.
+ */
+@Component
+public class PriceHistoryRebuilder implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceHistoryRebuilder.class);
+
+    static final String OPTION = "rebuild-price-history";
+
+    private final PriceBarRepository priceBarRepository;
+    private final PriceHistoryStore priceHistoryStore;
+
+    public PriceHistoryRebuilder(PriceBarRepository priceBarRepository, PriceHistoryStore priceHistoryStore) {
+        this.priceBarRepository = priceBarRepository;
+        this.priceHistoryStore = priceHistoryStore;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+        List<String> symbols = new ArrayList<>();
+        for (String value : args.getOptionValues(OPTION)) {
+            for (String symbol : value.split(",")) {
+                if (!symbol.isBlank()) {
+                    symbols.add(symbol.trim().toUpperCase());
+                }
+            }
+        }
+        rebuild(symbols.isEmpty() ? priceBarRepository.findDistinctSymbols(PriceBar.BarInterval.DAY) : symbols);
+    }
+
+    /**
+     * Replace each symbol's file with its daily closes from price_bars
+     *
+     * @return number of points written
+     */
+    @Transactional(readOnly = true)
+    public int rebuild(Collection<String> symbols) {
+        long started = System.currentTimeMillis();
+        int points = 0;
+        for (String symbol : symbols) {
+            List<PriceBarRepository.ClosePoint> closes =
+                priceBarRepository.findAllCloses(symbol, PriceBar.BarInterval.DAY);
+            long[] timestamps = new long[closes.size()];
+            double[] values = new double[closes.size()];
+            for (int i = 0; i < closes.size(); i++) {
+                timestamps[i] = closes.get(i).getTs().toEpochMilli();
+                values[i] = closes.get(i).getClose().doubleValue();
+            }
+            priceHistoryStore.replace(symbol, timestamps, values);
+            points += timestamps.length;
+        }
+        logger.info("Rebuilt price history for {} symbols ({} points) in {} ms",
+            symbols.size(), points, System.currentTimeMillis() - started);
+        return points;
+    }
+}
@@ -0,0 +1,77 @@
+package com.yourorg.portfolio.service;
+
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.util.Set;
+
+/**
+ * Append-only daily close history per symbol, laid out for sequential numeric scans.
+ * Timestamps are epoch milliseconds and strictly increasing within a symbol.
+ */
+public interface PriceHistoryStore {
+
+    /**
+     * Append one close. A timestamp equal to the last one replaces its close; an older one is ignored.
+     *
+     * @return false if the point was older than the series and therefore ignored
+     */
+    boolean append(String symbol, long timestamp, double close);
+
+    /**
+     * Atomically replace a symbol's whole history, e.g. when rebuilding from the database
+     */
+    void replace(String symbol, long[] timestamps, double[] closes);
+
+    /**
+     * Everything recorded for the symbol; empty if the symbol is unknown
+     */
+    Series read(String symbol);
+
+    /**
+     * Points with from &lt;= timestamp &lt; to
+     */
+    Series read(String symbol, long from, long to);
+
+    Set<String> getSymbols();
+
+    /**
+     * Read-only view over a consistent prefix of a symbol's history. Appends made after the view
+     * was taken are not visible through it; the buffers are valid for as long as the view is held.
+     */
+    final class Series {
+        private final String symbol;
+        private final LongBuffer timestamps;
+        private final DoubleBuffer closes;
+
+        public Series(String symbol, LongBuffer timestamps, DoubleBuffer closes) {
+            this.symbol = symbol;
+            this.timestamps = timestamps;
+            this.closes = closes;
+        }
+
+        public static Series empty(String symbol) {
+            return new Series(symbol, LongBuffer.allocate(0).asReadOnlyBuffer(),
+                DoubleBuffer.allocate(0).asReadOnlyBuffer());
+        }
+
+        public String getSymbol() { return symbol; }
+
+        public int size() { return closes.limit(); }
+
+        public boolean isEmpty() { return size() == 0; }
+
+        public long timestampAt(int index) { return timestamps.get(index); }
+
+        public double closeAt(int index) { return closes.get(index); }
+
+        /**
+         * Timestamp column; a fresh read-only duplicate so callers may move its position freely
+         */
+        public LongBuffer timestamps() { return timestamps.duplicate(); }
+
+        /**
+         * Close column; a fresh read-only duplicate so callers may move its position freely
+         */
+        public DoubleBuffer closes() { return closes.duplicate(); }
+    }
+}
@@ -0,0 +1,299 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.QuoteCacheStatsDTO;
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * In-memory quote cache in front of StockApiClient.
+ * Entries stay fresh for a TTL chosen by the quote's source provider (short for mock data),
+ * the cache is bounded with LRU eviction,
+ * and concurrent misses for the same symbol are coalesced into a single upstream call.
+ * The cache keeps its own copy of each quote and hands every caller a fresh copy,
+ * so a caller that modifies a quote never changes what other readers see.
+ */
+@Component
+public class QuoteCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuoteCache.class);
+
+    private final int maxSize;
+    private final Duration ttl;
+    private final Map<String, Duration> ttlBySource;
+    private final Clock clock;
+
+    private final LinkedHashMap<String, CachedQuote> entries;
+    private final Map<String, CompletableFuture<StockPriceDTO>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    @Autowired
+    public QuoteCache(@Value("${external.stock-api.provider:alpha-vantage}") String provider,
+                      @Value("${external.stock-api.alpha-vantage.cache-ttl-seconds:60}") long alphaVantageTtlSeconds,
+                      @Value("${external.stock-api.finnhub.cache-ttl-seconds:15}") long finnhubTtlSeconds,
+                      @Value("${external.stock-api.yahoo-finance.cache-ttl-seconds:30}") long yahooFinanceTtlSeconds,
+                      @Value("${external.stock-api.cache.mock-ttl-seconds:5}") long mockTtlSeconds,
+                      @Value("${external.stock-api.cache.max-size:1000}") int maxSize) {
+        this(ttlBySource(alphaVantageTtlSeconds, finnhubTtlSeconds, yahooFinanceTtlSeconds, mockTtlSeconds)
+                 .getOrDefault(provider, Duration.ofSeconds(alphaVantageTtlSeconds)),
+             ttlBySource(alphaVantageTtlSeconds, finnhubTtlSeconds, yahooFinanceTtlSeconds, mockTtlSeconds),
+             maxSize, Clock.systemUTC());
+    }
+
+    public QuoteCache(Duration ttl, int maxSize, Clock clock) {
+        this(ttl, Map.of(), maxSize, clock);
+    }
+
+    /**
+     * @param ttl default TTL, used for quotes without a source or from an unlisted one
+     * @param ttlBySource TTL per quote source
+     */
+    public QuoteCache(Duration ttl, Map<String, Duration> ttlBySource, int maxSize, Clock clock) {
+        this.ttl = ttl;
+        this.ttlBySource = Map.copyOf(ttlBySource);
+        this.maxSize = Math.max(1, maxSize);
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedQuote> eldest) {
+                if (size() > QuoteCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get a fresh quote, loading it at most once across concurrent callers on a miss
+     */
+    public StockPriceDTO get(String symbol, Function<String, StockPriceDTO> loader) {
+        StockPriceDTO cached = getIfFresh(symbol);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+
+        CompletableFuture<StockPriceDTO> flight = new CompletableFuture<>();
+        CompletableFuture<StockPriceDTO> existing = inFlight.putIfAbsent(symbol, flight);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return await(existing);
+        }
+
+        try {
+            // Another caller may have populated the entry between our miss and claiming the flight
+            StockPriceDTO value = getIfFresh(symbol);
+            if (value == null) {
+                loads.incrementAndGet();
+                value = loader.apply(symbol);
+                put(symbol, value);
+            }
+            flight.complete(copyOf(value));
+            return value;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(symbol, flight);
+        }
+    }
+
+    /**
+     * Get fresh quotes for several symbols, loading all misses with one bulk call
+     */
+    public Map<String, StockPriceDTO> getAll(Collection<String> symbols,
+                                             Function<Collection<String>, Map<String, StockPriceDTO>> bulkLoader) {
+        Set<String> distinctSymbols = new LinkedHashSet<>(symbols);
+        Map<String, StockPriceDTO> found = new HashMap<>();
+        Map<String, CompletableFuture<StockPriceDTO>> owned = new LinkedHashMap<>();
+        Map<String, CompletableFuture<StockPriceDTO>> joined = new HashMap<>();
+
+        for (String symbol : distinctSymbols) {
+            StockPriceDTO cached = getIfFresh(symbol);
+            if (cached != null) {
+                hits.incrementAndGet();
+                found.put(symbol, cached);
+                continue;
+            }
+            misses.incrementAndGet();
+
+            CompletableFuture<StockPriceDTO> flight = new CompletableFuture<>();
+            CompletableFuture<StockPriceDTO> existing = inFlight.putIfAbsent(symbol, flight);
+            if (existing != null) {
+                coalesced.incrementAndGet();
+                joined.put(symbol, existing);
+            } else {
+                owned.put(symbol, flight);
+            }
+        }
+
+        if (!owned.isEmpty()) {
+            try {
+                List<String> toLoad = new ArrayList<>(owned.keySet());
+                loads.addAndGet(toLoad.size());
+                Map<String, StockPriceDTO> loaded = bulkLoader.apply(toLoad);
+                for (Map.Entry<String, CompletableFuture<StockPriceDTO>> entry : owned.entrySet()) {
+                    StockPriceDTO value = loaded.get(entry.getKey());
+                    if (value != null) {
+                        put(entry.getKey(), value);
+                        found.put(entry.getKey(), value);
+                    }
+                    entry.getValue().complete(copyOf(value));
+                }
+            } catch (RuntimeException e) {
+                owned.values().forEach(flight -> flight.completeExceptionally(e));
+                throw e;
+            } finally {
+                owned.forEach(inFlight::remove);
+            }
+        }
+
+        for (Map.Entry<String, CompletableFuture<StockPriceDTO>> entry : joined.entrySet()) {
+            StockPriceDTO value = await(entry.getValue());
+            if (value != null) {
+                found.put(entry.getKey(), value);
+            }
+        }
+
+        Map<String, StockPriceDTO> result = new LinkedHashMap<>();
+        for (String symbol : distinctSymbols) {
+            StockPriceDTO value = found.get(symbol);
+            if (value != null) {
+                result.put(symbol, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Store a quote, replacing any existing entry for the symbol
+     */
+    public void put(String symbol, StockPriceDTO quote) {
+        if (symbol == null || quote == null) {
+            return;
+        }
+        Duration entryTtl = quote.getSource() == null ? ttl : ttlBySource.getOrDefault(quote.getSource(), ttl);
+        long expiresAt = clock.millis() + entryTtl.toMillis();
+        synchronized (entries) {
+            entries.put(symbol, new CachedQuote(copyOf(quote), expiresAt));
+        }
+    }
+
+    /**
+     * Milliseconds until the cached quote expires, 0 when absent or already stale.
+     * Does not count as a hit or miss.
+     */
+    public long millisUntilExpiry(String symbol) {
+        synchronized (entries) {
+            CachedQuote cached = entries.get(symbol);
+            return cached == null ? 0 : Math.max(0, cached.expiresAt - clock.millis());
+        }
+    }
+
+    /**
+     * Drop a cached quote
+     */
+    public void invalidate(String symbol) {
+        synchronized (entries) {
+            entries.remove(symbol);
+        }
+    }
+
+    /**
+     * Snapshot of the cache counters
+     */
+    public QuoteCacheStatsDTO getStats() {
+        QuoteCacheStatsDTO stats = new QuoteCacheStatsDTO();
+        stats.setHits(hits.get());
+        stats.setMisses(misses.get());
+        stats.setLoads(loads.get());
+        stats.setCoalesced(coalesced.get());
+        stats.setEvictions(evictions.get());
+        stats.setExpirations(expirations.get());
+        synchronized (entries) {
+            stats.setSize(entries.size());
+        }
+        stats.setMaxSize(maxSize);
+        stats.setTtlSeconds(ttl.toSeconds());
+        long requests = stats.getHits() + stats.getMisses();
+        stats.setHitRate(requests == 0 ? 0.0 : (double) stats.getHits() / requests);
+        return stats;
+    }
+
+    private static Map<String, Duration> ttlBySource(long alphaVantageSeconds, long finnhubSeconds,
+                                                     long yahooFinanceSeconds, long mockSeconds) {
+        return Map.of(AlphaVantageQuoteProvider.NAME, Duration.ofSeconds(alphaVantageSeconds),
+                      FinnhubQuoteProvider.NAME, Duration.ofSeconds(finnhubSeconds),
+                      YahooFinanceQuoteProvider.NAME, Duration.ofSeconds(yahooFinanceSeconds),
+                      StockApiClient.MOCK_SOURCE, Duration.ofSeconds(mockSeconds));
+    }
+
+    private StockPriceDTO getIfFresh(String symbol) {
+        synchronized (entries) {
+            CachedQuote cached = entries.get(symbol);
+            if (cached == null) {
+                return null;
+            }
+            if (cached.expiresAt <= clock.millis()) {
+                entries.remove(symbol);
+                expirations.incrementAndGet();
+                return null;
+            }
+            return copyOf(cached.quote);
+        }
+    }
+
+    private StockPriceDTO await(CompletableFuture<StockPriceDTO> flight) {
+        try {
+            return copyOf(flight.join());
+        } catch (CompletionException e) {
+            logger.debug("Coalesced quote load failed: {}", e.getMessage());
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static StockPriceDTO copyOf(StockPriceDTO quote) {
+        return quote == null ? null : new StockPriceDTO(quote);
+    }
+
+    private static final class CachedQuote {
+        private final StockPriceDTO quote;
+        private final long expiresAt;
+
+        private CachedQuote(StockPriceDTO quote, long expiresAt) {
+            this.quote = quote;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
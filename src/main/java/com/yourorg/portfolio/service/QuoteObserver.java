@@ -0,0 +1,12 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.StockPriceDTO;
+
+/**
+ * Callback for every real quote StockApiClient receives from a provider (never for mock data).
+ * Invoked on the HTTP client's event-loop thread, so implementations must not block.
+ */
+public interface QuoteObserver {
+
+    void onQuote(StockPriceDTO quote);
+}
@@ -0,0 +1,50 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Upstream source of real-time quotes.
+ * Implementations complete empty when the provider has no quote for the symbol (unknown symbol)
+ * and with an error on transport failures and rate limiting, so only the latter count against the
+ * provider's circuit breaker.
+ */
+public interface QuoteProvider {
+
+    /**
+     * Provider key as used in configuration and in {@link StockPriceDTO#getSource()}
+     */
+    String getName();
+
+    Mono<StockPriceDTO> fetchQuote(String symbol);
+
+    /**
+     * Maximum number of in-flight requests this provider tolerates
+     */
+    int getMaxConcurrency();
+
+    /**
+     * Build a quote with change, change percent and trend derived from the previous close
+     */
+    static StockPriceDTO toQuote(String symbol, BigDecimal currentPrice, BigDecimal previousClose, String currency) {
+        StockPriceDTO dto = new StockPriceDTO(symbol, currentPrice);
+        dto.setCurrency(currency != null ? currency : "USD");
+        if (previousClose == null) {
+            return dto;
+        }
+
+        dto.setPreviousClose(previousClose);
+        BigDecimal change = currentPrice.subtract(previousClose);
+        dto.setChange(change);
+        if (previousClose.compareTo(BigDecimal.ZERO) > 0) {
+            dto.setChangePercent(change
+                .divide(previousClose, 4, RoundingMode.HALF_UP)
+                .multiply(BigDecimal.valueOf(100)));
+        }
+        dto.setTrend(change.compareTo(BigDecimal.ZERO) >= 0 ? "UP" : "DOWN");
+        return dto;
+    }
+}
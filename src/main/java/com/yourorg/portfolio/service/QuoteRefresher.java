@@ -0,0 +1,151 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import com.yourorg.portfolio.repository.InvestmentRepository;
+import com.yourorg.portfolio.util.MarketHours;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the quote cache warm for a watch-set of symbols so the request path serves from memory.
+ * The watch-set is every held symbol, the trending list and whatever streaming clients follow.
+ * Each cycle refreshes only quotes about to expire, oldest first, within the provider's
+ * per-minute request budget; it runs every few seconds while the market is open and sleeps
+ * until the next session otherwise.
+ */
+@Service
+@ConditionalOnProperty(prefix = "external.stock-api.refresher", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QuoteRefresher {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuoteRefresher.class);
+
+    private final StockApiClient stockApiClient;
+    private final QuoteCache quoteCache;
+    private final InvestmentRepository investmentRepository;
+    private final QuoteStreamService quoteStreamService;
+    private final TaskScheduler taskScheduler;
+    private final Clock clock;
+
+    private final Duration openInterval;
+    private final Duration seedInterval;
+    private final int batchSize;
+
+    private volatile Set<String> heldSymbols = Set.of();
+    private volatile Instant lastSeeded = Instant.EPOCH;
+
+    @Autowired
+    public QuoteRefresher(StockApiClient stockApiClient,
+                          QuoteCache quoteCache,
+                          InvestmentRepository investmentRepository,
+                          QuoteStreamService quoteStreamService,
+                          TaskScheduler taskScheduler,
+                          @Value("${external.stock-api.provider:alpha-vantage}") String provider,
+                          @Value("${external.stock-api.alpha-vantage.requests-per-minute:5}") int alphaVantageRequestsPerMinute,
+                          @Value("${external.stock-api.finnhub.requests-per-minute:60}") int finnhubRequestsPerMinute,
+                          @Value("${external.stock-api.refresher.market-open-interval-seconds:30}") long openIntervalSeconds,
+                          @Value("${external.stock-api.refresher.seed-interval-minutes:5}") long seedIntervalMinutes) {
+        this(stockApiClient, quoteCache, investmentRepository, quoteStreamService, taskScheduler, Clock.systemUTC(),
+             Duration.ofSeconds(openIntervalSeconds), Duration.ofMinutes(seedIntervalMinutes),
+             "finnhub".equals(provider) ? finnhubRequestsPerMinute : alphaVantageRequestsPerMinute);
+    }
+
+    public QuoteRefresher(StockApiClient stockApiClient, QuoteCache quoteCache, InvestmentRepository investmentRepository,
+                          QuoteStreamService quoteStreamService, TaskScheduler taskScheduler, Clock clock,
+                          Duration openInterval, Duration seedInterval, int requestsPerMinute) {
+        this.stockApiClient = stockApiClient;
+        this.quoteCache = quoteCache;
+        this.investmentRepository = investmentRepository;
+        this.quoteStreamService = quoteStreamService;
+        this.taskScheduler = taskScheduler;
+        this.clock = clock;
+        this.openInterval = openInterval;
+        this.seedInterval = seedInterval;
+        // Budget per cycle: the provider's per-minute allowance spread over the cycles in a minute
+        this.batchSize = (int) Math.max(1, requestsPerMinute * openInterval.toSeconds() / 60);
+    }
+
+    /**
+     * Warm the cache once at startup, whatever the market state, then keep rescheduling
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        taskScheduler.schedule(this::runCycle, clock.instant());
+    }
+
+    /**
+     * One refresh cycle followed by scheduling the next one
+     */
+    void runCycle() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            logger.warn("Quote refresh cycle failed: {}", e.getMessage());
+        } finally {
+            taskScheduler.schedule(this::runCycle, clock.instant().plus(nextDelay()));
+        }
+    }
+
+    /**
+     * Refresh the stalest watched quotes within the per-cycle budget
+     */
+    public Map<String, StockPriceDTO> refresh() {
+        Set<String> watchSet = getWatchSet();
+        List<String> batch = watchSet.stream()
+            .filter(symbol -> quoteCache.millisUntilExpiry(symbol) <= openInterval.toMillis())
+            .sorted(Comparator.comparingLong(quoteCache::millisUntilExpiry))
+            .limit(batchSize)
+            .toList();
+        if (batch.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, StockPriceDTO> quotes = stockApiClient.fetchStockPrices(batch);
+        quotes.forEach(quoteCache::put);
+        quoteStreamService.publish(quotes.values());
+        logger.debug("Refreshed {} of {} watched quotes", quotes.size(), watchSet.size());
+        return quotes;
+    }
+
+    /**
+     * Held symbols (re-read from the database every seed interval), trending symbols and streamed symbols
+     */
+    public Set<String> getWatchSet() {
+        Instant now = clock.instant();
+        if (!now.isBefore(lastSeeded.plus(seedInterval))) {
+            heldSymbols = new LinkedHashSet<>(investmentRepository.findDistinctHeldSymbols());
+            lastSeeded = now;
+        }
+
+        Set<String> watchSet = new LinkedHashSet<>(quoteStreamService.getWatchedSymbols());
+        watchSet.addAll(heldSymbols);
+        watchSet.addAll(StockApiClient.TRENDING_SYMBOLS);
+        return watchSet;
+    }
+
+    /**
+     * Short interval during the trading session, otherwise dormant until the next open
+     */
+    Duration nextDelay() {
+        Instant now = clock.instant();
+        if (MarketHours.isOpen(now)) {
+            return openInterval;
+        }
+        return Duration.between(now, MarketHours.nextOpen(now));
+    }
+}
@@ -0,0 +1,351 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.PortfolioDTO;
+import com.yourorg.portfolio.dto.PortfolioDeltaDTO;
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import com.yourorg.portfolio.event.PositionsChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Pushes quote and portfolio valuation changes to streaming clients; a portfolio stream also
+ * reloads its portfolio after every committed trade on it.
+ * QuoteRefresher is the single upstream loop for every subscriber: it includes the union of
+ * watched symbols in its watch-set and publishes here; only quotes whose price moved since
+ * the last publication reach subscribers. Each stream buffers changes from before its snapshot is
+ * loaded, so a change published while the snapshot loads or is being sent is never lost.
+ */
+@Service
+public class QuoteStreamService {
+
+    private final StockService stockService;
+    private final PortfolioService portfolioService;
+
+    private final Sinks.Many<Tick> changes = Sinks.many().multicast().directBestEffort();
+    private final Sinks.Many<Long> positionChanges = Sinks.many().multicast().directBestEffort();
+    private long sequence;
+    private final Map<String, BigDecimal> lastPublished = new ConcurrentHashMap<>();
+    private final Map<String, Integer> watchers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public QuoteStreamService(StockService stockService, PortfolioService portfolioService) {
+        this.stockService = stockService;
+        this.portfolioService = portfolioService;
+    }
+
+    /**
+     * Current quotes for the symbols, followed by every later price change
+     */
+    public Flux<StockPriceDTO> streamQuotes(Collection<String> symbols) {
+        Set<String> watched = normalize(symbols);
+        if (watched.isEmpty()) {
+            return Flux.empty();
+        }
+
+        return watching(watched, snapshotThenChanges(() -> stockService.getCurrentPrices(watched),
+            (prices, live) -> Flux.fromIterable(prices.values())
+                .doOnNext(quote -> lastPublished.putIfAbsent(quote.getSymbol(), quote.getCurrentPrice()))
+                .concatWith(only(watched, live).flatMapIterable(batch -> batch))));
+    }
+
+    /**
+     * Current valuation of the user's portfolio, followed by a delta whenever a held symbol moves or
+     * a trade changes its positions
+     */
+    public Flux<PortfolioDeltaDTO> streamPortfolio(Long userId) {
+        return Flux.defer(() -> {
+            // Subscribed before the snapshot loads, so a trade committed meanwhile still triggers a reload
+            Sinks.Many<Long> trades = Sinks.many().unicast().onBackpressureBuffer();
+            Disposable upstream = positionChanges.asFlux()
+                .subscribe(trades::tryEmitNext, trades::tryEmitError, trades::tryEmitComplete);
+
+            return snapshotThenChanges(() -> portfolioService.getPortfolioByUserId(userId), (portfolio, live) -> {
+                PortfolioView view = new PortfolioView(portfolio);
+                Mono<PortfolioDeltaDTO> reload = Mono
+                    .fromCallable(() -> view.reload(portfolioService.getPortfolioByUserId(userId)))
+                    .subscribeOn(Schedulers.boundedElastic());
+                // One at a time, so a reload never races a revaluation of the holdings it replaces
+                Flux<Mono<PortfolioDeltaDTO>> updates = Flux.merge(
+                    live.map(batch -> Mono.fromSupplier(() -> view.revalue(batch))),
+                    trades.asFlux()
+                        .filter(portfolioId -> portfolioId.equals(portfolio.getPortfolioId()))
+                        .map(portfolioId -> reload));
+
+                // Watched before the snapshot is sent, so the refresher publishes the held symbols from then on
+                return Flux.defer(() -> {
+                        view.watchHeld();
+                        return Flux.just(toDelta(portfolio, portfolio.getHoldings()));
+                    })
+                    .concatWith(updates.concatMap(update -> update)
+                        .filter(delta -> !delta.getHoldings().isEmpty() || !delta.getRemovedSymbols().isEmpty()))
+                    .doFinally(signal -> view.close());
+            }).doFinally(signal -> upstream.dispose());
+        });
+    }
+
+    /**
+     * Publish fresh quotes; only symbols whose price differs from the last published one reach subscribers
+     */
+    public synchronized void publish(Collection<StockPriceDTO> quotes) {
+        List<StockPriceDTO> changed = new ArrayList<>();
+        for (StockPriceDTO quote : quotes) {
+            if (quote == null || quote.getCurrentPrice() == null || !watchers.containsKey(quote.getSymbol())) {
+                continue;
+            }
+            BigDecimal previous = lastPublished.put(quote.getSymbol(), quote.getCurrentPrice());
+            if (previous == null || previous.compareTo(quote.getCurrentPrice()) != 0) {
+                changed.add(quote);
+            }
+        }
+        if (!changed.isEmpty()) {
+            changes.tryEmitNext(new Tick(++sequence, List.copyOf(changed)));
+        }
+    }
+
+    /**
+     * Reload the streams of a portfolio once a trade has committed. Runs after
+     * PortfolioValuationService has applied the trade, so the reload sees it.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public synchronized void onPositionsChanged(PositionsChangedEvent event) {
+        positionChanges.tryEmitNext(event.portfolioId());
+    }
+
+    /**
+     * Symbols with at least one active subscriber
+     */
+    public Set<String> getWatchedSymbols() {
+        return Set.copyOf(watchers.keySet());
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        changes.tryEmitComplete();
+        positionChanges.tryEmitComplete();
+    }
+
+    /**
+     * Subscribe to changes, then load the snapshot and stream it with the changes published after
+     * loading started. Changes published before that are already in the snapshot, since quotes are
+     * cached before they are published, and are dropped so they cannot roll a price back.
+     */
+    private <S, T> Flux<T> snapshotThenChanges(Callable<S> loader,
+                                               BiFunction<S, Flux<List<StockPriceDTO>>, Flux<T>> stream) {
+        return Flux.defer(() -> {
+            Sinks.Many<Tick> buffer = Sinks.many().unicast().onBackpressureBuffer();
+            Disposable upstream = changes.asFlux()
+                .subscribe(buffer::tryEmitNext, buffer::tryEmitError, buffer::tryEmitComplete);
+            long loadedAfter = currentSequence();
+
+            Flux<List<StockPriceDTO>> live = buffer.asFlux()
+                .filter(tick -> tick.sequence() > loadedAfter)
+                .map(Tick::quotes);
+            return Mono.fromCallable(loader)
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(snapshot -> stream.apply(snapshot, live))
+                .doFinally(signal -> upstream.dispose());
+        });
+    }
+
+    private <T> Flux<T> watching(Set<String> symbols, Flux<T> stream) {
+        return Flux.defer(() -> {
+                watch(symbols);
+                return stream;
+            })
+            .doFinally(signal -> unwatch(symbols));
+    }
+
+    private static Flux<List<StockPriceDTO>> only(Set<String> symbols, Flux<List<StockPriceDTO>> batches) {
+        return batches
+            .map(batch -> batch.stream().filter(quote -> symbols.contains(quote.getSymbol())).toList())
+            .filter(batch -> !batch.isEmpty());
+    }
+
+    private synchronized long currentSequence() {
+        return sequence;
+    }
+
+    private synchronized void watch(Set<String> symbols) {
+        symbols.forEach(symbol -> watchers.merge(symbol, 1, Integer::sum));
+    }
+
+    private synchronized void unwatch(Set<String> symbols) {
+        for (String symbol : symbols) {
+            if (watchers.computeIfPresent(symbol, (s, count) -> count > 1 ? count - 1 : null) == null) {
+                lastPublished.remove(symbol);
+            }
+        }
+    }
+
+    private PortfolioDeltaDTO revalue(PortfolioDTO portfolio, List<StockPriceDTO> batch) {
+        Map<String, BigDecimal> prices = new HashMap<>();
+        batch.forEach(quote -> prices.put(quote.getSymbol(), quote.getCurrentPrice()));
+
+        List<PortfolioDTO.HoldingDTO> changed = new ArrayList<>();
+        BigDecimal totalValue = BigDecimal.ZERO;
+        for (PortfolioDTO.HoldingDTO holding : portfolio.getHoldings()) {
+            BigDecimal price = prices.get(holding.getSymbol());
+            if (price != null && price.compareTo(holding.getCurrentPrice()) != 0) {
+                PortfolioService.valueHolding(holding, price);
+                changed.add(holding);
+            }
+            totalValue = totalValue.add(holding.getCurrentValue());
+        }
+
+        portfolio.setTotalValue(totalValue);
+        portfolio.setTotalProfitLoss(totalValue.subtract(portfolio.getTotalCost()));
+        portfolio.setTotalProfitLossPercentage(
+            PortfolioService.percentOf(portfolio.getTotalProfitLoss(), portfolio.getTotalCost()));
+        return toDelta(portfolio, changed);
+    }
+
+    private static PortfolioDeltaDTO toDelta(PortfolioDTO portfolio, List<PortfolioDTO.HoldingDTO> holdings) {
+        PortfolioDeltaDTO delta = new PortfolioDeltaDTO();
+        delta.setPortfolioId(portfolio.getPortfolioId());
+        delta.setTotalValue(portfolio.getTotalValue());
+        delta.setTotalCost(portfolio.getTotalCost());
+        delta.setTotalProfitLoss(portfolio.getTotalProfitLoss());
+        delta.setTotalProfitLossPercentage(portfolio.getTotalProfitLossPercentage());
+        // Copies, so serialization never observes a holding being revalued by the next batch
+        delta.setHoldings(holdings.stream().map(QuoteStreamService::copyOf).toList());
+        delta.setRemovedSymbols(List.of());
+        return delta;
+    }
+
+    private static boolean samePosition(PortfolioDTO.HoldingDTO a, PortfolioDTO.HoldingDTO b) {
+        return Objects.equals(a.getQuantity(), b.getQuantity())
+            && sameAmount(a.getCostBasis(), b.getCostBasis())
+            && sameAmount(a.getCurrentPrice(), b.getCurrentPrice());
+    }
+
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    private static PortfolioDTO.HoldingDTO copyOf(PortfolioDTO.HoldingDTO source) {
+        PortfolioDTO.HoldingDTO copy = new PortfolioDTO.HoldingDTO();
+        copy.setInvestmentId(source.getInvestmentId());
+        copy.setPositionId(source.getPositionId());
+        copy.setLotCount(source.getLotCount());
+        copy.setCostBasis(source.getCostBasis());
+        copy.setSymbol(source.getSymbol());
+        copy.setCompanyName(source.getCompanyName());
+        copy.setQuantity(source.getQuantity());
+        copy.setBuyPrice(source.getBuyPrice());
+        copy.setCurrentPrice(source.getCurrentPrice());
+        copy.setCurrentValue(source.getCurrentValue());
+        copy.setProfitLoss(source.getProfitLoss());
+        copy.setProfitLossPercentage(source.getProfitLossPercentage());
+        copy.setBuyDate(source.getBuyDate());
+        return copy;
+    }
+
+    /**
+     * One subscriber's portfolio: the valuation last sent and the symbols it keeps watched
+     */
+    private final class PortfolioView {
+
+        private PortfolioDTO portfolio;
+        private Set<String> held = Set.of();
+        private boolean closed;
+
+        private PortfolioView(PortfolioDTO portfolio) {
+            this.portfolio = portfolio;
+        }
+
+        synchronized PortfolioDeltaDTO revalue(List<StockPriceDTO> batch) {
+            return QuoteStreamService.this.revalue(portfolio, batch);
+        }
+
+        synchronized void watchHeld() {
+            retarget(symbolsOf(portfolio));
+        }
+
+        /**
+         * Replace the valuation with one reloaded after a trade
+         *
+         * @return the holdings added or changed by the trade and the symbols no longer held
+         */
+        synchronized PortfolioDeltaDTO reload(PortfolioDTO reloaded) {
+            Map<String, PortfolioDTO.HoldingDTO> previous = new HashMap<>();
+            portfolio.getHoldings().forEach(holding -> previous.put(holding.getSymbol(), holding));
+
+            List<PortfolioDTO.HoldingDTO> changed = new ArrayList<>();
+            for (PortfolioDTO.HoldingDTO holding : reloaded.getHoldings()) {
+                PortfolioDTO.HoldingDTO before = previous.remove(holding.getSymbol());
+                if (before == null || !samePosition(before, holding)) {
+                    changed.add(holding);
+                }
+            }
+
+            portfolio = reloaded;
+            retarget(symbolsOf(reloaded));
+            PortfolioDeltaDTO delta = toDelta(reloaded, changed);
+            delta.setRemovedSymbols(List.copyOf(previous.keySet()));
+            return delta;
+        }
+
+        synchronized void close() {
+            closed = true;
+            retarget(Set.of());
+        }
+
+        private void retarget(Set<String> symbols) {
+            if (closed && !symbols.isEmpty()) {
+                return;
+            }
+            Set<String> added = new LinkedHashSet<>(symbols);
+            added.removeAll(held);
+            Set<String> dropped = new LinkedHashSet<>(held);
+            dropped.removeAll(symbols);
+            watch(added);
+            unwatch(dropped);
+            held = symbols;
+        }
+
+        private static Set<String> symbolsOf(PortfolioDTO portfolio) {
+            Set<String> symbols = new LinkedHashSet<>();
+            portfolio.getHoldings().forEach(holding -> symbols.add(holding.getSymbol()));
+            return symbols;
+        }
+    }
+
+    /**
+     * One publication, numbered so a stream can tell whether its snapshot already includes it
+     */
+    private record Tick(long sequence, List<StockPriceDTO> quotes) {
+    }
+
+    private static Set<String> normalize(Collection<String> symbols) {
+        Set<String> normalized = new LinkedHashSet<>();
+        if (symbols != null) {
+            for (String symbol : symbols) {
+                if (symbol != null && !symbol.isBlank()) {
+                    normalized.add(symbol.trim().toUpperCase());
+                }
+            }
+        }
+        return normalized;
+    }
+}
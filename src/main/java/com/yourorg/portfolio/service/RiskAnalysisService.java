@@ -1,6 +1,8 @@
 package com.yourorg.portfolio.service;
 
 import com.yourorg.portfolio.dto.RiskAnalysisDTO;
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import com.yourorg.portfolio.event.RiskProfileChangedEvent;
 import com.yourorg.portfolio.model.Investment;
 import com.yourorg.portfolio.model.RiskProfile;
 import com.yourorg.portfolio.model.User;
@@ -10,13 +12,29 @@ import com.yourorg.portfolio.repository.UserRepository;
 import com.yourorg.portfolio.util.RiskCalculator;
 import com.yourorg.portfolio.exception.ResourceNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
+/**
+ * Risk analysis from market-value weights and daily close history.
+ * Volatility, VaR and beta come from the PriceHistoryStore; when too little history is available
+ * the volatility score falls back to the sector heuristic.
+ */
 @Service
 @Transactional
 public class RiskAnalysisService {
@@ -24,14 +42,52 @@ public class RiskAnalysisService {
     private final RiskProfileRepository riskProfileRepository;
     private final InvestmentRepository investmentRepository;
     private final UserRepository userRepository;
+    private final StockService stockService;
+    private final PriceHistoryStore priceHistoryStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+    private final Settings settings;
+    
+    /**
+     * @param lookback history window the statistics are computed over
+     * @param confidence VaR confidence level, e.g. 0.95
+     * @param benchmarkSymbol index proxy beta is measured against
+     * @param minObservations fewest aligned daily returns worth computing statistics from
+     */
+    public record Settings(Duration lookback, double confidence, String benchmarkSymbol, int minObservations) {}
     
     @Autowired
     public RiskAnalysisService(RiskProfileRepository riskProfileRepository,
                                InvestmentRepository investmentRepository,
-                               UserRepository userRepository) {
+                               UserRepository userRepository,
+                               StockService stockService,
+                               PriceHistoryStore priceHistoryStore,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${risk.lookback-days:365}") long lookbackDays,
+                               @Value("${risk.var-confidence:0.95}") double confidence,
+                               @Value("${risk.benchmark-symbol:SPY}") String benchmarkSymbol,
+                               @Value("${risk.min-observations:20}") int minObservations) {
+        this(riskProfileRepository, investmentRepository, userRepository, stockService, priceHistoryStore, eventPublisher,
+             new Settings(Duration.ofDays(lookbackDays), confidence, benchmarkSymbol, minObservations),
+             Clock.systemUTC());
+    }
+    
+    public RiskAnalysisService(RiskProfileRepository riskProfileRepository,
+                               InvestmentRepository investmentRepository,
+                               UserRepository userRepository,
+                               StockService stockService,
+                               PriceHistoryStore priceHistoryStore,
+                               ApplicationEventPublisher eventPublisher,
+                               Settings settings,
+                               Clock clock) {
         this.riskProfileRepository = riskProfileRepository;
         this.investmentRepository = investmentRepository;
         this.userRepository = userRepository;
+        this.stockService = stockService;
+        this.priceHistoryStore = priceHistoryStore;
+        this.eventPublisher = eventPublisher;
+        this.settings = settings;
+        this.clock = clock;
     }
     
     /**
@@ -44,11 +100,20 @@ public class RiskAnalysisService {
         List<Investment> investments = investmentRepository.findByUserId(userId);
         
         // Calculate scores
-        BigDecimal volatilityScore = RiskCalculator.calculateVolatilityScore(investments);
-        BigDecimal diversificationScore = RiskCalculator.calculateDiversificationScore(investments);
+        Holdings holdings = Holdings.of(investments, currentPrices(investments));
+        Measurement measurement = measure(holdings);
+        BigDecimal volatilityScore = measurement != null
+            ? RiskCalculator.volatilityScore(measurement.annualizedVolatility)
+            : RiskCalculator.calculateVolatilityScore(investments);
+        BigDecimal diversificationScore = RiskCalculator.calculateDiversificationScore(
+            holdings.weights, holdings.sectors, holdings.industries);
         
         // Get or create risk profile
-        RiskProfile riskProfile = riskProfileRepository.findByUserId(userId)
+        Optional<RiskProfile> existing = riskProfileRepository.findByUserId(userId);
+        RiskProfile.RiskCategory previousCategory = existing.map(RiskProfile::getRiskCategory).orElse(null);
+        BigDecimal previousVolatility = existing.map(RiskProfile::getVolatilityScore).orElse(null);
+        BigDecimal previousDiversification = existing.map(RiskProfile::getDiversificationScore).orElse(null);
+        RiskProfile riskProfile = existing
             .orElseGet(() -> {
                 RiskProfile.RiskCategory category = RiskCalculator.determineRiskCategory(
                     volatilityScore, diversificationScore
@@ -74,6 +139,12 @@ public class RiskAnalysisService {
             RiskCalculator.calculateMaxLossTolerance(riskProfile.getRiskCategory())
         );
         riskProfile = riskProfileRepository.save(riskProfile);
+        if (existing.isEmpty()
+                || riskProfile.getRiskCategory() != previousCategory
+                || !sameScore(riskProfile.getVolatilityScore(), previousVolatility)
+                || !sameScore(riskProfile.getDiversificationScore(), previousDiversification)) {
+            eventPublisher.publishEvent(new RiskProfileChangedEvent(userId));
+        }
         
         // Build DTO
         RiskAnalysisDTO dto = new RiskAnalysisDTO();
@@ -86,6 +157,18 @@ public class RiskAnalysisService {
         dto.setInvestmentHorizon(riskProfile.getInvestmentHorizon());
         dto.setRiskLevel(RiskCalculator.getRiskLevelDescription(riskProfile.getRiskCategory()));
         dto.setRiskLevelPlain(RiskCalculator.getRiskLevelPlainDescription(riskProfile.getRiskCategory()));
+        dto.setPortfolioValue(BigDecimal.valueOf(holdings.totalValue).setScale(2, RoundingMode.HALF_UP));
+        if (measurement != null) {
+            dto.setAnnualizedVolatility(percent(measurement.annualizedVolatility));
+            dto.setValueAtRisk(percent(measurement.historicalVaR));
+            dto.setConditionalValueAtRisk(percent(measurement.historicalCVaR));
+            dto.setParametricValueAtRisk(percent(measurement.parametricVaR));
+            dto.setBeta(measurement.beta == null ? null
+                : BigDecimal.valueOf(measurement.beta).setScale(2, RoundingMode.HALF_UP));
+            dto.setVarConfidence(percent(settings.confidence()));
+            dto.setObservations(measurement.observations);
+            dto.setHistoryCoverage(percent(measurement.coverage));
+        }
         
         // Generate recommendations
         dto.setRecommendation(generateRecommendation(riskProfile, investments));
@@ -95,6 +178,214 @@ public class RiskAnalysisService {
         return dto;
     }
     
+    private static boolean sameScore(BigDecimal a, BigDecimal b) {
+        return a == null || b == null ? Objects.equals(a, b) : a.compareTo(b) == 0;
+    }
+    
+    private Map<String, StockPriceDTO> currentPrices(List<Investment> investments) {
+        if (investments.isEmpty()) {
+            return Map.of();
+        }
+        return stockService.getCurrentPrices(investments.stream().map(inv -> inv.getStock().getSymbol()).toList());
+    }
+    
+    /**
+     * Daily statistics over the holdings that have history, re-weighted among themselves;
+     * null when there are not enough aligned observations
+     */
+    private Measurement measure(Holdings holdings) {
+        if (holdings.size() == 0 || holdings.totalValue <= 0) {
+            return null;
+        }
+        Instant to = clock.instant();
+        Instant from = to.minus(settings.lookback());
+        
+        List<PriceHistoryStore.Series> series = new ArrayList<>();
+        List<Integer> covered = new ArrayList<>();
+        for (int i = 0; i < holdings.size(); i++) {
+            PriceHistoryStore.Series history =
+                priceHistoryStore.read(holdings.symbols[i], from.toEpochMilli(), to.toEpochMilli());
+            if (history.size() > settings.minObservations()) {
+                series.add(history);
+                covered.add(i);
+            }
+        }
+        if (series.isEmpty()) {
+            return null;
+        }
+        PriceHistoryStore.Series benchmark =
+            priceHistoryStore.read(settings.benchmarkSymbol(), from.toEpochMilli(), to.toEpochMilli());
+        boolean withBenchmark = benchmark.size() > settings.minObservations();
+        if (withBenchmark) {
+            series.add(benchmark);
+        }
+        
+        double[][] returns = RiskCalculator.logReturns(alignCloses(series));
+        if (returns[0].length < settings.minObservations()) {
+            return null;
+        }
+        double[] benchmarkReturns = withBenchmark ? returns[returns.length - 1] : null;
+        if (withBenchmark) {
+            returns = Arrays.copyOf(returns, returns.length - 1);
+        }
+        
+        double coveredWeight = 0.0;
+        for (int index : covered) {
+            coveredWeight += holdings.weights[index];
+        }
+        double[] weights = new double[covered.size()];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = holdings.weights[covered.get(i)] / coveredWeight;
+        }
+        
+        double[][] covariance = RiskCalculator.covarianceMatrix(returns);
+        double dailyVolatility = RiskCalculator.portfolioVolatility(weights, covariance);
+        double[] portfolioReturns = RiskCalculator.portfolioReturns(weights, returns);
+        double confidence = settings.confidence();
+        
+        Measurement measurement = new Measurement();
+        measurement.observations = portfolioReturns.length;
+        measurement.coverage = coveredWeight;
+        measurement.annualizedVolatility = RiskCalculator.annualize(dailyVolatility);
+        measurement.historicalVaR = RiskCalculator.historicalVaR(portfolioReturns, confidence);
+        measurement.historicalCVaR = RiskCalculator.historicalCVaR(portfolioReturns, confidence);
+        measurement.parametricVaR = RiskCalculator.parametricVaR(
+            RiskCalculator.mean(portfolioReturns), dailyVolatility, confidence);
+        measurement.beta = withBenchmark ? RiskCalculator.beta(portfolioReturns, benchmarkReturns) : null;
+        return measurement;
+    }
+    
+    /**
+     * Closes of several series at the timestamps they all share, one row per series.
+     * Every series is sorted by timestamp, so this is a single k-way merge.
+     */
+    static double[][] alignCloses(List<PriceHistoryStore.Series> series) {
+        int k = series.size();
+        int capacity = Integer.MAX_VALUE;
+        for (PriceHistoryStore.Series s : series) {
+            capacity = Math.min(capacity, s.size());
+        }
+        double[][] closes = new double[k][capacity];
+        int[] positions = new int[k];
+        int aligned = 0;
+        
+        merge:
+        while (true) {
+            long target = Long.MIN_VALUE;
+            for (int i = 0; i < k; i++) {
+                if (positions[i] >= series.get(i).size()) {
+                    break merge;
+                }
+                target = Math.max(target, series.get(i).timestampAt(positions[i]));
+            }
+            boolean matched = true;
+            for (int i = 0; i < k; i++) {
+                PriceHistoryStore.Series s = series.get(i);
+                while (positions[i] < s.size() && s.timestampAt(positions[i]) < target) {
+                    positions[i]++;
+                }
+                if (positions[i] >= s.size()) {
+                    break merge;
+                }
+                if (s.timestampAt(positions[i]) != target) {
+                    matched = false;
+                }
+            }
+            if (matched) {
+                for (int i = 0; i < k; i++) {
+                    closes[i][aligned] = series.get(i).closeAt(positions[i]++);
+                }
+                aligned++;
+            }
+        }
+        
+        if (aligned < capacity) {
+            for (int i = 0; i < k; i++) {
+                closes[i] = Arrays.copyOf(closes[i], aligned);
+            }
+        }
+        return closes;
+    }
+    
+    private static BigDecimal percent(double fraction) {
+        return BigDecimal.valueOf(fraction * 100).setScale(2, RoundingMode.HALF_UP);
+    }
+    
+    /**
+     * Holdings aggregated per symbol with market-value weights
+     */
+    private static final class Holdings {
+        private final String[] symbols;
+        private final String[] sectors;
+        private final String[] industries;
+        private final double[] weights;
+        private final double totalValue;
+        
+        private Holdings(String[] symbols, String[] sectors, String[] industries, double[] weights, double totalValue) {
+            this.symbols = symbols;
+            this.sectors = sectors;
+            this.industries = industries;
+            this.weights = weights;
+            this.totalValue = totalValue;
+        }
+        
+        /**
+         * Value each lot at the current price, or its buy price when no quote is available
+         */
+        private static Holdings of(List<Investment> investments, Map<String, StockPriceDTO> prices) {
+            Map<String, Investment> first = new LinkedHashMap<>();
+            Map<String, Double> values = new LinkedHashMap<>();
+            for (Investment investment : investments) {
+                String symbol = investment.getStock().getSymbol();
+                StockPriceDTO quote = prices.get(symbol);
+                BigDecimal price = quote != null && quote.getCurrentPrice() != null
+                    ? quote.getCurrentPrice() : investment.getBuyPrice();
+                first.putIfAbsent(symbol, investment);
+                values.merge(symbol, price.doubleValue() * investment.getQuantity(), Double::sum);
+            }
+            
+            int n = values.size();
+            String[] symbols = new String[n];
+            String[] sectors = new String[n];
+            String[] industries = new String[n];
+            double[] weights = new double[n];
+            double total = 0.0;
+            int i = 0;
+            for (Map.Entry<String, Double> entry : values.entrySet()) {
+                Investment investment = first.get(entry.getKey());
+                symbols[i] = entry.getKey();
+                sectors[i] = investment.getStock().getSector();
+                industries[i] = investment.getStock().getIndustry();
+                weights[i] = entry.getValue();
+                total += entry.getValue();
+                i++;
+            }
+            if (total > 0) {
+                for (int j = 0; j < n; j++) {
+                    weights[j] /= total;
+                }
+            }
+            return new Holdings(symbols, sectors, industries, weights, total);
+        }
+        
+        private int size() {
+            return symbols.length;
+        }
+    }
+    
+    /**
+     * Daily risk statistics of the covered part of a portfolio, as fractions
+     */
+    private static final class Measurement {
+        private int observations;
+        private double coverage;
+        private double annualizedVolatility;
+        private double historicalVaR;
+        private double historicalCVaR;
+        private double parametricVaR;
+        private Double beta;
+    }
+    
     /**
      * Generate risk recommendation in plain language for lay users
      */
@@ -0,0 +1,261 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.RealizedGainDTO;
+import com.yourorg.portfolio.dto.SellOrderResultDTO;
+import com.yourorg.portfolio.exception.ResourceNotFoundException;
+import com.yourorg.portfolio.model.BankTransaction;
+import com.yourorg.portfolio.model.Investment;
+import com.yourorg.portfolio.model.Portfolio;
+import com.yourorg.portfolio.model.RealizedGain;
+import com.yourorg.portfolio.model.RealizedGain.LotMethod;
+import com.yourorg.portfolio.model.Stock;
+import com.yourorg.portfolio.repository.InvestmentRepository;
+import com.yourorg.portfolio.repository.PortfolioRepository;
+import com.yourorg.portfolio.repository.RealizedGainRepository;
+import com.yourorg.portfolio.repository.StockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+/**
+ * Sells a quantity of a symbol across its lots, in the order a lot method dictates, and records
+ * the realized gain of every lot touched. All lots of the symbol are read with one indexed,
+ * locking query and ordered in memory; the writes are one position update, one bulk delete of
+ * the closed lots, at most one partially sold lot update and one batched insert of realized gains.
+ */
+@Service
+@Transactional
+public class SellOrderService {
+
+    // Highest buy price first, then oldest, so equal-cost lots go in FIFO order
+    private static final Comparator<Investment> HIGHEST_COST_FIRST = Comparator
+        .comparing(Investment::getBuyPrice, Comparator.reverseOrder())
+        .thenComparing(Investment::getBuyDate)
+        .thenComparing(Investment::getId);
+
+    private final PortfolioRepository portfolioRepository;
+    private final InvestmentRepository investmentRepository;
+    private final RealizedGainRepository realizedGainRepository;
+    private final StockRepository stockRepository;
+    private final StockService stockService;
+    private final UserService userService;
+    private final PositionService positionService;
+    private final Clock clock;
+
+    @Autowired
+    public SellOrderService(PortfolioRepository portfolioRepository,
+                            InvestmentRepository investmentRepository,
+                            RealizedGainRepository realizedGainRepository,
+                            StockRepository stockRepository,
+                            StockService stockService,
+                            UserService userService,
+                            PositionService positionService) {
+        this(portfolioRepository, investmentRepository, realizedGainRepository, stockRepository, stockService,
+            userService, positionService, Clock.systemDefaultZone());
+    }
+
+    public SellOrderService(PortfolioRepository portfolioRepository, InvestmentRepository investmentRepository,
+                            RealizedGainRepository realizedGainRepository, StockRepository stockRepository,
+                            StockService stockService, UserService userService, PositionService positionService,
+                            Clock clock) {
+        this.portfolioRepository = portfolioRepository;
+        this.investmentRepository = investmentRepository;
+        this.realizedGainRepository = realizedGainRepository;
+        this.stockRepository = stockRepository;
+        this.stockService = stockService;
+        this.userService = userService;
+        this.positionService = positionService;
+        this.clock = clock;
+    }
+
+    /**
+     * Sell quantity shares of symbol at the current quote and credit the proceeds.
+     *
+     * @param method FIFO when null
+     * @param investmentIds the lots to sell, in order; only with SPECIFIC
+     * @throws IllegalArgumentException when the lots do not hold quantity shares or a specific lot
+     *         is not one of the user's lots of symbol
+     */
+    public SellOrderResultDTO sell(Long userId, String symbol, int quantity, LotMethod method, List<Long> investmentIds) {
+        if (symbol == null || symbol.isBlank()) {
+            throw new IllegalArgumentException("Symbol is required");
+        }
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Quantity must be at least 1");
+        }
+        LotMethod lotMethod = method != null ? method : LotMethod.FIFO;
+        boolean hasIds = investmentIds != null && !investmentIds.isEmpty();
+        if (lotMethod == LotMethod.SPECIFIC && !hasIds) {
+            throw new IllegalArgumentException("investmentIds are required to sell specific lots");
+        }
+        if (lotMethod != LotMethod.SPECIFIC && hasIds) {
+            throw new IllegalArgumentException("investmentIds are only used with the SPECIFIC lot method");
+        }
+        String normalized = symbol.trim().toUpperCase(Locale.ROOT);
+
+        Portfolio portfolio = portfolioRepository.findByUserId(userId)
+            .orElseThrow(() -> new ResourceNotFoundException("Portfolio", "userId", userId));
+        Stock stock = stockRepository.findBySymbol(normalized)
+            .orElseThrow(() -> new IllegalArgumentException("No " + normalized + " shares owned"));
+
+        List<Investment> lots = investmentRepository.findLotsForSale(portfolio.getId(), stock.getId());
+        Queue<Investment> queue = lotQueue(lotMethod, lots, investmentIds, normalized);
+        int available = 0;
+        for (Investment lot : queue) {
+            available += lot.getQuantity();
+        }
+        if (quantity > available) {
+            throw new IllegalArgumentException("Cannot sell " + quantity + " " + normalized + ", only " + available
+                + (lotMethod == LotMethod.SPECIFIC ? " in the given lots" : " owned"));
+        }
+
+        BigDecimal price = stockService.getCurrentPrice(normalized).getCurrentPrice();
+
+        Map<Investment, Integer> sold = new LinkedHashMap<>();
+        int remaining = quantity;
+        while (remaining > 0) {
+            Investment lot = queue.poll();
+            int taken = Math.min(remaining, lot.getQuantity());
+            sold.put(lot, taken);
+            remaining -= taken;
+        }
+
+        List<RealizedGain> gains = sellLots(sold, price, lotMethod);
+
+        BigDecimal proceeds = price.multiply(BigDecimal.valueOf(quantity));
+        userService.credit(userId, proceeds, BankTransaction.Type.SELL,
+            "Sell " + quantity + " " + normalized + " @ " + price);
+
+        SellOrderResultDTO result = new SellOrderResultDTO();
+        result.setSymbol(normalized);
+        result.setLotMethod(lotMethod.name());
+        result.setQuantity(quantity);
+        result.setSellPrice(price);
+        result.setProceeds(proceeds);
+        BigDecimal costBasis = BigDecimal.ZERO;
+        List<RealizedGainDTO> lotDTOs = new ArrayList<>(gains.size());
+        for (RealizedGain gain : gains) {
+            costBasis = costBasis.add(gain.getCostBasis());
+            lotDTOs.add(toDTO(gain, normalized));
+        }
+        result.setCostBasis(costBasis);
+        result.setRealizedGain(proceeds.subtract(costBasis));
+        result.setLots(lotDTOs);
+        return result;
+    }
+
+    /**
+     * Take the sold quantities out of their lots at price and record the realized gains, leaving
+     * the proceeds to the caller. The lots must have been read with findLotsForSale in the
+     * caller's transaction, and each quantity must not exceed its lot's.
+     */
+    public List<RealizedGain> sellLots(Map<Investment, Integer> sold, BigDecimal price, LotMethod method) {
+        // Positions first, while the lots still have their pre-sale quantities
+        positionService.recordSells(sold);
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<RealizedGain> gains = new ArrayList<>(sold.size());
+        List<Long> closed = new ArrayList<>();
+        for (Map.Entry<Investment, Integer> entry : sold.entrySet()) {
+            Investment lot = entry.getKey();
+            int taken = entry.getValue();
+            gains.add(new RealizedGain(lot, taken, price, method, now));
+            if (taken == lot.getQuantity()) {
+                closed.add(lot.getId());
+            } else {
+                lot.setQuantity(lot.getQuantity() - taken);
+            }
+        }
+        if (!closed.isEmpty()) {
+            investmentRepository.deleteAllByIdInBatch(closed);
+        }
+        realizedGainRepository.saveAll(gains);
+        return gains;
+    }
+
+    /**
+     * Realized gains of a user's sales, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<RealizedGainDTO> getRealizedGains(Long userId) {
+        Portfolio portfolio = portfolioRepository.findByUserId(userId)
+            .orElseThrow(() -> new ResourceNotFoundException("Portfolio", "userId", userId));
+        return realizedGainRepository.findByPortfolioId(portfolio.getId()).stream()
+            .map(gain -> toDTO(gain, gain.getStock().getSymbol()))
+            .toList();
+    }
+
+    /**
+     * The lots in the order they are to be consumed. lots arrive oldest first, so FIFO and LIFO
+     * are a deque walk and HIGHEST_COST a heap that only orders the lots actually taken.
+     */
+    private static Queue<Investment> lotQueue(LotMethod method, List<Investment> lots, List<Long> investmentIds,
+                                              String symbol) {
+        return switch (method) {
+            case FIFO -> new ArrayDeque<>(lots);
+            case LIFO -> {
+                Deque<Investment> newestFirst = new ArrayDeque<>(lots.size());
+                lots.forEach(newestFirst::addFirst);
+                yield newestFirst;
+            }
+            case HIGHEST_COST -> {
+                PriorityQueue<Investment> heap = new PriorityQueue<>(Math.max(1, lots.size()), HIGHEST_COST_FIRST);
+                heap.addAll(lots);
+                yield heap;
+            }
+            case SPECIFIC -> specificLots(lots, investmentIds, symbol);
+        };
+    }
+
+    private static Queue<Investment> specificLots(List<Investment> lots, List<Long> investmentIds, String symbol) {
+        Map<Long, Investment> byId = new HashMap<>(lots.size() * 2);
+        lots.forEach(lot -> byId.put(lot.getId(), lot));
+
+        Queue<Investment> requested = new ArrayDeque<>(investmentIds.size());
+        List<Long> unknown = new ArrayList<>();
+        for (Long investmentId : new LinkedHashSet<>(investmentIds)) {
+            Investment lot = byId.get(investmentId);
+            if (lot == null) {
+                unknown.add(investmentId);
+            } else {
+                requested.add(lot);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Investments " + unknown + " are not " + symbol + " lots of this user");
+        }
+        return requested;
+    }
+
+    private static RealizedGainDTO toDTO(RealizedGain gain, String symbol) {
+        RealizedGainDTO dto = new RealizedGainDTO();
+        dto.setInvestmentId(gain.getInvestmentId());
+        dto.setSymbol(symbol);
+        dto.setLotMethod(gain.getLotMethod().name());
+        dto.setQuantity(gain.getQuantity());
+        dto.setBuyPrice(gain.getBuyPrice());
+        dto.setBuyDate(gain.getBuyDate());
+        dto.setSellPrice(gain.getSellPrice());
+        dto.setCostBasis(gain.getCostBasis());
+        dto.setProceeds(gain.getProceeds());
+        dto.setGain(gain.getGain());
+        dto.setSoldAt(gain.getSoldAt());
+        return dto;
+    }
+}
@@ -1,39 +1,96 @@
 package com.yourorg.portfolio.service;
 
 import com.yourorg.portfolio.dto.StockPriceDTO;
+import com.yourorg.portfolio.util.CircuitBreaker;
+import com.yourorg.portfolio.util.ConcurrencyLimiter;
+import com.yourorg.portfolio.util.LatencyTracker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+/**
+ * Quote client over the configured QuoteProviders.
+ * The primary provider is asked first; if it fails, or is still outstanding after its own p95
+ * latency, the next provider is fired as a hedge and the first real quote wins. Each provider
+ * sits behind a circuit breaker and its own max-concurrency limit, and quotes are tagged with the
+ * provider that produced them.
+ * Mock data (source "mock") is only served when every provider came back empty.
+ */
 @Component
 public class StockApiClient {
     
     private static final Logger logger = LoggerFactory.getLogger(StockApiClient.class);
     
-    private final WebClient webClient;
+    public static final List<String> TRENDING_SYMBOLS = List.of("AAPL", "GOOGL", "MSFT", "AMZN", "TSLA",
+                                                                "META", "NVDA", "JPM", "V", "JNJ");
     
-    @Value("${external.stock-api.provider:alpha-vantage}")
-    private String provider;
+    public static final String MOCK_SOURCE = "mock";
     
-    @Value("${external.stock-api.alpha-vantage.api-key:demo}")
-    private String alphaVantageApiKey;
+    // Below this many samples the provider's p95 is too noisy to hedge on
+    private static final int MIN_LATENCY_SAMPLES = 20;
+    private static final Duration MIN_HEDGE_DELAY = Duration.ofMillis(10);
     
-    @Value("${external.stock-api.finnhub.api-key:demo}")
-    private String finnhubApiKey;
+    private final List<ProviderState> providers;
+    private final Options options;
+    private final List<QuoteObserver> observers;
     
-    public StockApiClient(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.build();
+    @Autowired
+    public StockApiClient(List<QuoteProvider> quoteProviders,
+                          ObjectProvider<QuoteObserver> quoteObservers,
+                          @Value("${external.stock-api.provider:alpha-vantage}") String primaryProvider,
+                          @Value("${external.stock-api.failover-order:alpha-vantage,finnhub,yahoo-finance}") List<String> failoverOrder,
+                          @Value("${external.stock-api.hedging.enabled:true}") boolean hedgingEnabled,
+                          @Value("${external.stock-api.hedging.default-delay-ms:800}") long defaultHedgeDelayMs,
+                          @Value("${external.stock-api.request-timeout-ms:5000}") long requestTimeoutMs,
+                          @Value("${external.stock-api.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                          @Value("${external.stock-api.circuit-breaker.open-seconds:30}") long openSeconds) {
+        this(orderProviders(quoteProviders, primaryProvider, failoverOrder),
+             new Options(hedgingEnabled, Duration.ofMillis(defaultHedgeDelayMs), Duration.ofMillis(requestTimeoutMs),
+                         failureThreshold, Duration.ofSeconds(openSeconds)),
+             quoteObservers.orderedStream().toList(),
+             Clock.systemUTC());
+    }
+    
+    /**
+     * @param orderedProviders providers in preference order, primary first
+     */
+    public StockApiClient(List<QuoteProvider> orderedProviders, Options options, Clock clock) {
+        this(orderedProviders, options, List.of(), clock);
+    }
+    
+    /**
+     * @param observers notified of every quote a provider answered with
+     */
+    public StockApiClient(List<QuoteProvider> orderedProviders, Options options, List<QuoteObserver> observers,
+                          Clock clock) {
+        this.options = options;
+        this.observers = List.copyOf(observers);
+        this.providers = new ArrayList<>();
+        for (QuoteProvider provider : orderedProviders) {
+            providers.add(new ProviderState(provider,
+                new CircuitBreaker(options.failureThreshold(), options.openDuration(), clock)));
+        }
+        logger.info("Quote providers in preference order: {}",
+            orderedProviders.stream().map(QuoteProvider::getName).toList());
     }
     
     /**
@@ -41,36 +98,61 @@ public class StockApiClient {
      */
     public StockPriceDTO fetchStockPrice(String symbol) {
         try {
-            return switch (provider) {
-                case "alpha-vantage" -> fetchFromAlphaVantage(symbol);
-                case "finnhub" -> fetchFromFinnhub(symbol);
-                default -> fetchFromAlphaVantage(symbol);
-            };
+            return fetchQuote(symbol).block();
         } catch (Exception e) {
             logger.error("Error fetching stock price for symbol: {}", symbol, e);
-            // Return mock data if API fails
             return createMockStockPrice(symbol);
         }
     }
     
+    /**
+     * Fetch current prices for several symbols concurrently.
+     * Requests fan out up to the largest provider max-concurrency, so a batch costs roughly one
+     * round trip instead of one per symbol; each provider still only sees its own limit in
+     * flight, failovers and hedges included, with the rest queued.
+     * The returned map preserves the iteration order of the given symbols.
+     */
+    public Map<String, StockPriceDTO> fetchStockPrices(Collection<String> symbols) {
+        Set<String> distinctSymbols = new LinkedHashSet<>();
+        for (String symbol : symbols) {
+            if (symbol != null && !symbol.isBlank()) {
+                distinctSymbols.add(symbol);
+            }
+        }
+        
+        Map<String, StockPriceDTO> prices = new LinkedHashMap<>();
+        if (distinctSymbols.isEmpty()) {
+            return prices;
+        }
+        
+        int concurrency = 1;
+        for (ProviderState state : providers) {
+            concurrency = Math.max(concurrency, state.provider.getMaxConcurrency());
+        }
+        Map<String, StockPriceDTO> fetched = new HashMap<>();
+        try {
+            fetched = Flux.fromIterable(distinctSymbols)
+                .flatMap(symbol -> fetchQuote(symbol).map(dto -> Map.entry(symbol, dto)), concurrency)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .block();
+        } catch (Exception e) {
+            logger.error("Error fetching stock prices for symbols: {}", distinctSymbols, e);
+        }
+        
+        for (String symbol : distinctSymbols) {
+            StockPriceDTO price = fetched != null ? fetched.get(symbol) : null;
+            prices.put(symbol, price != null ? price : createMockStockPrice(symbol));
+        }
+        return prices;
+    }
+    
     /**
      * Fetch top trending stocks
      */
     public List<StockPriceDTO> fetchTrendingStocks() {
         try {
             // For demo purposes, return popular stocks
-            List<String> popularSymbols = List.of("AAPL", "GOOGL", "MSFT", "AMZN", "TSLA", 
-                                                   "META", "NVDA", "JPM", "V", "JNJ");
-            List<StockPriceDTO> trending = new ArrayList<>();
-            
-            for (String symbol : popularSymbols) {
-                StockPriceDTO price = fetchStockPrice(symbol);
-                if (price != null) {
-                    trending.add(price);
-                }
-            }
-            
-            return trending;
+            return new ArrayList<>(fetchStockPrices(TRENDING_SYMBOLS).values());
         } catch (Exception e) {
             logger.error("Error fetching trending stocks", e);
             return createMockTrendingStocks();
@@ -78,113 +160,137 @@ public class StockApiClient {
     }
     
     /**
-     * Fetch from Alpha Vantage API
+     * Circuit state per provider, in preference order
      */
-    private StockPriceDTO fetchFromAlphaVantage(String symbol) {
-        try {
-            String url = "https://www.alphavantage.co/query";
-            
-            Mono<Map<String, Object>> response = webClient.get()
-                .uri(uriBuilder -> uriBuilder
-                    .path(url)
-                    .queryParam("function", "GLOBAL_QUOTE")
-                    .queryParam("symbol", symbol)
-                    .queryParam("apikey", alphaVantageApiKey)
-                    .build())
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {});
-            
-            Map<String, Object> result = response.block();
-            
-            if (result != null && result.containsKey("Global Quote")) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> quoteMap = (Map<String, Object>) result.get("Global Quote");
-                Map<String, String> quote = new HashMap<>();
-                for (Map.Entry<String, Object> entry : quoteMap.entrySet()) {
-                    quote.put(entry.getKey(), entry.getValue().toString());
-                }
-                
-                if (quote != null && !quote.isEmpty()) {
-                    StockPriceDTO dto = new StockPriceDTO();
-                    dto.setSymbol(symbol);
-                    dto.setCurrentPrice(new BigDecimal(quote.getOrDefault("05. price", "0")));
-                    dto.setPreviousClose(new BigDecimal(quote.getOrDefault("08. previous close", "0")));
-                    
-                    BigDecimal change = dto.getCurrentPrice().subtract(dto.getPreviousClose());
-                    dto.setChange(change);
-                    
-                    if (dto.getPreviousClose().compareTo(BigDecimal.ZERO) > 0) {
-                        BigDecimal changePercent = change
-                            .divide(dto.getPreviousClose(), 4, RoundingMode.HALF_UP)
-                            .multiply(BigDecimal.valueOf(100));
-                        dto.setChangePercent(changePercent);
-                    }
-                    
-                    dto.setTrend(change.compareTo(BigDecimal.ZERO) >= 0 ? "UP" : "DOWN");
-                    dto.setCurrency("USD");
-                    
-                    return dto;
-                }
-            }
-        } catch (Exception e) {
-            logger.warn("Alpha Vantage API call failed, using mock data: {}", e.getMessage());
+    public Map<String, CircuitBreaker.State> getProviderStates() {
+        Map<String, CircuitBreaker.State> states = new LinkedHashMap<>();
+        providers.forEach(state -> states.put(state.provider.getName(), state.breaker.getState()));
+        return states;
+    }
+    
+    /**
+     * Fetch a single quote through the provider chain, falling back to mock data
+     */
+    private Mono<StockPriceDTO> fetchQuote(String symbol) {
+        return hedged(symbol, 0)
+            .doOnNext(this::notifyObservers)
+            .switchIfEmpty(Mono.fromSupplier(() -> {
+                logger.warn("No quote provider answered for {}, using mock data", symbol);
+                return createMockStockPrice(symbol);
+            }));
+    }
+    
+    /**
+     * Race provider {@code index} against the rest of the chain. The rest is started when this
+     * provider fails or outlives its hedge delay; whichever produces a quote first wins and the
+     * loser is cancelled.
+     */
+    private Mono<StockPriceDTO> hedged(String symbol, int index) {
+        if (index >= providers.size()) {
+            return Mono.empty();
+        }
+        ProviderState head = providers.get(index);
+        if (index == providers.size() - 1) {
+            return attempt(head, symbol);
         }
         
-        return createMockStockPrice(symbol);
+        Sinks.Empty<Void> headFailed = Sinks.empty();
+        Mono<StockPriceDTO> primary = attempt(head, symbol)
+            .doOnSuccess(quote -> {
+                if (quote == null) {
+                    headFailed.tryEmitEmpty();
+                }
+            });
+        Mono<StockPriceDTO> backup = Mono.firstWithSignal(Mono.delay(hedgeDelay(head)).then(), headFailed.asMono())
+            .then(Mono.defer(() -> hedged(symbol, index + 1)));
+        
+        return Mono.firstWithValue(primary, backup)
+            .onErrorResume(e -> Mono.empty());
     }
     
     /**
-     * Fetch from Finnhub API
+     * One provider call guarded by its concurrency limit and circuit breaker; failures and empty
+     * answers complete empty. The breaker and latency are only consulted once the call may start.
+     * An empty answer (unknown symbol) is a healthy response and never counts toward opening the circuit.
      */
-    private StockPriceDTO fetchFromFinnhub(String symbol) {
-        try {
-            String url = "https://finnhub.io/api/v1/quote";
-            
-            Mono<Map<String, Object>> response = webClient.get()
-                .uri(uriBuilder -> uriBuilder
-                    .path(url)
-                    .queryParam("symbol", symbol)
-                    .queryParam("token", finnhubApiKey)
-                    .build())
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {});
-            
-            Map<String, Object> result = response.block();
-            
-            if (result != null) {
-                StockPriceDTO dto = new StockPriceDTO();
-                dto.setSymbol(symbol);
-                
-                Object currentPrice = result.get("c");
-                Object previousClose = result.get("pc");
-                
-                if (currentPrice != null) {
-                    dto.setCurrentPrice(new BigDecimal(currentPrice.toString()));
-                }
-                if (previousClose != null) {
-                    dto.setPreviousClose(new BigDecimal(previousClose.toString()));
-                }
-                
-                BigDecimal change = dto.getCurrentPrice().subtract(dto.getPreviousClose());
-                dto.setChange(change);
-                
-                if (dto.getPreviousClose().compareTo(BigDecimal.ZERO) > 0) {
-                    BigDecimal changePercent = change
-                        .divide(dto.getPreviousClose(), 4, RoundingMode.HALF_UP)
-                        .multiply(BigDecimal.valueOf(100));
-                    dto.setChangePercent(changePercent);
-                }
-                
-                dto.setTrend(change.compareTo(BigDecimal.ZERO) >= 0 ? "UP" : "DOWN");
-                dto.setCurrency("USD");
-                
-                return dto;
+    private Mono<StockPriceDTO> attempt(ProviderState state, String symbol) {
+        return state.limiter.limit(() -> {
+            CircuitBreaker.Permit permit = state.breaker.tryAcquire();
+            if (permit == null) {
+                return Mono.empty();
             }
-        } catch (Exception e) {
-            logger.warn("Finnhub API call failed, using mock data: {}", e.getMessage());
+            long started = System.nanoTime();
+            return state.provider.fetchQuote(symbol)
+                .timeout(options.requestTimeout())
+                .doOnNext(quote -> {
+                    state.latency.record((System.nanoTime() - started) / 1_000_000);
+                    permit.recordSuccess();
+                    quote.setSymbol(symbol);
+                    quote.setSource(state.provider.getName());
+                })
+                .switchIfEmpty(Mono.fromRunnable(() -> {
+                    logger.debug("{} had no quote for {}", state.provider.getName(), symbol);
+                    permit.recordSuccess();
+                }))
+                .doOnError(e -> {
+                    logger.warn("{} API call failed for {}: {}", state.provider.getName(), symbol, e.getMessage());
+                    permit.recordFailure();
+                })
+                .doOnCancel(() -> {
+                    // Lost a hedge race: elapsed time is a lower bound that keeps the p95 honest
+                    state.latency.record((System.nanoTime() - started) / 1_000_000);
+                    permit.release();
+                })
+                .onErrorResume(e -> Mono.empty());
+        });
+    }
+    
+    private void notifyObservers(StockPriceDTO quote) {
+        for (QuoteObserver observer : observers) {
+            try {
+                observer.onQuote(quote);
+            } catch (Exception e) {
+                logger.warn("Quote observer {} failed for {}: {}",
+                    observer.getClass().getSimpleName(), quote.getSymbol(), e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * How long to wait on a provider before hedging: its recent p95 latency once known
+     */
+    private Duration hedgeDelay(ProviderState state) {
+        if (!options.hedgingEnabled()) {
+            return options.requestTimeout();
+        }
+        if (state.latency.getCount() < MIN_LATENCY_SAMPLES) {
+            return options.defaultHedgeDelay();
+        }
+        Duration p95 = Duration.ofMillis(state.latency.percentile(95));
+        if (p95.compareTo(MIN_HEDGE_DELAY) < 0) {
+            return MIN_HEDGE_DELAY;
         }
+        return p95.compareTo(options.requestTimeout()) > 0 ? options.requestTimeout() : p95;
+    }
+    
+    /**
+     * Primary first, then the failover order, then any other registered provider
+     */
+    private static List<QuoteProvider> orderProviders(List<QuoteProvider> quoteProviders, String primaryProvider,
+                                                      List<String> failoverOrder) {
+        List<String> preference = new ArrayList<>();
+        preference.add(primaryProvider);
+        preference.addAll(failoverOrder);
         
-        return createMockStockPrice(symbol);
+        Map<String, QuoteProvider> byName = new LinkedHashMap<>();
+        for (String name : preference) {
+            quoteProviders.stream()
+                .filter(provider -> provider.getName().equals(name.trim()))
+                .findFirst()
+                .ifPresent(provider -> byName.putIfAbsent(provider.getName(), provider));
+        }
+        quoteProviders.forEach(provider -> byName.putIfAbsent(provider.getName(), provider));
+        return new ArrayList<>(byName.values());
     }
     
     /**
@@ -221,6 +327,7 @@ public class StockApiClient {
             .multiply(BigDecimal.valueOf(100)));
         dto.setTrend(change.compareTo(BigDecimal.ZERO) >= 0 ? "UP" : "DOWN");
         dto.setCurrency("USD");
+        dto.setSource(MOCK_SOURCE);
         
         return dto;
     }
@@ -229,15 +336,32 @@ public class StockApiClient {
      * Create mock trending stocks
      */
     private List<StockPriceDTO> createMockTrendingStocks() {
-        List<String> symbols = List.of("AAPL", "GOOGL", "MSFT", "AMZN", "TSLA", 
-                                       "META", "NVDA", "JPM", "V", "JNJ");
         List<StockPriceDTO> trending = new ArrayList<>();
         
-        for (String symbol : symbols) {
+        for (String symbol : TRENDING_SYMBOLS) {
             trending.add(createMockStockPrice(symbol));
         }
         
         return trending;
     }
+    
+    /**
+     * Hedging, timeout and circuit breaker settings shared by all providers
+     */
+    public record Options(boolean hedgingEnabled, Duration defaultHedgeDelay, Duration requestTimeout,
+                          int failureThreshold, Duration openDuration) {
+    }
+    
+    private static final class ProviderState {
+        private final QuoteProvider provider;
+        private final CircuitBreaker breaker;
+        private final ConcurrencyLimiter limiter;
+        private final LatencyTracker latency = new LatencyTracker(256);
+        
+        private ProviderState(QuoteProvider provider, CircuitBreaker breaker) {
+            this.provider = provider;
+            this.breaker = breaker;
+            this.limiter = new ConcurrencyLimiter(provider.getMaxConcurrency());
+        }
+    }
 }
-
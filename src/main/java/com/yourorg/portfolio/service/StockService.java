@@ -1,5 +1,6 @@
 package com.yourorg.portfolio.service;
 
+import com.yourorg.portfolio.dto.QuoteCacheStatsDTO;
 import com.yourorg.portfolio.dto.StockPriceDTO;
 import com.yourorg.portfolio.model.Stock;
 import com.yourorg.portfolio.repository.StockRepository;
@@ -10,8 +11,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -21,11 +28,13 @@ public class StockService {
     
     private final StockRepository stockRepository;
     private final StockApiClient stockApiClient;
+    private final QuoteCache quoteCache;
     
     @Autowired
-    public StockService(StockRepository stockRepository, StockApiClient stockApiClient) {
+    public StockService(StockRepository stockRepository, StockApiClient stockApiClient, QuoteCache quoteCache) {
         this.stockRepository = stockRepository;
         this.stockApiClient = stockApiClient;
+        this.quoteCache = quoteCache;
     }
     
     /**
@@ -47,7 +56,7 @@ public class StockService {
         }
         
         // Fetch from API to get company name
-        StockPriceDTO priceDTO = stockApiClient.fetchStockPrice(symbol);
+        StockPriceDTO priceDTO = getCurrentPrice(symbol);
         
         // Create new stock entity
         Stock stock = new Stock();
@@ -59,6 +68,39 @@ public class StockService {
         return stockRepository.save(stock);
     }
     
+    /**
+     * Get or create several stocks, keyed by symbol: one lookup for the known ones and one quote
+     * batch for the names of the new ones
+     */
+    public Map<String, Stock> getOrCreateStocks(Collection<String> symbols) {
+        Map<String, Stock> stocks = new LinkedHashMap<>();
+        for (Stock stock : stockRepository.findBySymbolIn(symbols)) {
+            stocks.put(stock.getSymbol(), stock);
+        }
+
+        Set<String> missing = new LinkedHashSet<>(symbols);
+        missing.removeAll(stocks.keySet());
+        if (missing.isEmpty()) {
+            return stocks;
+        }
+
+        Map<String, StockPriceDTO> prices = getCurrentPrices(missing);
+        List<Stock> created = new ArrayList<>();
+        for (String symbol : missing) {
+            StockPriceDTO priceDTO = prices.get(symbol);
+            Stock stock = new Stock();
+            stock.setSymbol(symbol);
+            stock.setCompanyName(priceDTO != null && priceDTO.getCompanyName() != null ?
+                priceDTO.getCompanyName() : symbol + " Inc.");
+            stock.setCurrency("USD");
+            created.add(stock);
+        }
+        for (Stock stock : stockRepository.saveAll(created)) {
+            stocks.put(stock.getSymbol(), stock);
+        }
+        return stocks;
+    }
+    
     /**
      * Search stocks by symbol or company name
      */
@@ -67,17 +109,31 @@ public class StockService {
     }
     
     /**
-     * Get current stock price
+     * Get current stock price, served from the quote cache while fresh
      */
     public StockPriceDTO getCurrentPrice(String symbol) {
-        return stockApiClient.fetchStockPrice(symbol);
+        return quoteCache.get(symbol, stockApiClient::fetchStockPrice);
+    }
+    
+    /**
+     * Get current prices for several symbols, fetching only cache misses in one batch
+     */
+    public Map<String, StockPriceDTO> getCurrentPrices(Collection<String> symbols) {
+        return quoteCache.getAll(symbols, stockApiClient::fetchStockPrices);
     }
     
     /**
      * Get top trending stocks
      */
     public List<StockPriceDTO> getTrendingStocks() {
-        return stockApiClient.fetchTrendingStocks();
+        return new ArrayList<>(getCurrentPrices(StockApiClient.TRENDING_SYMBOLS).values());
+    }
+    
+    /**
+     * Get quote cache hit/miss/eviction counters
+     */
+    public QuoteCacheStatsDTO getQuoteCacheStats() {
+        return quoteCache.getStats();
     }
     
     /**
@@ -0,0 +1,95 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.util.BloomFilter;
+import com.yourorg.portfolio.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tokens logged out before their expiry. Every authenticated request asks whether its token is
+ * revoked, and almost none are, so a bloom filter answers the common "no" from a few bit reads;
+ * only its positives (real or false) consult the exact set. Entries are kept until the token
+ * would have expired anyway, and the filter is rebuilt from the survivors when they are purged.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final JwtUtil jwtUtil;
+    private final int expectedTokens;
+    private final double falsePositiveRate;
+    private final Clock clock;
+
+    // token hash -> expiry in epoch millis
+    private final Map<ByteBuffer, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+
+    @Autowired
+    public TokenRevocationService(JwtUtil jwtUtil,
+                                  @Value("${jwt.revocation.expected-tokens:100000}") int expectedTokens,
+                                  @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this(jwtUtil, expectedTokens, falsePositiveRate, Clock.systemUTC());
+    }
+
+    public TokenRevocationService(JwtUtil jwtUtil, int expectedTokens, double falsePositiveRate, Clock clock) {
+        this.jwtUtil = jwtUtil;
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveRate = falsePositiveRate;
+        this.clock = clock;
+        this.filter = new BloomFilter(expectedTokens, falsePositiveRate);
+    }
+
+    /**
+     * Revoke a valid token until it expires. Throws the parser's JwtException for invalid or
+     * already expired tokens, which need no revoking.
+     */
+    public synchronized void revoke(String token) {
+        Claims claims = jwtUtil.getAllClaimsFromToken(token);
+        byte[] hash = JwtUtil.tokenHash(token);
+        long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+        revoked.put(ByteBuffer.wrap(hash), expiresAt);
+        filter.put(hash);
+    }
+
+    public boolean isRevoked(String token) {
+        byte[] hash = JwtUtil.tokenHash(token);
+        if (!filter.mightContain(hash)) {
+            return false;
+        }
+        return revoked.containsKey(ByteBuffer.wrap(hash));
+    }
+
+    /**
+     * Drop revocations of tokens that have expired since, and rebuild the filter without them so
+     * its false positive rate does not creep up over the life of the process
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:600000}")
+    public synchronized void purgeExpired() {
+        long now = clock.millis();
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        if (revoked.size() == before) {
+            return;
+        }
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, revoked.size() * 2), falsePositiveRate);
+        revoked.keySet().forEach(hash -> rebuilt.put(hash.array()));
+        filter = rebuilt;
+        logger.debug("Purged {} expired token revocations, {} remain", before - revoked.size(), revoked.size());
+    }
+
+    public int getRevokedCount() {
+        return revoked.size();
+    }
+}
@@ -7,6 +7,7 @@ import com.yourorg.portfolio.dto.LoginResponseDTO;
 import com.yourorg.portfolio.dto.SignupRequestDTO;
 import com.yourorg.portfolio.dto.UserDTO;
 import com.yourorg.portfolio.model.BankAccount;
+import com.yourorg.portfolio.model.BankTransaction;
 import com.yourorg.portfolio.model.User;
 import com.yourorg.portfolio.repository.BankAccountRepository;
 import com.yourorg.portfolio.repository.UserRepository;
@@ -18,6 +19,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -30,16 +32,19 @@ public class UserService {
     private final BankAccountRepository bankAccountRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final LedgerService ledgerService;
     
     @Autowired
     public UserService(UserRepository userRepository, 
                       BankAccountRepository bankAccountRepository,
                       PasswordEncoder passwordEncoder,
-                      JwtUtil jwtUtil) {
+                      JwtUtil jwtUtil,
+                      LedgerService ledgerService) {
         this.userRepository = userRepository;
         this.bankAccountRepository = bankAccountRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
+        this.ledgerService = ledgerService;
     }
     
     /**
@@ -115,10 +120,16 @@ public class UserService {
         if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
             throw new IllegalArgumentException("Invalid username/email or password");
         }
-        
+
+        // Rehash legacy or lower-cost hashes while the raw password is at hand
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(loginRequest.getPassword()));
+            userRepository.save(user);
+        }
+
         // Generate JWT token
         String token = jwtUtil.generateToken(user.getId(), user.getUsername());
-        
+
         return new LoginResponseDTO(
             user.getId(),
             user.getUsername(),
@@ -187,24 +198,45 @@ public class UserService {
      */
     public BankAccount getOrCreateBankAccount(Long userId) {
         return bankAccountRepository.findByUserId(userId)
-            .orElseGet(() -> {
-                User user = getUserEntityById(userId);
-                BankAccount account = new BankAccount();
-                account.setUser(user);
-                account.setAccountNumber("ACC" + System.currentTimeMillis());
-                account.setBankName("HSBC Bank");
-                account.setCurrentBalance(java.math.BigDecimal.ZERO);
-                return bankAccountRepository.save(account);
-            });
+            .orElseGet(() -> openBankAccount(getUserEntityById(userId), BigDecimal.ZERO, BankTransaction.Type.DEPOSIT, null));
     }
     
     /**
-     * Update bank account balance
+     * Debit the bank account if its balance covers the amount, and record it in the ledger.
+     * The balance check and the write are a single UPDATE, so concurrent buys cannot both
+     * spend the same cash.
+     *
+     * @return false when the balance is insufficient or the user has no account
      */
-    public BankAccount updateBankBalance(Long userId, BigDecimal amount) {
-        BankAccount account = getOrCreateBankAccount(userId);
-        account.setCurrentBalance(account.getCurrentBalance().add(amount));
-        return bankAccountRepository.save(account);
+    public boolean tryDebit(Long userId, BigDecimal amount, BankTransaction.Type type, String description) {
+        if (bankAccountRepository.debit(userId, amount, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        ledgerService.record(userId, type, amount.negate(), description);
+        return true;
+    }
+    
+    /**
+     * Credit the bank account and record it in the ledger, opening an account holding the
+     * amount if the user has none yet
+     */
+    public void credit(Long userId, BigDecimal amount, BankTransaction.Type type, String description) {
+        if (bankAccountRepository.credit(userId, amount, LocalDateTime.now()) == 0) {
+            openBankAccount(getUserEntityById(userId), amount, type, description);
+        } else {
+            ledgerService.record(userId, type, amount, description);
+        }
+    }
+    
+    /**
+     * Update bank account balance by a signed amount
+     */
+    public void updateBankBalance(Long userId, BigDecimal amount) {
+        if (amount.signum() >= 0) {
+            credit(userId, amount, BankTransaction.Type.ADJUSTMENT, null);
+        } else if (!tryDebit(userId, amount.negate(), BankTransaction.Type.ADJUSTMENT, null)) {
+            throw new IllegalArgumentException("Insufficient balance");
+        }
     }
     
     /**
@@ -239,6 +271,7 @@ public class UserService {
         account.setCurrentBalance(BigDecimal.ZERO);
         
         BankAccount savedAccount = bankAccountRepository.save(account);
+        ledgerService.recordOpening(savedAccount, BankTransaction.Type.DEPOSIT, null);
         return convertBankAccountToDTO(savedAccount);
     }
     
@@ -271,10 +304,8 @@ public class UserService {
             throw new IllegalArgumentException("Deposit amount must be greater than 0");
         }
         
-        BankAccount account = getOrCreateBankAccount(userId);
-        account.setCurrentBalance(account.getCurrentBalance().add(amount));
-        BankAccount updatedAccount = bankAccountRepository.save(account);
-        return convertBankAccountToDTO(updatedAccount);
+        credit(userId, amount, BankTransaction.Type.DEPOSIT, description);
+        return getBankAccountDTO(userId);
     }
     
     /**
@@ -285,15 +316,23 @@ public class UserService {
             throw new IllegalArgumentException("Withdrawal amount must be greater than 0");
         }
         
-        BankAccount account = getOrCreateBankAccount(userId);
-        
-        if (account.getCurrentBalance().compareTo(amount) < 0) {
+        if (!tryDebit(userId, amount, BankTransaction.Type.WITHDRAWAL, description)) {
+            BankAccount account = getOrCreateBankAccount(userId);
             throw new IllegalArgumentException("Insufficient balance. Available: " + account.getCurrentBalance());
         }
-        
-        account.setCurrentBalance(account.getCurrentBalance().subtract(amount));
-        BankAccount updatedAccount = bankAccountRepository.save(account);
-        return convertBankAccountToDTO(updatedAccount);
+        return getBankAccountDTO(userId);
+    }
+    
+    private BankAccount openBankAccount(User user, BigDecimal openingBalance, BankTransaction.Type type, String description) {
+        BankAccount account = new BankAccount();
+        account.setUser(user);
+        account.setAccountNumber("ACC" + System.currentTimeMillis());
+        account.setBankName("HSBC Bank");
+        account.setCurrentBalance(openingBalance);
+        account.setLedgerSequence(openingBalance.signum() != 0 ? 1 : 0);
+        BankAccount savedAccount = bankAccountRepository.save(account);
+        ledgerService.recordOpening(savedAccount, type, description);
+        return savedAccount;
     }
     
     /**
@@ -0,0 +1,84 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Yahoo Finance v8 chart endpoint; the quote comes from the chart metadata
+ */
+@Component
+public class YahooFinanceQuoteProvider implements QuoteProvider {
+
+    public static final String NAME = "yahoo-finance";
+
+    private final WebClient webClient;
+    private final int maxConcurrency;
+
+    @Autowired
+    public YahooFinanceQuoteProvider(WebClient.Builder webClientBuilder,
+                                     @Value("${external.stock-api.yahoo-finance.base-url:https://query1.finance.yahoo.com/v8/finance/chart}") String baseUrl,
+                                     @Value("${external.stock-api.yahoo-finance.max-concurrency:4}") int maxConcurrency) {
+        this.webClient = webClientBuilder
+            .baseUrl(baseUrl)
+            .defaultHeader(HttpHeaders.USER_AGENT, "Mozilla/5.0")
+            .build();
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public Mono<StockPriceDTO> fetchQuote(String symbol) {
+        return webClient.get()
+            .uri(uriBuilder -> uriBuilder
+                .path("/{symbol}")
+                .queryParam("interval", "1d")
+                .queryParam("range", "1d")
+                .build(symbol))
+            .retrieve()
+            .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+            .mapNotNull(result -> parse(symbol, result))
+            // Unknown symbols are answered with 404 and a chart error
+            .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty());
+    }
+
+    /**
+     * Map chart.result[0].meta; unknown symbols come back with an error and no result
+     */
+    static StockPriceDTO parse(String symbol, Map<String, Object> result) {
+        if (!(result.get("chart") instanceof Map<?, ?> chart)
+                || !(chart.get("result") instanceof List<?> results)
+                || results.isEmpty()
+                || !(results.get(0) instanceof Map<?, ?> first)
+                || !(first.get("meta") instanceof Map<?, ?> meta)
+                || meta.get("regularMarketPrice") == null) {
+            return null;
+        }
+        BigDecimal price = new BigDecimal(meta.get("regularMarketPrice").toString());
+        Object previousClose = meta.get("chartPreviousClose") != null
+            ? meta.get("chartPreviousClose") : meta.get("previousClose");
+        Object currency = meta.get("currency");
+        return QuoteProvider.toQuote(symbol, price,
+            previousClose != null ? new BigDecimal(previousClose.toString()) : null,
+            currency != null ? currency.toString() : null);
+    }
+}
@@ -0,0 +1,101 @@
+package com.yourorg.portfolio.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Consecutive-failure circuit breaker.
+ * After {@code failureThreshold} failures in a row the circuit opens and rejects calls for
+ * {@code openDuration}; then a single trial call is let through (half-open) and its outcome
+ * either closes the circuit or opens it again.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final Clock clock;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong(-1);
+    private final AtomicReference<Permit> trial = new AtomicReference<>();
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openDuration.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * A permit for one call, or null when the call may not proceed; in half-open state only one
+     * caller gets a permit. The holder must report success, failure or release on that permit.
+     */
+    public Permit tryAcquire() {
+        State state = getState();
+        if (state == State.CLOSED) {
+            return new Permit(false);
+        }
+        if (state == State.HALF_OPEN) {
+            Permit permit = new Permit(true);
+            return trial.compareAndSet(null, permit) ? permit : null;
+        }
+        return null;
+    }
+
+    public State getState() {
+        long opened = openedAt.get();
+        if (opened < 0) {
+            return State.CLOSED;
+        }
+        return clock.millis() - opened >= openMillis ? State.HALF_OPEN : State.OPEN;
+    }
+
+    /**
+     * One acquisition; only the first outcome reported counts, and only the permit that took
+     * the half-open trial slot can free it
+     */
+    public final class Permit {
+
+        private final boolean trialCall;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        private Permit(boolean trialCall) {
+            this.trialCall = trialCall;
+        }
+
+        public void recordSuccess() {
+            if (settle()) {
+                consecutiveFailures.set(0);
+                openedAt.set(-1);
+            }
+        }
+
+        public void recordFailure() {
+            if (settle() && (trialCall || consecutiveFailures.incrementAndGet() >= failureThreshold)) {
+                openedAt.set(clock.millis());
+            }
+        }
+
+        /**
+         * Give the permit back without an outcome, e.g. when the call was cancelled
+         */
+        public void release() {
+            settle();
+        }
+
+        private boolean settle() {
+            if (!settled.compareAndSet(false, true)) {
+                return false;
+            }
+            if (trialCall) {
+                trial.compareAndSet(this, null);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.yourorg.portfolio.util;
+
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking cap on the calls in flight to one backend.
+ * A call beyond the limit waits in FIFO order, without holding a thread, until one in flight
+ * completes, fails or is cancelled; a call cancelled while waiting is never started.
+ */
+public class ConcurrencyLimiter {
+
+    private final int limit;
+    private final Deque<Runnable> waiting = new ArrayDeque<>();
+    private int active;
+    private int releases;
+    private boolean draining;
+
+    public ConcurrencyLimiter(int limit) {
+        this.limit = Math.max(1, limit);
+    }
+
+    /**
+     * The call, subscribed once a permit is free; the permit is returned when it terminates
+     */
+    public <T> Mono<T> limit(Supplier<Mono<T>> call) {
+        return Mono.create(sink -> {
+            Disposable.Swap running = Disposables.swap();
+            AtomicBoolean released = new AtomicBoolean();
+            Runnable start = () -> running.update(Mono.defer(call)
+                .doFinally(signal -> {
+                    if (released.compareAndSet(false, true)) {
+                        release();
+                    }
+                })
+                .subscribe(sink::success, sink::error, sink::success));
+            sink.onCancel(() -> {
+                if (!dequeue(start)) {
+                    running.dispose();
+                }
+            });
+            if (acquire(start)) {
+                start.run();
+            }
+        });
+    }
+
+    public synchronized int getActive() {
+        return active;
+    }
+
+    private synchronized boolean acquire(Runnable start) {
+        if (active < limit) {
+            active++;
+            return true;
+        }
+        waiting.add(start);
+        return false;
+    }
+
+    private synchronized boolean dequeue(Runnable start) {
+        return waiting.remove(start);
+    }
+
+    /**
+     * Hand the permit to the oldest waiting call, or give it back.
+     * A waiter that completes synchronously releases again from inside {@code next.run()};
+     * that release is queued for the loop already draining instead of recursing once per waiter.
+     */
+    private void release() {
+        synchronized (this) {
+            releases++;
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        while (true) {
+            Runnable next;
+            synchronized (this) {
+                if (releases == 0) {
+                    draining = false;
+                    return;
+                }
+                releases--;
+                next = waiting.poll();
+                if (next == null) {
+                    active--;
+                    continue;
+                }
+            }
+            next.run();
+        }
+    }
+}
@@ -1,83 +1,164 @@
 package com.yourorg.portfolio.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies HS256 tokens. The signing key and parser are built once; tokens that
+ * verified successfully are remembered (by SHA-256 of the token) until they expire, so repeat
+ * requests with the same token skip the signature check.
+ */
 @Component
 public class JwtUtil {
-    
-    @Value("${jwt.secret:your-secret-key-change-in-production-min-256-bits}")
-    private String secret;
-    
-    @Value("${jwt.expiration:86400000}")
-    private Long expiration;
-    
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long expiration;
+    private final int verifiedCacheSize;
+    private final Clock clock;
+
+    // Keyed by the token's digest so raw bearer tokens are not held in memory
+    private final Map<ByteBuffer, Claims> verified = new ConcurrentHashMap<>();
+
+    @Autowired
+    public JwtUtil(@Value("${jwt.secret:your-secret-key-change-in-production-min-256-bits}") String secret,
+                   @Value("${jwt.expiration:86400000}") long expiration,
+                   @Value("${jwt.verified-cache-size:10000}") int verifiedCacheSize) {
+        this(secret, expiration, verifiedCacheSize, Clock.systemUTC());
     }
-    
+
+    /**
+     * @param verifiedCacheSize most verified tokens remembered; 0 verifies every call
+     */
+    public JwtUtil(String secret, long expiration, int verifiedCacheSize, Clock clock) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.expiration = expiration;
+        this.verifiedCacheSize = Math.max(0, verifiedCacheSize);
+        this.clock = clock;
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .clock(() -> Date.from(clock.instant()))
+                .build();
+    }
+
     public String generateToken(Long userId, String username) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("username", username);
         return createToken(claims, username);
     }
-    
+
     private String createToken(Map<String, Object> claims, String subject) {
+        long now = clock.millis();
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
+                .signWith(signingKey)
                 .compact();
     }
-    
+
     public Long getUserIdFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return claims.get("userId", Long.class);
+        return getAllClaimsFromToken(token).get("userId", Long.class);
     }
-    
+
     public String getUsernameFromToken(String token) {
         return getClaimFromToken(token, Claims::getSubject);
     }
-    
+
     public Date getExpirationDateFromToken(String token) {
         return getClaimFromToken(token, Claims::getExpiration);
     }
-    
+
     public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = getAllClaimsFromToken(token);
         return claimsResolver.apply(claims);
     }
-    
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-    
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+
+    /**
+     * Verified claims of a token, from the cache while the token is unexpired.
+     * Throws the parser's JwtException for invalid, tampered or expired tokens.
+     */
+    public Claims getAllClaimsFromToken(String token) {
+        if (verifiedCacheSize == 0) {
+            return parser.parseSignedClaims(token).getPayload();
+        }
+        ByteBuffer key = ByteBuffer.wrap(tokenHash(token));
+        Claims cached = verified.get(key);
+        if (cached != null) {
+            if (!isExpired(cached)) {
+                return cached;
+            }
+            verified.remove(key, cached);
+        }
+
+        // Expired or invalid tokens throw here and are never cached
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (verified.size() >= verifiedCacheSize) {
+            evict();
+        }
+        verified.put(key, claims);
+        return claims;
     }
-    
+
     public Boolean validateToken(String token, String username) {
-        final String tokenUsername = getUsernameFromToken(token);
-        return (tokenUsername.equals(username) && !isTokenExpired(token));
+        final Claims claims = getAllClaimsFromToken(token);
+        return claims.getSubject().equals(username) && !isExpired(claims);
+    }
+
+    int getVerifiedCacheSize() {
+        return verified.size();
     }
-}
 
+    private boolean isExpired(Claims claims) {
+        Date expiresAt = claims.getExpiration();
+        return expiresAt != null && expiresAt.getTime() <= clock.millis();
+    }
+
+    /**
+     * Make room: drop expired tokens first, then arbitrary ones until a tenth of the capacity is free
+     */
+    private void evict() {
+        verified.values().removeIf(this::isExpired);
+        int target = verifiedCacheSize - Math.max(1, verifiedCacheSize / 10);
+        Iterator<ByteBuffer> keys = verified.keySet().iterator();
+        while (verified.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    /**
+     * SHA-256 of a compact token, the key under which tokens are cached and revoked
+     */
+    public static byte[] tokenHash(String token) {
+        return SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+    }
+}
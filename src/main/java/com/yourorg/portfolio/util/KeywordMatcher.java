@@ -0,0 +1,252 @@
+package com.yourorg.portfolio.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton that finds every keyword in a text in one pass, whatever the number of
+ * keywords. Matching is on whole words, case-insensitive: text and keywords are read as tokens
+ * (runs of letters and digits, or a single punctuation character) separated by one space, with
+ * apostrophes dropped, so "sell" matches "Sell!" and "don't" matches "dont" but "sell" never
+ * matches "bestseller". The automaton is compiled into a transition table and is immutable, so
+ * one instance can be shared between threads.
+ *
+ * @param <T> value reported with each keyword
+ */
+public final class KeywordMatcher<T> {
+
+    private static final char SEPARATOR = ' ';
+
+    /**
+     * Receives the matches of one scan in the order of the token they end on; of keywords ending
+     * on the same token, the shorter first
+     */
+    @FunctionalInterface
+    public interface Listener<T> {
+        /**
+         * @param firstToken index of the keyword's first token in the text
+         * @param lastToken  index of its last token
+         */
+        void onMatch(T value, int firstToken, int lastToken);
+    }
+
+    private final int[] asciiSymbols;
+    private final Map<Character, Integer> otherSymbols;
+    private final int width;
+    private final int[] transitions;
+    private final int[][] outputs;
+    private final List<T> values;
+    private final int[] tokenCounts;
+
+    private KeywordMatcher(Builder<T> builder) {
+        List<String> keywords = new ArrayList<>();
+        values = new ArrayList<>();
+        List<Integer> counts = new ArrayList<>();
+        for (Map.Entry<String, List<T>> entry : builder.keywords.entrySet()) {
+            for (T value : entry.getValue()) {
+                keywords.add(entry.getKey());
+                values.add(value);
+                counts.add(entry.getKey().split(" ").length);
+            }
+        }
+        tokenCounts = counts.stream().mapToInt(Integer::intValue).toArray();
+
+        // Symbol 0 stands for every character no keyword contains
+        asciiSymbols = new int[128];
+        otherSymbols = new HashMap<>();
+        int symbolCount = 1;
+        symbolCount = addSymbol(SEPARATOR, symbolCount);
+        for (String keyword : keywords) {
+            for (int i = 0; i < keyword.length(); i++) {
+                symbolCount = addSymbol(keyword.charAt(i), symbolCount);
+            }
+        }
+        width = symbolCount;
+
+        // Trie of " keyword " so that matches can only start and end on token boundaries
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> ownOutputs = new ArrayList<>();
+        trie.add(new int[width]);
+        ownOutputs.add(new ArrayList<>());
+        for (int id = 0; id < keywords.size(); id++) {
+            String padded = SEPARATOR + keywords.get(id) + SEPARATOR;
+            int state = 0;
+            for (int i = 0; i < padded.length(); i++) {
+                int symbol = symbolOf(padded.charAt(i));
+                if (trie.get(state)[symbol] == 0) {
+                    trie.get(state)[symbol] = trie.size();
+                    trie.add(new int[width]);
+                    ownOutputs.add(new ArrayList<>());
+                }
+                state = trie.get(state)[symbol];
+            }
+            ownOutputs.get(state).add(id);
+        }
+
+        // Breadth-first: fold the failure links into a full transition table and each state's
+        // outputs into those of its failure state, which is always shallower and so done first
+        int states = trie.size();
+        transitions = new int[states * width];
+        outputs = new int[states][];
+        int[] fail = new int[states];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        outputs[0] = new int[0];
+        for (int symbol = 0; symbol < width; symbol++) {
+            int next = trie.get(0)[symbol];
+            transitions[symbol] = next;
+            if (next != 0) {
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int[] inherited = outputs[fail[state]];
+            int[] own = ownOutputs.get(state).stream().mapToInt(Integer::intValue).toArray();
+            outputs[state] = own.length == 0 ? inherited : concat(inherited, own);
+            for (int symbol = 0; symbol < width; symbol++) {
+                int next = trie.get(state)[symbol];
+                if (next != 0) {
+                    fail[next] = transitions[fail[state] * width + symbol];
+                    transitions[state * width + symbol] = next;
+                    queue.add(next);
+                } else {
+                    transitions[state * width + symbol] = transitions[fail[state] * width + symbol];
+                }
+            }
+        }
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Report every keyword occurring in the text
+     */
+    public void scan(CharSequence text, Listener<T> listener) {
+        int state = step(0, SEPARATOR);
+        int tokens = 0;
+        boolean inWord = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isApostrophe(c)) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                state = step(state, Character.toLowerCase(c));
+                inWord = true;
+                continue;
+            }
+            if (inWord) {
+                state = endToken(state, tokens++, listener);
+                inWord = false;
+            }
+            if (!Character.isWhitespace(c)) {
+                state = endToken(step(state, c), tokens++, listener);
+            }
+        }
+        if (inWord) {
+            endToken(state, tokens, listener);
+        }
+    }
+
+    /**
+     * Keywords are read the way scan reads text: lower case, apostrophes dropped, one token per
+     * punctuation character and single spaces between tokens
+     */
+    static String normalize(String keyword) {
+        StringBuilder normalized = new StringBuilder();
+        boolean inWord = false;
+        for (int i = 0; i < keyword.length(); i++) {
+            char c = keyword.charAt(i);
+            if (isApostrophe(c)) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (!inWord && !normalized.isEmpty()) {
+                    normalized.append(SEPARATOR);
+                }
+                normalized.append(Character.toLowerCase(c));
+                inWord = true;
+            } else {
+                inWord = false;
+                if (!Character.isWhitespace(c)) {
+                    if (!normalized.isEmpty()) {
+                        normalized.append(SEPARATOR);
+                    }
+                    normalized.append(c);
+                }
+            }
+        }
+        return normalized.toString();
+    }
+
+    private int endToken(int state, int token, Listener<T> listener) {
+        state = step(state, SEPARATOR);
+        for (int id : outputs[state]) {
+            listener.onMatch(values.get(id), token - tokenCounts[id] + 1, token);
+        }
+        return state;
+    }
+
+    private int step(int state, char c) {
+        return transitions[state * width + symbolOf(c)];
+    }
+
+    private int symbolOf(char c) {
+        if (c < 128) {
+            return asciiSymbols[c];
+        }
+        return otherSymbols.getOrDefault(c, 0);
+    }
+
+    private int addSymbol(char c, int symbolCount) {
+        if (symbolOf(c) != 0) {
+            return symbolCount;
+        }
+        if (c < 128) {
+            asciiSymbols[c] = symbolCount;
+        } else {
+            otherSymbols.put(c, symbolCount);
+        }
+        return symbolCount + 1;
+    }
+
+    private static boolean isApostrophe(char c) {
+        return c == '\'' || c == '’';
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        int[] joined = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, joined, first.length, second.length);
+        return joined;
+    }
+
+    public static final class Builder<T> {
+        private final Map<String, List<T>> keywords = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * @throws IllegalArgumentException when the keyword has no letters, digits or punctuation
+         */
+        public Builder<T> add(String keyword, T value) {
+            String normalized = normalize(keyword);
+            if (normalized.isEmpty()) {
+                throw new IllegalArgumentException("Keyword must not be blank: '" + keyword + "'");
+            }
+            keywords.computeIfAbsent(normalized, k -> new ArrayList<>()).add(value);
+            return this;
+        }
+
+        public KeywordMatcher<T> build() {
+            return new KeywordMatcher<>(this);
+        }
+    }
+}
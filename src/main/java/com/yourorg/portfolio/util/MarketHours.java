@@ -0,0 +1,51 @@
+package com.yourorg.portfolio.util;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Regular NYSE/Nasdaq trading session: 09:30-16:00 America/New_York, Monday to Friday.
+ * Exchange holidays and half days are not modelled.
+ */
+public final class MarketHours {
+
+    public static final ZoneId EXCHANGE_ZONE = ZoneId.of("America/New_York");
+    public static final LocalTime OPEN = LocalTime.of(9, 30);
+    public static final LocalTime CLOSE = LocalTime.of(16, 0);
+
+    private MarketHours() {}
+
+    /**
+     * Whether the regular session is open at the given instant
+     */
+    public static boolean isOpen(Instant instant) {
+        ZonedDateTime local = instant.atZone(EXCHANGE_ZONE);
+        if (isWeekend(local.getDayOfWeek())) {
+            return false;
+        }
+        LocalTime time = local.toLocalTime();
+        return !time.isBefore(OPEN) && time.isBefore(CLOSE);
+    }
+
+    /**
+     * Start of the next regular session strictly after the given instant
+     */
+    public static Instant nextOpen(Instant instant) {
+        ZonedDateTime local = instant.atZone(EXCHANGE_ZONE);
+        ZonedDateTime candidate = local.toLocalDate().atTime(OPEN).atZone(EXCHANGE_ZONE);
+        if (!candidate.isAfter(local)) {
+            candidate = candidate.plusDays(1);
+        }
+        while (isWeekend(candidate.getDayOfWeek())) {
+            candidate = candidate.plusDays(1);
+        }
+        return candidate.toInstant();
+    }
+
+    private static boolean isWeekend(DayOfWeek day) {
+        return day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY;
+    }
+}
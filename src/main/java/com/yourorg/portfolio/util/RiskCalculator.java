@@ -4,9 +4,14 @@ import com.yourorg.portfolio.model.Investment;
 import com.yourorg.portfolio.model.RiskProfile;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class RiskCalculator {
     
@@ -15,6 +20,312 @@ public class RiskCalculator {
     private static final BigDecimal HIGH_DIVERSIFICATION_THRESHOLD = new BigDecimal("7.0");
     private static final BigDecimal MODERATE_DIVERSIFICATION_THRESHOLD = new BigDecimal("5.0");
     
+    public static final int TRADING_DAYS_PER_YEAR = 252;
+    
+    // Below this many holdings the covariance rows are cheaper to compute on the calling thread
+    private static final int PARALLEL_THRESHOLD = 8;
+    
+    /**
+     * Annualized volatility of daily log returns over a close series, as a fraction (0.25 = 25%).
+     * Reads the buffer in place with absolute gets, so a mapped price history is scanned without copying.
+     * Returns 0 when there are fewer than two returns.
+     */
+    public static double annualizedVolatility(DoubleBuffer closes) {
+        int n = closes.limit();
+        if (n < 3) {
+            return 0.0;
+        }
+        // Welford's single-pass mean and variance over the returns
+        double mean = 0.0;
+        double m2 = 0.0;
+        int count = 0;
+        double previous = closes.get(0);
+        for (int i = 1; i < n; i++) {
+            double current = closes.get(i);
+            double r = Math.log(current / previous);
+            previous = current;
+            count++;
+            double delta = r - mean;
+            mean += delta / count;
+            m2 += delta * (r - mean);
+        }
+        return Math.sqrt(m2 / (count - 1) * TRADING_DAYS_PER_YEAR);
+    }
+    
+    /**
+     * Daily log returns of a close series: r[i] = ln(closes[i + 1] / closes[i])
+     */
+    public static double[] logReturns(double[] closes) {
+        if (closes.length < 2) {
+            return new double[0];
+        }
+        double[] returns = new double[closes.length - 1];
+        for (int i = 0; i < returns.length; i++) {
+            returns[i] = Math.log(closes[i + 1] / closes[i]);
+        }
+        return returns;
+    }
+    
+    /**
+     * Log returns of several aligned close series, one row per holding, computed in parallel
+     * once there are enough holdings
+     */
+    public static double[][] logReturns(double[][] closes) {
+        double[][] returns = new double[closes.length][];
+        IntStream rows = IntStream.range(0, closes.length);
+        if (closes.length >= PARALLEL_THRESHOLD) {
+            rows = rows.parallel();
+        }
+        rows.forEach(i -> returns[i] = logReturns(closes[i]));
+        return returns;
+    }
+    
+    public static double mean(double[] values) {
+        if (values.length == 0) {
+            return 0.0;
+        }
+        double sum = 0.0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+    
+    /**
+     * Sample standard deviation; 0 for fewer than two values
+     */
+    public static double standardDeviation(double[] values) {
+        if (values.length < 2) {
+            return 0.0;
+        }
+        return Math.sqrt(covariance(values, values));
+    }
+    
+    /**
+     * Scale a daily volatility to a yearly one
+     */
+    public static double annualize(double dailyVolatility) {
+        return dailyVolatility * Math.sqrt(TRADING_DAYS_PER_YEAR);
+    }
+    
+    /**
+     * Sample covariance of two equally long return series
+     */
+    public static double covariance(double[] x, double[] y) {
+        int n = Math.min(x.length, y.length);
+        if (n < 2) {
+            return 0.0;
+        }
+        double meanX = 0.0;
+        double meanY = 0.0;
+        for (int i = 0; i < n; i++) {
+            meanX += x[i];
+            meanY += y[i];
+        }
+        meanX /= n;
+        meanY /= n;
+        double sum = 0.0;
+        for (int i = 0; i < n; i++) {
+            sum += (x[i] - meanX) * (y[i] - meanY);
+        }
+        return sum / (n - 1);
+    }
+    
+    /**
+     * Covariance matrix of aligned return series, one row per holding.
+     * Rows are computed in parallel once there are enough holdings to pay for the fork.
+     */
+    public static double[][] covarianceMatrix(double[][] returns) {
+        int k = returns.length;
+        double[][] matrix = new double[k][k];
+        IntStream rows = IntStream.range(0, k);
+        if (k >= PARALLEL_THRESHOLD) {
+            rows = rows.parallel();
+        }
+        rows.forEach(i -> {
+            for (int j = i; j < k; j++) {
+                double c = covariance(returns[i], returns[j]);
+                matrix[i][j] = c;
+                matrix[j][i] = c;
+            }
+        });
+        return matrix;
+    }
+    
+    /**
+     * Portfolio volatility sqrt(w' * cov * w), in the units of the covariance matrix
+     */
+    public static double portfolioVolatility(double[] weights, double[][] covariance) {
+        double variance = 0.0;
+        for (int i = 0; i < weights.length; i++) {
+            double row = 0.0;
+            for (int j = 0; j < weights.length; j++) {
+                row += covariance[i][j] * weights[j];
+            }
+            variance += weights[i] * row;
+        }
+        return Math.sqrt(Math.max(variance, 0.0));
+    }
+    
+    /**
+     * Weighted daily portfolio returns from aligned holding returns
+     */
+    public static double[] portfolioReturns(double[] weights, double[][] returns) {
+        if (returns.length == 0) {
+            return new double[0];
+        }
+        double[] portfolio = new double[returns[0].length];
+        for (int i = 0; i < weights.length; i++) {
+            double weight = weights[i];
+            double[] holding = returns[i];
+            for (int t = 0; t < portfolio.length; t++) {
+                portfolio[t] += weight * holding[t];
+            }
+        }
+        return portfolio;
+    }
+    
+    /**
+     * Historical value at risk: the loss, as a positive fraction, not exceeded with the given confidence
+     */
+    public static double historicalVaR(double[] returns, double confidence) {
+        if (returns.length == 0) {
+            return 0.0;
+        }
+        double[] sorted = returns.clone();
+        Arrays.sort(sorted);
+        return Math.max(0.0, -sorted[tailIndex(sorted.length, confidence)]);
+    }
+    
+    /**
+     * Historical conditional VaR (expected shortfall): the average loss in the tail beyond VaR
+     */
+    public static double historicalCVaR(double[] returns, double confidence) {
+        if (returns.length == 0) {
+            return 0.0;
+        }
+        double[] sorted = returns.clone();
+        Arrays.sort(sorted);
+        int tail = tailIndex(sorted.length, confidence);
+        double sum = 0.0;
+        for (int i = 0; i <= tail; i++) {
+            sum += sorted[i];
+        }
+        return Math.max(0.0, -sum / (tail + 1));
+    }
+    
+    /**
+     * Variance-covariance (normal) value at risk for a return distribution with the given mean and deviation
+     */
+    public static double parametricVaR(double mean, double standardDeviation, double confidence) {
+        double z = inverseNormal(1.0 - confidence);
+        return Math.max(0.0, -(mean + z * standardDeviation));
+    }
+    
+    /**
+     * Normal expected shortfall: mean loss beyond the parametric VaR
+     */
+    public static double parametricCVaR(double mean, double standardDeviation, double confidence) {
+        double tail = 1.0 - confidence;
+        double z = inverseNormal(tail);
+        double density = Math.exp(-0.5 * z * z) / Math.sqrt(2 * Math.PI);
+        return Math.max(0.0, -(mean - standardDeviation * density / tail));
+    }
+    
+    /**
+     * Beta of an asset against a benchmark over aligned return series; 0 if the benchmark is flat
+     */
+    public static double beta(double[] assetReturns, double[] benchmarkReturns) {
+        double benchmarkVariance = covariance(benchmarkReturns, benchmarkReturns);
+        if (benchmarkVariance == 0.0) {
+            return 0.0;
+        }
+        return covariance(assetReturns, benchmarkReturns) / benchmarkVariance;
+    }
+    
+    /**
+     * Map annualized volatility onto the 0-10 volatility score: 16% and below reads as conservative,
+     * above 28% as aggressive, matching the score thresholds used for risk categories
+     */
+    public static BigDecimal volatilityScore(double annualizedVolatility) {
+        double score = Math.min(10.0, Math.max(0.0, annualizedVolatility * 25.0));
+        return BigDecimal.valueOf(score).setScale(2, RoundingMode.HALF_UP);
+    }
+    
+    /**
+     * Diversification score (0-10) from market-value weights. Uses the effective number of
+     * holdings, sectors and industries (1 / sum of squared weights), so a portfolio dominated by
+     * one position scores low no matter how many small positions it has.
+     *
+     * @param weights holding weights summing to 1
+     * @param sectors sector of each holding, null if unknown
+     * @param industries industry of each holding, null if unknown
+     */
+    public static BigDecimal calculateDiversificationScore(double[] weights, String[] sectors, String[] industries) {
+        if (weights.length == 0) {
+            return BigDecimal.ZERO;
+        }
+        double sectorScore = Math.min(effectiveCount(weights, sectors) * 2, 10);
+        double industryScore = Math.min(effectiveCount(weights, industries), 5);
+        double holdingsScore = Math.min(effectiveCount(weights, null), 5);
+        double total = (sectorScore + industryScore + holdingsScore) / 2;
+        return BigDecimal.valueOf(Math.min(total, 10.0)).setScale(2, RoundingMode.HALF_UP);
+    }
+    
+    private static double effectiveCount(double[] weights, String[] groups) {
+        Map<String, Double> grouped = new HashMap<>();
+        for (int i = 0; i < weights.length; i++) {
+            String group = groups == null ? Integer.toString(i) : groups[i];
+            if (group != null && !group.isEmpty()) {
+                grouped.merge(group, weights[i], Double::sum);
+            }
+        }
+        double total = 0.0;
+        double sumOfSquares = 0.0;
+        for (double weight : grouped.values()) {
+            total += weight;
+            sumOfSquares += weight * weight;
+        }
+        return sumOfSquares == 0.0 ? 0.0 : total * total / sumOfSquares;
+    }
+    
+    private static int tailIndex(int length, double confidence) {
+        int index = (int) Math.floor((1.0 - confidence) * length);
+        return Math.min(Math.max(index, 0), length - 1);
+    }
+    
+    /**
+     * Inverse of the standard normal CDF (Acklam's rational approximation, relative error below 1.2e-9)
+     */
+    static double inverseNormal(double p) {
+        if (p <= 0.0 || p >= 1.0) {
+            throw new IllegalArgumentException("p must be in (0, 1): " + p);
+        }
+        final double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                            1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        final double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                            6.680131188771972e+01, -1.328068155288572e+01};
+        final double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                            -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        final double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                            3.754408661907416e+00};
+        double low = 0.02425;
+        if (p < low) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if (p > 1 - low) {
+            double q = Math.sqrt(-2 * Math.log(1 - p));
+            return -(((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+            / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+    
     /**
      * Calculate volatility score based on portfolio holdings
      * Higher score = higher risk
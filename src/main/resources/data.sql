@@ -13,6 +13,10 @@ INSERT INTO bank_accounts (user_id, account_number, bank_name, current_balance,
 (2, 'ACC002345678', 'Chase Bank', 75000.00, 'CHECKING'),
 (3, 'ACC003456789', 'Wells Fargo', 30000.00, 'CHECKING');
 
+-- Opening balances for the ledger (balance-at-time reads start from a snapshot)
+INSERT INTO balance_snapshots (account_id, seq, balance, created_at)
+SELECT id, 0, current_balance, created_at FROM bank_accounts;
+
 -- Insert portfolios
 INSERT INTO portfolios (user_id, name, description) VALUES
 (1, 'John\'s Investment Portfolio', 'Diversified portfolio focusing on tech and finance'),
@@ -56,9 +60,21 @@ INSERT INTO investments (portfolio_id, stock_id, quantity, buy_price, buy_date,
 (3, 11, 40, 150.00, '2024-01-30', 'STOCK'),
 (3, 12, 35, 140.00, '2024-02-20', 'STOCK');
 
+-- Positions rolled up from the lots above
+INSERT INTO positions (portfolio_id, stock_id, quantity, cost_basis, lot_count, updated_at)
+SELECT portfolio_id, stock_id, SUM(quantity), SUM(quantity * buy_price), COUNT(*), CURRENT_TIMESTAMP(6)
+FROM investments GROUP BY portfolio_id, stock_id;
+
 -- Insert risk profiles
 INSERT INTO risk_profiles (user_id, risk_category, volatility_score, diversification_score, max_loss_tolerance, investment_horizon) VALUES
 (1, 'MODERATE', 6.5, 7.2, 15.00, 'LONG'),
 (2, 'AGGRESSIVE', 8.5, 6.8, 25.00, 'LONG'),
 (3, 'CONSERVATIVE', 3.2, 8.5, 5.00, 'MEDIUM');
 
+-- Start the pooled id generators after the rows above (each block ends at next_val)
+INSERT INTO id_sequences (sequence_name, next_val)
+SELECT 'investments', COALESCE(MAX(id), 0) + 50 FROM investments;
+INSERT INTO id_sequences (sequence_name, next_val)
+SELECT 'bank_transactions', COALESCE(MAX(id), 0) + 50 FROM bank_transactions;
+INSERT INTO id_sequences (sequence_name, next_val)
+SELECT 'realized_gains', COALESCE(MAX(id), 0) + 50 FROM realized_gains;
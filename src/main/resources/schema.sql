@@ -2,6 +2,14 @@
 -- Fully normalized (3NF) with foreign key constraints
 
 -- Drop tables in reverse order of dependencies
+DROP TABLE IF EXISTS id_sequences;
+DROP TABLE IF EXISTS chatbot_messages;
+DROP TABLE IF EXISTS chatbot_consent;
+DROP TABLE IF EXISTS realized_gains;
+DROP TABLE IF EXISTS positions;
+DROP TABLE IF EXISTS balance_snapshots;
+DROP TABLE IF EXISTS bank_transactions;
+DROP TABLE IF EXISTS price_bars;
 DROP TABLE IF EXISTS investments;
 DROP TABLE IF EXISTS portfolios;
 DROP TABLE IF EXISTS risk_profiles;
@@ -34,6 +42,8 @@ CREATE TABLE bank_accounts (
     account_type VARCHAR(20) DEFAULT 'CHECKING',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    version BIGINT DEFAULT 0 NOT NULL,
+    ledger_sequence BIGINT DEFAULT 0 NOT NULL,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     INDEX idx_user_id (user_id),
     INDEX idx_account_number (account_number)
@@ -81,7 +91,9 @@ CREATE TABLE investments (
     FOREIGN KEY (stock_id) REFERENCES stocks(id) ON DELETE RESTRICT,
     INDEX idx_portfolio_id (portfolio_id),
     INDEX idx_stock_id (stock_id),
-    INDEX idx_buy_date (buy_date)
+    INDEX idx_buy_date (buy_date),
+    -- Sell by symbol reads (and locks) a portfolio's lots of one stock, oldest first
+    INDEX idx_portfolio_stock_buy_date (portfolio_id, stock_id, buy_date)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- Risk Profiles table
@@ -101,3 +113,108 @@ CREATE TABLE risk_profiles (
     INDEX idx_risk_category (risk_category)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- Price Bars table (OHLC history per symbol)
+-- The composite primary key is InnoDB's clustered index, so one symbol's bars for an
+-- interval are stored contiguously in time order and range reads are sequential scans
+CREATE TABLE price_bars (
+    symbol VARCHAR(10) NOT NULL,
+    bar_interval VARCHAR(6) NOT NULL CHECK (bar_interval IN ('MINUTE', 'DAY')),
+    ts DATETIME NOT NULL,
+    open_price DECIMAL(12, 4) NOT NULL,
+    high_price DECIMAL(12, 4) NOT NULL,
+    low_price DECIMAL(12, 4) NOT NULL,
+    close_price DECIMAL(12, 4) NOT NULL,
+    volume BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (symbol, bar_interval, ts)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Bank Transactions table (append-only ledger, one row per balance change)
+-- seq numbers each account's entries 1, 2, 3... in the order the balance changed
+CREATE TABLE bank_transactions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    account_id BIGINT NOT NULL,
+    seq BIGINT NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    amount DECIMAL(15, 2) NOT NULL,
+    description VARCHAR(255),
+    created_at DATETIME(6) NOT NULL,
+    FOREIGN KEY (account_id) REFERENCES bank_accounts(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_account_seq (account_id, seq)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Balance Snapshots table (balance after entry seq, written every ledger.snapshot-interval entries)
+-- seq 0 is the balance the account was opened with, before any ledger entry
+CREATE TABLE balance_snapshots (
+    account_id BIGINT NOT NULL,
+    seq BIGINT NOT NULL,
+    balance DECIMAL(15, 2) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (account_id, seq),
+    FOREIGN KEY (account_id) REFERENCES bank_accounts(id) ON DELETE CASCADE,
+    INDEX idx_account_created (account_id, created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Positions table (per portfolio and stock: the sum of its open investment lots, maintained on
+-- every buy and sell so portfolio reads cost one row per symbol; lots stay in investments)
+CREATE TABLE positions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    portfolio_id BIGINT NOT NULL,
+    stock_id BIGINT NOT NULL,
+    quantity INT NOT NULL CHECK (quantity >= 0),
+    cost_basis DECIMAL(19, 2) NOT NULL,
+    lot_count INT NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    FOREIGN KEY (portfolio_id) REFERENCES portfolios(id) ON DELETE CASCADE,
+    FOREIGN KEY (stock_id) REFERENCES stocks(id) ON DELETE RESTRICT,
+    UNIQUE KEY uk_portfolio_stock (portfolio_id, stock_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Realized Gains table (one row per lot touched by a sale; insert-only. investment_id has no
+-- foreign key because a fully sold lot is deleted)
+CREATE TABLE realized_gains (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    portfolio_id BIGINT NOT NULL,
+    stock_id BIGINT NOT NULL,
+    investment_id BIGINT NOT NULL,
+    lot_method VARCHAR(20) NOT NULL,
+    quantity INT NOT NULL CHECK (quantity > 0),
+    buy_price DECIMAL(10, 2) NOT NULL,
+    buy_date DATE NOT NULL,
+    sell_price DECIMAL(19, 4) NOT NULL,
+    cost_basis DECIMAL(19, 2) NOT NULL,
+    proceeds DECIMAL(19, 2) NOT NULL,
+    gain DECIMAL(19, 2) NOT NULL,
+    sold_at DATETIME(6) NOT NULL,
+    FOREIGN KEY (portfolio_id) REFERENCES portfolios(id) ON DELETE CASCADE,
+    FOREIGN KEY (stock_id) REFERENCES stocks(id) ON DELETE RESTRICT,
+    INDEX idx_portfolio_sold_at (portfolio_id, sold_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Chatbot Consent table (users who allowed the chatbot to read their portfolio; withdrawing
+-- consent deletes the row). Read through a short-lived near-cache, see chatbot.consent
+CREATE TABLE chatbot_consent (
+    user_id BIGINT PRIMARY KEY,
+    granted_at DATETIME(6) NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Chatbot Messages table (conversation history, one row per question or answer; prompts carry
+-- the last chatbot.conversation.history-turns rows, older ones are purged after the retention)
+CREATE TABLE chatbot_messages (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    role VARCHAR(10) NOT NULL,
+    content TEXT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    INDEX idx_user_id (user_id, id),
+    INDEX idx_created_at (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Id blocks for entities with pooled ids (investments, bank_transactions, realized_gains). Hibernate reserves
+-- allocationSize ids per round trip, which keeps their inserts batchable; IDENTITY columns are not.
+-- The AUTO_INCREMENT on those tables only serves rows inserted by SQL scripts.
+CREATE TABLE id_sequences (
+    sequence_name VARCHAR(64) PRIMARY KEY,
+    next_val BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -1,6 +1,8 @@
 const API_BASE_URL = 'http://localhost:8080/api';
 
 let currentUserId = null;
+let currentPortfolio = null;
+let portfolioStream = null;
 
 // Toast notification - top right corner
 function showToast(message, type = 'info') {
@@ -30,6 +32,22 @@ function showToast(message, type = 'info') {
     toast._timer = timer;
 }
 
+// Every API call carries the bearer token issued at login; a 401 means it expired or was
+// revoked, so the session is dropped and the user signs in again
+async function apiFetch(url, options = {}) {
+    const headers = new Headers(options.headers || {});
+    const token = localStorage.getItem('token');
+    if (token) {
+        headers.set('Authorization', `Bearer ${token}`);
+    }
+    const response = await fetch(url, { ...options, headers });
+    if (response.status === 401) {
+        clearSession();
+        window.location.href = 'login.html';
+    }
+    return response;
+}
+
 function escapeHtml(text) {
     const div = document.createElement('div');
     div.textContent = text;
@@ -82,15 +100,26 @@ function closeLogoutModal() {
     document.getElementById('logoutModal').style.display = 'none';
 }
 
-function confirmLogout() {
+// Revokes the token server-side too, so a copy of it stops working; the session is cleared either way
+async function confirmLogout() {
+    try {
+        await apiFetch(`${API_BASE_URL}/users/logout`, { method: 'POST' });
+    } catch (error) {
+        console.warn('Logout request failed:', error.message);
+    }
+    clearSession();
+    closeLogoutModal();
+    window.location.href = 'login.html';
+}
+
+function clearSession() {
+    closePortfolioStream();
     localStorage.removeItem('token');
     localStorage.removeItem('userId');
     localStorage.removeItem('username');
     localStorage.removeItem('email');
     localStorage.removeItem('firstName');
     localStorage.removeItem('lastName');
-    closeLogoutModal();
-    window.location.href = 'login.html';
 }
 
 // Navigation
@@ -145,7 +174,7 @@ async function loadMarketIndices() {
     const loadingEl = document.getElementById('marketIndicesLoading');
     if (!container) return;
     try {
-        const response = await fetch(`${API_BASE_URL}/market-indices`);
+        const response = await apiFetch(`${API_BASE_URL}/market-indices`);
         const indices = await response.json();
         loadingEl.style.display = 'none';
         container.innerHTML = indices.map(idx => {
@@ -177,22 +206,12 @@ function formatIndexValue(val) {
 
 async function loadPortfolio() {
     try {
-        const response = await fetch(`${API_BASE_URL}/portfolio/user/${currentUserId}`);
+        const response = await apiFetch(`${API_BASE_URL}/portfolio/user/${currentUserId}`);
         const portfolio = await response.json();
+        currentPortfolio = portfolio;
         
         // Update summary cards
-        document.getElementById('totalValue').textContent = formatCurrency(portfolio.totalValue);
-        document.getElementById('totalCost').textContent = formatCurrency(portfolio.totalCost);
-        
-        const profitLoss = portfolio.totalProfitLoss;
-        const profitLossElement = document.getElementById('profitLoss');
-        profitLossElement.textContent = formatCurrency(profitLoss);
-        profitLossElement.className = profitLoss >= 0 ? 'value positive' : 'value negative';
-        
-        const profitLossPercent = portfolio.totalProfitLossPercentage;
-        const profitLossPercentElement = document.getElementById('profitLossPercent');
-        profitLossPercentElement.textContent = formatPercent(profitLossPercent);
-        profitLossPercentElement.className = profitLossPercent >= 0 ? 'value positive' : 'value negative';
+        updatePortfolioSummary(portfolio);
         
         // Update holdings table
         updateHoldingsTable(portfolio.holdings);
@@ -200,12 +219,114 @@ async function loadPortfolio() {
         // Update charts (per-stock data + details)
         updateAssetAllocationChart(portfolio.assetAllocation, portfolio.holdings, portfolio.totalValue);
         updatePortfolioGrowthChart(portfolio.holdings, portfolio.totalValue);
+        
+        // Live valuation updates instead of re-fetching the whole portfolio
+        subscribePortfolioStream();
     } catch (error) {
         console.error('Error loading portfolio:', error);
         showToast('Error loading portfolio data', 'error');
     }
 }
 
+function updatePortfolioSummary(portfolio) {
+    document.getElementById('totalValue').textContent = formatCurrency(portfolio.totalValue);
+    document.getElementById('totalCost').textContent = formatCurrency(portfolio.totalCost);
+    
+    const profitLoss = portfolio.totalProfitLoss;
+    const profitLossElement = document.getElementById('profitLoss');
+    profitLossElement.textContent = formatCurrency(profitLoss);
+    profitLossElement.className = profitLoss >= 0 ? 'value positive' : 'value negative';
+    
+    const profitLossPercent = portfolio.totalProfitLossPercentage;
+    const profitLossPercentElement = document.getElementById('profitLossPercent');
+    profitLossPercentElement.textContent = formatPercent(profitLossPercent);
+    profitLossPercentElement.className = profitLossPercent >= 0 ? 'value positive' : 'value negative';
+}
+
+// Server-Sent Events: the server pushes only holdings whose price or position changed, the
+// symbols no longer held, plus new totals.
+function subscribePortfolioStream() {
+    closePortfolioStream();
+    if (!currentUserId) return;
+    
+    portfolioStream = new AbortController();
+    readEventStream(`${API_BASE_URL}/portfolio/user/${currentUserId}/stream`, portfolioStream.signal, (event, data) => {
+        if (event !== 'valuation' || !currentPortfolio) return;
+        const delta = JSON.parse(data);
+        
+        // Holdings are positions, one per symbol
+        const changed = new Map(delta.holdings.map(h => [h.symbol, h]));
+        const removed = new Set(delta.removedSymbols || []);
+        const held = new Set(currentPortfolio.holdings.map(h => h.symbol));
+        currentPortfolio.holdings = currentPortfolio.holdings
+            .filter(h => !removed.has(h.symbol))
+            .map(h => changed.get(h.symbol) || h)
+            .concat(delta.holdings.filter(h => !held.has(h.symbol)));
+        currentPortfolio.totalValue = delta.totalValue;
+        currentPortfolio.totalCost = delta.totalCost;
+        currentPortfolio.totalProfitLoss = delta.totalProfitLoss;
+        currentPortfolio.totalProfitLossPercentage = delta.totalProfitLossPercentage;
+        
+        updatePortfolioSummary(currentPortfolio);
+        if (changed.size > 0 || removed.size > 0) {
+            updateHoldingsTable(currentPortfolio.holdings);
+        }
+    });
+}
+
+function closePortfolioStream() {
+    if (portfolioStream) {
+        portfolioStream.abort();
+        portfolioStream = null;
+    }
+}
+
+// EventSource cannot send an Authorization header, so streams are read with fetch and parsed
+// here. Like EventSource, the stream reconnects after a drop until it is aborted; the server
+// starts every connection with a full snapshot, so nothing is missed in between.
+async function readEventStream(url, signal, onEvent, retryMs = 5000) {
+    while (!signal.aborted) {
+        try {
+            const response = await apiFetch(url, { headers: { 'Accept': 'text/event-stream' }, signal });
+            if (!response.ok || !response.body) {
+                throw new Error(`Stream failed with status ${response.status}`);
+            }
+            const reader = response.body.getReader();
+            const decoder = new TextDecoder();
+            let buffer = '';
+            let event = 'message';
+            let data = [];
+            for (;;) {
+                const { value, done } = await reader.read();
+                if (done) break;
+                buffer += decoder.decode(value, { stream: true });
+                const lines = buffer.split(/\r?\n/);
+                buffer = lines.pop();
+                for (const line of lines) {
+                    if (line === '') {
+                        // Blank line: dispatch the event; comment-only keep-alives carry no data
+                        if (data.length > 0) {
+                            onEvent(event, data.join('\n'));
+                        }
+                        event = 'message';
+                        data = [];
+                    } else if (line.startsWith('event:')) {
+                        event = line.slice(6).trim();
+                    } else if (line.startsWith('data:')) {
+                        data.push(line.slice(5).replace(/^ /, ''));
+                    }
+                }
+            }
+        } catch (error) {
+            if (signal.aborted) return;
+            console.warn('Event stream interrupted:', error.message);
+        }
+        if (!signal.aborted) {
+            await new Promise(resolve => setTimeout(resolve, retryMs));
+        }
+    }
+}
+
 function updateHoldingsTable(holdings) {
     const tbody = document.getElementById('holdingsTableBody');
     tbody.innerHTML = '';
@@ -401,16 +522,16 @@ function updatePortfolioGrowthChart(holdings, totalValue) {
     });
 }
 
-// Holdings
+// Holdings: individual lots, so each can be sold on its own
 async function loadHoldings() {
     try {
-        const response = await fetch(`${API_BASE_URL}/portfolio/user/${currentUserId}`);
-        const portfolio = await response.json();
+        const response = await apiFetch(`${API_BASE_URL}/portfolio/user/${currentUserId}/lots`);
+        const lots = await response.json();
         
         const tbody = document.getElementById('allHoldingsTableBody');
         tbody.innerHTML = '';
         
-        portfolio.holdings.forEach(holding => {
+        lots.forEach(holding => {
             const row = tbody.insertRow();
             row.innerHTML = `
                 <td><strong>${holding.symbol}</strong></td>
@@ -436,7 +557,7 @@ async function loadHoldings() {
 // Performance
 async function loadPerformance() {
     try {
-        const response = await fetch(`${API_BASE_URL}/risk/analyze/${currentUserId}`);
+        const response = await apiFetch(`${API_BASE_URL}/risk/analyze/${currentUserId}`);
         const analysis = await response.json();
         
         document.getElementById('riskCategory').textContent = analysis.riskCategory;
@@ -493,7 +614,7 @@ async function sendChatMessage() {
     input.value = '';
     
     try {
-        const response = await fetch(`${API_BASE_URL}/chatbot/chat`, {
+        const response = await apiFetch(`${API_BASE_URL}/chatbot/chat`, {
             method: 'POST',
             headers: {
                 'Content-Type': 'application/json'
@@ -546,7 +667,7 @@ async function showBuyStockModal() {
     
     // Load current balance
     try {
-        const response = await fetch(`${API_BASE_URL}/bank-account/user/${currentUserId}`);
+        const response = await apiFetch(`${API_BASE_URL}/bank-account/user/${currentUserId}`);
         if (response.ok) {
             const account = await response.json();
             document.getElementById('availableBalance').textContent = formatCurrency(account.currentBalance);
@@ -594,7 +715,7 @@ async function buyStock(event) {
     
     // Check balance before attempting purchase
     try {
-        const balanceResponse = await fetch(`${API_BASE_URL}/bank-account/user/${currentUserId}`);
+        const balanceResponse = await apiFetch(`${API_BASE_URL}/bank-account/user/${currentUserId}`);
         if (balanceResponse.ok) {
             const account = await balanceResponse.json();
             const totalCost = buyPrice * quantity;
@@ -609,7 +730,7 @@ async function buyStock(event) {
     }
     
     try {
-        const response = await fetch(`${API_BASE_URL}/portfolio/buy?userId=${currentUserId}&symbol=${symbol}&quantity=${quantity}&buyPrice=${buyPrice}`, {
+        const response = await apiFetch(`${API_BASE_URL}/portfolio/buy?userId=${currentUserId}&symbol=${symbol}&quantity=${quantity}&buyPrice=${buyPrice}`, {
             method: 'POST'
         });
         
@@ -660,7 +781,7 @@ function submitSellStock(event) {
 
 async function sellStock(investmentId, quantity) {
     try {
-        const response = await fetch(`${API_BASE_URL}/portfolio/sell?userId=${currentUserId}&investmentId=${investmentId}&quantity=${quantity}`, {
+        const response = await apiFetch(`${API_BASE_URL}/portfolio/sell?userId=${currentUserId}&investmentId=${investmentId}&quantity=${quantity}`, {
             method: 'POST'
         });
         
@@ -681,7 +802,7 @@ async function sellStock(investmentId, quantity) {
 // User Info
 async function loadUserInfo() {
     try {
-        const response = await fetch(`${API_BASE_URL}/users/${currentUserId}`);
+        const response = await apiFetch(`${API_BASE_URL}/users/${currentUserId}`);
         const user = await response.json();
         
         document.getElementById('userInfo').innerHTML = `
@@ -698,7 +819,7 @@ async function loadUserInfo() {
 // Bank Account Info
 async function loadBankAccountInfo() {
     try {
-        const response = await fetch(`${API_BASE_URL}/bank-account/user/${currentUserId}`);
+        const response = await apiFetch(`${API_BASE_URL}/bank-account/user/${currentUserId}`);
         
         if (response.ok) {
             const account = await response.json();
@@ -775,7 +896,7 @@ async function saveBankAccount(event) {
         let response;
         if (window.currentBankAccount) {
             // Update existing account
-            response = await fetch(`${API_BASE_URL}/bank-account/user/${currentUserId}/update`, {
+            response = await apiFetch(`${API_BASE_URL}/bank-account/user/${currentUserId}/update`, {
                 method: 'PUT',
                 headers: {
                     'Content-Type': 'application/json'
@@ -788,7 +909,7 @@ async function saveBankAccount(event) {
             });
         } else {
             // Create new account
-            response = await fetch(`${API_BASE_URL}/bank-account/user/${currentUserId}/create`, {
+            response = await apiFetch(`${API_BASE_URL}/bank-account/user/${currentUserId}/create`, {
                 method: 'POST',
                 headers: {
                     'Content-Type': 'application/json'
@@ -837,7 +958,7 @@ async function depositMoney(event) {
     }
     
     try {
-        const response = await fetch(`${API_BASE_URL}/bank-account/user/${currentUserId}/deposit`, {
+        const response = await apiFetch(`${API_BASE_URL}/bank-account/user/${currentUserId}/deposit`, {
             method: 'POST',
             headers: {
                 'Content-Type': 'application/json'
@@ -871,7 +992,7 @@ async function showWithdrawModal() {
     
     // Load current balance
     try {
-        const response = await fetch(`${API_BASE_URL}/bank-account/user/${currentUserId}`);
+        const response = await apiFetch(`${API_BASE_URL}/bank-account/user/${currentUserId}`);
         if (response.ok) {
             const account = await response.json();
             document.getElementById('withdrawAvailableBalance').textContent = formatCurrency(account.currentBalance);
@@ -900,7 +1021,7 @@ async function withdrawMoney(event) {
     }
     
     try {
-        const response = await fetch(`${API_BASE_URL}/bank-account/user/${currentUserId}/withdraw`, {
+        const response = await apiFetch(`${API_BASE_URL}/bank-account/user/${currentUserId}/withdraw`, {
             method: 'POST',
             headers: {
                 'Content-Type': 'application/json'
@@ -936,7 +1057,7 @@ async function loadNews() {
     grid.innerHTML = loadingEl ? loadingEl.outerHTML : '<p class="news-loading">Loading news...</p>';
 
     try {
-        const response = await fetch(`${API_BASE_URL}/news/stocks`);
+        const response = await apiFetch(`${API_BASE_URL}/news/stocks`);
         const articles = await response.json();
         if (!Array.isArray(articles) || articles.length === 0) {
             grid.innerHTML = '<p class="news-error">No stock news available at the moment.</p>';
@@ -979,7 +1100,7 @@ function escapeHtml(text) {
 // Trending Stocks
 async function loadTrendingStocks() {
     try {
-        const response = await fetch(`${API_BASE_URL}/stocks/trending`);
+        const response = await apiFetch(`${API_BASE_URL}/stocks/trending`);
         const stocks = await response.json();
         // Can display trending stocks in a widget if needed
     } catch (error) {
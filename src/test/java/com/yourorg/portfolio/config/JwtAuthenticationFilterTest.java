@@ -0,0 +1,96 @@
+package com.yourorg.portfolio.config;
+
+import com.yourorg.portfolio.service.TokenRevocationService;
+import com.yourorg.portfolio.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("JwtAuthenticationFilter Unit Tests")
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "test-secret-key-that-is-at-least-256-bits-long!";
+
+    private JwtUtil jwtUtil;
+    private TokenRevocationService revocations;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 3_600_000L, 100, Clock.systemUTC());
+        revocations = new TokenRevocationService(jwtUtil, 1_000, 0.01);
+        filter = new JwtAuthenticationFilter(jwtUtil, revocations);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Authentication filterWith(String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/portfolio/1");
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).as("request continues down the chain").isNotNull();
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Test
+    void shouldAuthenticateFromClaimsAlone() throws Exception {
+        String token = jwtUtil.generateToken(42L, "alice");
+
+        Authentication authentication = filterWith("Bearer " + token);
+
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.isAuthenticated()).isTrue();
+        assertThat(authentication.getPrincipal()).isEqualTo(new AuthenticatedUser(42L, "alice"));
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void shouldLeaveRequestAnonymousWithoutToken() throws Exception {
+        assertThat(filterWith(null)).isNull();
+        assertThat(filterWith("Basic dXNlcjpwYXNz")).isNull();
+    }
+
+    @Test
+    void shouldIgnoreInvalidToken() throws Exception {
+        String foreign = new JwtUtil("another-secret-key-that-is-at-least-256-bits!!", 3_600_000L, 0, Clock.systemUTC())
+            .generateToken(42L, "alice");
+
+        assertThat(filterWith("Bearer " + foreign)).isNull();
+        assertThat(filterWith("Bearer not-a-jwt")).isNull();
+    }
+
+    @Test
+    void shouldRejectRevokedToken() throws Exception {
+        String token = jwtUtil.generateToken(42L, "alice");
+        String other = jwtUtil.generateToken(7L, "bob");
+        revocations.revoke(token);
+
+        assertThat(filterWith("Bearer " + token)).isNull();
+        SecurityContextHolder.clearContext();
+        assertThat(filterWith("Bearer " + other)).isNotNull();
+    }
+
+    @Test
+    void shouldResolveBearerTokenCaseInsensitively() {
+        assertThat(JwtAuthenticationFilter.resolveToken("bearer abc ")).isEqualTo("abc");
+        assertThat(JwtAuthenticationFilter.resolveToken("Bearer ")).isNull();
+        assertThat(JwtAuthenticationFilter.resolveToken(null)).isNull();
+    }
+}
@@ -0,0 +1,102 @@
+package com.yourorg.portfolio.config;
+
+import com.yourorg.portfolio.controller.PortfolioController;
+import com.yourorg.portfolio.controller.UserController;
+import com.yourorg.portfolio.dto.PortfolioDTO;
+import com.yourorg.portfolio.service.BatchOrderService;
+import com.yourorg.portfolio.service.PortfolioService;
+import com.yourorg.portfolio.service.QuoteStreamService;
+import com.yourorg.portfolio.service.SellOrderService;
+import com.yourorg.portfolio.service.TokenRevocationService;
+import com.yourorg.portfolio.service.UserService;
+import com.yourorg.portfolio.util.JwtUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The security chain with jwt.enforce=true, from the bearer token to the controllers
+ */
+@WebMvcTest({PortfolioController.class, UserController.class})
+@Import({SecurityConfig.class, JwtUtil.class, TokenRevocationService.class})
+@TestPropertySource(properties = "jwt.enforce=true")
+@MockBean(JpaMetamodelMappingContext.class) // @EnableJpaAuditing on the application class needs one
+@DisplayName("SecurityConfig Tests")
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @MockBean
+    private PortfolioService portfolioService;
+
+    @MockBean
+    private QuoteStreamService quoteStreamService;
+
+    @MockBean
+    private BatchOrderService batchOrderService;
+
+    @MockBean
+    private SellOrderService sellOrderService;
+
+    @MockBean
+    private UserService userService;
+
+    @Test
+    void shouldServeTheTokenOwnersPortfolio() throws Exception {
+        when(portfolioService.getPortfolioByUserId(1L)).thenReturn(new PortfolioDTO());
+        String token = jwtUtil.generateToken(1L, "alice");
+
+        mockMvc.perform(get("/api/portfolio/user/1").header("Authorization", "Bearer " + token))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldForbidAnotherUsersPortfolio() throws Exception {
+        String token = jwtUtil.generateToken(1L, "alice");
+
+        mockMvc.perform(get("/api/portfolio/user/2").header("Authorization", "Bearer " + token))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/portfolio/buy").header("Authorization", "Bearer " + token)
+                .param("userId", "2").param("symbol", "AAPL").param("quantity", "1").param("buyPrice", "100"))
+            .andExpect(status().isForbidden());
+        verify(portfolioService, never()).getPortfolioByUserId(anyLong());
+    }
+
+    @Test
+    void shouldRequireATokenOnTheApi() throws Exception {
+        mockMvc.perform(get("/api/portfolio/user/1"))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void shouldRejectTheTokenOnceLoggedOut() throws Exception {
+        when(portfolioService.getPortfolioByUserId(3L)).thenReturn(new PortfolioDTO());
+        String token = jwtUtil.generateToken(3L, "carol");
+        mockMvc.perform(get("/api/portfolio/user/3").header("Authorization", "Bearer " + token))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/users/logout").header("Authorization", "Bearer " + token))
+            .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/portfolio/user/3").header("Authorization", "Bearer " + token))
+            .andExpect(status().isUnauthorized());
+    }
+}
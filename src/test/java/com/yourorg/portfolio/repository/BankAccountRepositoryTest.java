@@ -0,0 +1,135 @@
+package com.yourorg.portfolio.repository;
+
+import com.yourorg.portfolio.model.BankAccount;
+import com.yourorg.portfolio.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs outside the usual test transaction so every debit and credit commits on its own, as it
+ * would from concurrent requests.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("BankAccountRepository Concurrency Tests")
+class BankAccountRepositoryTest {
+
+    private static final int THREADS = 64;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        User user = userRepository.save(new User("johndoe", "john@example.com", "encoded", "John", "Doe"));
+        userId = user.getId();
+        bankAccountRepository.save(new BankAccount(user, "ACC123", "HSBC Bank", new BigDecimal("10000.00")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bankAccountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private BigDecimal balance() {
+        return bankAccountRepository.findByUserId(userId).orElseThrow().getCurrentBalance();
+    }
+
+    private int hammer(int perThread, IntSupplier operation) throws Exception {
+        AtomicInteger succeeded = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        succeeded.addAndGet(transaction.execute(status -> operation.getAsInt()));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return succeeded.get();
+    }
+
+    @Test
+    void shouldApplyEveryConcurrentDebitAndCredit() throws Exception {
+        int debits = hammer(20, () -> bankAccountRepository.debit(userId, new BigDecimal("3.00"), LocalDateTime.now()));
+        int credits = hammer(20, () -> bankAccountRepository.credit(userId, new BigDecimal("1.00"), LocalDateTime.now()));
+
+        assertThat(debits).isEqualTo(THREADS * 20);
+        assertThat(credits).isEqualTo(THREADS * 20);
+        // 10000 - 1280 * 3 + 1280 * 1
+        assertThat(balance()).isEqualByComparingTo("7440.00");
+    }
+
+    @Test
+    void shouldNeverOverdrawUnderContention() throws Exception {
+        int succeeded = hammer(10, () -> bankAccountRepository.debit(userId, new BigDecimal("25.00"), LocalDateTime.now()));
+
+        assertThat(succeeded).isEqualTo(400);
+        assertThat(balance()).isEqualByComparingTo("0.00");
+        Integer overdraft = transaction.execute(
+            status -> bankAccountRepository.debit(userId, new BigDecimal("0.01"), LocalDateTime.now()));
+        assertThat(overdraft).isZero();
+    }
+
+    @Test
+    void shouldRejectEntitySaveBasedOnStaleRead() {
+        BankAccount stale = bankAccountRepository.findByUserId(userId).orElseThrow();
+        transaction.execute(status -> bankAccountRepository.debit(userId, new BigDecimal("100.00"), LocalDateTime.now()));
+
+        stale.setBankName("Another Bank");
+
+        assertThatThrownBy(() -> bankAccountRepository.save(stale))
+            .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(balance()).isEqualByComparingTo("9900.00");
+    }
+}
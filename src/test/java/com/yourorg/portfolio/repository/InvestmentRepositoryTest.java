@@ -0,0 +1,95 @@
+package com.yourorg.portfolio.repository;
+
+import com.yourorg.portfolio.model.BankAccount;
+import com.yourorg.portfolio.model.Investment;
+import com.yourorg.portfolio.model.Portfolio;
+import com.yourorg.portfolio.model.Stock;
+import com.yourorg.portfolio.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DisplayName("InvestmentRepository Statement Count Tests")
+class InvestmentRepositoryTest {
+
+    private static final int HOLDINGS = 40;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private InvestmentRepository investmentRepository;
+
+    private Statistics statistics;
+    private Portfolio portfolio;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User("johndoe", "john@example.com", "encoded", "John", "Doe");
+        entityManager.persist(user);
+
+        BankAccount account = new BankAccount(user, "ACC123", "HSBC Bank", new BigDecimal("50000.00"));
+        entityManager.persist(account);
+
+        portfolio = new Portfolio(user, "John's Portfolio", null);
+        entityManager.persist(portfolio);
+
+        List<String> symbols = List.of("AAPL", "MSFT", "NVDA", "JPM", "JNJ");
+        for (int i = 0; i < HOLDINGS; i++) {
+            String symbol = symbols.get(i % symbols.size());
+            Stock stock = i < symbols.size() ? entityManager.persist(new Stock(symbol, symbol + " Inc."))
+                    : entityManager.getEntityManager()
+                        .createQuery("SELECT s FROM Stock s WHERE s.symbol = :symbol", Stock.class)
+                        .setParameter("symbol", symbol)
+                        .getSingleResult();
+            entityManager.persist(new Investment(portfolio, stock, i + 1, new BigDecimal("100.00"), LocalDate.now()));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void entityPathNeedsMoreStatementsThanProjection() {
+        List<Investment> investments = investmentRepository.findByPortfolioId(portfolio.getId());
+        investments.forEach(investment -> investment.getStock().getSymbol());
+
+        assertThat(investments).hasSize(HOLDINGS);
+        assertThat(statistics.getPrepareStatementCount()).isGreaterThan(1);
+    }
+
+    @Test
+    void shouldFetchStocksWithInvestmentsByUser() {
+        Long userId = portfolio.getUser().getId();
+        entityManager.clear();
+        statistics.clear();
+
+        List<Investment> investments = investmentRepository.findByUserId(userId);
+        long afterQuery = statistics.getPrepareStatementCount();
+        investments.forEach(investment -> investment.getStock().getSymbol());
+
+        assertThat(investments).hasSize(HOLDINGS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(afterQuery);
+    }
+}
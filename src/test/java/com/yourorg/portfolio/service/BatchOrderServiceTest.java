@@ -0,0 +1,255 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.BatchOrderRequestDTO.OrderLegDTO;
+import com.yourorg.portfolio.dto.BatchOrderResultDTO;
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import com.yourorg.portfolio.model.*;
+import com.yourorg.portfolio.model.RealizedGain.LotMethod;
+import com.yourorg.portfolio.repository.InvestmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BatchOrderService Unit Tests")
+class BatchOrderServiceTest {
+
+    @Mock
+    private InvestmentRepository investmentRepository;
+
+    @Mock
+    private PortfolioService portfolioService;
+
+    @Mock
+    private StockService stockService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private PositionService positionService;
+
+    @Mock
+    private SellOrderService sellOrderService;
+
+    @Captor
+    private ArgumentCaptor<Iterable<Investment>> investmentsCaptor;
+
+    private BatchOrderService batchOrderService;
+
+    private User user;
+    private Portfolio portfolio;
+    private Stock apple;
+    private Stock microsoft;
+    private Investment appleLot;
+
+    @BeforeEach
+    void setUp() {
+        batchOrderService = new BatchOrderService(investmentRepository, portfolioService,
+            stockService, userService, positionService, sellOrderService, 10, Clock.fixed(Instant.parse("2024-01-02T15:00:00Z"), ZoneOffset.UTC));
+
+        user = new User();
+        user.setId(1L);
+        user.setFirstName("John");
+
+        portfolio = new Portfolio();
+        portfolio.setId(1L);
+        portfolio.setUser(user);
+
+        apple = new Stock("AAPL", "Apple Inc.");
+        apple.setId(1L);
+        microsoft = new Stock("MSFT", "Microsoft Corporation");
+        microsoft.setId(2L);
+
+        appleLot = new Investment(portfolio, apple, 10, new BigDecimal("150.00"), LocalDate.of(2023, 6, 1));
+        appleLot.setId(7L);
+    }
+
+    private static StockPriceDTO quote(String symbol, String price) {
+        StockPriceDTO quote = new StockPriceDTO();
+        quote.setSymbol(symbol);
+        quote.setCurrentPrice(new BigDecimal(price));
+        return quote;
+    }
+
+    // The sell engine records one realized gain per lot touched
+    private void sellLotsAtQuote() {
+        when(sellOrderService.sellLots(any(), any(BigDecimal.class), eq(LotMethod.SPECIFIC))).thenAnswer(invocation -> {
+            Map<Investment, Integer> sold = invocation.getArgument(0);
+            BigDecimal price = invocation.getArgument(1);
+            List<RealizedGain> gains = new ArrayList<>();
+            sold.forEach((lot, quantity) ->
+                gains.add(new RealizedGain(lot, quantity, price, LotMethod.SPECIFIC, LocalDateTime.of(2024, 1, 2, 15, 0))));
+            return gains;
+        });
+    }
+
+    private void holdAppleLot() {
+        when(investmentRepository.findStocksOfLots(1L, Set.of(7L))).thenReturn(List.of(apple));
+        when(investmentRepository.findLotsForSale(1L, 1L)).thenReturn(List.of(appleLot));
+    }
+
+    private List<Investment> savedInvestments() {
+        verify(investmentRepository).saveAll(investmentsCaptor.capture());
+        List<Investment> saved = new ArrayList<>();
+        investmentsCaptor.getValue().forEach(saved::add);
+        return saved;
+    }
+
+    @Nested
+    @DisplayName("execute")
+    class ExecuteTests {
+        @Test
+        void shouldDebitNetCostOnceAndBatchInsertBuys() {
+            when(userService.getUserEntityById(1L)).thenReturn(user);
+            when(portfolioService.getOrCreatePortfolio(user)).thenReturn(portfolio);
+            when(stockService.getOrCreateStocks(Set.of("AAPL", "MSFT"))).thenReturn(Map.of("AAPL", apple, "MSFT", microsoft));
+            when(stockService.getCurrentPrices(Set.of("MSFT"))).thenReturn(Map.of("MSFT", quote("MSFT", "400.00")));
+            when(userService.tryDebit(eq(1L), any(BigDecimal.class), eq(BankTransaction.Type.BUY), anyString())).thenReturn(true);
+
+            BatchOrderResultDTO result = batchOrderService.execute(1L, List.of(
+                OrderLegDTO.buy("aapl", 10, new BigDecimal("150.00")),
+                OrderLegDTO.buy("MSFT", 2, null)));
+
+            assertThat(result.getBought()).isEqualTo(2);
+            assertThat(result.getTotalCost()).isEqualByComparingTo("2300.00");
+            assertThat(result.getNetCashChange()).isEqualByComparingTo("-2300.00");
+            verify(userService).tryDebit(1L, new BigDecimal("2300.00"), BankTransaction.Type.BUY, "Batch order: 2 buys, 0 sells");
+
+            List<Investment> inserted = savedInvestments();
+            assertThat(inserted).extracting(investment -> investment.getStock().getSymbol()).containsExactly("AAPL", "MSFT");
+            assertThat(inserted.get(1).getBuyPrice()).isEqualByComparingTo("400.00");
+            assertThat(inserted.get(1).getBuyDate()).isEqualTo(LocalDate.of(2024, 1, 2));
+            verify(positionService).recordBuys(inserted);
+        }
+
+        @Test
+        void shouldLetSellProceedsFundBuysAndCreditTheRemainder() {
+            when(userService.getUserEntityById(1L)).thenReturn(user);
+            when(portfolioService.getOrCreatePortfolio(user)).thenReturn(portfolio);
+            holdAppleLot();
+            when(stockService.getOrCreateStocks(Set.of("MSFT"))).thenReturn(Map.of("MSFT", microsoft));
+            when(stockService.getCurrentPrices(Set.of("AAPL"))).thenReturn(Map.of("AAPL", quote("AAPL", "200.00")));
+            sellLotsAtQuote();
+
+            BatchOrderResultDTO result = batchOrderService.execute(1L, List.of(
+                OrderLegDTO.sell(7L, 4),
+                OrderLegDTO.sell(7L, 6),
+                OrderLegDTO.buy("MSFT", 1, new BigDecimal("400.00"))));
+
+            assertThat(result.getSold()).isEqualTo(1);
+            assertThat(result.getTotalProceeds()).isEqualByComparingTo("2000.00");
+            verify(userService).credit(1L, new BigDecimal("1600.00"), BankTransaction.Type.SELL, "Batch order: 1 buys, 1 sells");
+            verify(userService, never()).tryDebit(any(), any(), any(), any());
+            verify(sellOrderService).sellLots(Map.of(appleLot, 10), new BigDecimal("200.00"), LotMethod.SPECIFIC);
+            assertThat(result.getRealizedGain()).isEqualByComparingTo("500.00");
+            assertThat(savedInvestments()).hasSize(1);
+        }
+
+        @Test
+        void shouldSellLockedLotsThroughTheSellEngine() {
+            when(userService.getUserEntityById(1L)).thenReturn(user);
+            when(portfolioService.getOrCreatePortfolio(user)).thenReturn(portfolio);
+            holdAppleLot();
+            when(stockService.getCurrentPrices(Set.of("AAPL"))).thenReturn(Map.of("AAPL", quote("AAPL", "200.00")));
+            sellLotsAtQuote();
+
+            BatchOrderResultDTO result = batchOrderService.execute(1L, List.of(OrderLegDTO.sell(7L, 3)));
+
+            verify(investmentRepository).findLotsForSale(1L, 1L);
+            verify(investmentRepository, never()).findAllById(any());
+            verify(sellOrderService).sellLots(Map.of(appleLot, 3), new BigDecimal("200.00"), LotMethod.SPECIFIC);
+            assertThat(result.getRealizedGain()).isEqualByComparingTo("150.00");
+            verify(userService).credit(1L, new BigDecimal("600.00"), BankTransaction.Type.SELL, "Batch order: 0 buys, 1 sells");
+            verify(investmentRepository, never()).saveAll(any());
+        }
+
+        @Test
+        void shouldReportEveryInvalidLegWithoutWriting() {
+            when(userService.getUserEntityById(1L)).thenReturn(user);
+            when(portfolioService.getOrCreatePortfolio(user)).thenReturn(portfolio);
+            when(investmentRepository.findStocksOfLots(1L, Set.of(7L, 8L))).thenReturn(List.of(apple));
+            when(investmentRepository.findLotsForSale(1L, 1L)).thenReturn(List.of(appleLot));
+
+            assertThatThrownBy(() -> batchOrderService.execute(1L, List.of(
+                OrderLegDTO.buy(" ", 1, null),
+                OrderLegDTO.sell(7L, 11),
+                OrderLegDTO.sell(8L, 1))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("legs[0]: symbol is required to buy")
+                .hasMessageContaining("Cannot sell 11 of investment 7, only 10 owned")
+                .hasMessageContaining("Investment 8 not found");
+
+            verifyNoInteractions(stockService, positionService, sellOrderService);
+            verify(investmentRepository, never()).saveAll(any());
+            verify(userService, never()).credit(any(), any(), any(), any());
+        }
+
+        @Test
+        void shouldRejectInvestmentOfAnotherUser() {
+            User other = new User();
+            other.setId(2L);
+            Portfolio otherPortfolio = new Portfolio();
+            otherPortfolio.setId(2L);
+            otherPortfolio.setUser(other);
+            when(userService.getUserEntityById(2L)).thenReturn(other);
+            when(portfolioService.getOrCreatePortfolio(other)).thenReturn(otherPortfolio);
+            when(investmentRepository.findStocksOfLots(2L, Set.of(7L))).thenReturn(List.of());
+
+            assertThatThrownBy(() -> batchOrderService.execute(2L, List.of(OrderLegDTO.sell(7L, 1))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("does not belong to user");
+            verify(investmentRepository, never()).findLotsForSale(any(), any());
+        }
+
+        @Test
+        void shouldWriteNothingWhenBalanceIsInsufficient() {
+            when(userService.getUserEntityById(1L)).thenReturn(user);
+            when(portfolioService.getOrCreatePortfolio(user)).thenReturn(portfolio);
+            when(stockService.getOrCreateStocks(Set.of("AAPL"))).thenReturn(Map.of("AAPL", apple));
+            when(userService.tryDebit(eq(1L), any(BigDecimal.class), eq(BankTransaction.Type.BUY), anyString())).thenReturn(false);
+
+            assertThatThrownBy(() -> batchOrderService.execute(1L, List.of(OrderLegDTO.buy("AAPL", 100, new BigDecimal("150.00")))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Insufficient bank balance");
+
+            verify(investmentRepository, never()).saveAll(any());
+        }
+
+        @Test
+        void shouldRejectTooManyLegs() {
+            List<OrderLegDTO> legs = new ArrayList<>();
+            for (int i = 0; i < 11; i++) {
+                legs.add(OrderLegDTO.buy("AAPL", 1, BigDecimal.ONE));
+            }
+
+            assertThatThrownBy(() -> batchOrderService.execute(1L, legs))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("At most 10 legs are allowed per order");
+            verifyNoInteractions(userService);
+        }
+    }
+}
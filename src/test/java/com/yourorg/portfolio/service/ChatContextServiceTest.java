@@ -0,0 +1,223 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.event.PositionsChangedEvent;
+import com.yourorg.portfolio.event.RiskProfileChangedEvent;
+import com.yourorg.portfolio.exception.ResourceNotFoundException;
+import com.yourorg.portfolio.model.Portfolio;
+import com.yourorg.portfolio.model.RiskProfile;
+import com.yourorg.portfolio.model.Stock;
+import com.yourorg.portfolio.repository.PortfolioRepository;
+import com.yourorg.portfolio.repository.RiskProfileRepository;
+import com.yourorg.portfolio.repository.StockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ChatContextService Unit Tests")
+class ChatContextServiceTest {
+
+    @Mock
+    private PortfolioRepository portfolioRepository;
+
+    @Mock
+    private PortfolioValuationService valuationService;
+
+    @Mock
+    private StockRepository stockRepository;
+
+    @Mock
+    private RiskProfileRepository riskProfileRepository;
+
+    private MutableClock clock;
+    private ChatContextService contextService;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        contextService = new ChatContextService(portfolioRepository, valuationService, stockRepository,
+            riskProfileRepository, Duration.ofMinutes(15), 100, clock);
+    }
+
+    /**
+     * AAPL 15 @ 175 and MSFT 2 @ 410 (Technology), XOM 10 @ 100 (Energy); cost 4000
+     */
+    private void givenPortfolio() {
+        Portfolio portfolio = new Portfolio();
+        portfolio.setId(10L);
+        when(portfolioRepository.findByUserId(1L)).thenReturn(Optional.of(portfolio));
+        when(valuationService.getValuation(10L)).thenReturn(new PortfolioValuation.Snapshot(10L, List.of(
+                line("AAPL", 15, "2300.00", "175.00"),
+                line("MSFT", 2, "800.00", "410.00"),
+                line("XOM", 10, "900.00", "100.00")),
+            new BigDecimal("4445.00"), new BigDecimal("4000.00")));
+        when(stockRepository.findBySymbolIn(anyCollection())).thenReturn(List.of(
+            stock("AAPL", "Technology"), stock("MSFT", "Technology"), stock("XOM", "Energy")));
+    }
+
+    private static PortfolioValuation.Line line(String symbol, int quantity, String cost, String price) {
+        return new PortfolioValuation.Line(null, symbol, symbol, quantity, new BigDecimal(cost), 1, new BigDecimal(price));
+    }
+
+    private static Stock stock(String symbol, String sector) {
+        Stock stock = new Stock(symbol, symbol);
+        stock.setSector(sector);
+        return stock;
+    }
+
+    private static RiskProfile riskProfile(RiskProfile.RiskCategory category) {
+        RiskProfile profile = new RiskProfile();
+        profile.setRiskCategory(category);
+        profile.setVolatilityScore(new BigDecimal("4.50"));
+        profile.setDiversificationScore(new BigDecimal("6.00"));
+        return profile;
+    }
+
+    @Nested
+    @DisplayName("getContext")
+    class GetContextTests {
+        @Test
+        void shouldSummarizeTotalsTopHoldingsSectorsAndRisk() {
+            givenPortfolio();
+            when(riskProfileRepository.findByUserId(1L)).thenReturn(Optional.of(riskProfile(RiskProfile.RiskCategory.MODERATE)));
+
+            ChatContextService.ChatContext context = contextService.getContext(1L);
+
+            assertThat(context.portfolioId()).isEqualTo(10L);
+            assertThat(context.summary()).isEqualTo(
+                "Portfolio Value: $4445.00, Cost: $4000.00, Profit/Loss: 11.13%, Holdings: 3\n"
+                    + "Top holdings: AAPL 59.1%, XOM 22.5%, MSFT 18.4%\n"
+                    + "Sector weights: Technology 77.5%, Energy 22.5%\n"
+                    + "Risk Category: MODERATE (volatility 4.50/10, diversification 6.00/10)");
+        }
+
+        @Test
+        void shouldSayWhenRiskWasNotAssessed() {
+            givenPortfolio();
+
+            assertThat(contextService.getContext(1L).summary()).endsWith("Risk Category: not assessed yet");
+        }
+
+        @Test
+        void shouldBuildOnceAndReuseAcrossMessages() {
+            givenPortfolio();
+
+            ChatContextService.ChatContext first = contextService.getContext(1L);
+            ChatContextService.ChatContext second = contextService.getContext(1L);
+
+            assertThat(second).isSameAs(first);
+            verify(valuationService, times(1)).getValuation(10L);
+            verify(riskProfileRepository, times(1)).findByUserId(1L);
+        }
+
+        @Test
+        void shouldRebuildOnceTheTtlHasPassed() {
+            givenPortfolio();
+            contextService.getContext(1L);
+
+            clock.advance(Duration.ofMinutes(16));
+            contextService.getContext(1L);
+
+            verify(valuationService, times(2)).getValuation(10L);
+        }
+
+        @Test
+        void shouldThrowWhenTheUserHasNoPortfolio() {
+            when(portfolioRepository.findByUserId(2L)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> contextService.getContext(2L)).isInstanceOf(ResourceNotFoundException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("invalidation")
+    class InvalidationTests {
+        @Test
+        void shouldRebuildAfterATradeInThePortfolio() {
+            givenPortfolio();
+            contextService.getContext(1L);
+
+            contextService.onPositionsChanged(new PositionsChangedEvent(10L, Set.of("AAPL")));
+            contextService.getContext(1L);
+
+            verify(valuationService, times(2)).getValuation(10L);
+        }
+
+        @Test
+        void shouldKeepTheContextOnATradeInAnotherPortfolio() {
+            givenPortfolio();
+            contextService.getContext(1L);
+
+            contextService.onPositionsChanged(new PositionsChangedEvent(11L, Set.of("AAPL")));
+            contextService.getContext(1L);
+
+            verify(valuationService, times(1)).getValuation(10L);
+        }
+
+        @Test
+        void shouldRebuildAfterTheRiskProfileChanged() {
+            givenPortfolio();
+            contextService.getContext(1L);
+            when(riskProfileRepository.findByUserId(1L)).thenReturn(Optional.of(riskProfile(RiskProfile.RiskCategory.AGGRESSIVE)));
+
+            contextService.onRiskProfileChanged(new RiskProfileChangedEvent(1L));
+
+            assertThat(contextService.getContext(1L).summary()).contains("Risk Category: AGGRESSIVE");
+        }
+
+        @Test
+        void shouldNotCacheABuildThatOverlappedATrade() {
+            givenPortfolio();
+            when(riskProfileRepository.findByUserId(1L)).thenAnswer(invocation -> {
+                contextService.onPositionsChanged(new PositionsChangedEvent(10L, Set.of("AAPL")));
+                return Optional.empty();
+            }).thenReturn(Optional.empty());
+
+            contextService.getContext(1L);
+            contextService.getContext(1L);
+
+            verify(valuationService, times(2)).getValuation(10L);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-02T15:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.yourorg.portfolio.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvFileSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ChatIntentRouter Tests")
+class ChatIntentRouterTest {
+
+    /**
+     * Labelled corpus: each message with the handler it should reach, MODEL for the model
+     */
+    @ParameterizedTest(name = "{0} -> {1}")
+    @CsvFileSource(resources = "/chatbot/intent-corpus.csv", delimiter = '|', numLinesToSkip = 1)
+    void shouldRouteTheLabelledCorpus(String message, String expected) {
+        ChatIntentRouter.Intent intent = ChatIntentRouter.route(message);
+
+        assertThat(intent == null ? "MODEL" : intent.name()).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldNotMatchKeywordsInsideOtherWords() {
+        assertThat(ChatIntentRouter.route("Is this a bestseller?")).isNull();
+        assertThat(ChatIntentRouter.route("Is this a bestseller? Should I sell?"))
+            .isEqualTo(ChatIntentRouter.Intent.RECOMMEND_SELL);
+    }
+
+    @Test
+    void shouldLetTheHigherPriorityIntentWin() {
+        assertThat(ChatIntentRouter.route("suggest stocks to sell")).isEqualTo(ChatIntentRouter.Intent.RECOMMEND_SELL);
+        assertThat(ChatIntentRouter.route("how risky are my holdings")).isEqualTo(ChatIntentRouter.Intent.RISK_ANALYSIS);
+    }
+
+    @Test
+    void shouldOnlyNegateNearbyKeywordsInTheSameClause() {
+        assertThat(ChatIntentRouter.route("I don't want to sell")).isNull();
+        assertThat(ChatIntentRouter.route("I don't know, should I sell")).isEqualTo(ChatIntentRouter.Intent.RECOMMEND_SELL);
+        assertThat(ChatIntentRouter.route("no idea at all whether to sell")).isEqualTo(ChatIntentRouter.Intent.RECOMMEND_SELL);
+    }
+
+    @Test
+    void shouldLeaveConceptQuestionsToTheModelUnlessTheyAreAboutTheUser() {
+        assertThat(ChatIntentRouter.route("What is volatility?")).isNull();
+        assertThat(ChatIntentRouter.route("What is my volatility?")).isEqualTo(ChatIntentRouter.Intent.RISK_ANALYSIS);
+    }
+
+    @Test
+    void shouldSendEmptyMessagesToTheModel() {
+        assertThat(ChatIntentRouter.route(null)).isNull();
+        assertThat(ChatIntentRouter.route("   ")).isNull();
+    }
+}
@@ -0,0 +1,128 @@
+package com.yourorg.portfolio.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ChatResponseCache Tests")
+class ChatResponseCacheTest {
+
+    private static final String CONTEXT = "Portfolio Value: $10000.00, Holdings: 3, Risk Category: MODERATE";
+
+    private MutableClock clock;
+    private ChatResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        cache = new ChatResponseCache(Duration.ofMinutes(10), 2, 0.85, clock);
+    }
+
+    @Test
+    void shouldHitOnTheSameQuestionWrittenDifferently() {
+        cache.put("What is diversification?", CONTEXT, "Spreading risk.");
+
+        assertThat(cache.get("  what is DIVERSIFICATION ", CONTEXT)).isEqualTo("Spreading risk.");
+        assertThat(cache.getStats().getHits()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldHitOnANearDuplicateQuestion() {
+        cache.put("What is diversification in investing?", CONTEXT, "Spreading risk.");
+
+        assertThat(cache.get("what is diversification in investing exactly", CONTEXT)).isNull();
+        assertThat(cache.get("What is diversifcation in investing?", CONTEXT)).isEqualTo("Spreading risk.");
+        assertThat(cache.getStats().getSimilarHits()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldMissForAnotherPortfolioContext() {
+        cache.put("What is diversification?", CONTEXT, "Spreading risk.");
+
+        assertThat(cache.get("What is diversification?", CONTEXT.replace("3", "4"))).isNull();
+    }
+
+    @Test
+    void shouldMissWhenTheNumbersDiffer() {
+        cache.put("Should I buy 10 shares of AAPL?", CONTEXT, "Maybe.");
+
+        assertThat(cache.get("Should I buy 100 shares of AAPL?", CONTEXT)).isNull();
+    }
+
+    @Test
+    void shouldMissWhenTheActionIsReversed() {
+        cache.put("Given my current portfolio, should I buy more Microsoft shares this month?", CONTEXT, "Buy.");
+
+        assertThat(cache.get("Given my current portfolio, should I sell more Microsoft shares this month?", CONTEXT)).isNull();
+    }
+
+    @Test
+    void shouldMissWhenTheJudgementIsReversed() {
+        cache.put("Is it a good idea to add more technology stocks to my portfolio right now?", CONTEXT, "Yes.");
+
+        assertThat(cache.get("Is it a bad idea to add more technology stocks to my portfolio right now?", CONTEXT)).isNull();
+        assertThat(cache.get("Isn't it a good idea to add more technology stocks to my portfolio right now?", CONTEXT)).isNull();
+    }
+
+    @Test
+    void shouldMissForAnotherTicker() {
+        cache.put("Given my current portfolio, should I buy more AAPL shares this month?", CONTEXT, "Buy.");
+
+        assertThat(cache.get("Given my current portfolio, should I buy more MSFT shares this month?", CONTEXT)).isNull();
+    }
+
+    @Test
+    void shouldExpireAfterTheTtl() {
+        cache.put("What is diversification in investing?", CONTEXT, "Spreading risk.");
+        cache.put("What is a dividend?", CONTEXT, "A payout.");
+        clock.advance(Duration.ofMinutes(11));
+
+        assertThat(cache.get("What is diversifcation in investing?", CONTEXT)).isNull();
+        assertThat(cache.get("What is a dividend?", CONTEXT)).isNull();
+        assertThat(cache.getStats().getExpirations()).isEqualTo(2);
+        assertThat(cache.getStats().getSize()).isZero();
+    }
+
+    @Test
+    void shouldEvictTheLeastRecentlyUsedAnswer() {
+        cache.put("What is diversification?", CONTEXT, "Spreading risk.");
+        cache.put("What is a dividend?", CONTEXT, "A payout.");
+        cache.get("What is diversification?", CONTEXT);
+        cache.put("What is an ETF?", CONTEXT, "A fund.");
+
+        assertThat(cache.get("What is a dividend?", CONTEXT)).isNull();
+        assertThat(cache.get("What is diversification?", CONTEXT)).isEqualTo("Spreading risk.");
+        assertThat(cache.getStats().getEvictions()).isEqualTo(1);
+        assertThat(cache.getStats().getHitRate()).isEqualTo(2.0 / 3);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-02T15:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
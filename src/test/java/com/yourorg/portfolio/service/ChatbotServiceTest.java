@@ -1,9 +1,11 @@
 package com.yourorg.portfolio.service;
 
+import com.yourorg.portfolio.dto.ChatbotChunkDTO;
 import com.yourorg.portfolio.dto.ChatbotRequestDTO;
 import com.yourorg.portfolio.dto.ChatbotResponseDTO;
 import com.yourorg.portfolio.dto.PortfolioDTO;
 import com.yourorg.portfolio.dto.RiskAnalysisDTO;
+import com.yourorg.portfolio.exception.TooManyRequestsException;
 import com.yourorg.portfolio.model.RiskProfile;
 import com.yourorg.portfolio.repository.InvestmentRepository;
 import com.yourorg.portfolio.repository.RiskProfileRepository;
@@ -13,18 +15,25 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.quality.Strictness;
 import org.mockito.junit.jupiter.MockitoSettings;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeoutException;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,10 +42,19 @@ import static org.mockito.Mockito.*;
 class ChatbotServiceTest {
 
     @Mock
-    private WebClient.Builder webClientBuilder;
+    private GeminiClient geminiClient;
+
+    @Spy
+    private ConsentStore consentStore = new InMemoryConsentStore();
+
+    @Spy
+    private ConversationStore conversationStore = new InMemoryConversationStore(6);
+
+    @Spy
+    private ChatResponseCache responseCache = new ChatResponseCache(Duration.ofMinutes(60), 100, 0.85, Clock.systemUTC());
 
     @Mock
-    private WebClient webClient;
+    private ChatContextService contextService;
 
     @Mock
     private PortfolioService portfolioService;
@@ -59,11 +77,6 @@ class ChatbotServiceTest {
     @InjectMocks
     private ChatbotService chatbotService;
 
-    @BeforeEach
-    void setUp() {
-        when(webClientBuilder.build()).thenReturn(webClient);
-    }
-
     @Nested
     @DisplayName("processMessage - consent")
     class ConsentTests {
@@ -200,6 +213,66 @@ class ChatbotServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("processMessage - routing")
+    class RoutingTests {
+        @BeforeEach
+        void giveConsent() {
+            chatbotService.processMessage(new ChatbotRequestDTO(1L, "consent", true));
+        }
+
+        private PortfolioDTO.HoldingDTO holding(String symbol, String profitLoss, String percentage) {
+            PortfolioDTO.HoldingDTO holding = new PortfolioDTO.HoldingDTO();
+            holding.setSymbol(symbol);
+            holding.setProfitLoss(new BigDecimal(profitLoss));
+            holding.setProfitLossPercentage(new BigDecimal(percentage));
+            return holding;
+        }
+
+        @Test
+        void shouldSendTheSellQuickActionToSellRecommendations() {
+            when(riskProfileRepository.findByUserId(1L)).thenReturn(Optional.empty());
+            when(investmentRepository.findByUserId(1L)).thenReturn(List.of());
+
+            ChatbotResponseDTO result = chatbotService.processMessage(new ChatbotRequestDTO(1L, "📉 Suggest Stocks to Sell", null));
+
+            assertThat(result.getResponse()).contains("Recommendations to Sell");
+            verifyNoInteractions(geminiClient);
+        }
+
+        @Test
+        void shouldListBestAndWorstPerformers() {
+            PortfolioDTO portfolio = new PortfolioDTO();
+            portfolio.setTotalProfitLoss(new BigDecimal("250"));
+            portfolio.setTotalProfitLossPercentage(new BigDecimal("2.50"));
+            portfolio.setHoldings(List.of(
+                holding("AAPL", "300", "15.00"),
+                holding("XOM", "-100", "-8.00"),
+                holding("MSFT", "50", "2.00")));
+            when(portfolioService.getPortfolioByUserId(1L)).thenReturn(portfolio);
+
+            ChatbotResponseDTO result = chatbotService.processMessage(new ChatbotRequestDTO(1L, "How is my portfolio performing?", null));
+
+            assertThat(result.getResponse())
+                .contains("Performance")
+                .contains("• AAPL: +15.00%")
+                .contains("• XOM: -8.00%");
+            assertThat(result.getResponse().indexOf("XOM")).isGreaterThan(result.getResponse().indexOf("Worst"));
+            verifyNoInteractions(geminiClient);
+        }
+
+        @Test
+        void shouldLeaveConceptQuestionsToTheModel() {
+            when(contextService.getContext(1L)).thenThrow(new RuntimeException("unavailable"));
+            when(geminiClient.streamGenerate(anyString())).thenReturn(Flux.just("A tax on profits."));
+
+            ChatbotResponseDTO result = chatbotService.processMessage(new ChatbotRequestDTO(1L, "What is a capital gains tax?", null));
+
+            assertThat(result.getResponse()).isEqualTo("A tax on profits.");
+            verifyNoInteractions(portfolioService);
+        }
+    }
+
     @Nested
     @DisplayName("clearConsent")
     class ClearConsentTests {
@@ -215,5 +288,150 @@ class ChatbotServiceTest {
             assertThat(result.isRequiresConsent()).isTrue();
             assertThat(result.getResponse()).isEqualTo(Constants.CHATBOT_CONSENT_MESSAGE);
         }
+
+        @Test
+        void shouldForgetTheConversationWithTheConsent() {
+            chatbotService.processMessage(new ChatbotRequestDTO(1L, "consent", true));
+            when(geminiClient.streamGenerate(anyString())).thenReturn(Flux.just("Hold."));
+            chatbotService.processMessage(new ChatbotRequestDTO(1L, "what next?", null));
+
+            chatbotService.clearConsent(1L);
+
+            assertThat(conversationStore.recent(1L, 10)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("streamMessage - natural language")
+    class StreamMessageTests {
+        @BeforeEach
+        void giveConsent() {
+            chatbotService.processMessage(new ChatbotRequestDTO(1L, "consent", true));
+            when(contextService.getContext(1L)).thenThrow(new RuntimeException("unavailable"));
+        }
+
+        @Test
+        void shouldStreamModelTextThenTheCompleteAnswer() {
+            when(geminiClient.streamGenerate(anyString())).thenReturn(Flux.just("Diversify ", "more."));
+
+            List<ChatbotChunkDTO> chunks = chatbotService
+                    .streamMessage(new ChatbotRequestDTO(1L, "what should I do next?", null))
+                    .collectList()
+                    .block();
+
+            assertThat(chunks).hasSize(3);
+            assertThat(chunks.get(0).getDelta()).isEqualTo("Diversify ");
+            assertThat(chunks.get(1).getDelta()).isEqualTo("more.");
+            assertThat(chunks.get(2).isDone()).isTrue();
+            assertThat(chunks.get(2).getResult().getResponse()).isEqualTo("Diversify more.");
+            assertThat(chunks.get(2).getResult().getQuickActions()).isNotEmpty();
+        }
+
+        @Test
+        void shouldAnswerRepeatedQuestionsFromTheCache() {
+            when(geminiClient.streamGenerate(anyString())).thenReturn(Flux.just("Spread risk ", "across assets."));
+
+            chatbotService.processMessage(new ChatbotRequestDTO(1L, "What is diversification?", null));
+            conversationStore.clear(1L);
+            ChatbotResponseDTO repeated = chatbotService.processMessage(new ChatbotRequestDTO(1L, "what is diversification", null));
+
+            assertThat(repeated.getResponse()).isEqualTo("Spread risk across assets.");
+            verify(geminiClient, times(1)).streamGenerate(anyString());
+            assertThat(chatbotService.getResponseCacheStats().getHits()).isEqualTo(1);
+        }
+
+        @Test
+        void shouldNotCacheOrServeCachedAnswersWithinAConversation() {
+            when(geminiClient.streamGenerate(anyString())).thenReturn(Flux.just("Spread risk ", "across assets."));
+            chatbotService.processMessage(new ChatbotRequestDTO(1L, "What is diversification?", null));
+
+            when(geminiClient.streamGenerate(anyString())).thenReturn(Flux.just("Because it lowers risk."));
+            chatbotService.processMessage(new ChatbotRequestDTO(1L, "why?", null));
+            ChatbotResponseDTO repeated = chatbotService.processMessage(new ChatbotRequestDTO(1L, "What is diversification?", null));
+            conversationStore.clear(1L);
+            chatbotService.processMessage(new ChatbotRequestDTO(1L, "why?", null));
+
+            assertThat(repeated.getResponse()).isEqualTo("Because it lowers risk.");
+            verify(geminiClient, times(4)).streamGenerate(anyString());
+            assertThat(chatbotService.getResponseCacheStats().getHits()).isZero();
+        }
+
+        @Test
+        void shouldIncludeTheLastTurnsInThePrompt() {
+            when(geminiClient.streamGenerate(anyString())).thenReturn(Flux.just("Spread risk ", "across assets."));
+            chatbotService.processMessage(new ChatbotRequestDTO(1L, "What is diversification?", null));
+
+            when(geminiClient.streamGenerate(anyString())).thenReturn(Flux.just("Add bonds."));
+            ChatbotResponseDTO followUp = chatbotService.processMessage(new ChatbotRequestDTO(1L, "How would I do that?", null));
+
+            ArgumentCaptor<String> prompts = ArgumentCaptor.forClass(String.class);
+            verify(geminiClient, times(2)).streamGenerate(prompts.capture());
+            assertThat(prompts.getAllValues().get(0)).doesNotContain("Conversation so far");
+            assertThat(prompts.getAllValues().get(1))
+                    .contains("User: What is diversification?\nAssistant: Spread risk across assets.")
+                    .contains("User question: How would I do that?");
+            assertThat(followUp.getResponse()).isEqualTo("Add bonds.");
+            assertThat(conversationStore.recent(1L, 10)).extracting(ConversationStore.Turn::content)
+                    .containsExactly("What is diversification?", "Spread risk across assets.",
+                            "How would I do that?", "Add bonds.");
+        }
+
+        @Test
+        void shouldStillAnswerWhenTheConversationCannotBeStored() {
+            doThrow(new RuntimeException("database down")).when(conversationStore).append(anyLong(), anyList());
+            when(geminiClient.streamGenerate(anyString())).thenReturn(Flux.just("Hold."));
+
+            ChatbotResponseDTO result = chatbotService.processMessage(new ChatbotRequestDTO(1L, "what next?", null));
+
+            assertThat(result.getResponse()).isEqualTo("Hold.");
+        }
+
+        @Test
+        void shouldNotCacheAnswersThatFailed() {
+            when(geminiClient.streamGenerate(anyString()))
+                    .thenReturn(Flux.concat(Flux.just("Diversify"), Flux.error(new TimeoutException())));
+
+            chatbotService.processMessage(new ChatbotRequestDTO(1L, "what next?", null));
+            chatbotService.processMessage(new ChatbotRequestDTO(1L, "what next?", null));
+
+            verify(geminiClient, times(2)).streamGenerate(anyString());
+        }
+
+        @Test
+        void shouldKeepThePartialAnswerWhenTheModelTimesOut() {
+            when(geminiClient.streamGenerate(anyString()))
+                    .thenReturn(Flux.concat(Flux.just("Diversify"), Flux.error(new TimeoutException())));
+
+            ChatbotResponseDTO result = chatbotService.processMessage(new ChatbotRequestDTO(1L, "what next?", null));
+
+            assertThat(result.getResponse()).startsWith("Diversify").contains("cut short");
+        }
+
+        @Test
+        void shouldFallBackWhenTheModelFailsBeforeAnyText() {
+            when(geminiClient.streamGenerate(anyString())).thenReturn(Flux.error(new RuntimeException("503")));
+
+            ChatbotResponseDTO result = chatbotService.processMessage(new ChatbotRequestDTO(1L, "what next?", null));
+
+            assertThat(result.getResponse()).contains("try asking about");
+        }
+
+        @Test
+        void shouldCapConcurrentModelAnswersPerUser() {
+            when(geminiClient.streamGenerate(anyString())).thenReturn(Flux.never());
+            ChatbotRequestDTO question = new ChatbotRequestDTO(1L, "what next?", null);
+
+            Disposable first = chatbotService.streamMessage(question).subscribe();
+            Disposable second = chatbotService.streamMessage(question).subscribe();
+
+            assertThatThrownBy(() -> chatbotService.streamMessage(question))
+                    .isInstanceOf(TooManyRequestsException.class);
+
+            // A cancelled stream gives its slot back
+            first.dispose();
+            Disposable third = chatbotService.streamMessage(question).subscribe();
+            second.dispose();
+            third.dispose();
+        }
     }
 }
@@ -0,0 +1,150 @@
+package com.yourorg.portfolio.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * GeminiClient against a local server that streams streamGenerateContent responses as
+ * chunked Server-Sent Events, pausing between chunks the way the model does.
+ */
+@DisplayName("GeminiClient Tests")
+class GeminiClientTest {
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private String baseUrl;
+
+    private final AtomicReference<String> query = new AtomicReference<>();
+    private final CountDownLatch firstChunkReceived = new CountDownLatch(1);
+    private final AtomicBoolean streamedBeforeFinishing = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+
+        // Holds the rest of the answer back until the client has seen the first chunk
+        server.createContext("/v1beta/models/gemini-test:streamGenerateContent", exchange -> {
+            query.set(exchange.getRequestURI().getQuery());
+            stream(exchange, out -> {
+                send(out, chunk("Hel"));
+                streamedBeforeFinishing.set(firstChunkReceived.await(2, TimeUnit.SECONDS));
+                send(out, chunk("lo "));
+                send(out, chunk("world"));
+                send(out, "{\"usageMetadata\":{\"totalTokenCount\":7}}");
+            });
+        });
+        server.createContext("/v1beta/models/gemini-stall:streamGenerateContent", exchange -> stream(exchange, out -> {
+            send(out, chunk("Hel"));
+            Thread.sleep(1500);
+            send(out, chunk("lo"));
+        }));
+        server.createContext("/v1beta/models/gemini-slow:streamGenerateContent", exchange -> stream(exchange, out -> {
+            for (int i = 0; i < 10; i++) {
+                send(out, chunk("word "));
+                Thread.sleep(150);
+            }
+        }));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/v1beta";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private interface Body {
+        void write(OutputStream out) throws Exception;
+    }
+
+    private static void stream(HttpExchange exchange, Body body) throws IOException {
+        try (exchange) {
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            // Length 0: chunked transfer encoding, each event flushed as it is written
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                body.write(out);
+            } catch (IOException e) {
+                // Client gave up on the stream
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    private static void send(OutputStream out, String json) throws IOException {
+        out.write(("data: " + json + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static String chunk(String text) {
+        return "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + text + "\"}],\"role\":\"model\"}}]}";
+    }
+
+    private GeminiClient client(String model, Duration responseTimeout, Duration idleTimeout) {
+        return new GeminiClient(WebClient.builder().build(), "test-key", baseUrl, model, responseTimeout, idleTimeout);
+    }
+
+    @Test
+    void shouldStreamTextChunksAsTheyArrive() {
+        List<String> chunks = client("gemini-test", Duration.ofSeconds(10), Duration.ofSeconds(5))
+            .streamGenerate("How is my portfolio doing?")
+            .doOnNext(text -> firstChunkReceived.countDown())
+            .collectList()
+            .block();
+
+        assertThat(chunks).containsExactly("Hel", "lo ", "world");
+        assertThat(streamedBeforeFinishing).isTrue();
+        assertThat(query.get()).contains("alt=sse").contains("key=test-key");
+    }
+
+    @Test
+    void shouldFailWhenTheStreamStalls() {
+        List<String> received = new CopyOnWriteArrayList<>();
+
+        assertThatThrownBy(() -> client("gemini-stall", Duration.ofSeconds(10), Duration.ofMillis(300))
+                .streamGenerate("hello")
+                .doOnNext(received::add)
+                .blockLast())
+            .hasCauseInstanceOf(TimeoutException.class);
+        assertThat(received).containsExactly("Hel");
+    }
+
+    @Test
+    void shouldFailWhenTheAnswerExceedsItsBudget() {
+        List<String> received = new CopyOnWriteArrayList<>();
+
+        assertThatThrownBy(() -> client("gemini-slow", Duration.ofMillis(500), Duration.ofSeconds(5))
+                .streamGenerate("hello")
+                .doOnNext(received::add)
+                .blockLast())
+            .hasCauseInstanceOf(TimeoutException.class);
+        assertThat(received).isNotEmpty().hasSizeLessThan(10);
+    }
+}
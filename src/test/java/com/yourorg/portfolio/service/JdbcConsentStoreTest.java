@@ -0,0 +1,111 @@
+package com.yourorg.portfolio.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Two stores over one database stand in for two application instances
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Sql("/chatbot/chatbot-tables.sql")
+@DisplayName("JdbcConsentStore Tests")
+class JdbcConsentStoreTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MutableClock clock;
+    private JdbcTemplate instrumented;
+    private JdbcConsentStore store;
+    private JdbcConsentStore otherInstance;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        instrumented = spy(jdbcTemplate);
+        store = new JdbcConsentStore(instrumented, Duration.ofSeconds(30), 100, clock);
+        otherInstance = new JdbcConsentStore(jdbcTemplate, Duration.ofSeconds(30), 100, clock);
+    }
+
+    @Test
+    void shouldKeepConsentAcrossInstances() {
+        assertThat(store.hasConsent(1L)).isFalse();
+
+        otherInstance.grant(1L);
+        otherInstance.grant(1L);
+
+        assertThat(store.hasConsent(1L)).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM chatbot_consent", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldAnswerRepeatedLookupsFromTheNearCache() {
+        store.grant(1L);
+        otherInstance.grant(2L);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(store.hasConsent(1L)).isTrue();
+            assertThat(store.hasConsent(2L)).isTrue();
+        }
+
+        verify(instrumented, times(0)).queryForObject(startsWith("SELECT COUNT"), eq(Integer.class), eq(1L));
+        verify(instrumented, times(1)).queryForObject(startsWith("SELECT COUNT"), eq(Integer.class), eq(2L));
+    }
+
+    @Test
+    void shouldApplyAWithdrawalAtOnceLocallyAndWithinTheTtlElsewhere() {
+        store.grant(1L);
+        assertThat(otherInstance.hasConsent(1L)).isTrue();
+
+        store.revoke(1L);
+
+        assertThat(store.hasConsent(1L)).isFalse();
+        assertThat(otherInstance.hasConsent(1L)).isTrue();
+        clock.advance(Duration.ofSeconds(31));
+        assertThat(otherInstance.hasConsent(1L)).isFalse();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-02T15:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.yourorg.portfolio.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Sql("/chatbot/chatbot-tables.sql")
+@DisplayName("JdbcConversationStore Tests")
+class JdbcConversationStoreTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-02T15:00:00Z");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcConversationStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new JdbcConversationStore(jdbcTemplate, Duration.ofDays(30), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static ConversationStore.Turn user(String content, Instant at) {
+        return new ConversationStore.Turn(ConversationStore.Role.USER, content, at);
+    }
+
+    private static ConversationStore.Turn assistant(String content, Instant at) {
+        return new ConversationStore.Turn(ConversationStore.Role.ASSISTANT, content, at);
+    }
+
+    @Test
+    void shouldReturnTheLastTurnsOldestFirst() {
+        store.append(1L, List.of(user("What is diversification?", NOW), assistant("Spreading risk.", NOW)));
+        store.append(1L, List.of(user("How do I do that?", NOW), assistant("Add bonds.", NOW)));
+        store.append(2L, List.of(user("Someone else", NOW)));
+
+        assertThat(store.recent(1L, 3)).containsExactly(
+            assistant("Spreading risk.", NOW), user("How do I do that?", NOW), assistant("Add bonds.", NOW));
+        assertThat(store.recent(1L, 0)).isEmpty();
+    }
+
+    @Test
+    void shouldClearOneUsersConversation() {
+        store.append(1L, List.of(user("Hello", NOW)));
+        store.append(2L, List.of(user("Hi", NOW)));
+
+        store.clear(1L);
+
+        assertThat(store.recent(1L, 10)).isEmpty();
+        assertThat(store.recent(2L, 10)).hasSize(1);
+    }
+
+    @Test
+    void shouldPurgeMessagesPastTheRetention() {
+        store.append(1L, List.of(user("Old", NOW.minus(Duration.ofDays(31))), user("Recent", NOW.minus(Duration.ofDays(1)))));
+
+        assertThat(store.purgeExpired()).isEqualTo(1);
+        assertThat(store.recent(1L, 10)).extracting(ConversationStore.Turn::content).containsExactly("Recent");
+    }
+}
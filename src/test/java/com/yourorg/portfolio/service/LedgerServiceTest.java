@@ -0,0 +1,162 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.BankTransactionDTO;
+import com.yourorg.portfolio.dto.BankTransactionPageDTO;
+import com.yourorg.portfolio.model.BankAccount;
+import com.yourorg.portfolio.model.BankTransaction;
+import com.yourorg.portfolio.model.User;
+import com.yourorg.portfolio.repository.BalanceSnapshotRepository;
+import com.yourorg.portfolio.repository.BankAccountRepository;
+import com.yourorg.portfolio.repository.BankTransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ledger writes and reads against H2. Balance changes go through BankAccountRepository exactly
+ * as UserService applies them, each followed by LedgerService.record.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DisplayName("LedgerService Tests")
+class LedgerServiceTest {
+
+    private static final int SNAPSHOT_INTERVAL = 3;
+    private static final LocalDateTime OPENED = LocalDateTime.parse("2024-01-02T10:00:00");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    private BankTransactionRepository bankTransactionRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    private MutableClock clock;
+    private LedgerService ledgerService;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(OPENED.toInstant(ZoneOffset.UTC));
+        ledgerService = new LedgerService(bankAccountRepository, bankTransactionRepository,
+            balanceSnapshotRepository, SNAPSHOT_INTERVAL, clock);
+
+        User user = entityManager.persist(new User("johndoe", "john@example.com", "encoded", "John", "Doe"));
+        userId = user.getId();
+        BankAccount account = bankAccountRepository.save(new BankAccount(user, "ACC123", "HSBC Bank", BigDecimal.ZERO));
+        ledgerService.recordOpening(account, BankTransaction.Type.DEPOSIT, null);
+
+        // Ten deposits of 10.00, one minute apart: +1m ... +10m
+        for (int i = 1; i <= 10; i++) {
+            clock.advance(Duration.ofMinutes(1));
+            bankAccountRepository.credit(userId, new BigDecimal("10.00"), LocalDateTime.now(clock));
+            ledgerService.record(userId, BankTransaction.Type.DEPOSIT, new BigDecimal("10.00"), "Deposit " + i);
+        }
+    }
+
+    @Test
+    void shouldNumberEntriesAndSnapshotEveryInterval() {
+        assertThat(bankTransactionRepository.findAll())
+            .extracting(BankTransaction::getSeq)
+            .containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+        assertThat(balanceSnapshotRepository.findAll())
+            .extracting(snapshot -> snapshot.getSeq() + "=" + snapshot.getBalance().stripTrailingZeros().toPlainString())
+            .containsExactlyInAnyOrder("0=0", "3=30", "6=60", "9=90");
+    }
+
+    @Nested
+    @DisplayName("getBalanceAt")
+    class BalanceAtTests {
+        @Test
+        void shouldCombineNearestSnapshotWithTail() {
+            assertThat(ledgerService.getBalanceAt(userId, OPENED.plusMinutes(4).plusSeconds(30)).getBalance())
+                .isEqualByComparingTo("40.00");
+            assertThat(ledgerService.getBalanceAt(userId, OPENED.plusMinutes(6)).getBalance())
+                .isEqualByComparingTo("60.00");
+            assertThat(ledgerService.getBalanceAt(userId, OPENED.plusDays(1)).getBalance())
+                .isEqualByComparingTo("100.00");
+        }
+
+        @Test
+        void shouldBeZeroBeforeAccountWasOpened() {
+            assertThat(ledgerService.getBalanceAt(userId, OPENED.minusMinutes(1)).getBalance())
+                .isEqualByComparingTo("0");
+        }
+
+        @Test
+        void shouldIncludeDebitsAsNegativeEntries() {
+            clock.advance(Duration.ofMinutes(1));
+            bankAccountRepository.debit(userId, new BigDecimal("25.00"), LocalDateTime.now(clock));
+            ledgerService.record(userId, BankTransaction.Type.WITHDRAWAL, new BigDecimal("-25.00"), "Withdrawal");
+
+            assertThat(ledgerService.getBalanceAt(userId, LocalDateTime.now(clock)).getBalance())
+                .isEqualByComparingTo("75.00");
+        }
+    }
+
+    @Nested
+    @DisplayName("getTransactions")
+    class TransactionsTests {
+        @Test
+        void shouldPageNewestFirstByKeyset() {
+            BankTransactionPageDTO first = ledgerService.getTransactions(userId, null, 4);
+            BankTransactionPageDTO second = ledgerService.getTransactions(userId, first.getNextCursor(), 4);
+            BankTransactionPageDTO last = ledgerService.getTransactions(userId, second.getNextCursor(), 4);
+
+            assertThat(first.getTransactions()).extracting(BankTransactionDTO::getSeq).containsExactly(10L, 9L, 8L, 7L);
+            assertThat(second.getTransactions()).extracting(BankTransactionDTO::getSeq).containsExactly(6L, 5L, 4L, 3L);
+            assertThat(last.getTransactions()).extracting(BankTransactionDTO::getSeq).containsExactly(2L, 1L);
+            assertThat(last.getNextCursor()).isNull();
+            assertThat(first.getTransactions().get(0).getDescription()).isEqualTo("Deposit 10");
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.yourorg.portfolio.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.DoubleBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MappedPriceHistoryStore Tests")
+class MappedPriceHistoryStoreTest {
+
+    private static final long DAY = 86_400_000L;
+
+    @TempDir
+    Path directory;
+
+    private MappedPriceHistoryStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new MappedPriceHistoryStore(directory);
+    }
+
+    @Nested
+    @DisplayName("append and read")
+    class AppendTests {
+        @Test
+        void shouldReadBackAppendedPointsInOrder() {
+            store.append("aapl", DAY, 100.0);
+            store.append("AAPL", 2 * DAY, 101.5);
+
+            PriceHistoryStore.Series series = store.read("AAPL");
+
+            assertThat(series.getSymbol()).isEqualTo("AAPL");
+            assertThat(series.size()).isEqualTo(2);
+            assertThat(series.timestampAt(1)).isEqualTo(2 * DAY);
+            assertThat(series.closeAt(1)).isEqualTo(101.5);
+        }
+
+        @Test
+        void shouldReplaceLastCloseForSameTimestampAndIgnoreOlderOnes() {
+            store.append("AAPL", 2 * DAY, 100.0);
+
+            assertThat(store.append("AAPL", 2 * DAY, 102.0)).isTrue();
+            assertThat(store.append("AAPL", DAY, 99.0)).isFalse();
+
+            PriceHistoryStore.Series series = store.read("AAPL");
+            assertThat(series.size()).isEqualTo(1);
+            assertThat(series.closeAt(0)).isEqualTo(102.0);
+        }
+
+        @Test
+        void shouldReturnEmptySeriesForUnknownSymbol() {
+            assertThat(store.read("NOPE").isEmpty()).isTrue();
+            assertThat(store.read("NOPE", 0, Long.MAX_VALUE).isEmpty()).isTrue();
+        }
+
+        @Test
+        void shouldSliceHalfOpenTimeRange() {
+            for (int i = 0; i < 10; i++) {
+                store.append("MSFT", i * DAY, 300.0 + i);
+            }
+
+            PriceHistoryStore.Series series = store.read("MSFT", 3 * DAY, 6 * DAY);
+
+            assertThat(series.size()).isEqualTo(3);
+            assertThat(series.closeAt(0)).isEqualTo(303.0);
+            DoubleBuffer closes = series.closes();
+            assertThat(closes.isReadOnly()).isTrue();
+            assertThat(closes.get(2)).isEqualTo(305.0);
+        }
+
+        @Test
+        void shouldRejectSymbolsThatAreNotSafeFileNames() {
+            assertThatThrownBy(() -> store.append("../etc", DAY, 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("files")
+    class FileTests {
+        @Test
+        void shouldGrowPastInitialCapacityWithoutInvalidatingEarlierViews() {
+            store.append("AAPL", 0, 1.0);
+            PriceHistoryStore.Series early = store.read("AAPL");
+
+            int points = MappedPriceHistoryStore.INITIAL_CAPACITY * 4 + 1;
+            for (int i = 1; i < points; i++) {
+                store.append("AAPL", i * DAY, 1.0 + i);
+            }
+
+            assertThat(early.size()).isEqualTo(1);
+            assertThat(early.closeAt(0)).isEqualTo(1.0);
+            PriceHistoryStore.Series all = store.read("AAPL");
+            assertThat(all.size()).isEqualTo(points);
+            assertThat(all.closeAt(points - 1)).isEqualTo((double) points);
+        }
+
+        @Test
+        void shouldSurviveRestart() {
+            for (int i = 0; i < 300; i++) {
+                store.append("AAPL", i * DAY, 100.0 + i);
+            }
+            store.close();
+
+            MappedPriceHistoryStore reopened = new MappedPriceHistoryStore(directory);
+
+            assertThat(reopened.getSymbols()).containsExactly("AAPL");
+            PriceHistoryStore.Series series = reopened.read("AAPL");
+            assertThat(series.size()).isEqualTo(300);
+            assertThat(series.closeAt(299)).isEqualTo(399.0);
+            assertThat(reopened.append("AAPL", 300 * DAY, 400.0)).isTrue();
+        }
+
+        @Test
+        void shouldReplaceWholeSeriesAndLeaveNoTemporaryFiles() throws Exception {
+            store.append("AAPL", 10 * DAY, 1.0);
+
+            store.replace("AAPL", new long[]{DAY, 2 * DAY, 3 * DAY}, new double[]{10.0, 11.0, 12.0});
+
+            PriceHistoryStore.Series series = store.read("AAPL");
+            assertThat(series.size()).isEqualTo(3);
+            assertThat(series.closeAt(0)).isEqualTo(10.0);
+            try (var files = Files.list(directory)) {
+                assertThat(files.map(path -> path.getFileName().toString())).containsExactly("AAPL.phs");
+            }
+        }
+
+        @Test
+        void shouldRejectUnorderedReplacement() {
+            assertThatThrownBy(() -> store.replace("AAPL", new long[]{2, 1}, new double[]{1.0, 2.0}))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("readers see a consistent prefix while a writer appends")
+    void shouldServeConcurrentReadersDuringAppends() throws Exception {
+        int points = 2_000;
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                readers.add(executor.submit(() -> {
+                    int reads = 0;
+                    while (writing.get() || reads == 0) {
+                        PriceHistoryStore.Series series = store.read("AAPL");
+                        // Close i is always i, so any torn or unpublished point shows up as a mismatch
+                        for (int i = 0; i < series.size(); i++) {
+                            if (series.closeAt(i) != i || series.timestampAt(i) != i * DAY) {
+                                throw new AssertionError("Inconsistent point " + i + " of " + series.size());
+                            }
+                        }
+                        reads++;
+                    }
+                    return reads;
+                }));
+            }
+            Future<?> writer = executor.submit(() -> {
+                for (int i = 0; i < points; i++) {
+                    store.append("AAPL", i * DAY, i);
+                }
+                writing.set(false);
+            });
+
+            writer.get(30, TimeUnit.SECONDS);
+            for (Future<Integer> reader : readers) {
+                assertThat(reader.get(30, TimeUnit.SECONDS)).isPositive();
+            }
+            assertThat(store.read("AAPL").size()).isEqualTo(points);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.PortfolioDTO;
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import com.yourorg.portfolio.model.BankAccount;
+import com.yourorg.portfolio.model.Investment;
+import com.yourorg.portfolio.model.Portfolio;
+import com.yourorg.portfolio.model.Stock;
+import com.yourorg.portfolio.model.User;
+import com.yourorg.portfolio.repository.InvestmentRepository;
+import com.yourorg.portfolio.repository.PortfolioRepository;
+import com.yourorg.portfolio.repository.PositionRepository;
+import com.yourorg.portfolio.repository.StockRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Statements behind the portfolio read endpoints against H2: a constant number however many lots
+ * and positions the portfolio holds.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DisplayName("PortfolioService Statement Count Tests")
+class PortfolioServiceStatementCountTest {
+
+    private static final int HOLDINGS = 40;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private InvestmentRepository investmentRepository;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private PositionRepository positionRepository;
+
+    private PortfolioService portfolioService;
+    private Statistics statistics;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = entityManager.persist(new User("johndoe", "john@example.com", "encoded", "John", "Doe"));
+        entityManager.persist(new BankAccount(user, "ACC123", "HSBC Bank", new BigDecimal("50000.00")));
+        Portfolio portfolio = entityManager.persist(new Portfolio(user, "John's Portfolio", null));
+        userId = user.getId();
+
+        List<String> symbols = List.of("AAPL", "MSFT", "NVDA", "JPM", "JNJ");
+        List<Stock> stocks = new ArrayList<>();
+        symbols.forEach(symbol -> stocks.add(entityManager.persist(new Stock(symbol, symbol + " Inc."))));
+        List<Investment> lots = new ArrayList<>();
+        for (int i = 0; i < HOLDINGS; i++) {
+            lots.add(entityManager.persist(new Investment(portfolio, stocks.get(i % stocks.size()), i + 1,
+                new BigDecimal("100.00"), LocalDate.now())));
+        }
+
+        PositionService positionService = new PositionService(positionRepository, event -> { });
+        positionService.recordBuys(lots);
+        entityManager.flush();
+        entityManager.clear();
+
+        StockService stockService = mock(StockService.class);
+        when(stockService.getCurrentPrices(any())).thenAnswer(invocation -> {
+            Map<String, StockPriceDTO> prices = new LinkedHashMap<>();
+            for (String symbol : invocation.<Collection<String>>getArgument(0)) {
+                prices.put(symbol, new StockPriceDTO(symbol, new BigDecimal("110.00")));
+            }
+            return prices;
+        });
+        PortfolioValuationService valuationService = new PortfolioValuationService(new PortfolioValuationCache(),
+            positionRepository, stockService, Duration.ofHours(1), Clock.systemUTC());
+        portfolioService = new PortfolioService(portfolioRepository, investmentRepository, stockRepository,
+            stockService, mock(UserService.class), positionService, mock(SellOrderService.class), valuationService);
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldReadPortfolioCashAndPositionsInTwoStatementsThenOneOnceCached() {
+        PortfolioDTO first = portfolioService.getPortfolioByUserId(userId);
+
+        assertThat(first.getHoldings()).hasSize(5);
+        assertThat(first.getHoldings()).allSatisfy(holding -> assertThat(holding.getCompanyName()).endsWith(" Inc."));
+        assertThat(first.getAssetAllocation().getCash()).isEqualByComparingTo("50000.00");
+        assertThat(first.getUserName()).isEqualTo("John Doe");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        entityManager.clear();
+        statistics.clear();
+        PortfolioDTO second = portfolioService.getPortfolioByUserId(userId);
+
+        assertThat(second.getTotalValue()).isEqualByComparingTo(first.getTotalValue());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReadEveryLotWithItsStockInTwoStatements() {
+        List<PortfolioDTO.HoldingDTO> lots = portfolioService.getLotsByUserId(userId);
+
+        assertThat(lots).hasSize(HOLDINGS);
+        assertThat(lots).allSatisfy(lot -> assertThat(lot.getCompanyName()).endsWith(" Inc."));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}
@@ -1,5 +1,6 @@
 package com.yourorg.portfolio.service;
 
+import com.yourorg.portfolio.dto.PortfolioDTO;
 import com.yourorg.portfolio.dto.StockPriceDTO;
 import com.yourorg.portfolio.exception.ResourceNotFoundException;
 import com.yourorg.portfolio.model.*;
@@ -18,11 +19,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -45,6 +48,15 @@ class PortfolioServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private PositionService positionService;
+
+    @Mock
+    private SellOrderService sellOrderService;
+
+    @Mock
+    private PortfolioValuationService valuationService;
+
     @InjectMocks
     private PortfolioService portfolioService;
 
@@ -52,7 +64,6 @@ class PortfolioServiceTest {
     private Portfolio portfolio;
     private Stock stock;
     private Investment investment;
-    private BankAccount bankAccount;
 
     @BeforeEach
     void setUp() {
@@ -77,10 +88,6 @@ class PortfolioServiceTest {
         investment.setQuantity(10);
         investment.setBuyPrice(new BigDecimal("150.00"));
         investment.setBuyDate(LocalDate.now());
-
-        bankAccount = new BankAccount();
-        bankAccount.setUser(user);
-        bankAccount.setCurrentBalance(new BigDecimal("50000"));
     }
 
     @Nested
@@ -88,7 +95,7 @@ class PortfolioServiceTest {
     class GetPortfolioByUserIdTests {
         @Test
         void shouldThrowWhenPortfolioNotFound() {
-            when(portfolioRepository.findByUserId(999L)).thenReturn(Optional.empty());
+            when(portfolioRepository.findPortfolioRowByUserId(999L)).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> portfolioService.getPortfolioByUserId(999L))
                     .isInstanceOf(ResourceNotFoundException.class);
@@ -96,14 +103,11 @@ class PortfolioServiceTest {
 
         @Test
         void shouldReturnPortfolioDTOWhenPortfolioExists() {
-            when(portfolioRepository.findByUserId(1L)).thenReturn(Optional.of(portfolio));
-            when(investmentRepository.findByPortfolioId(1L)).thenReturn(List.of(investment));
-            when(userService.getOrCreateBankAccount(1L)).thenReturn(bankAccount);
-
-            StockPriceDTO priceDTO = new StockPriceDTO();
-            priceDTO.setSymbol("AAPL");
-            priceDTO.setCurrentPrice(new BigDecimal("175.00"));
-            when(stockService.getCurrentPrice("AAPL")).thenReturn(priceDTO);
+            when(portfolioRepository.findPortfolioRowByUserId(1L)).thenReturn(Optional.of(portfolioRow(new BigDecimal("50000"))));
+            PortfolioValuation.Line line = new PortfolioValuation.Line(1L, "AAPL", "Apple Inc.", 15,
+                    new BigDecimal("2300.00"), 2, new BigDecimal("175.00"));
+            when(valuationService.getValuation(1L)).thenReturn(new PortfolioValuation.Snapshot(1L, List.of(line),
+                    new BigDecimal("2625.00"), new BigDecimal("2300.00")));
 
             var result = portfolioService.getPortfolioByUserId(1L);
 
@@ -112,11 +116,166 @@ class PortfolioServiceTest {
             assertThat(result.getUserId()).isEqualTo(1L);
             assertThat(result.getHoldings()).hasSize(1);
             assertThat(result.getHoldings().get(0).getSymbol()).isEqualTo("AAPL");
-            assertThat(result.getTotalValue()).isNotNull();
-            assertThat(result.getTotalCost()).isNotNull();
+            assertThat(result.getHoldings().get(0).getLotCount()).isEqualTo(2);
+            assertThat(result.getHoldings().get(0).getBuyPrice()).isEqualByComparingTo("153.3333");
+            assertThat(result.getHoldings().get(0).getCurrentValue()).isEqualByComparingTo("2625.00");
+            assertThat(result.getTotalValue()).isEqualByComparingTo("2625.00");
+            assertThat(result.getTotalCost()).isEqualByComparingTo("2300.00");
+            assertThat(result.getTotalProfitLoss()).isEqualByComparingTo("325.00");
+            assertThat(result.getAssetAllocation().getCash()).isEqualByComparingTo(new BigDecimal("50000"));
+            verifyNoInteractions(stockService, investmentRepository, userService);
+        }
+
+        @Test
+        void shouldValueEmptyPortfolioAtZero() {
+            when(portfolioRepository.findPortfolioRowByUserId(1L)).thenReturn(Optional.of(portfolioRow(new BigDecimal("50000"))));
+            when(valuationService.getValuation(1L)).thenReturn(
+                    new PortfolioValuation.Snapshot(1L, List.of(), BigDecimal.ZERO, BigDecimal.ZERO));
+
+            var result = portfolioService.getPortfolioByUserId(1L);
+
+            assertThat(result.getHoldings()).isEmpty();
+            assertThat(result.getTotalValue()).isEqualByComparingTo(BigDecimal.ZERO);
+            assertThat(result.getTotalProfitLossPercentage()).isEqualByComparingTo(BigDecimal.ZERO);
+            assertThat(result.getAssetAllocation().getCash()).isEqualByComparingTo(new BigDecimal("50000"));
+        }
+
+        @Test
+        void shouldShowNoCashWithoutABankAccount() {
+            when(portfolioRepository.findPortfolioRowByUserId(1L)).thenReturn(Optional.of(portfolioRow(null)));
+            when(valuationService.getValuation(1L)).thenReturn(
+                    new PortfolioValuation.Snapshot(1L, List.of(), BigDecimal.ZERO, BigDecimal.ZERO));
+
+            var result = portfolioService.getPortfolioByUserId(1L);
+
+            assertThat(result.getAssetAllocation().getCash()).isEqualByComparingTo(BigDecimal.ZERO);
         }
     }
 
+    @Nested
+    @DisplayName("getLotsByUserId")
+    class GetLotsByUserIdTests {
+        @Test
+        void shouldFetchQuotesOnceForRepeatedSymbols() {
+            Investment secondLot = new Investment();
+            secondLot.setId(2L);
+            secondLot.setPortfolio(portfolio);
+            secondLot.setStock(stock);
+            secondLot.setQuantity(5);
+            secondLot.setBuyPrice(new BigDecimal("160.00"));
+            secondLot.setBuyDate(LocalDate.now());
+
+            when(portfolioRepository.findIdByUserId(1L)).thenReturn(Optional.of(1L));
+            when(investmentRepository.findHoldingRowsByPortfolioId(1L)).thenReturn(List.of(
+                    holdingRow(investment, new BigDecimal("50000")),
+                    holdingRow(secondLot, new BigDecimal("50000"))));
+
+            StockPriceDTO priceDTO = new StockPriceDTO();
+            priceDTO.setSymbol("AAPL");
+            priceDTO.setCurrentPrice(new BigDecimal("175.00"));
+            when(stockService.getCurrentPrices(anyCollection())).thenReturn(Map.of("AAPL", priceDTO));
+
+            var result = portfolioService.getLotsByUserId(1L);
+
+            assertThat(result).extracting(PortfolioDTO.HoldingDTO::getInvestmentId).containsExactly(1L, 2L);
+            assertThat(result.get(1).getProfitLoss()).isEqualByComparingTo(new BigDecimal("75.00"));
+            verify(stockService, times(1)).getCurrentPrices(anyCollection());
+            verifyNoInteractions(valuationService);
+        }
+
+        @Test
+        void shouldValueLotsWithoutAQuoteAtTheirBuyPrice() {
+            when(portfolioRepository.findIdByUserId(1L)).thenReturn(Optional.of(1L));
+            when(investmentRepository.findHoldingRowsByPortfolioId(1L)).thenReturn(List.of(
+                    holdingRow(investment, new BigDecimal("50000"))));
+            when(stockService.getCurrentPrices(anyCollection())).thenReturn(Map.of());
+
+            var result = portfolioService.getLotsByUserId(1L);
+
+            assertThat(result).hasSize(1);
+            assertThat(result.get(0).getCurrentPrice()).isEqualByComparingTo(investment.getBuyPrice());
+            assertThat(result.get(0).getProfitLoss()).isEqualByComparingTo(BigDecimal.ZERO);
+        }
+    }
+
+    private static PortfolioRepository.PortfolioRow portfolioRow(BigDecimal cashBalance) {
+        return new PortfolioRepository.PortfolioRow() {
+            @Override
+            public Long getPortfolioId() {
+                return 1L;
+            }
+
+            @Override
+            public String getName() {
+                return "John's Portfolio";
+            }
+
+            @Override
+            public String getDescription() {
+                return null;
+            }
+
+            @Override
+            public Long getUserId() {
+                return 1L;
+            }
+
+            @Override
+            public String getFirstName() {
+                return "John";
+            }
+
+            @Override
+            public String getLastName() {
+                return "Doe";
+            }
+
+            @Override
+            public BigDecimal getCashBalance() {
+                return cashBalance;
+            }
+        };
+    }
+
+    private static InvestmentRepository.HoldingRow holdingRow(Investment investment, BigDecimal cashBalance) {
+        return new InvestmentRepository.HoldingRow() {
+            @Override
+            public Long getInvestmentId() {
+                return investment.getId();
+            }
+
+            @Override
+            public String getSymbol() {
+                return investment.getStock().getSymbol();
+            }
+
+            @Override
+            public String getCompanyName() {
+                return investment.getStock().getCompanyName();
+            }
+
+            @Override
+            public Integer getQuantity() {
+                return investment.getQuantity();
+            }
+
+            @Override
+            public BigDecimal getBuyPrice() {
+                return investment.getBuyPrice();
+            }
+
+            @Override
+            public LocalDate getBuyDate() {
+                return investment.getBuyDate();
+            }
+
+            @Override
+            public BigDecimal getCashBalance() {
+                return cashBalance;
+            }
+        };
+    }
+
     @Nested
     @DisplayName("getOrCreatePortfolio")
     class GetOrCreatePortfolioTests {
@@ -157,7 +316,8 @@ class PortfolioServiceTest {
             when(userService.getUserEntityById(1L)).thenReturn(user);
             when(portfolioRepository.findByUserId(1L)).thenReturn(Optional.of(portfolio));
             when(stockService.getOrCreateStock("AAPL")).thenReturn(stock);
-            when(userService.getOrCreateBankAccount(1L)).thenReturn(bankAccount);
+            when(userService.tryDebit(eq(1L), eq(new BigDecimal("1500.00")), eq(BankTransaction.Type.BUY), anyString()))
+                    .thenReturn(true);
             when(investmentRepository.save(any(Investment.class))).thenAnswer(inv -> {
                 Investment invArg = inv.getArgument(0);
                 invArg.setId(1L);
@@ -171,21 +331,23 @@ class PortfolioServiceTest {
             assertThat(result.getQuantity()).isEqualTo(10);
             assertThat(result.getBuyPrice()).isEqualByComparingTo(new BigDecimal("150.00"));
             verify(investmentRepository).save(any(Investment.class));
-            verify(userService).updateBankBalance(eq(1L), eq(new BigDecimal("-1500.00")));
+            verify(positionService).recordBuy(result);
+            verify(userService).tryDebit(1L, new BigDecimal("1500.00"), BankTransaction.Type.BUY, "Buy 10 AAPL @ 150.00");
         }
 
         @Test
         void shouldThrowWhenInsufficientBankBalance() {
-            bankAccount.setCurrentBalance(new BigDecimal("100"));
             when(userService.getUserEntityById(1L)).thenReturn(user);
             when(portfolioRepository.findByUserId(1L)).thenReturn(Optional.of(portfolio));
             when(stockService.getOrCreateStock("AAPL")).thenReturn(stock);
-            when(userService.getOrCreateBankAccount(1L)).thenReturn(bankAccount);
+            when(userService.tryDebit(eq(1L), eq(new BigDecimal("1500.00")), eq(BankTransaction.Type.BUY), anyString()))
+                    .thenReturn(false);
 
             assertThatThrownBy(() -> portfolioService.buyStock(1L, "AAPL", 10, new BigDecimal("150.00")))
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessage("Insufficient bank balance");
             verify(investmentRepository, never()).save(any());
+            verifyNoInteractions(positionService);
         }
     }
 
@@ -193,16 +355,13 @@ class PortfolioServiceTest {
     @DisplayName("sellStock")
     class SellStockTests {
         @Test
-        void shouldSellStockAndUpdateBankBalance() {
+        void shouldSellTheLotAsASpecificLotSale() {
             when(investmentRepository.findById(1L)).thenReturn(Optional.of(investment));
-            StockPriceDTO priceDTO = new StockPriceDTO();
-            priceDTO.setCurrentPrice(new BigDecimal("175.00"));
-            when(stockService.getCurrentPrice("AAPL")).thenReturn(priceDTO);
 
             portfolioService.sellStock(1L, 1L, 10);
 
-            verify(investmentRepository).delete(investment);
-            verify(userService).updateBankBalance(eq(1L), eq(new BigDecimal("1750.00")));
+            verify(sellOrderService).sell(1L, "AAPL", 10, RealizedGain.LotMethod.SPECIFIC, List.of(1L));
+            verifyNoInteractions(positionService);
         }
 
         @Test
@@ -229,6 +388,7 @@ class PortfolioServiceTest {
             assertThatThrownBy(() -> portfolioService.sellStock(1L, 1L, 20))
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessage("Cannot sell more than owned");
+            verifyNoInteractions(sellOrderService);
         }
     }
 }
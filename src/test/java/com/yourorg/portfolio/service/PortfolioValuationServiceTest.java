@@ -0,0 +1,229 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import com.yourorg.portfolio.event.PositionsChangedEvent;
+import com.yourorg.portfolio.repository.PositionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PortfolioValuationService Unit Tests")
+class PortfolioValuationServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-02T15:00:00Z");
+
+    @Mock
+    private PositionRepository positionRepository;
+
+    @Mock
+    private StockService stockService;
+
+    private PortfolioValuationCache cache;
+    private PortfolioValuationService valuationService;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PortfolioValuationCache();
+        valuationService = serviceAt(NOW);
+    }
+
+    private PortfolioValuationService serviceAt(Instant now) {
+        return new PortfolioValuationService(cache, positionRepository, stockService, Duration.ofMinutes(60),
+            Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    /**
+     * AAPL 15 @ 175 (cost 2300) and MSFT 2 @ 410 (cost 800)
+     */
+    private PortfolioValuation.Snapshot loadPortfolio() {
+        when(positionRepository.findPositionRowsByPortfolioId(1L)).thenReturn(List.of(
+            positionRow(1L, "AAPL", 15, "2300.00", 2),
+            positionRow(2L, "MSFT", 2, "800.00", 1)));
+        when(stockService.getCurrentPrices(Set.of("AAPL", "MSFT"))).thenReturn(Map.of(
+            "AAPL", new StockPriceDTO("AAPL", new BigDecimal("175.00")),
+            "MSFT", new StockPriceDTO("MSFT", new BigDecimal("410.00"))));
+        return valuationService.getValuation(1L);
+    }
+
+    @Nested
+    @DisplayName("getValuation")
+    class GetValuationTests {
+        @Test
+        void shouldComputeInFullOnceAndServeLaterReadsFromCache() {
+            PortfolioValuation.Snapshot first = loadPortfolio();
+            PortfolioValuation.Snapshot second = valuationService.getValuation(1L);
+
+            assertThat(first.lines()).extracting(PortfolioValuation.Line::symbol).containsExactly("AAPL", "MSFT");
+            assertThat(first.totalValue()).isEqualByComparingTo("3445.00");
+            assertThat(first.totalCost()).isEqualByComparingTo("3100.00");
+            assertThat(second).isEqualTo(first);
+            verify(positionRepository, times(1)).findPositionRowsByPortfolioId(1L);
+            verify(stockService, times(1)).getCurrentPrices(anyCollection());
+        }
+
+        @Test
+        void shouldRepriceOnlyTheTickedLine() {
+            loadPortfolio();
+
+            cache.onQuote(new StockPriceDTO("AAPL", new BigDecimal("180.00")));
+            cache.onQuote(new StockPriceDTO("NVDA", new BigDecimal("500.00")));
+
+            PortfolioValuation.Snapshot snapshot = valuationService.getValuation(1L);
+            assertThat(snapshot.lines().get(0).price()).isEqualByComparingTo("180.00");
+            assertThat(snapshot.lines().get(1).price()).isEqualByComparingTo("410.00");
+            assertThat(snapshot.totalValue()).isEqualByComparingTo("3520.00");
+            assertThat(snapshot.totalCost()).isEqualByComparingTo("3100.00");
+        }
+    }
+
+    @Nested
+    @DisplayName("onPositionsChanged")
+    class OnPositionsChangedTests {
+        @Test
+        void shouldReloadOnlyTheTradedSymbols() {
+            loadPortfolio();
+            cache.onQuote(new StockPriceDTO("AAPL", new BigDecimal("180.00")));
+
+            // Bought 5 more AAPL and a first NVDA lot, sold all MSFT
+            Set<String> traded = Set.of("AAPL", "MSFT", "NVDA");
+            when(positionRepository.findPositionRowsByPortfolioIdAndSymbols(1L, traded)).thenReturn(List.of(
+                positionRow(1L, "AAPL", 20, "3150.00", 3),
+                positionRow(3L, "NVDA", 1, "490.00", 1)));
+            when(stockService.getCurrentPrices(Set.of("NVDA")))
+                .thenReturn(Map.of("NVDA", new StockPriceDTO("NVDA", new BigDecimal("500.00"))));
+
+            valuationService.onPositionsChanged(new PositionsChangedEvent(1L, traded));
+
+            PortfolioValuation.Snapshot snapshot = valuationService.getValuation(1L);
+            assertThat(snapshot.lines()).extracting(PortfolioValuation.Line::symbol).containsExactly("AAPL", "NVDA");
+            assertThat(snapshot.lines().get(0).price()).isEqualByComparingTo("180.00");
+            assertThat(snapshot.totalValue()).isEqualByComparingTo("4100.00");
+            assertThat(snapshot.totalCost()).isEqualByComparingTo("3640.00");
+
+            // MSFT is no longer held, so its ticks no longer move the total
+            cache.onQuote(new StockPriceDTO("MSFT", new BigDecimal("420.00")));
+            assertThat(valuationService.getValuation(1L).totalValue()).isEqualByComparingTo("4100.00");
+            verify(positionRepository, times(1)).findPositionRowsByPortfolioId(1L);
+        }
+
+        @Test
+        void shouldNotCacheAFirstLoadThatATradeOverlapped() {
+            // The trade commits while the first read is loading the positions
+            when(positionRepository.findPositionRowsByPortfolioId(1L)).thenAnswer(invocation -> {
+                valuationService.onPositionsChanged(new PositionsChangedEvent(1L, Set.of("AAPL")));
+                return List.of(positionRow(1L, "AAPL", 15, "2300.00", 2));
+            });
+            when(stockService.getCurrentPrices(Set.of("AAPL")))
+                .thenReturn(Map.of("AAPL", new StockPriceDTO("AAPL", new BigDecimal("175.00"))));
+
+            valuationService.getValuation(1L);
+
+            assertThat(cache.get(1L)).isNull();
+            verify(positionRepository, never()).findPositionRowsByPortfolioIdAndSymbols(any(), anyCollection());
+        }
+
+        @Test
+        void shouldIgnoreTradesOfUncachedPortfolios() {
+            valuationService.onPositionsChanged(new PositionsChangedEvent(7L, Set.of("AAPL")));
+
+            verifyNoInteractions(positionRepository, stockService);
+        }
+    }
+
+    @Nested
+    @DisplayName("checkConsistency")
+    class CheckConsistencyTests {
+        @Test
+        void shouldKeepAValuationThatMatchesItsPositions() {
+            loadPortfolio();
+            PortfolioValuation cached = cache.get(1L);
+            cache.onQuote(new StockPriceDTO("AAPL", new BigDecimal("180.00")));
+
+            valuationService.checkConsistency();
+
+            assertThat(cache.get(1L)).isSameAs(cached);
+            assertThat(valuationService.getRepairs()).isZero();
+            // Verified at the cached prices, not re-quoted
+            verify(stockService, times(1)).getCurrentPrices(anyCollection());
+        }
+
+        @Test
+        void shouldReplaceAValuationThatDrifted() {
+            loadPortfolio();
+            // A trade on another instance: the positions moved but this cache never heard of it
+            cache.putLine(cache.get(1L), new PortfolioValuation.Line(2L, "MSFT", "Microsoft Corporation", 3,
+                new BigDecimal("1200.00"), 2, new BigDecimal("410.00")));
+
+            valuationService.checkConsistency();
+
+            PortfolioValuation.Snapshot repaired = valuationService.getValuation(1L);
+            assertThat(valuationService.getRepairs()).isEqualTo(1);
+            assertThat(repaired.lines().get(1).quantity()).isEqualTo(2);
+            assertThat(repaired.totalValue()).isEqualByComparingTo("3445.00");
+            assertThat(repaired.totalCost()).isEqualByComparingTo("3100.00");
+        }
+
+        @Test
+        void shouldEvictIdleValuations() {
+            loadPortfolio();
+
+            serviceAt(NOW.plus(Duration.ofMinutes(61))).checkConsistency();
+
+            assertThat(cache.size()).isZero();
+            verify(positionRepository, times(1)).findPositionRowsByPortfolioId(1L);
+        }
+    }
+
+    private static PositionRepository.PositionRow positionRow(Long positionId, String symbol, int quantity,
+                                                              String costBasis, int lotCount) {
+        return new PositionRepository.PositionRow() {
+            @Override
+            public Long getPositionId() {
+                return positionId;
+            }
+
+            @Override
+            public String getSymbol() {
+                return symbol;
+            }
+
+            @Override
+            public String getCompanyName() {
+                return symbol + " Inc.";
+            }
+
+            @Override
+            public Integer getQuantity() {
+                return quantity;
+            }
+
+            @Override
+            public BigDecimal getCostBasis() {
+                return new BigDecimal(costBasis);
+            }
+
+            @Override
+            public Integer getLotCount() {
+                return lotCount;
+            }
+        };
+    }
+}
@@ -0,0 +1,119 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.event.PositionsChangedEvent;
+import com.yourorg.portfolio.model.Investment;
+import com.yourorg.portfolio.model.Portfolio;
+import com.yourorg.portfolio.model.Stock;
+import com.yourorg.portfolio.model.User;
+import com.yourorg.portfolio.repository.PositionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Position upserts and decrements against H2, with lots changed exactly as PortfolioService and
+ * BatchOrderService change them: position first, then the lot.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DisplayName("PositionService Tests")
+class PositionServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PositionRepository positionRepository;
+
+    private final List<Object> events = new ArrayList<>();
+    private PositionService positionService;
+    private Portfolio portfolio;
+    private Investment appleFirst;
+    private Investment appleSecond;
+    private Investment microsoft;
+
+    @BeforeEach
+    void setUp() {
+        positionService = new PositionService(positionRepository, events::add,
+            Clock.fixed(Instant.parse("2024-01-02T15:00:00Z"), ZoneOffset.UTC));
+
+        User user = entityManager.persist(new User("johndoe", "john@example.com", "encoded", "John", "Doe"));
+        portfolio = entityManager.persist(new Portfolio(user, "John's Portfolio", null));
+        Stock apple = entityManager.persist(new Stock("AAPL", "Apple Inc."));
+        Stock msft = entityManager.persist(new Stock("MSFT", "Microsoft Corporation"));
+
+        appleFirst = entityManager.persist(new Investment(portfolio, apple, 10, new BigDecimal("150.00"), LocalDate.of(2024, 1, 2)));
+        appleSecond = entityManager.persist(new Investment(portfolio, apple, 5, new BigDecimal("160.00"), LocalDate.of(2024, 1, 3)));
+        microsoft = entityManager.persist(new Investment(portfolio, msft, 2, new BigDecimal("400.00"), LocalDate.of(2024, 1, 3)));
+        entityManager.flush();
+    }
+
+    private List<PositionRepository.PositionRow> positions() {
+        return positionRepository.findPositionRowsByPortfolioId(portfolio.getId());
+    }
+
+    @Test
+    void shouldRollLotsUpIntoOnePositionPerSymbol() {
+        positionService.recordBuys(List.of(appleFirst, microsoft));
+        positionService.recordBuy(appleSecond);
+
+        List<PositionRepository.PositionRow> rows = positions();
+        assertThat(rows).extracting(PositionRepository.PositionRow::getSymbol).containsExactly("AAPL", "MSFT");
+
+        PositionRepository.PositionRow aapl = rows.get(0);
+        assertThat(aapl.getQuantity()).isEqualTo(15);
+        assertThat(aapl.getCostBasis()).isEqualByComparingTo("2300.00");
+        assertThat(aapl.getLotCount()).isEqualTo(2);
+        assertThat(rows.get(1).getCostBasis()).isEqualByComparingTo("800.00");
+        assertThat(events).containsExactly(
+            new PositionsChangedEvent(portfolio.getId(), Set.of("AAPL", "MSFT")),
+            new PositionsChangedEvent(portfolio.getId(), Set.of("AAPL")));
+    }
+
+    @Test
+    void shouldRemoveSoldLotCostAndDeleteEmptyPosition() {
+        positionService.recordBuys(List.of(appleFirst, appleSecond));
+
+        positionService.recordSell(appleFirst, 4);
+        appleFirst.setQuantity(6);
+        assertThat(positions().get(0).getCostBasis()).isEqualByComparingTo("1700.00");
+        assertThat(positions().get(0).getLotCount()).isEqualTo(2);
+
+        positionService.recordSell(appleSecond, 5);
+        PositionRepository.PositionRow aapl = positions().get(0);
+        assertThat(aapl.getQuantity()).isEqualTo(6);
+        assertThat(aapl.getCostBasis()).isEqualByComparingTo("900.00");
+        assertThat(aapl.getLotCount()).isEqualTo(1);
+
+        positionService.recordSell(appleFirst, 6);
+        assertThat(positions()).isEmpty();
+    }
+
+    @Test
+    void shouldRefuseToSellMoreThanThePositionHolds() {
+        positionService.recordBuy(appleSecond);
+
+        assertThatThrownBy(() -> positionService.recordSell(appleFirst, 10))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("holds less than 10 shares");
+        assertThat(positions().get(0).getQuantity()).isEqualTo(5);
+    }
+}
@@ -0,0 +1,178 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import com.yourorg.portfolio.model.PriceBar;
+import com.yourorg.portfolio.repository.PriceBarRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceBarService Unit Tests")
+class PriceBarServiceTest {
+
+    // Tuesday 10:03 in New York
+    private static final Instant NOW = Instant.parse("2024-01-02T15:03:20Z");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PriceBarRepository priceBarRepository;
+
+    @Mock
+    private PriceHistoryStore priceHistoryStore;
+
+    @Captor
+    private ArgumentCaptor<Collection<PriceBar>> barsCaptor;
+
+    private PriceBarService priceBarService;
+
+    @BeforeEach
+    void setUp() {
+        priceBarService = new PriceBarService(jdbcTemplate, priceBarRepository, priceHistoryStore,
+            Clock.fixed(NOW, ZoneOffset.UTC), 500, 30);
+    }
+
+    private static BigDecimal price(String value) {
+        return new BigDecimal(value);
+    }
+
+    private List<PriceBar> capturedBars(String sql) {
+        verify(jdbcTemplate).batchUpdate(eq(sql), barsCaptor.capture(), eq(500),
+            ArgumentMatchers.<ParameterizedPreparedStatementSetter<PriceBar>>any());
+        return new ArrayList<>(barsCaptor.getValue());
+    }
+
+    @Nested
+    @DisplayName("minute aggregation")
+    class AggregationTests {
+        @Test
+        void shouldFoldTicksOfOneMinuteIntoOneBar() {
+            priceBarService.record("AAPL", price("190.00"), Instant.parse("2024-01-02T15:01:05Z"));
+            priceBarService.record("AAPL", price("192.50"), Instant.parse("2024-01-02T15:01:20Z"));
+            priceBarService.record("AAPL", price("189.00"), Instant.parse("2024-01-02T15:01:40Z"));
+            priceBarService.record("AAPL", price("191.00"), Instant.parse("2024-01-02T15:01:55Z"));
+
+            assertThat(priceBarService.flush()).isEqualTo(1);
+
+            PriceBar bar = capturedBars(PriceBarService.MERGE_MINUTE_SQL).get(0);
+            assertThat(bar.getTs()).isEqualTo(Instant.parse("2024-01-02T15:01:00Z"));
+            assertThat(bar.getBarInterval()).isEqualTo(PriceBar.BarInterval.MINUTE);
+            assertThat(bar.getOpenPrice()).isEqualByComparingTo("190.00");
+            assertThat(bar.getHighPrice()).isEqualByComparingTo("192.50");
+            assertThat(bar.getLowPrice()).isEqualByComparingTo("189.00");
+            assertThat(bar.getClosePrice()).isEqualByComparingTo("191.00");
+        }
+
+        @Test
+        void shouldKeepCurrentMinuteOpenUntilItEnds() {
+            priceBarService.record("AAPL", price("190.00"), Instant.parse("2024-01-02T15:02:10Z"));
+            priceBarService.record("AAPL", price("191.00"), Instant.parse("2024-01-02T15:03:05Z"));
+            priceBarService.record("MSFT", price("370.00"), Instant.parse("2024-01-02T15:03:10Z"));
+
+            assertThat(priceBarService.flush()).isEqualTo(1);
+
+            assertThat(capturedBars(PriceBarService.MERGE_MINUTE_SQL))
+                .extracting(PriceBar::getSymbol, PriceBar::getTs)
+                .containsExactly(tuple("AAPL", Instant.parse("2024-01-02T15:02:00Z")));
+        }
+
+        @Test
+        void shouldFlushOpenBarsOnShutdown() {
+            priceBarService.onQuote(new StockPriceDTO("AAPL", price("190.00")));
+
+            priceBarService.flushAll();
+
+            assertThat(capturedBars(PriceBarService.MERGE_MINUTE_SQL))
+                .singleElement()
+                .satisfies(bar -> assertThat(bar.getTs()).isEqualTo(Instant.parse("2024-01-02T15:03:00Z")));
+        }
+
+        @Test
+        void shouldNotWriteWhenNothingFinished() {
+            assertThat(priceBarService.flush()).isZero();
+
+            verifyNoInteractions(jdbcTemplate);
+        }
+    }
+
+    @Nested
+    @DisplayName("daily rollup")
+    class RollupTests {
+        private PriceBar minute(String symbol, String ts, String open, String high, String low, String close) {
+            return new PriceBar(symbol, PriceBar.BarInterval.MINUTE, Instant.parse(ts),
+                price(open), price(high), price(low), price(close), 0);
+        }
+
+        @Test
+        void shouldRollMinuteBarsOfTheSessionIntoOneDailyBarPerSymbol() {
+            Instant from = Instant.parse("2024-01-02T05:00:00Z");
+            Instant to = Instant.parse("2024-01-03T05:00:00Z");
+            when(priceBarRepository.findAllInRange(PriceBar.BarInterval.MINUTE, from, to)).thenReturn(List.of(
+                minute("AAPL", "2024-01-02T14:30:00Z", "185.00", "186.00", "184.00", "185.50"),
+                minute("AAPL", "2024-01-02T18:00:00Z", "185.50", "190.00", "185.00", "189.00"),
+                minute("AAPL", "2024-01-02T20:59:00Z", "189.00", "189.50", "183.00", "188.00"),
+                minute("MSFT", "2024-01-02T14:30:00Z", "370.00", "371.00", "369.00", "370.50")));
+            when(priceHistoryStore.append(anyString(), anyLong(), anyDouble())).thenReturn(true);
+
+            assertThat(priceBarService.rollupDaily(LocalDate.of(2024, 1, 2))).isEqualTo(2);
+
+            List<PriceBar> daily = capturedBars(PriceBarService.REPLACE_SQL);
+            assertThat(daily).extracting(PriceBar::getSymbol).containsExactly("AAPL", "MSFT");
+            PriceBar aapl = daily.get(0);
+            assertThat(aapl.getBarInterval()).isEqualTo(PriceBar.BarInterval.DAY);
+            assertThat(aapl.getTs()).isEqualTo(Instant.parse("2024-01-02T00:00:00Z"));
+            assertThat(aapl.getOpenPrice()).isEqualByComparingTo("185.00");
+            assertThat(aapl.getHighPrice()).isEqualByComparingTo("190.00");
+            assertThat(aapl.getLowPrice()).isEqualByComparingTo("183.00");
+            assertThat(aapl.getClosePrice()).isEqualByComparingTo("188.00");
+            long dayKey = Instant.parse("2024-01-02T00:00:00Z").toEpochMilli();
+            verify(priceHistoryStore).append("AAPL", dayKey, 188.00);
+            verify(priceHistoryStore).append("MSFT", dayKey, 370.50);
+        }
+
+        @Test
+        void shouldSkipWriteForSessionWithoutMinuteBars() {
+            when(priceBarRepository.findAllInRange(eq(PriceBar.BarInterval.MINUTE), any(), any())).thenReturn(List.of());
+
+            assertThat(priceBarService.rollupDaily(LocalDate.of(2024, 1, 1))).isZero();
+
+            verify(jdbcTemplate, never()).batchUpdate(anyString(), ArgumentMatchers.<PriceBar>anyCollection(), anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<PriceBar>>any());
+        }
+
+        @Test
+        void shouldPurgeMinuteBarsPastRetention() {
+            when(priceBarRepository.deleteOlderThan(PriceBar.BarInterval.MINUTE, Instant.parse("2023-12-03T15:03:20Z")))
+                .thenReturn(42);
+
+            assertThat(priceBarService.purgeMinuteBars()).isEqualTo(42);
+        }
+    }
+}
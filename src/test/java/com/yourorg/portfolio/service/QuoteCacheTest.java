@@ -0,0 +1,207 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.QuoteCacheStatsDTO;
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("QuoteCache Unit Tests")
+class QuoteCacheTest {
+
+    private MutableClock clock;
+    private QuoteCache quoteCache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        quoteCache = new QuoteCache(Duration.ofSeconds(30), 2, clock);
+    }
+
+    private static StockPriceDTO quote(String symbol, String price) {
+        return new StockPriceDTO(symbol, new BigDecimal(price));
+    }
+
+    @Nested
+    @DisplayName("get")
+    class GetTests {
+        @Test
+        void shouldServeFreshEntriesWithoutReloading() {
+            AtomicInteger loads = new AtomicInteger();
+
+            quoteCache.get("AAPL", s -> { loads.incrementAndGet(); return quote(s, "175.50"); });
+            StockPriceDTO result = quoteCache.get("AAPL", s -> { loads.incrementAndGet(); return quote(s, "999"); });
+
+            assertThat(result.getCurrentPrice()).isEqualByComparingTo("175.50");
+            assertThat(loads).hasValue(1);
+            assertThat(quoteCache.getStats().getHits()).isEqualTo(1);
+            assertThat(quoteCache.getStats().getMisses()).isEqualTo(1);
+        }
+
+        @Test
+        void shouldNotLetCallersChangeTheCachedQuote() {
+            StockPriceDTO loaded = quote("AAPL", "175.50");
+            quoteCache.get("AAPL", s -> loaded);
+            loaded.setCurrentPrice(new BigDecimal("1"));
+
+            StockPriceDTO first = quoteCache.get("AAPL", s -> quote(s, "999"));
+            first.setCurrentPrice(new BigDecimal("2"));
+
+            assertThat(quoteCache.get("AAPL", s -> quote(s, "999")).getCurrentPrice()).isEqualByComparingTo("175.50");
+        }
+
+        @Test
+        void shouldReloadAfterTtlExpires() {
+            quoteCache.get("AAPL", s -> quote(s, "175.50"));
+            clock.advance(Duration.ofSeconds(31));
+
+            StockPriceDTO result = quoteCache.get("AAPL", s -> quote(s, "180.00"));
+
+            assertThat(result.getCurrentPrice()).isEqualByComparingTo("180.00");
+            assertThat(quoteCache.getStats().getExpirations()).isEqualTo(1);
+        }
+
+        @Test
+        void shouldEvictLeastRecentlyUsedEntryWhenFull() {
+            quoteCache.put("AAPL", quote("AAPL", "1"));
+            quoteCache.put("MSFT", quote("MSFT", "2"));
+            quoteCache.get("AAPL", s -> quote(s, "never"));
+            quoteCache.put("NVDA", quote("NVDA", "3"));
+
+            AtomicInteger loads = new AtomicInteger();
+            quoteCache.get("AAPL", s -> { loads.incrementAndGet(); return quote(s, "never"); });
+            quoteCache.get("MSFT", s -> { loads.incrementAndGet(); return quote(s, "2"); });
+
+            QuoteCacheStatsDTO stats = quoteCache.getStats();
+            assertThat(loads).hasValue(1);
+            assertThat(stats.getEvictions()).isGreaterThanOrEqualTo(1);
+            assertThat(stats.getSize()).isEqualTo(2);
+        }
+
+        @Test
+        void shouldCoalesceConcurrentMissesIntoOneUpstreamCall() throws Exception {
+            int callers = 500;
+            AtomicInteger loads = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(64);
+            try {
+                List<Future<StockPriceDTO>> results = new ArrayList<>();
+                for (int i = 0; i < callers; i++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return quoteCache.get("AAPL", s -> {
+                            loads.incrementAndGet();
+                            sleep(50);
+                            return quote(s, "175.50");
+                        });
+                    }));
+                }
+                start.countDown();
+
+                for (Future<StockPriceDTO> result : results) {
+                    assertThat(result.get(5, TimeUnit.SECONDS).getCurrentPrice()).isEqualByComparingTo("175.50");
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertThat(loads).hasValue(1);
+            QuoteCacheStatsDTO stats = quoteCache.getStats();
+            assertThat(stats.getLoads()).isEqualTo(1);
+            assertThat(stats.getHits() + stats.getMisses()).isEqualTo(callers);
+        }
+    }
+
+    @Nested
+    @DisplayName("getAll")
+    class GetAllTests {
+        @Test
+        void shouldLoadOnlyMissesInOneBulkCallAndKeepRequestOrder() {
+            quoteCache.put("AAPL", quote("AAPL", "175.50"));
+            List<List<String>> bulkCalls = new ArrayList<>();
+
+            Map<String, StockPriceDTO> result = quoteCache.getAll(List.of("MSFT", "AAPL"), symbols -> {
+                bulkCalls.add(new ArrayList<>(symbols));
+                return Map.of("MSFT", quote("MSFT", "385.20"));
+            });
+
+            assertThat(result.keySet()).containsExactly("MSFT", "AAPL");
+            assertThat(bulkCalls).containsExactly(List.of("MSFT"));
+        }
+
+        @Test
+        void shouldSkipBulkLoaderWhenEverythingIsCached() {
+            quoteCache.put("AAPL", quote("AAPL", "175.50"));
+            AtomicInteger bulkCalls = new AtomicInteger();
+
+            Map<String, StockPriceDTO> result = quoteCache.getAll(List.of("AAPL"), symbols -> {
+                bulkCalls.incrementAndGet();
+                return Map.of();
+            });
+
+            assertThat(result).containsOnlyKeys("AAPL");
+            assertThat(bulkCalls).hasValue(0);
+        }
+
+        @Test
+        void shouldHandEachCallerItsOwnCopy() {
+            quoteCache.put("AAPL", quote("AAPL", "175.50"));
+
+            StockPriceDTO first = quoteCache.getAll(List.of("AAPL"), symbols -> Map.of()).get("AAPL");
+            first.setCurrentPrice(new BigDecimal("1"));
+            StockPriceDTO second = quoteCache.getAll(List.of("AAPL"), symbols -> Map.of()).get("AAPL");
+
+            assertThat(second).isNotSameAs(first);
+            assertThat(second.getCurrentPrice()).isEqualByComparingTo("175.50");
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-02T15:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import com.yourorg.portfolio.repository.InvestmentRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QuoteRefresher Unit Tests")
+class QuoteRefresherTest {
+
+    // Tuesday 10:00 in New York
+    private static final Instant SESSION = Instant.parse("2024-01-02T15:00:00Z");
+    // Saturday 10:00 in New York
+    private static final Instant WEEKEND = Instant.parse("2024-01-06T15:00:00Z");
+
+    @Mock
+    private StockApiClient stockApiClient;
+
+    @Mock
+    private InvestmentRepository investmentRepository;
+
+    @Mock
+    private QuoteStreamService quoteStreamService;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private QuoteCache quoteCache;
+
+    private QuoteRefresher refresherAt(Instant now) {
+        Clock clock = Clock.fixed(now, ZoneOffset.UTC);
+        quoteCache = new QuoteCache(Duration.ofSeconds(60), 100, clock);
+        // 6 requests per minute at a 30 second interval leaves 3 symbols per cycle
+        return new QuoteRefresher(stockApiClient, quoteCache, investmentRepository, quoteStreamService,
+            taskScheduler, clock, Duration.ofSeconds(30), Duration.ofMinutes(5), 6);
+    }
+
+    private static Map<String, StockPriceDTO> quotesFor(Collection<String> symbols) {
+        Map<String, StockPriceDTO> quotes = new LinkedHashMap<>();
+        symbols.forEach(symbol -> quotes.put(symbol, new StockPriceDTO(symbol, new BigDecimal("100.00"))));
+        return quotes;
+    }
+
+    @Nested
+    @DisplayName("refresh")
+    class RefreshTests {
+        @Test
+        void shouldRefreshStaleWatchedSymbolsWithinBudget() {
+            QuoteRefresher refresher = refresherAt(SESSION);
+            when(quoteStreamService.getWatchedSymbols()).thenReturn(Set.of("COIN"));
+            when(investmentRepository.findDistinctHeldSymbols()).thenReturn(List.of("IBM", "AAPL"));
+            when(stockApiClient.fetchStockPrices(anyCollection()))
+                .thenAnswer(invocation -> quotesFor(invocation.getArgument(0)));
+            quoteCache.put("IBM", new StockPriceDTO("IBM", new BigDecimal("150.00")));
+
+            Map<String, StockPriceDTO> refreshed = refresher.refresh();
+
+            assertThat(refreshed).containsOnlyKeys("COIN", "AAPL", "GOOGL");
+            verify(stockApiClient).fetchStockPrices(List.of("COIN", "AAPL", "GOOGL"));
+            verify(quoteStreamService).publish(argThat(quotes -> quotes.size() == 3));
+            assertThat(quoteCache.millisUntilExpiry("AAPL")).isEqualTo(60_000);
+        }
+
+        @Test
+        void shouldSkipUpstreamWhenEverythingIsFresh() {
+            QuoteRefresher refresher = refresherAt(SESSION);
+            when(quoteStreamService.getWatchedSymbols()).thenReturn(Set.of());
+            when(investmentRepository.findDistinctHeldSymbols()).thenReturn(List.of());
+            StockApiClient.TRENDING_SYMBOLS.forEach(symbol ->
+                quoteCache.put(symbol, new StockPriceDTO(symbol, new BigDecimal("100.00"))));
+
+            assertThat(refresher.refresh()).isEmpty();
+            verifyNoInteractions(stockApiClient);
+        }
+
+        @Test
+        void shouldReseedHeldSymbolsOnlyOncePerSeedInterval() {
+            QuoteRefresher refresher = refresherAt(SESSION);
+            when(quoteStreamService.getWatchedSymbols()).thenReturn(Set.of());
+            when(investmentRepository.findDistinctHeldSymbols()).thenReturn(List.of("IBM"));
+
+            refresher.getWatchSet();
+            Set<String> watchSet = refresher.getWatchSet();
+
+            assertThat(watchSet).contains("IBM").containsAll(StockApiClient.TRENDING_SYMBOLS);
+            verify(investmentRepository, times(1)).findDistinctHeldSymbols();
+        }
+    }
+
+    @Nested
+    @DisplayName("scheduling")
+    class SchedulingTests {
+        @Test
+        void shouldUseShortIntervalDuringTradingSession() {
+            assertThat(refresherAt(SESSION).nextDelay()).isEqualTo(Duration.ofSeconds(30));
+        }
+
+        @Test
+        void shouldSleepUntilNextOpenWhenMarketIsClosed() {
+            Duration delay = refresherAt(WEEKEND).nextDelay();
+
+            assertThat(WEEKEND.plus(delay)).isEqualTo(Instant.parse("2024-01-08T14:30:00Z"));
+        }
+
+        @Test
+        void shouldRescheduleEvenWhenCycleFails() {
+            QuoteRefresher refresher = refresherAt(SESSION);
+            when(quoteStreamService.getWatchedSymbols()).thenThrow(new RuntimeException("boom"));
+            when(investmentRepository.findDistinctHeldSymbols()).thenReturn(List.of());
+
+            refresher.runCycle();
+
+            verify(taskScheduler).schedule(any(Runnable.class), eq(SESSION.plusSeconds(30)));
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.PortfolioDTO;
+import com.yourorg.portfolio.dto.PortfolioDeltaDTO;
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import com.yourorg.portfolio.event.PositionsChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.Disposable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QuoteStreamService Unit Tests")
+class QuoteStreamServiceTest {
+
+    @Mock
+    private StockService stockService;
+
+    @Mock
+    private PortfolioService portfolioService;
+
+    private QuoteStreamService quoteStreamService;
+    private final List<Disposable> subscriptions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        quoteStreamService = new QuoteStreamService(stockService, portfolioService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriptions.forEach(Disposable::dispose);
+        quoteStreamService.shutdown();
+    }
+
+    private static StockPriceDTO quote(String symbol, String price) {
+        return new StockPriceDTO(symbol, new BigDecimal(price));
+    }
+
+    @Nested
+    @DisplayName("streamQuotes")
+    class StreamQuotesTests {
+        @Test
+        void shouldSendSnapshotThenOnlyChangedQuotes() {
+            when(stockService.getCurrentPrices(anyCollection())).thenReturn(Map.of("AAPL", quote("AAPL", "175.50")));
+            List<StockPriceDTO> received = new CopyOnWriteArrayList<>();
+            subscriptions.add(quoteStreamService.streamQuotes(List.of("aapl")).subscribe(received::add));
+            awaitSize(received, 1);
+
+            quoteStreamService.publish(List.of(quote("AAPL", "175.50")));
+            quoteStreamService.publish(List.of(quote("MSFT", "385.20")));
+            quoteStreamService.publish(List.of(quote("AAPL", "176.00")));
+            awaitSize(received, 2);
+
+            assertThat(received).extracting(StockPriceDTO::getCurrentPrice)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("175.50"), new BigDecimal("176.00"));
+        }
+
+        @Test
+        void shouldStopWatchingWhenLastSubscriberLeaves() {
+            lenient().when(stockService.getCurrentPrices(anyCollection())).thenReturn(Map.of("AAPL", quote("AAPL", "175.50")));
+            Disposable first = quoteStreamService.streamQuotes(List.of("AAPL")).subscribe();
+            Disposable second = quoteStreamService.streamQuotes(List.of("AAPL")).subscribe();
+
+            assertThat(quoteStreamService.getWatchedSymbols()).containsExactly("AAPL");
+            first.dispose();
+            assertThat(quoteStreamService.getWatchedSymbols()).containsExactly("AAPL");
+            second.dispose();
+            assertThat(quoteStreamService.getWatchedSymbols()).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("streamPortfolio")
+    class StreamPortfolioTests {
+        @Test
+        void shouldPushOnlyMovedHoldingsWithUpdatedTotals() {
+            when(portfolioService.getPortfolioByUserId(1L)).thenReturn(portfolio());
+            List<PortfolioDeltaDTO> received = new CopyOnWriteArrayList<>();
+            subscriptions.add(quoteStreamService.streamPortfolio(1L).subscribe(received::add));
+            awaitSize(received, 1);
+
+            quoteStreamService.publish(List.of(quote("AAPL", "160.00"), quote("MSFT", "300.00")));
+            awaitSize(received, 2);
+
+            PortfolioDeltaDTO delta = received.get(1);
+            assertThat(delta.getHoldings()).extracting(PortfolioDTO.HoldingDTO::getSymbol).containsExactly("AAPL");
+            assertThat(delta.getHoldings().get(0).getCurrentValue()).isEqualByComparingTo("1600.00");
+            assertThat(delta.getTotalValue()).isEqualByComparingTo("4600.00");
+            assertThat(delta.getTotalProfitLoss()).isEqualByComparingTo("600.00");
+            assertThat(delta.getTotalProfitLossPercentage()).isEqualByComparingTo("15.00");
+        }
+
+        @Test
+        void shouldPushChangedAndRemovedHoldingsAfterATradeOnThePortfolio() {
+            PortfolioDTO traded = portfolio();
+            traded.setHoldings(new ArrayList<>(List.of(
+                holding(1L, "AAPL", 20, "150.00", "155.00"),
+                holding(3L, "NVDA", 5, "400.00", "420.00"))));
+            when(portfolioService.getPortfolioByUserId(1L)).thenReturn(portfolio(), traded);
+            List<PortfolioDeltaDTO> received = new CopyOnWriteArrayList<>();
+            subscriptions.add(quoteStreamService.streamPortfolio(1L).subscribe(received::add));
+            awaitSize(received, 1);
+
+            quoteStreamService.onPositionsChanged(new PositionsChangedEvent(2L, Set.of("AAPL")));
+            quoteStreamService.onPositionsChanged(new PositionsChangedEvent(1L, Set.of("AAPL", "MSFT", "NVDA")));
+            awaitSize(received, 2);
+
+            PortfolioDeltaDTO delta = received.get(1);
+            assertThat(delta.getHoldings()).extracting(PortfolioDTO.HoldingDTO::getSymbol).containsExactly("AAPL", "NVDA");
+            assertThat(delta.getRemovedSymbols()).containsExactly("MSFT");
+            assertThat(quoteStreamService.getWatchedSymbols()).containsExactlyInAnyOrder("AAPL", "NVDA");
+            verify(portfolioService, times(2)).getPortfolioByUserId(1L);
+
+            quoteStreamService.publish(List.of(quote("NVDA", "430.00")));
+            awaitSize(received, 3);
+            assertThat(received.get(2).getHoldings()).extracting(PortfolioDTO.HoldingDTO::getSymbol).containsExactly("NVDA");
+        }
+
+        private PortfolioDTO portfolio() {
+            PortfolioDTO portfolio = new PortfolioDTO();
+            portfolio.setPortfolioId(1L);
+            portfolio.setHoldings(new ArrayList<>(List.of(
+                holding(1L, "AAPL", 10, "150.00", "155.00"),
+                holding(2L, "MSFT", 10, "250.00", "300.00"))));
+            portfolio.setTotalCost(new BigDecimal("4000.00"));
+            portfolio.setTotalValue(new BigDecimal("4550.00"));
+            portfolio.setTotalProfitLoss(new BigDecimal("550.00"));
+            portfolio.setTotalProfitLossPercentage(new BigDecimal("13.75"));
+            return portfolio;
+        }
+
+        private PortfolioDTO.HoldingDTO holding(Long id, String symbol, int quantity, String buyPrice, String currentPrice) {
+            PortfolioDTO.HoldingDTO holding = new PortfolioDTO.HoldingDTO();
+            holding.setInvestmentId(id);
+            holding.setSymbol(symbol);
+            holding.setQuantity(quantity);
+            holding.setBuyPrice(new BigDecimal(buyPrice));
+            PortfolioService.valueHolding(holding, new BigDecimal(currentPrice));
+            return holding;
+        }
+    }
+
+    private static void awaitSize(Collection<?> received, int size) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (received.size() < size && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        assertThat(received).hasSizeGreaterThanOrEqualTo(size);
+    }
+}
@@ -1,6 +1,8 @@
 package com.yourorg.portfolio.service;
 
 import com.yourorg.portfolio.dto.RiskAnalysisDTO;
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import com.yourorg.portfolio.event.RiskProfileChangedEvent;
 import com.yourorg.portfolio.exception.ResourceNotFoundException;
 import com.yourorg.portfolio.model.*;
 import com.yourorg.portfolio.repository.InvestmentRepository;
@@ -11,24 +13,39 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("RiskAnalysisService Unit Tests")
 class RiskAnalysisServiceTest {
 
+    private static final Instant NOW = Instant.parse("2024-06-03T00:00:00Z");
+
     @Mock
     private RiskProfileRepository riskProfileRepository;
 
@@ -38,7 +55,13 @@ class RiskAnalysisServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
+    @Mock
+    private StockService stockService;
+
+    @Mock
+    private PriceHistoryStore priceHistoryStore;
+
+    private final List<Object> events = new ArrayList<>();
     private RiskAnalysisService riskAnalysisService;
 
     private User user;
@@ -49,6 +72,10 @@ class RiskAnalysisServiceTest {
 
     @BeforeEach
     void setUp() {
+        riskAnalysisService = new RiskAnalysisService(riskProfileRepository, investmentRepository, userRepository,
+            stockService, priceHistoryStore, events::add, new RiskAnalysisService.Settings(Duration.ofDays(365), 0.95, "SPY", 20),
+            Clock.fixed(NOW, ZoneOffset.UTC));
+
         user = new User();
         user.setId(1L);
         user.setUsername("johndoe");
@@ -98,6 +125,7 @@ class RiskAnalysisServiceTest {
             when(investmentRepository.findByUserId(1L)).thenReturn(List.of(investment));
             when(riskProfileRepository.findByUserId(1L)).thenReturn(Optional.of(riskProfile));
             when(riskProfileRepository.save(any(RiskProfile.class))).thenReturn(riskProfile);
+            withoutHistory();
 
             RiskAnalysisDTO result = riskAnalysisService.analyzeRisk(1L);
 
@@ -121,6 +149,7 @@ class RiskAnalysisServiceTest {
             when(userRepository.findById(1L)).thenReturn(Optional.of(user));
             when(investmentRepository.findByUserId(1L)).thenReturn(List.of(investment));
             when(riskProfileRepository.findByUserId(1L)).thenReturn(Optional.empty());
+            withoutHistory();
             when(riskProfileRepository.save(any(RiskProfile.class))).thenAnswer(inv -> {
                 RiskProfile p = inv.getArgument(0);
                 p.setId(2L);
@@ -133,6 +162,22 @@ class RiskAnalysisServiceTest {
             assertThat(result.getUserId()).isEqualTo(1L);
             assertThat(result.getRiskCategory()).isNotNull();
             verify(riskProfileRepository, atLeastOnce()).save(any(RiskProfile.class));
+            assertThat(events).containsExactly(new RiskProfileChangedEvent(1L));
+        }
+
+        @Test
+        void shouldOnlyAnnounceProfilesThatChanged() {
+            when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+            when(investmentRepository.findByUserId(1L)).thenReturn(List.of(investment));
+            when(riskProfileRepository.findByUserId(1L)).thenReturn(Optional.of(riskProfile));
+            when(riskProfileRepository.save(any(RiskProfile.class))).thenAnswer(inv -> inv.getArgument(0));
+            withoutHistory();
+
+            riskAnalysisService.analyzeRisk(1L);
+            events.clear();
+            riskAnalysisService.analyzeRisk(1L);
+
+            assertThat(events).isEmpty();
         }
 
         @Test
@@ -150,4 +195,118 @@ class RiskAnalysisServiceTest {
             assertThat(result.getDiversificationScore()).isEqualByComparingTo(BigDecimal.ZERO);
         }
     }
+
+    private void withoutHistory() {
+        when(priceHistoryStore.read(anyString(), anyLong(), anyLong()))
+            .thenAnswer(inv -> PriceHistoryStore.Series.empty(inv.getArgument(0)));
+    }
+
+    /**
+     * Daily closes ending yesterday whose log returns alternate between +move and -move
+     */
+    private static PriceHistoryStore.Series alternating(String symbol, int days, double move) {
+        long[] timestamps = new long[days];
+        double[] closes = new double[days];
+        double close = 100.0;
+        for (int i = 0; i < days; i++) {
+            timestamps[i] = NOW.minus(days - i, ChronoUnit.DAYS).toEpochMilli();
+            closes[i] = close;
+            close *= Math.exp(i % 2 == 0 ? move : -move);
+        }
+        return new PriceHistoryStore.Series(symbol, LongBuffer.wrap(timestamps).asReadOnlyBuffer(),
+            DoubleBuffer.wrap(closes).asReadOnlyBuffer());
+    }
+
+    private Investment holding(long id, String symbol, String sector, int quantity, String buyPrice) {
+        Stock other = new Stock(symbol, symbol + " Corp");
+        other.setId(id);
+        other.setSector(sector);
+        other.setIndustry(sector + " Industry");
+        Investment inv = new Investment();
+        inv.setId(id);
+        inv.setPortfolio(portfolio);
+        inv.setStock(other);
+        inv.setQuantity(quantity);
+        inv.setBuyPrice(new BigDecimal(buyPrice));
+        inv.setBuyDate(LocalDate.now());
+        return inv;
+    }
+
+    @Nested
+    @DisplayName("measured risk")
+    class MeasuredRiskTests {
+        @BeforeEach
+        void setUpUser() {
+            when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+            when(riskProfileRepository.findByUserId(1L)).thenReturn(Optional.empty());
+            when(riskProfileRepository.save(any(RiskProfile.class))).thenAnswer(inv -> inv.getArgument(0));
+        }
+
+        @Test
+        void shouldMeasureVolatilityVaRAndBetaFromHistory() {
+            when(investmentRepository.findByUserId(1L)).thenReturn(List.of(investment));
+            when(stockService.getCurrentPrices(anyCollection()))
+                .thenReturn(Map.of("AAPL", new StockPriceDTO("AAPL", new BigDecimal("200.00"))));
+            when(priceHistoryStore.read(eq("AAPL"), anyLong(), anyLong())).thenReturn(alternating("AAPL", 61, 0.009));
+            when(priceHistoryStore.read(eq("SPY"), anyLong(), anyLong())).thenReturn(alternating("SPY", 61, 0.009));
+
+            RiskAnalysisDTO result = riskAnalysisService.analyzeRisk(1L);
+
+            // 0.9% daily moves annualize to about 14.4%, which maps to a conservative score of 3.6
+            assertThat(result.getObservations()).isEqualTo(60);
+            assertThat(result.getAnnualizedVolatility().doubleValue()).isCloseTo(14.41, within(0.05));
+            assertThat(result.getVolatilityScore()).isEqualByComparingTo("3.60");
+            assertThat(result.getRiskCategory()).isEqualTo(RiskProfile.RiskCategory.CONSERVATIVE);
+            assertThat(result.getValueAtRisk()).isEqualByComparingTo("0.90");
+            assertThat(result.getConditionalValueAtRisk()).isEqualByComparingTo("0.90");
+            assertThat(result.getBeta()).isEqualByComparingTo("1.00");
+            assertThat(result.getHistoryCoverage()).isEqualByComparingTo("100.00");
+            assertThat(result.getPortfolioValue()).isEqualByComparingTo("2000.00");
+        }
+
+        @Test
+        void shouldReweightAmongHoldingsWithHistoryAndReportCoverage() {
+            Investment noHistory = holding(2L, "NEWCO", "Energy", 10, "50.00");
+            when(investmentRepository.findByUserId(1L)).thenReturn(List.of(investment, noHistory));
+            when(priceHistoryStore.read(anyString(), anyLong(), anyLong()))
+                .thenAnswer(inv -> PriceHistoryStore.Series.empty(inv.getArgument(0)));
+            when(priceHistoryStore.read(eq("AAPL"), anyLong(), anyLong())).thenReturn(alternating("AAPL", 61, 0.02));
+
+            RiskAnalysisDTO result = riskAnalysisService.analyzeRisk(1L);
+
+            // Without quotes the lots are valued at cost: 1500 of 2000 has history
+            assertThat(result.getHistoryCoverage()).isEqualByComparingTo("75.00");
+            assertThat(result.getAnnualizedVolatility().doubleValue()).isCloseTo(32.02, within(0.05));
+            assertThat(result.getRiskCategory()).isEqualTo(RiskProfile.RiskCategory.AGGRESSIVE);
+            assertThat(result.getBeta()).isNull();
+        }
+
+        @Test
+        void shouldFallBackToSectorHeuristicWithoutHistory() {
+            when(investmentRepository.findByUserId(1L)).thenReturn(List.of(investment));
+            withoutHistory();
+
+            RiskAnalysisDTO result = riskAnalysisService.analyzeRisk(1L);
+
+            assertThat(result.getAnnualizedVolatility()).isNull();
+            assertThat(result.getValueAtRisk()).isNull();
+            // One non-technology holding: the heuristic's base score
+            assertThat(result.getVolatilityScore()).isEqualByComparingTo("2.00");
+        }
+
+        @Test
+        void shouldScoreConcentratedPortfolioBelowEvenlyWeightedOne() {
+            withoutHistory();
+            Investment small = holding(2L, "XOM", "Energy", 1, "10.00");
+            Investment even = holding(3L, "JNJ", "Consumer", 10, "150.00");
+
+            when(investmentRepository.findByUserId(1L)).thenReturn(List.of(investment, small));
+            BigDecimal concentrated = riskAnalysisService.analyzeRisk(1L).getDiversificationScore();
+
+            when(investmentRepository.findByUserId(1L)).thenReturn(List.of(investment, even));
+            BigDecimal balanced = riskAnalysisService.analyzeRisk(1L).getDiversificationScore();
+
+            assertThat(concentrated).isLessThan(balanced);
+        }
+    }
 }
@@ -0,0 +1,216 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.dto.RealizedGainDTO;
+import com.yourorg.portfolio.dto.SellOrderResultDTO;
+import com.yourorg.portfolio.dto.StockPriceDTO;
+import com.yourorg.portfolio.model.*;
+import com.yourorg.portfolio.model.RealizedGain.LotMethod;
+import com.yourorg.portfolio.repository.InvestmentRepository;
+import com.yourorg.portfolio.repository.PortfolioRepository;
+import com.yourorg.portfolio.repository.RealizedGainRepository;
+import com.yourorg.portfolio.repository.StockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SellOrderService Unit Tests")
+class SellOrderServiceTest {
+
+    @Mock
+    private PortfolioRepository portfolioRepository;
+
+    @Mock
+    private InvestmentRepository investmentRepository;
+
+    @Mock
+    private RealizedGainRepository realizedGainRepository;
+
+    @Mock
+    private StockRepository stockRepository;
+
+    @Mock
+    private StockService stockService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private PositionService positionService;
+
+    @Captor
+    private ArgumentCaptor<Iterable<RealizedGain>> gainsCaptor;
+
+    private SellOrderService sellOrderService;
+
+    private Investment oldest;
+    private Investment dearest;
+    private Investment newest;
+
+    @BeforeEach
+    void setUp() {
+        sellOrderService = new SellOrderService(portfolioRepository, investmentRepository, realizedGainRepository,
+            stockRepository, stockService, userService, positionService,
+            Clock.fixed(Instant.parse("2024-06-03T15:00:00Z"), ZoneOffset.UTC));
+
+        User user = new User();
+        user.setId(1L);
+
+        Portfolio portfolio = new Portfolio();
+        portfolio.setId(1L);
+        portfolio.setUser(user);
+
+        Stock apple = new Stock("AAPL", "Apple Inc.");
+        apple.setId(1L);
+
+        // 23 shares: 10 @ 100, 5 @ 150, 8 @ 120, bought in that order
+        oldest = lot(11L, portfolio, apple, 10, "100.00", LocalDate.of(2024, 1, 2));
+        dearest = lot(12L, portfolio, apple, 5, "150.00", LocalDate.of(2024, 2, 1));
+        newest = lot(13L, portfolio, apple, 8, "120.00", LocalDate.of(2024, 3, 1));
+
+        when(portfolioRepository.findByUserId(1L)).thenReturn(Optional.of(portfolio));
+        when(stockRepository.findBySymbol("AAPL")).thenReturn(Optional.of(apple));
+        when(investmentRepository.findLotsForSale(1L, 1L)).thenReturn(List.of(oldest, dearest, newest));
+    }
+
+    private static Investment lot(Long id, Portfolio portfolio, Stock stock, int quantity, String price, LocalDate date) {
+        Investment lot = new Investment(portfolio, stock, quantity, new BigDecimal(price), date);
+        lot.setId(id);
+        return lot;
+    }
+
+    private void givenPrice(String price) {
+        StockPriceDTO quote = new StockPriceDTO();
+        quote.setSymbol("AAPL");
+        quote.setCurrentPrice(new BigDecimal(price));
+        when(stockService.getCurrentPrice("AAPL")).thenReturn(quote);
+    }
+
+    private List<RealizedGain> savedGains() {
+        verify(realizedGainRepository).saveAll(gainsCaptor.capture());
+        List<RealizedGain> saved = new ArrayList<>();
+        gainsCaptor.getValue().forEach(saved::add);
+        return saved;
+    }
+
+    @Nested
+    @DisplayName("sell")
+    class SellTests {
+        @Test
+        void shouldConsumeOldestLotsFirstAndRecordEachLotsGain() {
+            givenPrice("200.00");
+
+            SellOrderResultDTO result = sellOrderService.sell(1L, "aapl", 12, null, null);
+
+            assertThat(result.getLotMethod()).isEqualTo("FIFO");
+            assertThat(result.getLots()).extracting(RealizedGainDTO::getInvestmentId).containsExactly(11L, 12L);
+            assertThat(result.getLots()).extracting(RealizedGainDTO::getQuantity).containsExactly(10, 2);
+            assertThat(result.getProceeds()).isEqualByComparingTo("2400.00");
+            assertThat(result.getCostBasis()).isEqualByComparingTo("1300.00");
+            assertThat(result.getRealizedGain()).isEqualByComparingTo("1100.00");
+
+            var order = inOrder(positionService, investmentRepository);
+            order.verify(positionService).recordSells(Map.of(oldest, 10, dearest, 2));
+            order.verify(investmentRepository).deleteAllByIdInBatch(List.of(11L));
+            assertThat(dearest.getQuantity()).isEqualTo(3);
+
+            List<RealizedGain> gains = savedGains();
+            assertThat(gains).extracting(RealizedGain::getGain)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("1000.00"), new BigDecimal("100.00"));
+            assertThat(gains.get(0).getSoldAt()).isEqualTo(LocalDateTime.of(2024, 6, 3, 15, 0));
+            assertThat(gains.get(0).getLotMethod()).isEqualTo(LotMethod.FIFO);
+            verify(userService).credit(1L, new BigDecimal("2400.00"), BankTransaction.Type.SELL, "Sell 12 AAPL @ 200.00");
+        }
+
+        @Test
+        void shouldConsumeNewestLotsFirstForLifo() {
+            givenPrice("200.00");
+
+            SellOrderResultDTO result = sellOrderService.sell(1L, "AAPL", 10, LotMethod.LIFO, null);
+
+            assertThat(result.getLots()).extracting(RealizedGainDTO::getInvestmentId).containsExactly(13L, 12L);
+            verify(investmentRepository).deleteAllByIdInBatch(List.of(13L));
+            assertThat(dearest.getQuantity()).isEqualTo(3);
+            assertThat(oldest.getQuantity()).isEqualTo(10);
+        }
+
+        @Test
+        void shouldConsumeDearestLotsFirstForHighestCost() {
+            givenPrice("160.00");
+
+            SellOrderResultDTO result = sellOrderService.sell(1L, "AAPL", 6, LotMethod.HIGHEST_COST, null);
+
+            assertThat(result.getLots()).extracting(RealizedGainDTO::getInvestmentId).containsExactly(12L, 13L);
+            assertThat(result.getRealizedGain()).isEqualByComparingTo("90.00");
+            verify(investmentRepository).deleteAllByIdInBatch(List.of(12L));
+            assertThat(newest.getQuantity()).isEqualTo(7);
+        }
+
+        @Test
+        void shouldConsumeSpecificLotsInTheGivenOrder() {
+            givenPrice("200.00");
+
+            SellOrderResultDTO result = sellOrderService.sell(1L, "AAPL", 9, LotMethod.SPECIFIC, List.of(13L, 11L));
+
+            assertThat(result.getLots()).extracting(RealizedGainDTO::getInvestmentId).containsExactly(13L, 11L);
+            verify(investmentRepository).deleteAllByIdInBatch(List.of(13L));
+            assertThat(oldest.getQuantity()).isEqualTo(9);
+        }
+
+        @Test
+        void shouldNotDeleteAnythingWhenOnlyPartOfALotIsSold() {
+            givenPrice("200.00");
+
+            sellOrderService.sell(1L, "AAPL", 4, LotMethod.FIFO, null);
+
+            verify(investmentRepository, never()).deleteAllByIdInBatch(any());
+            assertThat(oldest.getQuantity()).isEqualTo(6);
+            assertThat(savedGains()).hasSize(1);
+        }
+
+        @Test
+        void shouldRejectSellingMoreThanTheLotsHold() {
+            assertThatThrownBy(() -> sellOrderService.sell(1L, "AAPL", 24, LotMethod.FIFO, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cannot sell 24 AAPL, only 23 owned");
+
+            assertThatThrownBy(() -> sellOrderService.sell(1L, "AAPL", 9, LotMethod.SPECIFIC, List.of(12L)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cannot sell 9 AAPL, only 5 in the given lots");
+
+            verifyNoInteractions(stockService, positionService, realizedGainRepository, userService);
+        }
+
+        @Test
+        void shouldRejectSpecificLotsThatAreNotTheUsersLotsOfTheSymbol() {
+            assertThatThrownBy(() -> sellOrderService.sell(1L, "AAPL", 1, LotMethod.SPECIFIC, List.of(11L, 98L, 99L)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Investments [98, 99] are not AAPL lots of this user");
+
+            verifyNoInteractions(positionService, userService);
+        }
+    }
+}
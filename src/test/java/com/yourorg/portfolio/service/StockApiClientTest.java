@@ -1,114 +1,317 @@
 package com.yourorg.portfolio.service;
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
 import com.yourorg.portfolio.dto.StockPriceDTO;
+import com.yourorg.portfolio.util.CircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.List;
-import java.util.function.Function;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
 
-@ExtendWith(MockitoExtension.class)
-@DisplayName("StockApiClient Unit Tests")
+/**
+ * Runs the real providers against local stub HTTP servers.
+ */
+@DisplayName("StockApiClient Tests")
 class StockApiClientTest {
 
-    @Mock
-    private WebClient.Builder webClientBuilder;
+    private static final StockApiClient.Options OPTIONS = new StockApiClient.Options(
+        true, Duration.ofMillis(100), Duration.ofSeconds(2), 3, Duration.ofMinutes(1));
 
-    @Mock
-    private WebClient webClient;
+    private HttpServer server;
+    private ExecutorService executor;
+    private String baseUrl;
 
-    @Mock
-    private WebClient.RequestHeadersUriSpec requestHeadersUriSpec;
+    private final AtomicInteger alphaVantageCalls = new AtomicInteger();
+    private final AtomicInteger finnhubCalls = new AtomicInteger();
+    private final AtomicInteger alphaVantageInFlight = new AtomicInteger();
+    private final AtomicInteger alphaVantageMaxInFlight = new AtomicInteger();
+    private volatile Behaviour alphaVantage = Behaviour.OK;
+    private volatile Behaviour finnhub = Behaviour.OK;
+    private volatile Behaviour yahooFinance = Behaviour.OK;
 
-    @Mock
-    private WebClient.RequestHeadersSpec requestHeadersSpec;
+    private enum Behaviour { OK, FAIL, SLOW, DELAYED, EMPTY, NOT_FOUND }
 
-    @Mock
-    private WebClient.ResponseSpec responseSpec;
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
 
-    @InjectMocks
-    private StockApiClient stockApiClient;
+        server.createContext("/alpha/query", exchange -> {
+            alphaVantageCalls.incrementAndGet();
+            alphaVantageMaxInFlight.accumulateAndGet(alphaVantageInFlight.incrementAndGet(), Math::max);
+            try {
+                respond(exchange, alphaVantage,
+                    "{\"Global Quote\":{\"01. symbol\":\"AAPL\",\"05. price\":\"190.00\",\"08. previous close\":\"180.00\"}}",
+                    "{\"Note\":\"Thank you for using Alpha Vantage! Our standard API rate limit is 25 requests per day.\"}");
+            } finally {
+                alphaVantageInFlight.decrementAndGet();
+            }
+        });
+        server.createContext("/finnhub/quote", exchange -> {
+            finnhubCalls.incrementAndGet();
+            respond(exchange, finnhub, "{\"c\":191.5,\"pc\":180.0,\"h\":192,\"l\":185}", "{\"c\":0,\"pc\":0}");
+        });
+        server.createContext("/yahoo/", exchange -> respond(exchange, yahooFinance,
+            "{\"chart\":{\"result\":[{\"meta\":{\"currency\":\"USD\",\"symbol\":\"AAPL\","
+                + "\"regularMarketPrice\":189.25,\"chartPreviousClose\":180.0}}],\"error\":null}}",
+            null));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
 
-    @BeforeEach
-    void setUp() {
-        when(webClientBuilder.build()).thenReturn(webClient);
-        ReflectionTestUtils.setField(stockApiClient, "provider", "alpha-vantage");
-        ReflectionTestUtils.setField(stockApiClient, "alphaVantageApiKey", "test-key");
-        ReflectionTestUtils.setField(stockApiClient, "finnhubApiKey", "test-key");
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static void respond(HttpExchange exchange, Behaviour behaviour, String body, String emptyBody) throws IOException {
+        try (exchange) {
+            switch (behaviour) {
+                case FAIL -> {
+                    exchange.sendResponseHeaders(503, -1);
+                    return;
+                }
+                case NOT_FOUND -> {
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+                case SLOW -> sleep(1500);
+                case DELAYED -> sleep(100);
+                case EMPTY -> body = emptyBody;
+                default -> { }
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private AlphaVantageQuoteProvider alphaVantageProvider() {
+        return new AlphaVantageQuoteProvider(WebClient.builder(), baseUrl + "/alpha/query", "test-key", 2);
+    }
+
+    private FinnhubQuoteProvider finnhubProvider() {
+        return new FinnhubQuoteProvider(WebClient.builder(), baseUrl + "/finnhub", "test-key", 8);
+    }
+
+    private YahooFinanceQuoteProvider yahooFinanceProvider() {
+        return new YahooFinanceQuoteProvider(WebClient.builder(), baseUrl + "/yahoo", 4);
+    }
+
+    private StockApiClient client(QuoteProvider... providers) {
+        return new StockApiClient(List.of(providers), OPTIONS, Clock.systemUTC());
+    }
+
+    @Nested
+    @DisplayName("providers")
+    class ProviderTests {
+        @Test
+        void shouldParseAlphaVantageQuote() {
+            StockPriceDTO quote = client(alphaVantageProvider()).fetchStockPrice("AAPL");
+
+            assertThat(quote.getSource()).isEqualTo("alpha-vantage");
+            assertThat(quote.getCurrentPrice()).isEqualByComparingTo("190.00");
+            assertThat(quote.getChange()).isEqualByComparingTo("10.00");
+            assertThat(quote.getTrend()).isEqualTo("UP");
+        }
+
+        @Test
+        void shouldParseFinnhubQuote() {
+            StockPriceDTO quote = client(finnhubProvider()).fetchStockPrice("AAPL");
+
+            assertThat(quote.getSource()).isEqualTo("finnhub");
+            assertThat(quote.getCurrentPrice()).isEqualByComparingTo("191.5");
+        }
+
+        @Test
+        void shouldParseYahooFinanceChartMeta() {
+            StockPriceDTO quote = client(yahooFinanceProvider()).fetchStockPrice("AAPL");
+
+            assertThat(quote.getSource()).isEqualTo("yahoo-finance");
+            assertThat(quote.getCurrentPrice()).isEqualByComparingTo("189.25");
+            assertThat(quote.getPreviousClose()).isEqualByComparingTo("180.0");
+        }
     }
 
     @Nested
-    @DisplayName("fetchStockPrice")
-    class FetchStockPriceTests {
+    @DisplayName("failover and hedging")
+    class FailoverTests {
+        @Test
+        void shouldFailOverImmediatelyWhenPrimaryErrors() {
+            alphaVantage = Behaviour.FAIL;
+
+            StockPriceDTO quote = client(alphaVantageProvider(), finnhubProvider()).fetchStockPrice("AAPL");
+
+            assertThat(quote.getSource()).isEqualTo("finnhub");
+            assertThat(alphaVantageCalls).hasValue(1);
+        }
+
         @Test
-        void shouldReturnMockDataWhenApiFails() {
-            when(webClient.get()).thenReturn(requestHeadersUriSpec);
-            when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
-            when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class))).thenReturn(Mono.error(new RuntimeException("API error")));
+        void shouldFailOverWhenPrimaryHasNoQuote() {
+            alphaVantage = Behaviour.EMPTY;
 
-            StockPriceDTO result = stockApiClient.fetchStockPrice("AAPL");
+            StockPriceDTO quote = client(alphaVantageProvider(), finnhubProvider()).fetchStockPrice("AAPL");
 
-            assertThat(result).isNotNull();
-            assertThat(result.getSymbol()).isEqualTo("AAPL");
-            assertThat(result.getCurrentPrice()).isNotNull();
-            assertThat(result.getCurrentPrice()).isGreaterThan(BigDecimal.ZERO);
-            assertThat(result.getPreviousClose()).isNotNull();
-            assertThat(result.getChange()).isNotNull();
-            assertThat(result.getTrend()).isIn("UP", "DOWN");
-            assertThat(result.getCurrency()).isEqualTo("USD");
+            assertThat(quote.getSource()).isEqualTo("finnhub");
         }
 
         @Test
-        void shouldReturnMockDataForUnknownSymbolWhenApiFails() {
-            when(webClient.get()).thenReturn(requestHeadersUriSpec);
-            when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
-            when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class))).thenReturn(Mono.error(new RuntimeException("API error")));
+        void shouldHedgeSlowPrimaryAndTakeFirstAnswer() {
+            alphaVantage = Behaviour.SLOW;
+
+            long started = System.nanoTime();
+            StockPriceDTO quote = client(alphaVantageProvider(), finnhubProvider()).fetchStockPrice("AAPL");
+            long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+            assertThat(quote.getSource()).isEqualTo("finnhub");
+            assertThat(elapsedMillis).isLessThan(1000);
+        }
 
-            StockPriceDTO result = stockApiClient.fetchStockPrice("UNKNOWN123");
+        @Test
+        void shouldNotHedgeWhenPrimaryAnswersInTime() {
+            StockPriceDTO quote = client(alphaVantageProvider(), finnhubProvider()).fetchStockPrice("AAPL");
 
-            assertThat(result).isNotNull();
-            assertThat(result.getSymbol()).isEqualTo("UNKNOWN123");
-            assertThat(result.getCurrentPrice()).isEqualByComparingTo(new BigDecimal("100.00"));
+            assertThat(quote.getSource()).isEqualTo("alpha-vantage");
+            assertThat(finnhubCalls).hasValue(0);
+        }
+
+        @Test
+        void shouldTagMockDataWhenEveryProviderFails() {
+            alphaVantage = Behaviour.FAIL;
+            finnhub = Behaviour.EMPTY;
+
+            StockPriceDTO quote = client(alphaVantageProvider(), finnhubProvider()).fetchStockPrice("AAPL");
+
+            assertThat(quote.getSource()).isEqualTo(StockApiClient.MOCK_SOURCE);
+            assertThat(quote.getCurrentPrice()).isEqualByComparingTo("175.50");
+        }
+
+        @Test
+        void shouldOpenCircuitAfterConsecutiveFailures() {
+            alphaVantage = Behaviour.FAIL;
+            StockApiClient client = client(alphaVantageProvider(), finnhubProvider());
+
+            for (int i = 0; i < 5; i++) {
+                assertThat(client.fetchStockPrice("AAPL").getSource()).isEqualTo("finnhub");
+            }
+
+            assertThat(alphaVantageCalls).hasValue(3);
+            assertThat(client.getProviderStates())
+                .containsEntry("alpha-vantage", CircuitBreaker.State.OPEN)
+                .containsEntry("finnhub", CircuitBreaker.State.CLOSED);
+        }
+
+        @Test
+        void shouldOpenCircuitWhenRateLimited() {
+            alphaVantage = Behaviour.EMPTY;
+            StockApiClient client = client(alphaVantageProvider(), finnhubProvider());
+
+            for (int i = 0; i < 5; i++) {
+                assertThat(client.fetchStockPrice("AAPL").getSource()).isEqualTo("finnhub");
+            }
+
+            assertThat(alphaVantageCalls).hasValue(3);
+            assertThat(client.getProviderStates()).containsEntry("alpha-vantage", CircuitBreaker.State.OPEN);
+        }
+
+        @Test
+        void shouldNotOpenCircuitForUnknownSymbols() {
+            finnhub = Behaviour.EMPTY;
+            yahooFinance = Behaviour.NOT_FOUND;
+            StockApiClient client = client(finnhubProvider(), yahooFinanceProvider());
+
+            for (int i = 0; i < 5; i++) {
+                assertThat(client.fetchStockPrice("NOPE").getSource()).isEqualTo(StockApiClient.MOCK_SOURCE);
+            }
+
+            assertThat(finnhubCalls).hasValue(5);
+            assertThat(client.getProviderStates())
+                .containsEntry("finnhub", CircuitBreaker.State.CLOSED)
+                .containsEntry("yahoo-finance", CircuitBreaker.State.CLOSED);
         }
     }
 
     @Nested
-    @DisplayName("fetchTrendingStocks")
-    class FetchTrendingStocksTests {
-        @Test
-        void shouldReturnMockTrendingStocksWhenApiFails() {
-            when(webClient.get()).thenReturn(requestHeadersUriSpec);
-            when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
-            when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class))).thenReturn(Mono.error(new RuntimeException("API error")));
-
-            List<StockPriceDTO> result = stockApiClient.fetchTrendingStocks();
-
-            assertThat(result).isNotNull();
-            assertThat(result).isNotEmpty();
-            assertThat(result).hasSizeLessThanOrEqualTo(10);
-            result.forEach(dto -> {
-                assertThat(dto.getSymbol()).isNotNull();
-                assertThat(dto.getCurrentPrice()).isNotNull();
-                assertThat(dto.getCurrentPrice()).isGreaterThan(BigDecimal.ZERO);
-            });
+    @DisplayName("fetchStockPrices")
+    class FetchStockPricesTests {
+        @Test
+        void shouldReturnOneEntryPerDistinctSymbolInRequestOrder() {
+            Map<String, StockPriceDTO> result = client(alphaVantageProvider())
+                .fetchStockPrices(List.of("MSFT", "AAPL", "MSFT"));
+
+            assertThat(result.keySet()).containsExactly("MSFT", "AAPL");
+            assertThat(result.get("MSFT").getSymbol()).isEqualTo("MSFT");
+            assertThat(alphaVantageCalls).hasValue(2);
+        }
+
+        @Test
+        void shouldFillMissingQuotesWithMockData() {
+            alphaVantage = Behaviour.FAIL;
+
+            Map<String, StockPriceDTO> result = client(alphaVantageProvider()).fetchStockPrices(List.of("AAPL", "UNKNOWN123"));
+
+            assertThat(result.get("AAPL").getCurrentPrice()).isEqualByComparingTo(new BigDecimal("175.50"));
+            assertThat(result.get("UNKNOWN123").getCurrentPrice()).isEqualByComparingTo(new BigDecimal("100.00"));
+            assertThat(result.values()).allSatisfy(quote -> assertThat(quote.getSource()).isEqualTo("mock"));
+        }
+
+        @Test
+        void shouldHoldEachProviderToItsOwnConcurrencyAfterFailover() {
+            finnhub = Behaviour.FAIL;
+            alphaVantage = Behaviour.DELAYED;
+
+            // Finnhub allows 8 in flight, Alpha Vantage only 2
+            Map<String, StockPriceDTO> result = client(finnhubProvider(), alphaVantageProvider())
+                .fetchStockPrices(StockApiClient.TRENDING_SYMBOLS.subList(0, 8));
+
+            assertThat(result.values()).allSatisfy(quote -> assertThat(quote.getSource()).isEqualTo("alpha-vantage"));
+            assertThat(alphaVantageCalls).hasValue(8);
+            assertThat(alphaVantageMaxInFlight.get()).isLessThanOrEqualTo(2);
+        }
+
+        @Test
+        void shouldReturnEmptyMapWithoutCallingApiForNoSymbols() {
+            assertThat(client(alphaVantageProvider()).fetchStockPrices(List.of())).isEmpty();
+            assertThat(alphaVantageCalls).hasValue(0);
+        }
+
+        @Test
+        void shouldReturnTrendingStocks() {
+            List<StockPriceDTO> result = client(finnhubProvider()).fetchTrendingStocks();
+
+            assertThat(result).hasSize(StockApiClient.TRENDING_SYMBOLS.size());
+            assertThat(result).allSatisfy(quote -> assertThat(quote.getCurrentPrice()).isPositive());
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 }
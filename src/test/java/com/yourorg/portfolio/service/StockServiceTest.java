@@ -11,15 +11,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +37,9 @@ class StockServiceTest {
     @Mock
     private StockApiClient stockApiClient;
 
+    @Spy
+    private QuoteCache quoteCache = new QuoteCache(Duration.ofSeconds(60), 100, Clock.systemUTC());
+
     @InjectMocks
     private StockService stockService;
 
@@ -129,6 +137,39 @@ class StockServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("getOrCreateStocks")
+    class GetOrCreateStocksTests {
+        @Test
+        void shouldCreateOnlyMissingStocksWithOneQuoteBatch() {
+            when(stockRepository.findBySymbolIn(List.of("AAPL", "GOOGL"))).thenReturn(List.of(stock));
+            StockPriceDTO priceDTO = new StockPriceDTO();
+            priceDTO.setSymbol("GOOGL");
+            priceDTO.setCompanyName("Alphabet Inc.");
+            priceDTO.setCurrentPrice(new BigDecimal("142.30"));
+            when(stockApiClient.fetchStockPrices(List.of("GOOGL"))).thenReturn(Map.of("GOOGL", priceDTO));
+            when(stockRepository.saveAll(anyCollection())).thenAnswer(inv -> List.copyOf(inv.getArgument(0)));
+
+            Map<String, Stock> result = stockService.getOrCreateStocks(List.of("AAPL", "GOOGL"));
+
+            assertThat(result).containsOnlyKeys("AAPL", "GOOGL");
+            assertThat(result.get("AAPL")).isSameAs(stock);
+            assertThat(result.get("GOOGL").getCompanyName()).isEqualTo("Alphabet Inc.");
+            verify(stockApiClient, never()).fetchStockPrice(any());
+        }
+
+        @Test
+        void shouldNotFetchQuotesWhenAllStocksExist() {
+            when(stockRepository.findBySymbolIn(List.of("AAPL"))).thenReturn(List.of(stock));
+
+            Map<String, Stock> result = stockService.getOrCreateStocks(List.of("AAPL"));
+
+            assertThat(result).containsOnlyKeys("AAPL");
+            verifyNoInteractions(stockApiClient);
+            verify(stockRepository, never()).saveAll(any());
+        }
+    }
+
     @Nested
     @DisplayName("searchStocks")
     class SearchStocksTests {
@@ -167,6 +208,48 @@ class StockServiceTest {
             assertThat(result.getCurrentPrice()).isEqualByComparingTo(new BigDecimal("175.50"));
             verify(stockApiClient).fetchStockPrice("AAPL");
         }
+
+        @Test
+        void shouldServeRepeatedLookupsFromCache() {
+            when(stockApiClient.fetchStockPrice("AAPL")).thenReturn(stockPriceDTO);
+
+            stockService.getCurrentPrice("AAPL");
+            StockPriceDTO result = stockService.getCurrentPrice("AAPL");
+
+            assertThat(result.getCurrentPrice()).isEqualByComparingTo(new BigDecimal("175.50"));
+            verify(stockApiClient, times(1)).fetchStockPrice("AAPL");
+            assertThat(stockService.getQuoteCacheStats().getHits()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("getCurrentPrices")
+    class GetCurrentPricesTests {
+        @Test
+        void shouldDelegateToBatchFetch() {
+            List<String> symbols = List.of("AAPL");
+            when(stockApiClient.fetchStockPrices(symbols)).thenReturn(Map.of("AAPL", stockPriceDTO));
+
+            Map<String, StockPriceDTO> result = stockService.getCurrentPrices(symbols);
+
+            assertThat(result).containsOnlyKeys("AAPL");
+            verify(stockApiClient).fetchStockPrices(symbols);
+            verify(stockApiClient, never()).fetchStockPrice(any());
+        }
+
+        @Test
+        void shouldOnlyFetchSymbolsMissingFromCache() {
+            when(stockApiClient.fetchStockPrice("AAPL")).thenReturn(stockPriceDTO);
+            stockService.getCurrentPrice("AAPL");
+
+            StockPriceDTO msft = new StockPriceDTO("MSFT", new BigDecimal("385.20"));
+            when(stockApiClient.fetchStockPrices(List.of("MSFT"))).thenReturn(Map.of("MSFT", msft));
+
+            Map<String, StockPriceDTO> result = stockService.getCurrentPrices(List.of("AAPL", "MSFT"));
+
+            assertThat(result.keySet()).containsExactly("AAPL", "MSFT");
+            verify(stockApiClient).fetchStockPrices(List.of("MSFT"));
+        }
     }
 
     @Nested
@@ -174,13 +257,13 @@ class StockServiceTest {
     class GetTrendingStocksTests {
         @Test
         void shouldReturnTrendingStocksFromApiClient() {
-            when(stockApiClient.fetchTrendingStocks()).thenReturn(List.of(stockPriceDTO));
+            when(stockApiClient.fetchStockPrices(anyCollection())).thenReturn(Map.of("AAPL", stockPriceDTO));
 
             List<StockPriceDTO> result = stockService.getTrendingStocks();
 
             assertThat(result).hasSize(1);
             assertThat(result.get(0).getSymbol()).isEqualTo("AAPL");
-            verify(stockApiClient).fetchTrendingStocks();
+            verify(stockApiClient).fetchStockPrices(anyCollection());
         }
     }
 
@@ -0,0 +1,92 @@
+package com.yourorg.portfolio.service;
+
+import com.yourorg.portfolio.util.JwtUtil;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("TokenRevocationService Unit Tests")
+class TokenRevocationServiceTest {
+
+    private static final long EXPIRATION = Duration.ofHours(1).toMillis();
+
+    private MutableClock clock;
+    private JwtUtil jwtUtil;
+    private TokenRevocationService revocations;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        jwtUtil = new JwtUtil("test-secret-key-that-is-at-least-256-bits-long!", EXPIRATION, 0, clock);
+        revocations = new TokenRevocationService(jwtUtil, 100, 0.01, clock);
+    }
+
+    @Test
+    void shouldReportOnlyRevokedTokens() {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            tokens.add(jwtUtil.generateToken((long) i, "user" + i));
+        }
+        tokens.subList(0, 50).forEach(revocations::revoke);
+
+        for (int i = 0; i < tokens.size(); i++) {
+            assertThat(revocations.isRevoked(tokens.get(i))).as("token %d", i).isEqualTo(i < 50);
+        }
+    }
+
+    @Test
+    void shouldRefuseToRevokeInvalidToken() {
+        assertThatThrownBy(() -> revocations.revoke("not-a-jwt")).isInstanceOf(JwtException.class);
+        assertThat(revocations.getRevokedCount()).isZero();
+    }
+
+    @Test
+    void shouldPurgeRevocationsOnceTokensExpire() {
+        String early = jwtUtil.generateToken(1L, "early");
+        revocations.revoke(early);
+        clock.advance(Duration.ofMinutes(30));
+        String late = jwtUtil.generateToken(2L, "late");
+        revocations.revoke(late);
+
+        clock.advance(Duration.ofMinutes(31));
+        revocations.purgeExpired();
+
+        assertThat(revocations.getRevokedCount()).isEqualTo(1);
+        assertThat(revocations.isRevoked(early)).isFalse();
+        assertThat(revocations.isRevoked(late)).isTrue();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-02T15:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
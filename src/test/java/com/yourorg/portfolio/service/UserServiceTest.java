@@ -3,6 +3,7 @@ package com.yourorg.portfolio.service;
 import com.yourorg.portfolio.dto.*;
 import com.yourorg.portfolio.exception.ResourceNotFoundException;
 import com.yourorg.portfolio.model.BankAccount;
+import com.yourorg.portfolio.model.BankTransaction;
 import com.yourorg.portfolio.model.User;
 import com.yourorg.portfolio.repository.BankAccountRepository;
 import com.yourorg.portfolio.repository.UserRepository;
@@ -43,6 +44,9 @@ class UserServiceTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private LedgerService ledgerService;
+
     @InjectMocks
     private UserService userService;
 
@@ -184,6 +188,23 @@ class UserServiceTest {
             assertThat(result).isNotNull();
             assertThat(result.getToken()).isEqualTo("jwt-token");
             assertThat(result.getMessage()).isEqualTo("Login successful");
+            verify(userRepository, never()).save(any(User.class));
+        }
+
+        @Test
+        void shouldRehashOutdatedPasswordOnSuccessfulLogin() {
+            LoginRequestDTO request = new LoginRequestDTO("johndoe", "password123");
+            when(userRepository.findByUsername("johndoe")).thenReturn(Optional.of(user));
+            when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(true);
+            when(passwordEncoder.upgradeEncoding("encodedPassword")).thenReturn(true);
+            when(passwordEncoder.encode("password123")).thenReturn("{bcrypt}rehashed");
+            when(jwtUtil.generateToken(1L, "johndoe")).thenReturn("jwt-token");
+
+            LoginResponseDTO result = userService.login(request);
+
+            assertThat(result.getToken()).isEqualTo("jwt-token");
+            assertThat(user.getPassword()).isEqualTo("{bcrypt}rehashed");
+            verify(userRepository).save(user);
         }
 
         @Test
@@ -276,21 +297,33 @@ class UserServiceTest {
     @DisplayName("deposit and withdraw")
     class BankAccountTests {
         @Test
-        void shouldDepositAndUpdateBalance() {
-            bankAccount.setCurrentBalance(BigDecimal.valueOf(100));
+        void shouldDepositWithSingleConditionalUpdate() {
+            bankAccount.setCurrentBalance(BigDecimal.valueOf(200));
+            when(bankAccountRepository.credit(eq(1L), eq(BigDecimal.valueOf(100)), any())).thenReturn(1);
             when(bankAccountRepository.findByUserId(1L)).thenReturn(Optional.of(bankAccount));
-            BankAccount updatedAccount = new BankAccount();
-            updatedAccount.setCurrentBalance(BigDecimal.valueOf(200));
-            updatedAccount.setUser(user);
-            updatedAccount.setAccountNumber("ACC123");
-            updatedAccount.setBankName("HSBC Bank");
-            when(bankAccountRepository.save(any(BankAccount.class))).thenReturn(updatedAccount);
 
             BankAccountDTO result = userService.deposit(1L, BigDecimal.valueOf(100), "Deposit");
 
             assertThat(result).isNotNull();
             assertThat(result.getCurrentBalance()).isEqualByComparingTo(BigDecimal.valueOf(200));
-            verify(bankAccountRepository).save(any(BankAccount.class));
+            verify(bankAccountRepository, never()).save(any(BankAccount.class));
+            verify(ledgerService).record(1L, BankTransaction.Type.DEPOSIT, BigDecimal.valueOf(100), "Deposit");
+        }
+
+        @Test
+        void shouldOpenAccountHoldingDepositWhenUserHasNone() {
+            when(bankAccountRepository.credit(eq(1L), eq(BigDecimal.valueOf(100)), any())).thenReturn(0);
+            when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+            when(bankAccountRepository.save(any(BankAccount.class))).thenAnswer(inv -> inv.getArgument(0));
+            when(bankAccountRepository.findByUserId(1L)).thenReturn(Optional.of(bankAccount));
+
+            userService.deposit(1L, BigDecimal.valueOf(100), "Deposit");
+
+            verify(bankAccountRepository).save(argThat(account ->
+                    account.getCurrentBalance().compareTo(BigDecimal.valueOf(100)) == 0
+                            && account.getLedgerSequence() == 1));
+            verify(ledgerService).recordOpening(any(BankAccount.class), eq(BankTransaction.Type.DEPOSIT), eq("Deposit"));
+            verify(ledgerService, never()).record(any(), any(), any(), any());
         }
 
         @Test
@@ -305,30 +338,39 @@ class UserServiceTest {
         }
 
         @Test
-        void shouldWithdrawAndUpdateBalance() {
-            bankAccount.setCurrentBalance(BigDecimal.valueOf(200));
+        void shouldWithdrawWithSingleConditionalUpdate() {
+            bankAccount.setCurrentBalance(BigDecimal.valueOf(100));
+            when(bankAccountRepository.debit(eq(1L), eq(BigDecimal.valueOf(100)), any())).thenReturn(1);
             when(bankAccountRepository.findByUserId(1L)).thenReturn(Optional.of(bankAccount));
-            BankAccount updatedAccount = new BankAccount();
-            updatedAccount.setCurrentBalance(BigDecimal.valueOf(100));
-            updatedAccount.setUser(user);
-            updatedAccount.setAccountNumber("ACC123");
-            updatedAccount.setBankName("HSBC Bank");
-            when(bankAccountRepository.save(any(BankAccount.class))).thenReturn(updatedAccount);
 
             BankAccountDTO result = userService.withdraw(1L, BigDecimal.valueOf(100), "Withdrawal");
 
             assertThat(result).isNotNull();
             assertThat(result.getCurrentBalance()).isEqualByComparingTo(BigDecimal.valueOf(100));
+            verify(bankAccountRepository, never()).save(any(BankAccount.class));
+            verify(ledgerService).record(1L, BankTransaction.Type.WITHDRAWAL, BigDecimal.valueOf(-100), "Withdrawal");
         }
 
         @Test
         void shouldThrowWhenInsufficientBalanceForWithdrawal() {
             bankAccount.setCurrentBalance(BigDecimal.valueOf(50));
+            when(bankAccountRepository.debit(eq(1L), eq(BigDecimal.valueOf(100)), any())).thenReturn(0);
             when(bankAccountRepository.findByUserId(1L)).thenReturn(Optional.of(bankAccount));
 
             assertThatThrownBy(() -> userService.withdraw(1L, BigDecimal.valueOf(100), "Withdrawal"))
                     .isInstanceOf(IllegalArgumentException.class)
-                    .hasMessageContaining("Insufficient balance");
+                    .hasMessageContaining("Insufficient balance")
+                    .hasMessageContaining("50");
+            verifyNoInteractions(ledgerService);
+        }
+
+        @Test
+        void shouldRejectNegativeBalanceUpdateThatCannotBeCovered() {
+            when(bankAccountRepository.debit(eq(1L), eq(new BigDecimal("500.00")), any())).thenReturn(0);
+
+            assertThatThrownBy(() -> userService.updateBankBalance(1L, new BigDecimal("-500.00")))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Insufficient balance");
         }
     }
 
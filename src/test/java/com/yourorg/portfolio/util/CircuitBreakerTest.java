@@ -0,0 +1,103 @@
+package com.yourorg.portfolio.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CircuitBreaker Unit Tests")
+class CircuitBreakerTest {
+
+    private MutableClock clock;
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        breaker = new CircuitBreaker(2, Duration.ofSeconds(30), clock);
+    }
+
+    private void open() {
+        breaker.tryAcquire().recordFailure();
+        breaker.tryAcquire().recordFailure();
+    }
+
+    @Test
+    void shouldOpenAfterConsecutiveFailuresAndLetOneTrialThroughLater() {
+        open();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isNull();
+
+        clock.advance(Duration.ofSeconds(30));
+        CircuitBreaker.Permit trial = breaker.tryAcquire();
+
+        assertThat(trial).isNotNull();
+        assertThat(breaker.tryAcquire()).isNull();
+        trial.recordSuccess();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void shouldKeepTheTrialSlotWhenACallWithoutItIsCancelled() {
+        CircuitBreaker.Permit early = breaker.tryAcquire();
+        open();
+        clock.advance(Duration.ofSeconds(30));
+        CircuitBreaker.Permit trial = breaker.tryAcquire();
+
+        early.release();
+
+        assertThat(breaker.tryAcquire()).isNull();
+        trial.release();
+        assertThat(breaker.tryAcquire()).isNotNull();
+    }
+
+    @Test
+    void shouldCountOnlyTheFirstOutcomeOfAPermit() {
+        CircuitBreaker.Permit permit = breaker.tryAcquire();
+
+        permit.recordFailure();
+        permit.recordFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void shouldReopenWhenTheTrialFails() {
+        open();
+        clock.advance(Duration.ofSeconds(30));
+
+        breaker.tryAcquire().recordFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-02T15:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.yourorg.portfolio.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ConcurrencyLimiter Unit Tests")
+class ConcurrencyLimiterTest {
+
+    @Test
+    void shouldDrainALongQueueOfSynchronousCallsWithoutRecursing() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1);
+        Sinks.One<Integer> gate = Sinks.one();
+        AtomicInteger completed = new AtomicInteger();
+
+        limiter.limit(gate::asMono).subscribe();
+        for (int i = 0; i < 100_000; i++) {
+            limiter.limit(() -> Mono.just(1)).subscribe(value -> completed.incrementAndGet());
+        }
+        gate.tryEmitValue(0);
+
+        assertThat(completed).hasValue(100_000);
+        assertThat(limiter.getActive()).isZero();
+    }
+
+    @Test
+    void shouldReturnPermitsOfCallsCancelledWhileRunningOrWaiting() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2);
+        AtomicInteger started = new AtomicInteger();
+
+        Disposable first = limiter.limit(() -> Mono.never()).subscribe();
+        Disposable second = limiter.limit(() -> Mono.never()).subscribe();
+        Disposable queued = limiter.limit(() -> Mono.fromCallable(started::incrementAndGet)).subscribe();
+        assertThat(limiter.getActive()).isEqualTo(2);
+
+        queued.dispose();
+        first.dispose();
+        second.dispose();
+
+        assertThat(started).hasValue(0);
+        assertThat(limiter.getActive()).isZero();
+        assertThat(limiter.limit(() -> Mono.just(5)).block()).isEqualTo(5);
+    }
+}
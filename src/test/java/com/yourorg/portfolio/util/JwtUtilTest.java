@@ -0,0 +1,139 @@
+package com.yourorg.portfolio.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("JwtUtil Unit Tests")
+class JwtUtilTest {
+
+    private static final String SECRET = "test-secret-key-that-is-at-least-256-bits-long!";
+    private static final long EXPIRATION = Duration.ofHours(1).toMillis();
+
+    private MutableClock clock;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        jwtUtil = new JwtUtil(SECRET, EXPIRATION, 3, clock);
+    }
+
+    @Nested
+    @DisplayName("verification")
+    class VerificationTests {
+        @Test
+        void shouldRoundTripClaims() {
+            String token = jwtUtil.generateToken(42L, "alice");
+
+            assertThat(jwtUtil.getUserIdFromToken(token)).isEqualTo(42L);
+            assertThat(jwtUtil.getUsernameFromToken(token)).isEqualTo("alice");
+            assertThat(jwtUtil.getExpirationDateFromToken(token).toInstant())
+                .isEqualTo(clock.instant().plusMillis(EXPIRATION));
+            assertThat(jwtUtil.validateToken(token, "alice")).isTrue();
+            assertThat(jwtUtil.validateToken(token, "bob")).isFalse();
+        }
+
+        @Test
+        void shouldRejectTamperedToken() {
+            String token = jwtUtil.generateToken(42L, "alice");
+            String tampered = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+
+            assertThatThrownBy(() -> jwtUtil.validateToken(tampered, "alice"))
+                .isInstanceOf(JwtException.class);
+            assertThat(jwtUtil.getVerifiedCacheSize()).isZero();
+        }
+
+        @Test
+        void shouldRejectTokenSignedWithAnotherKey() {
+            JwtUtil other = new JwtUtil("another-secret-key-that-is-at-least-256-bits!!", EXPIRATION, 3, clock);
+            String token = other.generateToken(42L, "alice");
+
+            assertThatThrownBy(() -> jwtUtil.getUserIdFromToken(token))
+                .isInstanceOf(JwtException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("verified-token cache")
+    class CacheTests {
+        @Test
+        void shouldServeRepeatVerificationsFromCache() {
+            String token = jwtUtil.generateToken(42L, "alice");
+
+            Claims first = jwtUtil.getAllClaimsFromToken(token);
+            Claims second = jwtUtil.getAllClaimsFromToken(token);
+
+            assertThat(second).isSameAs(first);
+            assertThat(jwtUtil.getVerifiedCacheSize()).isEqualTo(1);
+        }
+
+        @Test
+        void shouldRejectCachedTokenOnceExpired() {
+            String token = jwtUtil.generateToken(42L, "alice");
+            assertThat(jwtUtil.validateToken(token, "alice")).isTrue();
+
+            clock.advance(Duration.ofMillis(EXPIRATION).plusSeconds(1));
+
+            assertThatThrownBy(() -> jwtUtil.validateToken(token, "alice"))
+                .isInstanceOf(ExpiredJwtException.class);
+            assertThat(jwtUtil.getVerifiedCacheSize()).isZero();
+        }
+
+        @Test
+        void shouldStayWithinCapacity() {
+            for (int i = 0; i < 10; i++) {
+                String token = jwtUtil.generateToken((long) i, "user" + i);
+                assertThat(jwtUtil.getUserIdFromToken(token)).isEqualTo((long) i);
+            }
+
+            assertThat(jwtUtil.getVerifiedCacheSize()).isLessThanOrEqualTo(3);
+        }
+
+        @Test
+        void shouldVerifyEveryCallWhenDisabled() {
+            JwtUtil uncached = new JwtUtil(SECRET, EXPIRATION, 0, clock);
+            String token = uncached.generateToken(42L, "alice");
+
+            assertThat(uncached.validateToken(token, "alice")).isTrue();
+            assertThat(uncached.getAllClaimsFromToken(token)).isNotSameAs(uncached.getAllClaimsFromToken(token));
+            assertThat(uncached.getVerifiedCacheSize()).isZero();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-02T15:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.yourorg.portfolio.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("KeywordMatcher Tests")
+class KeywordMatcherTest {
+
+    private static List<String> matches(KeywordMatcher<String> matcher, String text) {
+        List<String> found = new ArrayList<>();
+        matcher.scan(text, (value, first, last) -> found.add(value + "@" + first + "-" + last));
+        return found;
+    }
+
+    @Test
+    void shouldFindEveryKeywordInOnePass() {
+        KeywordMatcher<String> matcher = KeywordMatcher.<String>builder()
+            .add("he", "he")
+            .add("she", "she")
+            .add("his", "his")
+            .add("hers", "hers")
+            .build();
+
+        assertThat(matches(matcher, "she said his and hers")).containsExactly("she@0-0", "his@2-2", "hers@4-4");
+    }
+
+    @Test
+    void shouldMatchWholeWordsOnly() {
+        KeywordMatcher<String> matcher = KeywordMatcher.<String>builder().add("sell", "sell").build();
+
+        assertThat(matches(matcher, "a bestseller, resell or selling")).isEmpty();
+        assertThat(matches(matcher, "Should I SELL?")).containsExactly("sell@2-2");
+    }
+
+    @Test
+    void shouldMatchPhrasesAcrossAnyWhitespaceAndOverlappingKeywords() {
+        KeywordMatcher<String> matcher = KeywordMatcher.<String>builder()
+            .add("value at risk", "var")
+            .add("risk", "risk")
+            .build();
+
+        assertThat(matches(matcher, "my Value  at\tRisk")).containsExactly("risk@3-3", "var@1-3");
+    }
+
+    @Test
+    void shouldTreatPunctuationAsTokensAndIgnoreApostrophes() {
+        KeywordMatcher<String> matcher = KeywordMatcher.<String>builder()
+            .add("don't", "negation")
+            .add("p/l", "pl")
+            .add("?", "question")
+            .build();
+
+        assertThat(matches(matcher, "I dont know my P / L?")).containsExactly("negation@1-1", "pl@4-6", "question@7-7");
+        assertThat(matches(matcher, "I don’t")).containsExactly("negation@1-1");
+    }
+
+    @Test
+    void shouldReportEveryValueOfADuplicateKeyword() {
+        KeywordMatcher<String> matcher = KeywordMatcher.<String>builder()
+            .add("buy", "first")
+            .add("BUY", "second")
+            .build();
+
+        assertThat(matches(matcher, "buy")).containsExactly("first@0-0", "second@0-0");
+    }
+
+    @Test
+    void shouldRejectBlankKeywords() {
+        assertThatThrownBy(() -> KeywordMatcher.<String>builder().add(" ' ", "blank"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
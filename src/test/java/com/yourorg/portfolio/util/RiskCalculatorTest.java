@@ -0,0 +1,84 @@
+package com.yourorg.portfolio.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.DoubleBuffer;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("RiskCalculator Tests")
+class RiskCalculatorTest {
+
+    private static double[] gaussian(long seed, int n, double sigma) {
+        Random random = new Random(seed);
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = random.nextGaussian() * sigma;
+        }
+        return values;
+    }
+
+    @Test
+    void shouldComputeLogReturns() {
+        double[] returns = RiskCalculator.logReturns(new double[]{100.0, 110.0, 99.0});
+
+        assertThat(returns).containsExactly(new double[]{Math.log(1.1), Math.log(0.9)}, within(1e-12));
+    }
+
+    @Test
+    void shouldAnnualizeVolatilityFromMappedClosesAndArraysAlike() {
+        double[] closes = {100, 101, 99.5, 102, 101, 103.5, 102.5};
+        double fromArray = RiskCalculator.annualize(
+            RiskCalculator.standardDeviation(RiskCalculator.logReturns(closes)));
+
+        assertThat(RiskCalculator.annualizedVolatility(DoubleBuffer.wrap(closes))).isCloseTo(fromArray, within(1e-12));
+    }
+
+    @Test
+    void shouldMatchPortfolioVolatilityOfWeightedReturns() {
+        double[] a = gaussian(1, 500, 0.01);
+        double[] b = gaussian(2, 500, 0.02);
+        double[] weights = {0.7, 0.3};
+        double[][] returns = {a, b};
+
+        double fromCovariance = RiskCalculator.portfolioVolatility(weights, RiskCalculator.covarianceMatrix(returns));
+        double direct = RiskCalculator.standardDeviation(RiskCalculator.portfolioReturns(weights, returns));
+
+        assertThat(fromCovariance).isCloseTo(direct, within(1e-12));
+    }
+
+    @Test
+    void shouldRecoverBetaOfLeveragedSeries() {
+        double[] market = gaussian(3, 2000, 0.01);
+        double[] noise = gaussian(4, 2000, 0.002);
+        double[] asset = new double[market.length];
+        for (int i = 0; i < asset.length; i++) {
+            asset[i] = 1.5 * market[i] + noise[i];
+        }
+
+        assertThat(RiskCalculator.beta(asset, market)).isCloseTo(1.5, within(0.02));
+    }
+
+    @Test
+    void shouldAgreeOnVaRForNormalReturns() {
+        double[] returns = gaussian(5, 20_000, 0.01);
+
+        // z(0.05) = -1.645 and the normal tail mean is 2.063 sigma
+        assertThat(RiskCalculator.parametricVaR(0.0, 0.01, 0.95)).isCloseTo(0.016449, within(1e-6));
+        assertThat(RiskCalculator.parametricCVaR(0.0, 0.01, 0.95)).isCloseTo(0.020627, within(1e-6));
+        assertThat(RiskCalculator.historicalVaR(returns, 0.95)).isCloseTo(0.01645, within(0.0005));
+        assertThat(RiskCalculator.historicalCVaR(returns, 0.95)).isCloseTo(0.02063, within(0.0005));
+    }
+
+    @Test
+    void shouldScoreConcentrationBelowEvenWeights() {
+        String[] sectors = {"Technology", "Healthcare", "Energy"};
+        String[] industries = {"Software", "Pharma", "Oil"};
+
+        assertThat(RiskCalculator.calculateDiversificationScore(new double[]{0.9, 0.05, 0.05}, sectors, industries))
+            .isLessThan(RiskCalculator.calculateDiversificationScore(new double[]{1 / 3.0, 1 / 3.0, 1 / 3.0}, sectors, industries));
+    }
+}
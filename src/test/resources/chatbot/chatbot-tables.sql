@@ -0,0 +1,13 @@
+-- The chatbot tables of schema.sql, without the foreign keys to users
+CREATE TABLE IF NOT EXISTS chatbot_consent (
+    user_id BIGINT PRIMARY KEY,
+    granted_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS chatbot_messages (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    role VARCHAR(10) NOT NULL,
+    content TEXT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);